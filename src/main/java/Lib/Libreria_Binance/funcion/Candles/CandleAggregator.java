@@ -0,0 +1,206 @@
+package Lib.Libreria_Binance.funcion.Candles;
+
+import Lib.Libreria_Binance.funcion.Decimal.Fijo;
+import Lib.Libreria_Binance.funcion.RealTrades.AggTradeEvent;
+import Lib.Libreria_Binance.funcion.RealTrades.ParserNumerico;
+import Lib.Libreria_Binance.funcion.RealTrades.TradeListener;
+import Lib.Libreria_Binance.funcion.Simbolos.SymbolRegistry;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+// Agrega los aggTrades en velas OHLCV de varios intervalos y símbolos a la vez.
+// Se registra como TradeListener de RealTimeTrades, así que escribe un único hilo; los lectores
+// de otros hilos usan snapshot(), que copia con lectura optimista sin bloquear al escritor
+public class CandleAggregator implements TradeListener {
+    public static final int CAPACIDAD_POR_DEFECTO = 1024;
+
+    private final Intervalo[] intervalos;
+    private final int capacidad;
+    // Copy-on-write: el escritor añade símbolos nuevos y los lectores recorren sin cerrojo
+    private volatile Simbolo[] simbolos = new Simbolo[0];
+    // Los mismos símbolos indexados por su id del SymbolRegistry (huecos a null)
+    private volatile Simbolo[] porId = new Simbolo[0];
+    // Último símbolo usado: con un solo stream se evita recorrer la lista
+    private Simbolo ultimo;
+
+    public CandleAggregator() {
+        this(EnumSet.allOf(Intervalo.class), CAPACIDAD_POR_DEFECTO);
+    }
+
+    // capacidad: velas guardadas por símbolo e intervalo (potencia de 2)
+    public CandleAggregator(Set<Intervalo> intervalos, int capacidad) {
+        if (intervalos.isEmpty()) {
+            throw new IllegalArgumentException("Hace falta al menos un intervalo");
+        }
+        if (Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser potencia de 2: " + capacidad);
+        }
+        this.intervalos = intervalos.toArray(new Intervalo[0]);
+        this.capacidad = capacidad;
+    }
+
+    // Registra un símbolo por adelantado; los desconocidos se registran con su primer trade
+    public synchronized void registrar(String symbol) {
+        buscar(SymbolRegistry.global().normalizar(symbol));
+    }
+
+    @Override
+    public void onTrade(AggTradeEvent evento) {
+        Simbolo simbolo = ultimo;
+        int id = evento.getIdSimbolo();
+        if (simbolo == null || (id >= 0 ? simbolo.id != id : !evento.simboloIgual(simbolo.nombre))) {
+            simbolo = localizar(evento);
+            ultimo = simbolo;
+        }
+        long precio = evento.getPrecio();
+        long cantidad = evento.getCantidad();
+        // Exacto en 128 bits y redondeado a 8 decimales: el volumen cotizado no acumula error de double.
+        // Si el producto no cabe en un long la serie satura y marca la vela
+        long cotizado;
+        try {
+            cotizado = Fijo.multiplicar(precio, ParserNumerico.ESCALA, cantidad, ParserNumerico.ESCALA, ParserNumerico.ESCALA);
+        } catch (ArithmeticException e) {
+            cotizado = Long.MAX_VALUE;
+        }
+        long tiempo = evento.getTiempoTrade();
+
+        long stamp = simbolo.lock.writeLock();
+        try {
+            for (CandleSeries serie : simbolo.series) {
+                if (serie != null) {
+                    serie.agregar(tiempo, precio, cantidad, cotizado);
+                }
+            }
+        } finally {
+            simbolo.lock.unlockWrite(stamp);
+        }
+    }
+
+    private Simbolo localizar(AggTradeEvent evento) {
+        int id = evento.getIdSimbolo();
+        Simbolo[] indice = porId;
+        if (id >= 0 && id < indice.length && indice[id] != null) return indice[id];
+        for (Simbolo s : simbolos) {
+            if (evento.simboloIgual(s.nombre)) {
+                // Registrado antes de cargar el SymbolRegistry: a partir de ahora se localiza por id
+                if (id >= 0) registrarNuevo(s.nombre);
+                return s;
+            }
+        }
+        // Solo se crea el String la primera vez que aparece un símbolo que el registro no conoce
+        return registrarNuevo(id >= 0 ? SymbolRegistry.global().nombre(id) : evento.getSimbolo().toUpperCase(Locale.ROOT));
+    }
+
+    private synchronized Simbolo registrarNuevo(String nombre) {
+        return buscar(nombre);
+    }
+
+    private Simbolo buscar(String nombre) {
+        Simbolo encontrado = null;
+        for (Simbolo s : simbolos) {
+            if (s.nombre.equals(nombre)) {
+                encontrado = s;
+                break;
+            }
+        }
+        if (encontrado == null) {
+            encontrado = new Simbolo(nombre);
+            Simbolo[] copia = Arrays.copyOf(simbolos, simbolos.length + 1);
+            copia[copia.length - 1] = encontrado;
+            simbolos = copia;
+        }
+        indexar(encontrado);
+        return encontrado;
+    }
+
+    private void indexar(Simbolo simbolo) {
+        int id = SymbolRegistry.global().id(simbolo.nombre);
+        if (id < 0 || (id < porId.length && porId[id] == simbolo)) return;
+        simbolo.id = id;
+        Simbolo[] copia = Arrays.copyOf(porId, Math.max(porId.length, id + 1));
+        copia[id] = simbolo;
+        porId = copia;
+    }
+
+    // Copia las n últimas velas del símbolo e intervalo en destino (la más antigua primero).
+    // Devuelve cuántas velas se copiaron, 0 si el símbolo o el intervalo no existen
+    public int snapshot(String symbol, Intervalo intervalo, int n, CandleSnapshot destino) {
+        Simbolo simbolo = get(symbol);
+        if (simbolo == null) return 0;
+        CandleSeries serie = simbolo.series[intervalo.ordinal()];
+        if (serie == null) return 0;
+
+        StampedLock lock = simbolo.lock;
+        long stamp = lock.tryOptimisticRead();
+        int copiadas = serie.copiar(n, destino);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                copiadas = serie.copiar(n, destino);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return copiadas;
+    }
+
+    // Atajo para leer solo la vela en curso
+    public boolean ultimaVela(String symbol, Intervalo intervalo, CandleSnapshot destino) {
+        return snapshot(symbol, intervalo, 1, destino) == 1;
+    }
+
+    // Trades descartados por llegar después de cerrar su vela
+    public long getTardios(String symbol, Intervalo intervalo) {
+        Simbolo simbolo = get(symbol);
+        if (simbolo == null || simbolo.series[intervalo.ordinal()] == null) return 0;
+        long stamp = simbolo.lock.readLock();
+        try {
+            return simbolo.series[intervalo.ordinal()].tardios;
+        } finally {
+            simbolo.lock.unlockRead(stamp);
+        }
+    }
+
+    public String[] getSimbolos() {
+        Simbolo[] actuales = simbolos;
+        String[] nombres = new String[actuales.length];
+        for (int i = 0; i < actuales.length; i++) {
+            nombres[i] = actuales[i].nombre;
+        }
+        return nombres;
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    private Simbolo get(String symbol) {
+        int id = SymbolRegistry.global().id(symbol);
+        Simbolo[] indice = porId;
+        if (id >= 0 && id < indice.length && indice[id] != null) return indice[id];
+        for (Simbolo s : simbolos) {
+            if (s.nombre.equalsIgnoreCase(symbol)) return s;
+        }
+        return null;
+    }
+
+    // Series de un símbolo, indexadas por Intervalo.ordinal(); null si el intervalo no se agrega
+    private final class Simbolo {
+        private final String nombre;
+        // Id del SymbolRegistry; lo fija el escritor al indexar el símbolo
+        private int id = SymbolRegistry.NO_ENCONTRADO;
+        private final StampedLock lock = new StampedLock();
+        private final CandleSeries[] series = new CandleSeries[Intervalo.values().length];
+
+        private Simbolo(String nombre) {
+            this.nombre = nombre;
+            for (Intervalo intervalo : intervalos) {
+                series[intervalo.ordinal()] = new CandleSeries(intervalo, capacidad);
+            }
+        }
+    }
+}
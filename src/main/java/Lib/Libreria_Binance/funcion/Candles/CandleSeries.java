@@ -0,0 +1,112 @@
+package Lib.Libreria_Binance.funcion.Candles;
+
+// Velas de un símbolo e intervalo en un buffer circular columnar: un array primitivo por campo
+// en lugar de un objeto por vela. Precios y volúmenes en punto fijo (ParserNumerico.ESCALA).
+// Con 8 decimales un long admite ~9,2e10 unidades: los volúmenes que lo superan (monedas con
+// precio muy bajo en velas de 1h) se quedan en Long.MAX_VALUE y la vela se marca desbordada.
+// No es thread-safe: el CandleAggregator la protege con el cerrojo de su símbolo
+final class CandleSeries {
+    private final Intervalo intervalo;
+    private final int mascara;
+    final long[] apertura;
+    final long[] open;
+    final long[] high;
+    final long[] low;
+    final long[] close;
+    final long[] volumen;
+    final long[] volumenCotizado;
+    final long[] trades;
+    final boolean[] desbordada;
+    // Número total de velas creadas; la actual está en (total - 1) & mascara
+    long total;
+    long tardios;
+
+    CandleSeries(Intervalo intervalo, int capacidad) {
+        if (Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser potencia de 2: " + capacidad);
+        }
+        this.intervalo = intervalo;
+        this.mascara = capacidad - 1;
+        apertura = new long[capacidad];
+        open = new long[capacidad];
+        high = new long[capacidad];
+        low = new long[capacidad];
+        close = new long[capacidad];
+        volumen = new long[capacidad];
+        volumenCotizado = new long[capacidad];
+        trades = new long[capacidad];
+        desbordada = new boolean[capacidad];
+    }
+
+    void agregar(long tiempoMs, long precio, long cantidad, long cotizado) {
+        long inicio = intervalo.apertura(tiempoMs);
+        int i = (int) ((total - 1) & mascara);
+        if (total == 0 || inicio > apertura[i]) {
+            total++;
+            i = (int) ((total - 1) & mascara);
+            apertura[i] = inicio;
+            open[i] = precio;
+            high[i] = precio;
+            low[i] = precio;
+            close[i] = precio;
+            volumen[i] = cantidad;
+            volumenCotizado[i] = cotizado;
+            trades[i] = 1;
+            desbordada[i] = cotizado == Long.MAX_VALUE;
+            return;
+        }
+        if (inicio < apertura[i]) {
+            // Trade de una vela ya cerrada: no se reescribe la historia
+            tardios++;
+            return;
+        }
+        if (precio > high[i]) high[i] = precio;
+        if (precio < low[i]) low[i] = precio;
+        close[i] = precio;
+        volumen[i] = sumar(volumen[i], cantidad, i);
+        volumenCotizado[i] = sumar(volumenCotizado[i], cotizado, i);
+        trades[i]++;
+    }
+
+    // Suma saturada de volúmenes (nunca negativos): al desbordar marca la vela
+    private long sumar(long acumulado, long valor, int i) {
+        long suma = acumulado + valor;
+        if (suma < acumulado || valor == Long.MAX_VALUE) {
+            desbordada[i] = true;
+            return Long.MAX_VALUE;
+        }
+        return suma;
+    }
+
+    Intervalo getIntervalo() {
+        return intervalo;
+    }
+
+    int getCapacidad() {
+        return mascara + 1;
+    }
+
+    int getDisponibles() {
+        return (int) Math.min(total, mascara + 1);
+    }
+
+    // Copia las n últimas velas en orden cronológico; devuelve cuántas se copiaron
+    int copiar(int n, CandleSnapshot destino) {
+        int cantidad = Math.min(Math.min(n, getDisponibles()), destino.getCapacidad());
+        long primera = total - cantidad;
+        for (int k = 0; k < cantidad; k++) {
+            int i = (int) ((primera + k) & mascara);
+            destino.apertura[k] = apertura[i];
+            destino.open[k] = open[i];
+            destino.high[k] = high[i];
+            destino.low[k] = low[i];
+            destino.close[k] = close[i];
+            destino.volumen[k] = volumen[i];
+            destino.volumenCotizado[k] = volumenCotizado[i];
+            destino.trades[k] = trades[i];
+            destino.desbordada[k] = desbordada[i];
+        }
+        destino.tamano = cantidad;
+        return cantidad;
+    }
+}
@@ -0,0 +1,104 @@
+package Lib.Libreria_Binance.funcion.Candles;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import Lib.Libreria_Binance.funcion.Decimal.Fijo;
+import Lib.Libreria_Binance.funcion.RealTrades.ParserNumerico;
+
+// Copia columnar de las últimas velas de una serie. Se puede reutilizar entre lecturas
+// para no crear objetos; el índice 0 es la vela más antigua y tamano - 1 la actual
+public class CandleSnapshot {
+    final long[] apertura;
+    final long[] open;
+    final long[] high;
+    final long[] low;
+    final long[] close;
+    final long[] volumen;
+    final long[] volumenCotizado;
+    final long[] trades;
+    final boolean[] desbordada;
+    int tamano;
+
+    public CandleSnapshot(int capacidad) {
+        apertura = new long[capacidad];
+        open = new long[capacidad];
+        high = new long[capacidad];
+        low = new long[capacidad];
+        close = new long[capacidad];
+        volumen = new long[capacidad];
+        volumenCotizado = new long[capacidad];
+        trades = new long[capacidad];
+        desbordada = new boolean[capacidad];
+    }
+
+    public int getCapacidad() {
+        return apertura.length;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    // Inicio de la vela en milisegundos
+    public long getApertura(int i) {
+        return apertura[i];
+    }
+
+    // Precios y volumen en punto fijo (ParserNumerico.ESCALA decimales)
+    public long getOpen(int i) {
+        return open[i];
+    }
+
+    public long getHigh(int i) {
+        return high[i];
+    }
+
+    public long getLow(int i) {
+        return low[i];
+    }
+
+    public long getClose(int i) {
+        return close[i];
+    }
+
+    public long getVolumen(int i) {
+        return volumen[i];
+    }
+
+    // Volumen en la moneda de cotización (suma de precio * cantidad), en punto fijo
+    public long getVolumenCotizadoFijo(int i) {
+        return volumenCotizado[i];
+    }
+
+    public double getVolumenCotizado(int i) {
+        return (double) volumenCotizado[i] / Fijo.potencia(ParserNumerico.ESCALA);
+    }
+
+    public long getTrades(int i) {
+        return trades[i];
+    }
+
+    // true si el volumen o el volumen cotizado no cupieron en un long: se quedan en
+    // Long.MAX_VALUE y el VWAP no es válido
+    public boolean isDesbordada(int i) {
+        return desbordada[i];
+    }
+
+    // Precio medio ponderado por volumen, en punto fijo (0 si la vela no tiene volumen o se desbordó)
+    public long getVwapFijo(int i) {
+        if (volumen[i] == 0 || desbordada[i]) return 0;
+        return Fijo.dividir(volumenCotizado[i], ParserNumerico.ESCALA, volumen[i], ParserNumerico.ESCALA, ParserNumerico.ESCALA);
+    }
+
+    public double getVwap(int i) {
+        return (double) getVwapFijo(i) / Fijo.potencia(ParserNumerico.ESCALA);
+    }
+
+    // Conversiones para mostrar; cada llamada crea un objeto
+    public Decimal getCloseDecimal(int i) {
+        return Decimal.de(close[i], ParserNumerico.ESCALA);
+    }
+
+    public Decimal getVolumenDecimal(int i) {
+        return Decimal.de(volumen[i], ParserNumerico.ESCALA);
+    }
+}
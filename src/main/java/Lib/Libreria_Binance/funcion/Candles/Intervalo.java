@@ -0,0 +1,32 @@
+package Lib.Libreria_Binance.funcion.Candles;
+
+import java.util.concurrent.TimeUnit;
+
+// Intervalos de vela soportados por el agregador, con el nombre que usa Binance
+public enum Intervalo {
+    S1("1s", TimeUnit.SECONDS.toMillis(1)),
+    M1("1m", TimeUnit.MINUTES.toMillis(1)),
+    M5("5m", TimeUnit.MINUTES.toMillis(5)),
+    H1("1h", TimeUnit.HOURS.toMillis(1));
+
+    private final String nombre;
+    private final long ms;
+
+    Intervalo(String nombre, long ms) {
+        this.nombre = nombre;
+        this.ms = ms;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long getMs() {
+        return ms;
+    }
+
+    // Inicio de la vela que contiene el instante indicado
+    public long apertura(long tiempoMs) {
+        return tiempoMs - Math.floorMod(tiempoMs, ms);
+    }
+}
@@ -0,0 +1,24 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Peticiones a la API de Binance con independencia del transporte: REST (Connect) o la
+// API WebSocket (WsApiConnect). Los endpoints y parámetros son siempre los de REST
+public interface ApiTransport {
+
+    // metodo: GET, POST, PUT o DELETE
+    <T> T signedRequest(String metodo, String endpoint, Map<String, String> params, ObjectReader lector)
+            throws IOException, InterruptedException;
+
+    <T> CompletableFuture<T> signedRequestAsync(String metodo, String endpoint, Map<String, String> params,
+                                                ObjectReader lector);
+
+    <T> T publicRequest(String endpoint, Map<String, String> params, ObjectReader lector)
+            throws IOException, InterruptedException;
+
+    <T> CompletableFuture<T> publicRequestAsync(String endpoint, Map<String, String> params, ObjectReader lector);
+}
@@ -0,0 +1,54 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+
+// Error devuelto por Binance en el cuerpo {"code": -xxxx, "msg": "..."} de una respuesta 4xx/5xx.
+// Algunos errores traen además un campo "data" con detalle (p. ej. cancelReplace)
+public class BinanceApiException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final int code;
+    private final String msg;
+    private final transient JsonNode data;
+
+    public BinanceApiException(int status, int code, String msg) {
+        this(status, code, msg, null);
+    }
+
+    public BinanceApiException(int status, int code, String msg, JsonNode data) {
+        super("Error de Binance " + code + " (HTTP " + status + "): " + msg);
+        this.status = status;
+        this.code = code;
+        this.msg = msg;
+        this.data = data;
+    }
+
+    // Copia los datos de otro error (para subclases más concretas)
+    protected BinanceApiException(BinanceApiException causa) {
+        super(causa.getMessage(), causa);
+        this.status = causa.status;
+        this.code = causa.code;
+        this.msg = causa.msg;
+        this.data = causa.data;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getMsg() {
+        return msg;
+    }
+
+    // Campo "data" del cuerpo de error, o null si no venía
+    public JsonNode getData() {
+        return data;
+    }
+}
@@ -0,0 +1,211 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Estima la diferencia entre el reloj local y el de Binance con /api/v3/time al estilo NTP:
+// offset = horaServidor - (envío + recepción) / 2. Se guardan las últimas muestras y se usa
+// la de menor RTT, que es la que menos error de asimetría tiene. Connect lo usa para los
+// timestamps de las peticiones firmadas y para elegir recvWindow
+public class ClockSync {
+    private static final int MAX_MUESTRAS = 8;
+    private static final int MUESTRAS_POR_SINCRONIZACION = 4;
+    private static final long PERIODO_MS = TimeUnit.MINUTES.toMillis(5);
+    // Tras un fallo no se vuelve a intentar en cada petición
+    private static final long REINTENTO_MS = TimeUnit.SECONDS.toMillis(30);
+    // recvWindow que aplica Binance si no se envía
+    public static final long RECV_WINDOW_POR_DEFECTO = 5000;
+    private static final long RECV_WINDOW_MINIMO = 1000;
+    private static final long RECV_WINDOW_MAXIMO = 60000;
+    private static final long MARGEN_RECV_WINDOW_MS = 1000;
+
+    private final Connect connect;
+    private final long[] offsets = new long[MAX_MUESTRAS];
+    private final long[] rtts = new long[MAX_MUESTRAS];
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+    private int numMuestras;
+    private int siguiente;
+    private ScheduledExecutorService planificador;
+
+    private volatile long offsetMs;
+    private volatile long rttMs;
+    private volatile long rttMaximoMs;
+    private volatile double jitterMs;
+    private volatile boolean sincronizado;
+    private volatile long ultimoIntentoNanos;
+    private final AtomicLong sincronizaciones = new AtomicLong();
+    private boolean periodico;
+
+    public ClockSync(Connect connect) {
+        this.connect = connect;
+    }
+
+    // Hora de Binance estimada en milisegundos
+    public long ahora() {
+        return System.currentTimeMillis() + offsetMs;
+    }
+
+    // Toma varias muestras seguidas y recalcula el offset
+    public void sincronizar() throws IOException, InterruptedException {
+        ultimoIntentoNanos = System.nanoTime();
+        for (int i = 0; i < MUESTRAS_POR_SINCRONIZACION; i++) {
+            muestra();
+        }
+        recalcular();
+        sincronizaciones.incrementAndGet();
+    }
+
+    // Sincroniza en segundo plano; si ya hay una sincronización en curso no lanza otra
+    public CompletableFuture<Void> sincronizarAsync() {
+        if (!enCurso.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                sincronizar();
+            } catch (IOException e) {
+                // Se sigue con el offset anterior
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                enCurso.set(false);
+            }
+        }, planificador());
+    }
+
+    // Sincroniza la primera vez y arranca la resincronización periódica. Si falla se sigue con
+    // el reloj local y no se reintenta hasta pasados REINTENTO_MS
+    public void asegurarSincronizado() throws InterruptedException {
+        if (sincronizado || esperandoReintento()) return;
+        if (!enCurso.compareAndSet(false, true)) return;
+        try {
+            sincronizar();
+            iniciarPeriodico();
+        } catch (IOException e) {
+            // Sin /api/v3/time la propia petición fallará y dará el error real
+        } finally {
+            enCurso.set(false);
+        }
+    }
+
+    // Igual que asegurarSincronizado pero sin bloquear: la sincronización va en segundo plano.
+    // Respeta REINTENTO_MS, así que sin /api/v3/time no se lanza una por cada petición
+    public void asegurarSincronizadoAsync() {
+        if (sincronizado || esperandoReintento()) return;
+        sincronizarAsync().thenRun(() -> {
+            if (sincronizado) iniciarPeriodico();
+        });
+    }
+
+    private boolean esperandoReintento() {
+        return ultimoIntentoNanos != 0 && System.nanoTime() - ultimoIntentoNanos < TimeUnit.MILLISECONDS.toNanos(REINTENTO_MS);
+    }
+
+    public synchronized void iniciarPeriodico() {
+        if (periodico) return;
+        periodico = true;
+        planificador().scheduleWithFixedDelay(() -> sincronizarAsync(), PERIODO_MS, PERIODO_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void detener() {
+        if (planificador != null) {
+            planificador.shutdownNow();
+            planificador = null;
+            periodico = false;
+        }
+    }
+
+    private synchronized ScheduledExecutorService planificador() {
+        if (planificador == null) {
+            planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread hilo = new Thread(r, "clock-sync");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        return planificador;
+    }
+
+    private void muestra() throws IOException, InterruptedException {
+        long envio = System.currentTimeMillis();
+        long inicio = System.nanoTime();
+        JsonNode respuesta = connect.publicRequest("/api/v3/time", new HashMap<>(), JsonReaders.JSON_NODE);
+        long rtt = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        long servidor = respuesta.path("serverTime").asLong();
+        if (servidor <= 0) {
+            throw new IOException("Respuesta de /api/v3/time sin serverTime");
+        }
+        synchronized (this) {
+            offsets[siguiente] = servidor - (envio + rtt / 2);
+            rtts[siguiente] = rtt;
+            siguiente = (siguiente + 1) % MAX_MUESTRAS;
+            numMuestras = Math.min(numMuestras + 1, MAX_MUESTRAS);
+        }
+    }
+
+    private synchronized void recalcular() {
+        if (numMuestras == 0) return;
+        int mejor = 0;
+        long maximo = 0;
+        double media = 0;
+        for (int i = 0; i < numMuestras; i++) {
+            if (rtts[i] < rtts[mejor]) mejor = i;
+            maximo = Math.max(maximo, rtts[i]);
+            media += offsets[i];
+        }
+        media /= numMuestras;
+        double varianza = 0;
+        for (int i = 0; i < numMuestras; i++) {
+            varianza += (offsets[i] - media) * (offsets[i] - media);
+        }
+        offsetMs = offsets[mejor];
+        rttMs = rtts[mejor];
+        rttMaximoMs = maximo;
+        jitterMs = Math.sqrt(varianza / numMuestras);
+        sincronizado = true;
+    }
+
+    // recvWindow que cubre el RTT observado más la dispersión del offset, con un margen.
+    // Sin muestras se devuelve el valor por defecto de Binance
+    public long getRecvWindowRecomendado() {
+        if (!sincronizado) return RECV_WINDOW_POR_DEFECTO;
+        long ventana = rttMaximoMs + (long) Math.ceil(4 * jitterMs) + MARGEN_RECV_WINDOW_MS;
+        return Math.max(RECV_WINDOW_MINIMO, Math.min(RECV_WINDOW_MAXIMO, ventana));
+    }
+
+    public boolean isSincronizado() {
+        return sincronizado;
+    }
+
+    // Hora de Binance menos hora local
+    public long getOffsetMs() {
+        return offsetMs;
+    }
+
+    // RTT de la muestra elegida
+    public long getRttMs() {
+        return rttMs;
+    }
+
+    // Desviación típica de los offsets de la ventana de muestras
+    public double getJitterMs() {
+        return jitterMs;
+    }
+
+    public synchronized int getNumMuestras() {
+        return numMuestras;
+    }
+
+    public long getSincronizaciones() {
+        return sincronizaciones.get();
+    }
+}
@@ -1,28 +1,53 @@
 package Lib.Libreria_Binance.funcion.Connect;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import Lib.Libreria_Binance.funcion.Metricas.EndpointMetrics;
+import Lib.Libreria_Binance.funcion.Metricas.MetricRegistry;
+import Lib.Libreria_Binance.funcion.Modelo.ExchangeInfo;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Modelo.RateLimit;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
-public class Connect {
+public class Connect implements ApiTransport {
     private final String apiKey;
-    private final String secretKey;
-    private final HttpClient client;
+    private final HmacSigner signer;
+    private final HttpTransport transporte;
     private final String baseUrl;
+    private volatile RateLimiter rateLimiter = RateLimiter.porDefecto();
+    private volatile InFlightLimiter enVuelo = new InFlightLimiter(MAX_EN_VUELO_POR_DEFECTO);
+    private volatile ResponseCache cache = new ResponseCache();
+    // Se crea en el primer uso (reloj()): pasar this desde el constructor lo publicaría a medio construir
+    private volatile ClockSync reloj;
 
     // URLs para producción y testing
     private static final String PROD_URL = "https://api.binance.com";
     private static final String TEST_URL = "https://testnet.binance.vision";
 
+    // Error de Binance: timestamp fuera de recvWindow
+    static final int TIMESTAMP_FUERA_DE_VENTANA = -1021;
+
+    // Peticiones asíncronas simultáneas por defecto
+    private static final int MAX_EN_VUELO_POR_DEFECTO = 32;
+
+    // Caracteres de un cuerpo de error que no es JSON que se guardan como mensaje
+    private static final int MAX_TEXTO_ERROR = 200;
+
     // Constructor para producción (comportamiento por defecto)
     public Connect(String apiKey, String secretKey) {
         this(apiKey, secretKey, false);
@@ -30,76 +55,438 @@ public class Connect {
 
     // Constructor que permite especificar si es testing
     public Connect(String apiKey, String secretKey, boolean isTestnet) {
-        this.apiKey = apiKey;
-        this.secretKey = secretKey;
-        this.baseUrl = isTestnet ? TEST_URL : PROD_URL;
-        this.client = HttpClient.newHttpClient();
+        this(apiKey, secretKey, isTestnet ? TEST_URL : PROD_URL);
     }
 
     // Constructor que permite especificar URL personalizada
     public Connect(String apiKey, String secretKey, String customBaseUrl) {
+        this(apiKey, secretKey, customBaseUrl, HttpTransport.global());
+    }
+
+    // Con un transporte propio en vez del compartido (otros timeouts, sin gzip...)
+    public Connect(String apiKey, String secretKey, String customBaseUrl, HttpTransport transporte) {
         this.apiKey = apiKey;
-        this.secretKey = secretKey;
+        this.signer = new HmacSigner(secretKey);
         this.baseUrl = customBaseUrl;
-        this.client = HttpClient.newHttpClient();
+        this.transporte = transporte;
     }
 
     public String signedRequest(String endpoint, Map<String, String> params) throws IOException, InterruptedException {
-        long timestamp = Instant.now().toEpochMilli();
-        params.put("timestamp", String.valueOf(timestamp));
+        return signedRequest("GET", endpoint, params);
+    }
+
+    // Petición firmada con el método indicado (GET, POST, PUT o DELETE). En GET los parámetros
+    // van en la query; en el resto van en el cuerpo como application/x-www-form-urlencoded
+    public String signedRequest(String metodo, String endpoint, Map<String, String> params)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = enviarFirmada(metodo, endpoint, params, transporte.texto());
+        if (response.statusCode() == 400 && response.body().contains("\"code\":" + TIMESTAMP_FUERA_DE_VENTANA)) {
+            // El reloj se ha desviado: se resincroniza y se repite una vez
+            reloj().sincronizar();
+            response = enviarFirmada(metodo, endpoint, params, transporte.texto());
+        }
+        return response.body();
+    }
+
+    // Petición firmada que decodifica la respuesta directamente desde el stream con el lector indicado
+    public <T> T signedRequest(String endpoint, Map<String, String> params, ObjectReader lector)
+            throws IOException, InterruptedException {
+        return signedRequest("GET", endpoint, params, lector);
+    }
+
+    @Override
+    public <T> T signedRequest(String metodo, String endpoint, Map<String, String> params, ObjectReader lector)
+            throws IOException, InterruptedException {
+        try {
+            return decodificar(enviarFirmada(metodo, endpoint, params, transporte.flujo()), lector);
+        } catch (BinanceApiException e) {
+            // Un -1021 significa que Binance rechazó la petición: repetirla no duplica órdenes
+            if (e.getCode() != TIMESTAMP_FUERA_DE_VENTANA) throw e;
+            reloj().sincronizar();
+            return decodificar(enviarFirmada(metodo, endpoint, params, transporte.flujo()), lector);
+        }
+    }
 
-        String queryString = buildQueryString(params);
-        String signature = generateSignature(queryString);
-        String finalUrl = baseUrl + endpoint + "?" + queryString + "&signature=" + signature;
+    // Petición firmada GET que devuelve el cuerpo sin leer, para procesarlo según llega (por
+    // ejemplo con Tabla en modo streaming). Quien llama debe cerrar el InputStream
+    public InputStream signedRequestStream(String endpoint, Map<String, String> params)
+            throws IOException, InterruptedException {
+        try {
+            return cuerpoOError(enviarFirmada("GET", endpoint, params, transporte.flujo()));
+        } catch (BinanceApiException e) {
+            if (e.getCode() != TIMESTAMP_FUERA_DE_VENTANA) throw e;
+            reloj().sincronizar();
+            return cuerpoOError(enviarFirmada("GET", endpoint, params, transporte.flujo()));
+        }
+    }
+
+    private <T> HttpResponse<T> enviarFirmada(String metodo, String endpoint, Map<String, String> params,
+                                              HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        RateLimiter limitador = rateLimiter;
+        if (limitador != null) {
+            limitador.adquirir(metodo, endpoint, params, esOrden(metodo, endpoint));
+        }
+        reloj().asegurarSincronizado();
+        // El timestamp se pone después de esperar al limitador para no caducar en la cola
+        return enviar(crearPeticionFirmada(metodo, endpoint, params), handler, limitador, endpoint);
+    }
+
+    // Las órdenes nuevas (también la parte nueva de cancelReplace) gastan del cubo ORDERS;
+    // las cancelaciones y las órdenes de prueba no
+    static boolean esOrden(String metodo, String endpoint) {
+        return "POST".equals(metodo) && endpoint.startsWith("/api/v3/order")
+                && !endpoint.equals("/api/v3/order/test");
+    }
+
+    // Método para requests públicos (sin firma)
+    public String publicRequest(String endpoint, Map<String, String> params) throws IOException, InterruptedException {
+        RateLimiter limitador = rateLimiter;
+        if (limitador != null) {
+            limitador.adquirir(endpoint, params, false);
+        }
+        return enviar(crearPeticionPublica(endpoint, params), transporte.texto(), limitador, endpoint).body();
+    }
+
+    // Petición pública decodificada directamente desde el stream
+    @Override
+    public <T> T publicRequest(String endpoint, Map<String, String> params, ObjectReader lector)
+            throws IOException, InterruptedException {
+        RateLimiter limitador = rateLimiter;
+        if (limitador != null) {
+            limitador.adquirir(endpoint, params, false);
+        }
+        return decodificar(enviar(crearPeticionPublica(endpoint, params), transporte.flujo(),
+                limitador, endpoint), lector);
+    }
+
+    // Petición pública que devuelve el cuerpo sin leer; quien llama debe cerrar el InputStream
+    public InputStream publicRequestStream(String endpoint, Map<String, String> params)
+            throws IOException, InterruptedException {
+        RateLimiter limitador = rateLimiter;
+        if (limitador != null) {
+            limitador.adquirir(endpoint, params, false);
+        }
+        return cuerpoOError(enviar(crearPeticionPublica(endpoint, params), transporte.flujo(),
+                limitador, endpoint));
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(finalUrl))
+    // Petición que solo lleva la API key, sin firma (endpoints USER_STREAM como /api/v3/userDataStream).
+    // metodo: GET, POST, PUT o DELETE; los parámetros van en la query
+    public String apiKeyRequest(String metodo, String endpoint, Map<String, String> params)
+            throws IOException, InterruptedException {
+        RateLimiter limitador = rateLimiter;
+        if (limitador != null) {
+            limitador.adquirir(metodo, endpoint, params, false);
+        }
+        HttpRequest request = transporte.peticion(uriConQuery(endpoint, params))
                 .header("X-MBX-APIKEY", apiKey)
-                .GET()
+                .method(metodo, HttpRequest.BodyPublishers.noBody())
                 .build();
+        HttpResponse<InputStream> response = enviar(request, transporte.flujo(), limitador, endpoint);
+        return decodificar(response, JsonReaders.JSON_NODE).toString();
+    }
+
+    // Convierte el cuerpo en el tipo pedido o lanza BinanceApiException si es un error
+    private static <T> T decodificar(HttpResponse<InputStream> response, ObjectReader lector) throws IOException {
+        try (InputStream body = response.body()) {
+            if (response.statusCode() >= 400) {
+                BinanceApiException error = error(response.statusCode(), body.readAllBytes());
+                if (error.getCode() != 0) {
+                    MetricRegistry.global().contarErrorBinance(error.getCode());
+                }
+                throw error;
+            }
+            return lector.readValue(body);
+        }
+    }
+
+    // Los errores de Binance son {"code":...,"msg":...}; un proxy o la CDN pueden devolver HTML
+    // (502) o nada (429): también acaban en BinanceApiException, con código 0 y el texto recibido
+    static BinanceApiException error(int estado, byte[] cuerpo) {
+        JsonNode error = null;
+        try {
+            error = JsonReaders.MAPPER.readTree(cuerpo);
+        } catch (IOException e) {
+            // No es JSON
+        }
+        if (error != null && error.has("code")) {
+            return new BinanceApiException(estado, error.path("code").asInt(), error.path("msg").asText(), error.get("data"));
+        }
+        String texto = new String(cuerpo, 0, Math.min(cuerpo.length, MAX_TEXTO_ERROR), StandardCharsets.UTF_8).strip();
+        return new BinanceApiException(estado, 0, texto.isEmpty() ? "respuesta sin cuerpo" : texto);
+    }
 
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    // Cuerpo de una respuesta correcta; si es un error lo decodifica y lanza BinanceApiException
+    private static InputStream cuerpoOError(HttpResponse<InputStream> response) throws IOException {
+        if (response.statusCode() >= 400) {
+            decodificar(response, JsonReaders.JSON_NODE);
+        }
         return response.body();
     }
 
-    // Método para requests públicos (sin firma)
-    public String publicRequest(String endpoint, Map<String, String> params) throws IOException, InterruptedException {
-        String queryString = params.isEmpty() ? "" : "?" + buildQueryString(params);
-        String finalUrl = baseUrl + endpoint + queryString;
+    // Versión asíncrona de signedRequest: no bloquea el hilo que llama
+    public CompletableFuture<String> signedRequestAsync(String endpoint, Map<String, String> params) {
+        prepararRelojAsync();
+        return enviarAsync(() -> crearPeticionFirmada("GET", endpoint, params), "GET", endpoint, params, false)
+                .thenApply(HttpResponse::body);
+    }
+
+    // Versión asíncrona de publicRequest
+    public CompletableFuture<String> publicRequestAsync(String endpoint, Map<String, String> params) {
+        return enviarAsync(() -> crearPeticionPublica(endpoint, params), "GET", endpoint, params, false)
+                .thenApply(HttpResponse::body);
+    }
+
+    // Petición firmada asíncrona decodificada desde el stream; los errores de Binance
+    // completan el futuro con BinanceApiException
+    public <T> CompletableFuture<T> signedRequestAsync(String endpoint, Map<String, String> params, ObjectReader lector) {
+        return signedRequestAsync("GET", endpoint, params, lector);
+    }
+
+    // Igual, con el método indicado. Las peticiones simultáneas comparten la conexión HTTP/2
+    // (un stream por petición), así que varias órdenes se envían sin esperar unas a otras
+    @Override
+    public <T> CompletableFuture<T> signedRequestAsync(String metodo, String endpoint, Map<String, String> params,
+                                                       ObjectReader lector) {
+        prepararRelojAsync();
+        return enviarAsync(() -> crearPeticionFirmada(metodo, endpoint, params), metodo, endpoint, params,
+                esOrden(metodo, endpoint), transporte.flujo())
+                .thenApply(response -> Connect.<T>decodificarAsync(response, lector))
+                .whenComplete((valor, error) -> {
+                    Throwable causa = error instanceof CompletionException ? error.getCause() : error;
+                    if (causa instanceof BinanceApiException && ((BinanceApiException) causa).getCode() == TIMESTAMP_FUERA_DE_VENTANA) {
+                        reloj().sincronizarAsync();
+                    }
+                });
+    }
+
+    // Las peticiones asíncronas no esperan a la primera sincronización: se lanza en segundo plano,
+    // con la misma espera entre intentos fallidos que las síncronas
+    void prepararRelojAsync() {
+        reloj().asegurarSincronizadoAsync();
+    }
+
+    // Petición pública asíncrona decodificada desde el stream
+    @Override
+    public <T> CompletableFuture<T> publicRequestAsync(String endpoint, Map<String, String> params, ObjectReader lector) {
+        return enviarAsync(() -> crearPeticionPublica(endpoint, params), "GET", endpoint, params, false,
+                transporte.flujo())
+                .thenApply(response -> decodificarAsync(response, lector));
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(finalUrl))
+    // Petición pública servida desde la caché si la respuesta sigue vigente (TTL por endpoint)
+    public String publicRequestCached(String endpoint, Map<String, String> params)
+            throws IOException, InterruptedException {
+        return esperar(publicRequestCachedAsync(endpoint, params));
+    }
+
+    public <T> T publicRequestCached(String endpoint, Map<String, String> params, ObjectReader lector)
+            throws IOException, InterruptedException {
+        return esperar(publicRequestCachedAsync(endpoint, params, lector));
+    }
+
+    public CompletableFuture<String> publicRequestCachedAsync(String endpoint, Map<String, String> params) {
+        ResponseCache actual = cache;
+        if (actual == null) {
+            return publicRequestAsync(endpoint, params);
+        }
+        // Las respuestas de error no se guardan: se convierten en BinanceApiException
+        return actual.obtener(claveCache("texto", endpoint, params), actual.getTtl(endpoint),
+                () -> enviarAsync(() -> crearPeticionPublica(endpoint, params), "GET", endpoint, params, false)
+                        .thenApply(Connect::cuerpoSinError));
+    }
+
+    private static String cuerpoSinError(HttpResponse<String> response) {
+        if (response.statusCode() < 400) {
+            return response.body();
+        }
+        throw new CompletionException(error(response.statusCode(), response.body().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public <T> CompletableFuture<T> publicRequestCachedAsync(String endpoint, Map<String, String> params, ObjectReader lector) {
+        ResponseCache actual = cache;
+        if (actual == null) {
+            return publicRequestAsync(endpoint, params, lector);
+        }
+        // El tipo forma parte de la clave: la misma URL puede pedirse como String y como modelo
+        return actual.obtener(claveCache(lector.getValueType().toString(), endpoint, params), actual.getTtl(endpoint),
+                () -> publicRequestAsync(endpoint, params, lector));
+    }
+
+    // Clave estable: los parámetros se ordenan por nombre
+    private static String claveCache(String tipo, String endpoint, Map<String, String> params) {
+        StringBuilder clave = new StringBuilder(tipo).append(' ').append(endpoint);
+        char separador = '?';
+        for (Map.Entry<String, String> entry : new TreeMap<>(params).entrySet()) {
+            clave.append(separador).append(entry.getKey()).append('=').append(entry.getValue());
+            separador = '&';
+        }
+        return clave.toString();
+    }
+
+    // Espera un futuro y traduce el fallo a las excepciones de los métodos síncronos
+    static <T> T esperar(CompletableFuture<T> futuro) throws IOException, InterruptedException {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (causa instanceof IOException) throw (IOException) causa;
+            if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+            throw new IOException("Error en la petición", causa);
+        }
+    }
+
+    private static <T> T decodificarAsync(HttpResponse<InputStream> response, ObjectReader lector) {
+        try {
+            return decodificar(response, lector);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private HttpRequest crearPeticionFirmada(String metodo, String endpoint, Map<String, String> params) {
+        boolean enCuerpo = !"GET".equals(metodo);
+        try (RequestBuilder builder = RequestBuilder.local()) {
+            if (!enCuerpo) {
+                builder.url(baseUrl, endpoint);
+            }
+            // El timestamp lo pone siempre Connect, con la hora corregida respecto al servidor
+            builder.parametros(params, "timestamp");
+            if (!params.containsKey("recvWindow") && reloj().isSincronizado()) {
+                builder.parametro("recvWindow", reloj().getRecvWindowRecomendado());
+            }
+            builder.parametro("timestamp", reloj().ahora()).firmar(signer);
+
+            if (!enCuerpo) {
+                return transporte.peticion(builder.uri())
+                        .header("X-MBX-APIKEY", apiKey)
+                        .GET()
+                        .build();
+            }
+            return transporte.peticion(URI.create(baseUrl + endpoint))
+                    .header("X-MBX-APIKEY", apiKey)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .method(metodo, HttpRequest.BodyPublishers.ofByteArray(builder.cuerpo()))
+                    .build();
+        }
+    }
+
+    private HttpRequest crearPeticionPublica(String endpoint, Map<String, String> params) {
+        return transporte.peticion(uriConQuery(endpoint, params))
                 .GET()
                 .build();
+    }
 
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-        return response.body();
+    private URI uriConQuery(String endpoint, Map<String, String> params) {
+        try (RequestBuilder builder = RequestBuilder.local()) {
+            return builder.url(baseUrl, endpoint).parametros(params, null).uri();
+        }
     }
 
-    private String buildQueryString(Map<String, String> params) {
-        StringBuilder sb = new StringBuilder();
-        for (Map.Entry<String, String> entry : params.entrySet()) {
-            if (sb.length() > 0) sb.append("&");
-            sb.append(entry.getKey()).append("=").append(entry.getValue());
+    // Envía la petición, la mide y corrige el limitador con las cabeceras de respuesta
+    private <T> HttpResponse<T> enviar(HttpRequest request, HttpResponse.BodyHandler<T> handler, RateLimiter limitador,
+                                       String endpoint)
+            throws IOException, InterruptedException {
+        EndpointMetrics metricas = MetricRegistry.global().endpoint(endpoint);
+        HttpResponse<T> response;
+        try {
+            response = transporte.enviar(request, metricas.medir(handler));
+        } catch (IOException e) {
+            metricas.contarFallo();
+            throw e;
+        }
+        if (limitador != null) {
+            registrarRespuesta(limitador, response);
         }
-        return sb.toString();
+        contarErrorEnTexto(response);
+        return response;
     }
 
-    private String generateSignature(String data) {
+    // Los cuerpos en InputStream cuentan su error al decodificarse; los de texto se miran aquí
+    private static void contarErrorEnTexto(HttpResponse<?> response) {
+        if (response.statusCode() < 400 || !(response.body() instanceof String)) return;
+        String cuerpo = (String) response.body();
+        int clave = cuerpo.indexOf("\"code\":");
+        if (clave < 0) return;
+        int inicio = clave + 7;
+        int fin = inicio;
+        while (fin < cuerpo.length() && (cuerpo.charAt(fin) == '-' || Character.isDigit(cuerpo.charAt(fin)))) fin++;
         try {
-            Mac hmacSha256 = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            hmacSha256.init(secretKeySpec);
-            byte[] hash = hmacSha256.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder(2 * hash.length);
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
+            MetricRegistry.global().contarErrorBinance(Integer.parseInt(cuerpo, inicio, fin, 10));
+        } catch (NumberFormatException e) {
+            // Cuerpo de error que no es de Binance
+        }
+    }
+
+    // Envío asíncrono: respeta el máximo de peticiones en vuelo y espera al limitador sin bloquear
+    private CompletableFuture<HttpResponse<String>> enviarAsync(Supplier<HttpRequest> peticion, String metodo,
+                                                                String endpoint, Map<String, String> params,
+                                                                boolean esOrden) {
+        return enviarAsync(peticion, metodo, endpoint, params, esOrden, transporte.texto());
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> enviarAsync(Supplier<HttpRequest> peticion, String metodo,
+                                                               String endpoint, Map<String, String> params,
+                                                               boolean esOrden, HttpResponse.BodyHandler<T> handler) {
+        return enVuelo.ejecutar(() -> {
+            RateLimiter limitador = rateLimiter;
+            long espera = 0;
+            if (limitador != null) {
+                try {
+                    espera = limitador.reservar(metodo, endpoint, params, esOrden);
+                } catch (RateLimitExceededException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
             }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            throw new RuntimeException("Error al generar la firma", e);
+            CompletableFuture<HttpRequest> lista = espera > 0
+                    ? CompletableFuture.supplyAsync(peticion,
+                            CompletableFuture.delayedExecutor(espera, TimeUnit.MILLISECONDS))
+                    : CompletableFuture.completedFuture(peticion.get());
+            EndpointMetrics metricas = MetricRegistry.global().endpoint(endpoint);
+            return lista
+                    .thenCompose(request -> transporte.enviarAsync(request, metricas.medir(handler))
+                            .whenComplete((response, error) -> {
+                                if (error != null) metricas.contarFallo();
+                            }))
+                    .thenApply(response -> {
+                        if (limitador != null) {
+                            registrarRespuesta(limitador, response);
+                        }
+                        contarErrorEnTexto(response);
+                        return response;
+                    });
+        });
+    }
+
+    private void registrarRespuesta(RateLimiter limitador, HttpResponse<?> response) {
+        limitador.actualizar(response.headers());
+        // 429 = demasiadas peticiones, 418 = IP baneada temporalmente
+        if (response.statusCode() == 429 || response.statusCode() == 418) {
+            limitador.penalizar(response.headers());
+        }
+    }
+
+    // Descarga /api/v3/exchangeInfo y configura el limitador con sus rateLimits
+    public void cargarLimitesExchange() throws IOException, InterruptedException {
+        ExchangeInfo exchangeInfo = publicRequestCached("/api/v3/exchangeInfo", new HashMap<>(), JsonReaders.EXCHANGE_INFO);
+        configurarLimites(exchangeInfo.getRateLimits());
+    }
+
+    // Configura el limitador con los rateLimits ya descargados
+    public void configurarLimites(List<RateLimit> rateLimits) {
+        RateLimiter limitador = rateLimiter;
+        if (limitador != null) {
+            limitador.configurar(rateLimits);
+        }
+    }
+
+    // Configura el limitador con un array rateLimits en forma de árbol JSON
+    public void configurarLimites(JsonNode rateLimits) {
+        RateLimiter limitador = rateLimiter;
+        if (limitador != null) {
+            limitador.configurar(rateLimits);
         }
     }
 
@@ -108,7 +495,81 @@ public class Connect {
         return TEST_URL.equals(baseUrl);
     }
 
+    String getApiKey() {
+        return apiKey;
+    }
+
+    HmacSigner getSigner() {
+        return signer;
+    }
+
     public String getBaseUrl() {
         return baseUrl;
     }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    // Permite sustituir el limitador (null lo desactiva)
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    // Sincronización con el reloj del servidor (offset, RTT, jitter)
+    public ClockSync getClockSync() {
+        return reloj();
+    }
+
+    private ClockSync reloj() {
+        ClockSync actual = reloj;
+        if (actual == null) {
+            synchronized (this) {
+                actual = reloj;
+                if (actual == null) {
+                    actual = new ClockSync(this);
+                    reloj = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    // Permite sustituir la caché de respuestas públicas (null la desactiva)
+    public void setCache(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    public InFlightLimiter getInFlightLimiter() {
+        return enVuelo;
+    }
+
+    // Cambia el máximo de peticiones asíncronas en vuelo (afecta a las nuevas peticiones)
+    public void setMaxPeticionesEnVuelo(int maximo) {
+        this.enVuelo = new InFlightLimiter(maximo);
+    }
+
+    // Transporte HTTP (compartido por defecto): conexiones, versión HTTP y latencias
+    public HttpTransport getTransporte() {
+        return transporte;
+    }
+
+    // Abre la conexión con /api/v3/ping para que la primera petición real no pague TCP y TLS
+    public CompletableFuture<Void> calentar() {
+        return transporte.calentar(URI.create(baseUrl + "/api/v3/ping"));
+    }
+
+    // Mantiene la conexión abierta con /api/v3/ping si pasa 12,5 s sin tráfico (peso 1 por ping)
+    public void mantenerCaliente(boolean activo) {
+        URI ping = URI.create(baseUrl + "/api/v3/ping");
+        if (activo) {
+            transporte.mantenerCaliente(ping, HttpTransport.INTERVALO_CALENTAR);
+        } else {
+            transporte.dejarDeCalentar(ping);
+        }
+    }
 }
\ No newline at end of file
@@ -1,18 +1,42 @@
 package Lib.Libreria_Binance.funcion.Connect;
 
+import Lib.Libreria_Binance.funcion.Modelo.Account;
+import Lib.Libreria_Binance.funcion.Modelo.Balance;
+import Lib.Libreria_Binance.funcion.Modelo.ExchangeInfo;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Simbolos.SymbolRegistry;
+import Lib.Libreria_Binance.funcion.UserData.AccountMirror;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Map;
 
 public class ConnectionInfo {
     private final Connect connection;
-    private final ObjectMapper objectMapper;
+    private final AccountMirror mirror;
 
     public ConnectionInfo(Connect connection) {
+        this(connection, null);
+    }
+
+    // Con un AccountMirror arrancado los datos de cuenta se leen de su copia local sin ir a la API
+    public ConnectionInfo(Connect connection, AccountMirror mirror) {
         this.connection = connection;
-        this.objectMapper = new ObjectMapper();
+        this.mirror = mirror;
+    }
+
+    private Account cuenta() throws IOException, InterruptedException {
+        if (mirror != null && mirror.getSnapshot().getCuenta() != null) {
+            return mirror.getSnapshot().getCuenta();
+        }
+        return connection.signedRequest("/api/v3/account", new HashMap<>(), JsonReaders.ACCOUNT);
+    }
+
+    private Collection<Balance> balances(Account account) {
+        if (mirror != null && mirror.getSnapshot().getCuenta() != null) {
+            return mirror.getSnapshot().getBalances().values();
+        }
+        return account.getBalances();
     }
 
     public void obtenerInformacionConexion() {
@@ -29,29 +53,25 @@ public class ConnectionInfo {
         String pingResponse = connection.publicRequest("/api/v3/ping", new HashMap<>());
         System.out.println("Conexión: " + (pingResponse.equals("{}") ? "OK" : "Error"));
 
-        String timeResponse = connection.publicRequest("/api/v3/time", new HashMap<>());
-        JsonNode timeNode = objectMapper.readTree(timeResponse);
+        JsonNode timeNode = connection.publicRequestCached("/api/v3/time", new HashMap<>(), JsonReaders.JSON_NODE);
         System.out.println("Tiempo servidor: " + new java.util.Date(timeNode.get("serverTime").asLong()));
     }
 
     private void obtenerInfoCuenta() throws IOException, InterruptedException {
-        String accountInfo = connection.signedRequest("/api/v3/account", new HashMap<>());
-        JsonNode accountNode = objectMapper.readTree(accountInfo);
+        Account account = cuenta();
+        Collection<Balance> balances = balances(account);
 
         System.out.println("Modo: " + (connection.isTestnet() ? "TESTNET" : "PRODUCCIÓN"));
-        System.out.println("Tipo cuenta: " + accountNode.get("accountType").asText());
-        System.out.println("Trading habilitado: " + accountNode.get("canTrade").asBoolean());
-        System.out.println("Retiros habilitados: " + accountNode.get("canWithdraw").asBoolean());
-        System.out.println("Depósitos habilitados: " + accountNode.get("canDeposit").asBoolean());
-        System.out.println("Tiempo actualización: " + new java.util.Date(accountNode.get("updateTime").asLong()));
+        System.out.println("Tipo cuenta: " + account.getAccountType());
+        System.out.println("Trading habilitado: " + account.isCanTrade());
+        System.out.println("Retiros habilitados: " + account.isCanWithdraw());
+        System.out.println("Depósitos habilitados: " + account.isCanDeposit());
+        System.out.println("Tiempo actualización: " + new java.util.Date(account.getUpdateTime()));
 
         // Contar cantidad de activos con balance
-        JsonNode balances = accountNode.get("balances");
         int activosConBalance = 0;
-        for (JsonNode balance : balances) {
-            double free = balance.get("free").asDouble();
-            double locked = balance.get("locked").asDouble();
-            if (free > 0 || locked > 0) {
+        for (Balance balance : balances) {
+            if (balance.tieneSaldo()) {
                 activosConBalance++;
             }
         }
@@ -60,39 +80,33 @@ public class ConnectionInfo {
     }
 
     private void obtenerInfoExchange() throws IOException, InterruptedException {
-        String exchangeInfo = connection.publicRequest("/api/v3/exchangeInfo", new HashMap<>());
-        JsonNode exchangeNode = objectMapper.readTree(exchangeInfo);
+        // exchangeInfo pesa varios MB: se reutiliza mientras siga vigente en la caché de Connect
+        ExchangeInfo exchangeInfo = connection.publicRequestCached("/api/v3/exchangeInfo", new HashMap<>(), JsonReaders.EXCHANGE_INFO);
 
-        System.out.println("Zona horaria: " + exchangeNode.get("timezone").asText());
+        System.out.println("Zona horaria: " + exchangeInfo.getTimezone());
 
-        JsonNode symbols = exchangeNode.get("symbols");
-        int paresActivos = 0;
-        for (JsonNode symbol : symbols) {
-            if ("TRADING".equals(symbol.get("status").asText())) {
-                paresActivos++;
-            }
-        }
-        System.out.println("Pares de trading activos: " + paresActivos);
-        System.out.println("Total pares disponibles: " + symbols.size());
+        // El registro lleva la cuenta de pares activos; solo compara si el exchangeInfo es nuevo
+        SymbolRegistry simbolos = SymbolRegistry.global();
+        simbolos.actualizar(exchangeInfo);
+        System.out.println("Pares de trading activos: " + simbolos.getActivos());
+        System.out.println("Total pares disponibles: " + exchangeInfo.getSymbols().size());
 
-        // Rate limits info
-        JsonNode rateLimits = exchangeNode.get("rateLimits");
-        System.out.println("Límites de velocidad configurados: " + rateLimits.size());
+        // Rate limits info: se aprovechan para configurar el limitador de la conexión
+        connection.configurarLimites(exchangeInfo.getRateLimits());
+        System.out.println("Límites de velocidad configurados: " + exchangeInfo.getRateLimits().size());
     }
 
     public void obtenerEstadisticasCuenta() {
         try {
-            String accountInfo = connection.signedRequest("/api/v3/account", new HashMap<>());
-            JsonNode accountNode = objectMapper.readTree(accountInfo);
+            Account account = cuenta();
 
             System.out.println("=== ESTADÍSTICAS DE CUENTA ===");
-            System.out.println("Comisión maker: " + accountNode.get("makerCommission").asInt() + " (0.1% = 10)");
-            System.out.println("Comisión taker: " + accountNode.get("takerCommission").asInt() + " (0.1% = 10)");
-            System.out.println("Comisión compra: " + accountNode.get("buyerCommission").asInt());
-            System.out.println("Comisión venta: " + accountNode.get("sellerCommission").asInt());
+            System.out.println("Comisión maker: " + account.getMakerCommission() + " (0.1% = 10)");
+            System.out.println("Comisión taker: " + account.getTakerCommission() + " (0.1% = 10)");
+            System.out.println("Comisión compra: " + account.getBuyerCommission());
+            System.out.println("Comisión venta: " + account.getSellerCommission());
 
-            JsonNode balances = accountNode.get("balances");
-            System.out.println("Monedas soportadas por la cuenta: " + balances.size());
+            System.out.println("Monedas soportadas por la cuenta: " + balances(account).size());
 
             if (connection.isTestnet()) {
                 System.out.println("Fondos de prueba: ILIMITADOS (solicitar via faucet)");
@@ -103,4 +117,4 @@ public class ConnectionInfo {
             System.err.println("Error estadísticas: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
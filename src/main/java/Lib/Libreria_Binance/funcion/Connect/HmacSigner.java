@@ -0,0 +1,131 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+
+public class HmacSigner {
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    // Longitud en caracteres de una firma HMAC-SHA256 en hexadecimal
+    public static final int LONGITUD_FIRMA = 64;
+
+    private final SecretKeySpec clave;
+    private final Mac prototipo;
+    private final PorHilo<Estado> estado;
+
+    public HmacSigner(String secretKey) {
+        this.clave = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+        this.prototipo = nuevoMac();
+        this.estado = new PorHilo<>(() -> new Estado(clonarPrototipo()));
+    }
+
+    // Firma una cadena y devuelve la firma en hexadecimal
+    public String sign(CharSequence data) {
+        Estado e = estado.obtener();
+        try {
+            int len = e.codificar(data);
+            firmar(e, e.entrada, 0, len, e.hex, 0);
+            return new String(e.hex, 0, LONGITUD_FIRMA, StandardCharsets.US_ASCII);
+        } finally {
+            estado.devolver(e);
+        }
+    }
+
+    // Firma un rango de bytes y devuelve la firma en hexadecimal
+    public String sign(byte[] data, int offset, int length) {
+        Estado e = estado.obtener();
+        try {
+            firmar(e, data, offset, length, e.hex, 0);
+            return new String(e.hex, 0, LONGITUD_FIRMA, StandardCharsets.US_ASCII);
+        } finally {
+            estado.devolver(e);
+        }
+    }
+
+    // Firma un rango de bytes y escribe los 64 caracteres hex en destino, sin crear objetos
+    public int signInto(byte[] data, int offset, int length, byte[] destino, int destinoOffset) {
+        Estado e = estado.obtener();
+        try {
+            firmar(e, data, offset, length, destino, destinoOffset);
+        } finally {
+            estado.devolver(e);
+        }
+        return LONGITUD_FIRMA;
+    }
+
+    private void firmar(Estado e, byte[] data, int offset, int length, byte[] destino, int destinoOffset) {
+        try {
+            e.mac.update(data, offset, length);
+            e.mac.doFinal(e.digest, 0);
+        } catch (ShortBufferException ex) {
+            throw new RuntimeException("Error al generar la firma", ex);
+        }
+        for (int i = 0; i < e.digest.length; i++) {
+            int b = e.digest[i] & 0xff;
+            destino[destinoOffset + 2 * i] = HEX[b >>> 4];
+            destino[destinoOffset + 2 * i + 1] = HEX[b & 0x0f];
+        }
+    }
+
+    private Mac nuevoMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException("Error al inicializar el firmador", e);
+        }
+    }
+
+    private Mac clonarPrototipo() {
+        try {
+            return (Mac) prototipo.clone();
+        } catch (CloneNotSupportedException e) {
+            // Algunos proveedores no permiten clonar: se crea un Mac nuevo con la misma clave
+            return nuevoMac();
+        }
+    }
+
+    // Estado por hilo (o prestado a un hilo virtual): Mac ya inicializado y buffers reutilizables
+    private static final class Estado {
+        private final Mac mac;
+        private final byte[] digest;
+        private final byte[] hex = new byte[LONGITUD_FIRMA];
+        private byte[] entrada = new byte[512];
+
+        private Estado(Mac mac) {
+            this.mac = mac;
+            this.digest = new byte[mac.getMacLength()];
+        }
+
+        // Copia la cadena al buffer de entrada; los query strings son ASCII en la práctica
+        private int codificar(CharSequence data) {
+            int len = data.length();
+            if (entrada.length < len) {
+                entrada = new byte[Math.max(len, entrada.length * 2)];
+            }
+            for (int i = 0; i < len; i++) {
+                char c = data.charAt(i);
+                if (c >= 0x80) {
+                    return codificarUtf8(data);
+                }
+                entrada[i] = (byte) c;
+            }
+            return len;
+        }
+
+        private int codificarUtf8(CharSequence data) {
+            byte[] bytes = data.toString().getBytes(StandardCharsets.UTF_8);
+            if (entrada.length < bytes.length) {
+                entrada = new byte[bytes.length];
+            }
+            System.arraycopy(bytes, 0, entrada, 0, bytes.length);
+            return bytes.length;
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Metricas.LatencyHistogram;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+// Transporte HTTP compartido: un solo HttpClient por proceso (prefiere HTTP/2, así que las
+// peticiones simultáneas al mismo host van como streams de una conexión), con timeouts de
+// conexión y de petición, respuestas gzip y pings para que la conexión no se cierre por
+// inactividad. Lo usan todas las instancias de Connect y los WebSockets de RealTrades.
+// java.net.http no expone su pool: las conexiones se cuentan por la sesión TLS de cada respuesta
+public class HttpTransport {
+
+    public static final Duration TIMEOUT_CONEXION = Duration.ofSeconds(10);
+    public static final Duration TIMEOUT_PETICION = Duration.ofSeconds(10);
+    // El cliente cierra las conexiones sin uso a los 30 s (jdk.httpclient.keepalive.timeout)
+    public static final Duration INTERVALO_CALENTAR = Duration.ofSeconds(25);
+
+    // Una conexión sin respuestas durante este tiempo deja de contarse como activa
+    private static final long VENTANA_ACTIVA_NANOS = TimeUnit.SECONDS.toNanos(30);
+    // Sesiones TLS recordadas antes de olvidar las inactivas
+    private static final int MAX_CONEXIONES_RECORDADAS = 64;
+
+    private static volatile HttpTransport global;
+
+    private final HttpClient cliente;
+    private final ThreadPoolExecutor ejecutor;
+    private final Duration timeoutPeticion;
+    private final boolean gzip;
+    private final HttpResponse.BodyHandler<String> texto;
+    private final HttpResponse.BodyHandler<InputStream> flujo;
+
+    private final Map<String, Calentador> calentadores = new ConcurrentHashMap<>();
+    private ScheduledExecutorService planificador;
+
+    private final Map<ByteBuffer, Conexion> conexiones = new ConcurrentHashMap<>();
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final AtomicInteger maxEnVuelo = new AtomicInteger();
+    private final LongAdder peticiones = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder respuestasHttp2 = new LongAdder();
+    private final LongAdder respuestasHttp11 = new LongAdder();
+    private final LongAdder respuestasGzip = new LongAdder();
+    private final LongAdder respuestasTls = new LongAdder();
+    private final LongAdder conexionesNuevas = new LongAdder();
+    private final LongAdder pings = new LongAdder();
+    private final LatencyHistogram latenciaConexionNueva = new LatencyHistogram();
+    private final LatencyHistogram latenciaReutilizada = new LatencyHistogram();
+
+    // hilos: hilos del ejecutor que se mantienen siempre arrancados
+    public HttpTransport(Duration timeoutConexion, Duration timeoutPeticion, int hilos, boolean gzip) {
+        this(timeoutConexion, timeoutPeticion, hilos, gzip, null);
+    }
+
+    // contextoTls: certificados de confianza propios (p. ej. un proxy o un servidor de pruebas);
+    // con null se usa SSLContext.getDefault()
+    public HttpTransport(Duration timeoutConexion, Duration timeoutPeticion, int hilos, boolean gzip,
+                         SSLContext contextoTls) {
+        if (hilos <= 0) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo");
+        }
+        AtomicInteger numero = new AtomicInteger();
+        // Sin límite de hilos: el cliente entrega los cuerpos en el ejecutor y quien lee un
+        // InputStream lo bloquea. El número de peticiones ya lo limita InFlightLimiter
+        this.ejecutor = new ThreadPoolExecutor(hilos, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+            Thread hilo = new Thread(r, "http-transporte-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // Los hilos base arrancan ya: la primera respuesta no espera a crear uno
+        ejecutor.prestartAllCoreThreads();
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(timeoutConexion)
+                .executor(ejecutor);
+        if (contextoTls != null) {
+            builder.sslContext(contextoTls);
+        }
+        this.cliente = builder.build();
+        this.timeoutPeticion = timeoutPeticion;
+        this.gzip = gzip;
+        this.texto = gzip ? this::texto : HttpResponse.BodyHandlers.ofString();
+        this.flujo = gzip ? this::flujo : HttpResponse.BodyHandlers.ofInputStream();
+    }
+
+    public static HttpTransport porDefecto() {
+        return new HttpTransport(TIMEOUT_CONEXION, TIMEOUT_PETICION,
+                Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), true);
+    }
+
+    // Transporte del proceso; se crea con porDefecto() la primera vez que se pide
+    public static HttpTransport global() {
+        HttpTransport actual = global;
+        if (actual != null) return actual;
+        synchronized (HttpTransport.class) {
+            if (global == null) {
+                global = porDefecto();
+            }
+            return global;
+        }
+    }
+
+    // Sustituye el transporte global; solo afecta a los Connect y WebSockets creados después
+    public static void setGlobal(HttpTransport transporte) {
+        synchronized (HttpTransport.class) {
+            global = transporte;
+        }
+    }
+
+    public HttpClient getCliente() {
+        return cliente;
+    }
+
+    // Petición con el timeout del transporte y, si está activo, Accept-Encoding: gzip
+    public HttpRequest.Builder peticion(URI uri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(timeoutPeticion);
+        if (gzip) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder;
+    }
+
+    // BodyHandlers que descomprimen la respuesta si llega con Content-Encoding: gzip
+    public HttpResponse.BodyHandler<String> texto() {
+        return texto;
+    }
+
+    public HttpResponse.BodyHandler<InputStream> flujo() {
+        return flujo;
+    }
+
+    private HttpResponse.BodySubscriber<String> texto(HttpResponse.ResponseInfo info) {
+        if (!esGzip(info)) {
+            return HttpResponse.BodyHandlers.ofString().apply(info);
+        }
+        // El cuerpo completo ya está en memoria: descomprimir aquí no bloquea
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), HttpTransport::descomprimir);
+    }
+
+    private HttpResponse.BodySubscriber<InputStream> flujo(HttpResponse.ResponseInfo info) {
+        if (!esGzip(info)) {
+            return HttpResponse.BodyHandlers.ofInputStream().apply(info);
+        }
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(), GzipPerezoso::new);
+    }
+
+    private boolean esGzip(HttpResponse.ResponseInfo info) {
+        Optional<String> codificacion = info.headers().firstValue("Content-Encoding");
+        if (codificacion.isEmpty() || !codificacion.get().equalsIgnoreCase("gzip")) return false;
+        respuestasGzip.increment();
+        return true;
+    }
+
+    // Las respuestas de Binance son JSON en UTF-8
+    private static String descomprimir(byte[] comprimido) {
+        if (comprimido.length == 0) return "";
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public <T> HttpResponse<T> enviar(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        long inicio = empezar();
+        try {
+            HttpResponse<T> response = cliente.send(request, handler);
+            terminar(response, inicio);
+            return response;
+        } catch (IOException e) {
+            fallos.increment();
+            throw e;
+        } finally {
+            enVuelo.decrementAndGet();
+        }
+    }
+
+    public <T> CompletableFuture<HttpResponse<T>> enviarAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        long inicio = empezar();
+        return cliente.sendAsync(request, handler).whenComplete((response, error) -> {
+            enVuelo.decrementAndGet();
+            if (error != null) {
+                fallos.increment();
+            } else {
+                terminar(response, inicio);
+            }
+        });
+    }
+
+    private long empezar() {
+        peticiones.increment();
+        int actual = enVuelo.incrementAndGet();
+        if (actual > maxEnVuelo.get()) {
+            maxEnVuelo.accumulateAndGet(actual, Math::max);
+        }
+        return System.nanoTime();
+    }
+
+    // Cuenta la versión y la conexión de la respuesta (con un InputStream, al llegar las cabeceras)
+    private void terminar(HttpResponse<?> response, long inicio) {
+        long ahora = System.nanoTime();
+        if (response.version() == HttpClient.Version.HTTP_2) {
+            respuestasHttp2.increment();
+        } else {
+            respuestasHttp11.increment();
+        }
+        if (!calentadores.isEmpty()) {
+            Calentador calentador = calentadores.get(clave(response.uri()));
+            if (calentador != null) calentador.ultimaActividadNanos = ahora;
+        }
+        Optional<SSLSession> sesion = response.sslSession();
+        if (sesion.isEmpty()) return;
+        byte[] id = sesion.get().getId();
+        if (id.length == 0) return;
+        respuestasTls.increment();
+        ByteBuffer clave = ByteBuffer.wrap(id);
+        Conexion conexion = conexiones.get(clave);
+        if (conexion == null) {
+            conexion = conexiones.putIfAbsent(clave, new Conexion(ahora));
+            if (conexion == null) {
+                // Primera respuesta de una conexión: su latencia incluye TCP y TLS
+                conexionesNuevas.increment();
+                latenciaConexionNueva.registrar(ahora - inicio);
+                if (conexiones.size() > MAX_CONEXIONES_RECORDADAS) olvidarInactivas(ahora);
+                return;
+            }
+        }
+        conexion.ultimaNanos = ahora;
+        latenciaReutilizada.registrar(ahora - inicio);
+    }
+
+    private void olvidarInactivas(long ahora) {
+        conexiones.values().removeIf(c -> ahora - c.ultimaNanos > VENTANA_ACTIVA_NANOS);
+    }
+
+    // ---- Calentamiento ----
+
+    // Abre (o reutiliza) la conexión con el host pidiendo la URI indicada, p. ej. /api/v3/ping
+    public CompletableFuture<Void> calentar(URI ping) {
+        pings.increment();
+        return enviarAsync(peticion(ping).GET().build(), HttpResponse.BodyHandlers.discarding())
+                .thenAccept(response -> { });
+    }
+
+    // Pide 'ping' para que la conexión con el host no pase más de 'intervalo' sin tráfico: sigue
+    // abierta y la siguiente petición no paga de nuevo TCP y TLS. Con tráfico no se envía nada
+    public synchronized void mantenerCaliente(URI ping, Duration intervalo) {
+        String host = clave(ping);
+        Calentador anterior = calentadores.remove(host);
+        if (anterior != null) anterior.tarea.cancel(false);
+        // Se revisa cada medio intervalo y se hace ping tras medio intervalo sin tráfico
+        long periodo = Math.max(1, intervalo.toMillis() / 2);
+        Calentador calentador = new Calentador(ping, TimeUnit.MILLISECONDS.toNanos(periodo));
+        calentador.tarea = planificador().scheduleWithFixedDelay(() -> calentador.revisar(this),
+                0, periodo, TimeUnit.MILLISECONDS);
+        calentadores.put(host, calentador);
+    }
+
+    public synchronized void dejarDeCalentar(URI ping) {
+        Calentador calentador = calentadores.remove(clave(ping));
+        if (calentador != null) calentador.tarea.cancel(false);
+    }
+
+    private synchronized ScheduledExecutorService planificador() {
+        if (planificador == null) {
+            planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread hilo = new Thread(r, "http-calentar");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        return planificador;
+    }
+
+    private static String clave(URI uri) {
+        return uri.getRawAuthority();
+    }
+
+    // Deja de calentar, cierra las conexiones y para los hilos. No se puede usar después; si es
+    // el transporte global, antes hay que sustituirlo con setGlobal
+    public void cerrar() {
+        synchronized (this) {
+            calentadores.values().forEach(c -> c.tarea.cancel(false));
+            calentadores.clear();
+            if (planificador != null) planificador.shutdownNow();
+        }
+        cliente.shutdownNow();
+        ejecutor.shutdownNow();
+    }
+
+    // ---- Estadísticas ----
+
+    public long getPeticiones() {
+        return peticiones.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    // Peticiones enviadas que aún no tienen respuesta (streams abiertos en HTTP/2)
+    public int getEnVuelo() {
+        return enVuelo.get();
+    }
+
+    // Máximo de peticiones simultáneas desde que se creó el transporte
+    public int getMaxEnVuelo() {
+        return maxEnVuelo.get();
+    }
+
+    public long getRespuestasHttp2() {
+        return respuestasHttp2.sum();
+    }
+
+    public long getRespuestasHttp11() {
+        return respuestasHttp11.sum();
+    }
+
+    public long getRespuestasGzip() {
+        return respuestasGzip.sum();
+    }
+
+    // Conexiones TLS abiertas (sesiones distintas vistas en las respuestas)
+    public long getConexionesNuevas() {
+        return conexionesNuevas.sum();
+    }
+
+    // Conexiones con alguna respuesta en los últimos 30 s
+    public int getConexionesActivas() {
+        long ahora = System.nanoTime();
+        int activas = 0;
+        for (Conexion conexion : conexiones.values()) {
+            if (ahora - conexion.ultimaNanos <= VENTANA_ACTIVA_NANOS) activas++;
+        }
+        return activas;
+    }
+
+    // Respuestas por conexión: con HTTP/2 y conexiones que se mantienen, cuanto más alto mejor
+    public double getPeticionesPorConexion() {
+        long nuevas = conexionesNuevas.sum();
+        return nuevas == 0 ? 0 : (double) respuestasTls.sum() / nuevas;
+    }
+
+    public long getPings() {
+        return pings.sum();
+    }
+
+    // Latencia de la primera respuesta de cada conexión (incluye TCP y TLS)
+    public LatencyHistogram getLatenciaConexionNueva() {
+        return latenciaConexionNueva;
+    }
+
+    // Latencia de las respuestas sobre una conexión ya abierta
+    public LatencyHistogram getLatenciaReutilizada() {
+        return latenciaReutilizada;
+    }
+
+    public int getHilos() {
+        return ejecutor.getPoolSize();
+    }
+
+    public String resumen() {
+        return String.format("peticiones=%d fallos=%d enVuelo=%d maxEnVuelo=%d http2=%d http1.1=%d gzip=%d "
+                        + "conexiones=%d activas=%d peticiones/conexión=%.1f pings=%d hilos=%d",
+                getPeticiones(), getFallos(), getEnVuelo(), getMaxEnVuelo(), getRespuestasHttp2(),
+                getRespuestasHttp11(), getRespuestasGzip(), getConexionesNuevas(), getConexionesActivas(),
+                getPeticionesPorConexion(), getPings(), getHilos());
+    }
+
+    @Override
+    public String toString() {
+        return "HttpTransport[" + resumen() + "]";
+    }
+
+    private static final class Conexion {
+        volatile long ultimaNanos;
+
+        Conexion(long ahora) {
+            this.ultimaNanos = ahora;
+        }
+    }
+
+    private static final class Calentador {
+        final URI ping;
+        final long esperaNanos;
+        volatile long ultimaActividadNanos;
+        ScheduledFuture<?> tarea;
+
+        Calentador(URI ping, long esperaNanos) {
+            this.ping = ping;
+            this.esperaNanos = esperaNanos;
+            // La primera revisión abre la conexión
+            this.ultimaActividadNanos = System.nanoTime() - esperaNanos;
+        }
+
+        void revisar(HttpTransport transporte) {
+            if (System.nanoTime() - ultimaActividadNanos < esperaNanos) return;
+            ultimaActividadNanos = System.nanoTime();
+            transporte.calentar(ping).exceptionally(error -> {
+                System.err.println("❌ Ping de calentamiento fallido (" + ping + "): " + error.getMessage());
+                return null;
+            });
+        }
+    }
+
+    // Descomprime al primer read: crear el GZIPInputStream lee la cabecera y bloquearía el
+    // hilo del cliente que entrega la respuesta
+    private static final class GzipPerezoso extends FilterInputStream {
+        private boolean abierto;
+
+        GzipPerezoso(InputStream comprimido) {
+            super(comprimido);
+        }
+
+        private InputStream gzip() throws IOException {
+            if (!abierto) {
+                abierto = true;
+                try {
+                    in = new GZIPInputStream(in, 8192);
+                } catch (EOFException e) {
+                    // Cuerpo vacío
+                    in.close();
+                    in = InputStream.nullInputStream();
+                }
+            }
+            return in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return gzip().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return gzip().read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return gzip().skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return abierto ? in.available() : 0;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Limita cuántas peticiones asíncronas hay en vuelo a la vez sin bloquear hilos:
+// las que no caben se encolan y se lanzan cuando termina otra
+public class InFlightLimiter {
+    private final int maximo;
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final AtomicInteger pendientesDeDrenar = new AtomicInteger();
+    private final Queue<Runnable> pendientes = new ConcurrentLinkedQueue<>();
+
+    public InFlightLimiter(int maximo) {
+        if (maximo <= 0) {
+            throw new IllegalArgumentException("El máximo de peticiones en vuelo debe ser positivo");
+        }
+        this.maximo = maximo;
+    }
+
+    public <T> CompletableFuture<T> ejecutar(Supplier<CompletableFuture<T>> tarea) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        pendientes.add(() -> lanzar(tarea, resultado));
+        drenar();
+        return resultado;
+    }
+
+    private <T> void lanzar(Supplier<CompletableFuture<T>> tarea, CompletableFuture<T> resultado) {
+        CompletableFuture<T> futuro;
+        try {
+            futuro = tarea.get();
+        } catch (Throwable t) {
+            futuro = CompletableFuture.failedFuture(t);
+        }
+        futuro.whenComplete((valor, error) -> {
+            enVuelo.decrementAndGet();
+            if (error != null) {
+                resultado.completeExceptionally(error);
+            } else {
+                resultado.complete(valor);
+            }
+            drenar();
+        });
+    }
+
+    // Bucle de drenado: un solo hilo lanza tareas, el resto solo avisa de que hay trabajo
+    private void drenar() {
+        if (pendientesDeDrenar.getAndIncrement() != 0) {
+            return;
+        }
+        int avisos = 1;
+        while (true) {
+            while (!pendientes.isEmpty()) {
+                int actual = enVuelo.get();
+                if (actual >= maximo) break;
+                if (!enVuelo.compareAndSet(actual, actual + 1)) continue;
+                Runnable siguiente = pendientes.poll();
+                if (siguiente == null) {
+                    enVuelo.decrementAndGet();
+                    break;
+                }
+                siguiente.run();
+            }
+            avisos = pendientesDeDrenar.addAndGet(-avisos);
+            if (avisos == 0) {
+                return;
+            }
+        }
+    }
+
+    public int getEnVuelo() {
+        return enVuelo.get();
+    }
+
+    public int getEncoladas() {
+        return pendientes.size();
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+}
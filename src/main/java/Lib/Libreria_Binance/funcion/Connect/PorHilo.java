@@ -0,0 +1,45 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Objeto reutilizable por hilo (Mac, buffers). Los hilos de plataforma guardan el suyo en un
+// ThreadLocal. Los virtuales se crean uno por tarea: con un ThreadLocal cada petición crearía
+// su propio objeto, así que lo toman prestado de una pila compartida y lo devuelven al terminar
+final class PorHilo<T> {
+    // Objetos libres que se guardan como mucho; el resto se deja al GC
+    private static final int MAX_LIBRES = 256;
+
+    private final Supplier<T> fabrica;
+    private final ThreadLocal<T> local;
+    private final ConcurrentLinkedDeque<T> libres = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger numLibres = new AtomicInteger();
+
+    PorHilo(Supplier<T> fabrica) {
+        this.fabrica = fabrica;
+        this.local = ThreadLocal.withInitial(fabrica);
+    }
+
+    // Hay que llamar a devolver() desde el mismo hilo cuando se termina de usar
+    T obtener() {
+        if (!Thread.currentThread().isVirtual()) {
+            return local.get();
+        }
+        T libre = libres.pollFirst();
+        if (libre == null) {
+            return fabrica.get();
+        }
+        numLibres.decrementAndGet();
+        return libre;
+    }
+
+    void devolver(T objeto) {
+        if (!Thread.currentThread().isVirtual()) return;
+        if (numLibres.incrementAndGet() > MAX_LIBRES) {
+            numLibres.decrementAndGet();
+            return;
+        }
+        libres.offerFirst(objeto);
+    }
+}
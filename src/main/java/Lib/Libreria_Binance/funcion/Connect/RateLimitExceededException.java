@@ -0,0 +1,32 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import java.io.IOException;
+
+// Se lanza cuando el limitador local descarta una petición para no provocar un baneo (-1003)
+public class RateLimitExceededException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final String endpoint;
+    private final int peso;
+    private final long esperaMs;
+
+    public RateLimitExceededException(String endpoint, int peso, long esperaMs) {
+        super("Límite de peticiones alcanzado para " + endpoint + " (peso " + peso
+                + "), habría que esperar " + esperaMs + " ms");
+        this.endpoint = endpoint;
+        this.peso = peso;
+        this.esperaMs = esperaMs;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getPeso() {
+        return peso;
+    }
+
+    public long getEsperaMs() {
+        return esperaMs;
+    }
+}
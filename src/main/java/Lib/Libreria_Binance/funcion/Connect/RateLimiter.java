@@ -0,0 +1,300 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Modelo.RateLimit;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpHeaders;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class RateLimiter {
+
+    // ESPERAR encola la petición hasta que haya presupuesto; DESCARTAR la rechaza al instante
+    public enum Politica { ESPERAR, DESCARTAR }
+
+    private static final String REQUEST_WEIGHT = "REQUEST_WEIGHT";
+    private static final String ORDERS = "ORDERS";
+    private static final String RAW_REQUESTS = "RAW_REQUESTS";
+
+    private static final String CABECERA_PESO = "x-mbx-used-weight-";
+    private static final String CABECERA_ORDENES = "x-mbx-order-count-";
+
+    // Peso por defecto de un endpoint que no está en la tabla
+    private static final int PESO_POR_DEFECTO = 1;
+
+    private final Politica politica;
+    private final long esperaMaximaMs;
+    private final Map<String, Integer> pesos = new HashMap<>();
+    private List<Cubo> cubos = new ArrayList<>();
+    private long bloqueadoHastaNanos;
+
+    public RateLimiter(Politica politica, long esperaMaximaMs) {
+        this.politica = politica;
+        this.esperaMaximaMs = esperaMaximaMs;
+        cargarPesosPorDefecto();
+        // Límites publicados por Binance para spot, hasta que se lean de exchangeInfo
+        cubos.add(new Cubo(REQUEST_WEIGHT, TimeUnit.MINUTES.toMillis(1), 6000, "1m"));
+        cubos.add(new Cubo(ORDERS, TimeUnit.SECONDS.toMillis(10), 100, "10s"));
+        cubos.add(new Cubo(ORDERS, TimeUnit.DAYS.toMillis(1), 200000, "1d"));
+        cubos.add(new Cubo(RAW_REQUESTS, TimeUnit.MINUTES.toMillis(5), 61000, "5m"));
+    }
+
+    // Limitador por defecto: encola hasta 30 segundos antes de rechazar
+    public static RateLimiter porDefecto() {
+        return new RateLimiter(Politica.ESPERAR, TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void cargarPesosPorDefecto() {
+        pesos.put("/api/v3/ping", 1);
+        pesos.put("/api/v3/time", 1);
+        pesos.put("/api/v3/exchangeInfo", 20);
+        pesos.put("/api/v3/account", 20);
+        pesos.put("/api/v3/myTrades", 20);
+        pesos.put("/api/v3/allOrders", 20);
+        // Solo la consulta (GET); crear y cancelar pesan 1 (ver pesoDe)
+        pesos.put("/api/v3/order", 4);
+        pesos.put("/api/v3/ticker/price", 2);
+        pesos.put("/api/v3/openOrders", 6);
+        pesos.put("/api/v3/userDataStream", 2);
+    }
+
+    // Reemplaza los presupuestos con el array rateLimits de /api/v3/exchangeInfo. Los límites
+    // que ya existían conservan lo gastado (ver reemplazar)
+    public synchronized void configurar(JsonNode rateLimits) {
+        if (rateLimits == null || !rateLimits.isArray() || rateLimits.size() == 0) {
+            return;
+        }
+        List<Cubo> nuevos = new ArrayList<>();
+        for (JsonNode limite : rateLimits) {
+            String tipo = limite.path("rateLimitType").asText();
+            String intervalo = limite.path("interval").asText();
+            int num = limite.path("intervalNum").asInt(1);
+            int max = limite.path("limit").asInt();
+            long ms = intervaloEnMs(intervalo, num);
+            if (ms <= 0 || max <= 0) continue;
+            nuevos.add(new Cubo(tipo, ms, max, num + intervalo.substring(0, 1).toLowerCase(Locale.ROOT)));
+        }
+        reemplazar(nuevos);
+    }
+
+    // Igual que configurar(JsonNode) pero con el modelo tipado de exchangeInfo
+    public synchronized void configurar(List<RateLimit> rateLimits) {
+        List<Cubo> nuevos = new ArrayList<>();
+        for (RateLimit limite : rateLimits) {
+            long ms = intervaloEnMs(limite.getInterval(), limite.getIntervalNum());
+            if (ms <= 0 || limite.getLimit() <= 0) continue;
+            nuevos.add(new Cubo(limite.getRateLimitType(), ms, limite.getLimit(),
+                    limite.getIntervalNum() + limite.getInterval().substring(0, 1).toLowerCase(Locale.ROOT)));
+        }
+        reemplazar(nuevos);
+    }
+
+    // Cada exchangeInfo vuelve a configurar el limitador: si un cubo nuevo tiene el mismo tipo e
+    // intervalo que uno anterior, hereda lo gastado y la cola reservada. Empezar lleno permitiría
+    // una ráfaga que Binance contesta con 429
+    private void reemplazar(List<Cubo> nuevos) {
+        if (nuevos.isEmpty()) return;
+        long ahora = System.nanoTime();
+        for (Cubo nuevo : nuevos) {
+            for (Cubo anterior : cubos) {
+                if (anterior.tipo.equals(nuevo.tipo) && anterior.intervaloMs == nuevo.intervaloMs) {
+                    anterior.recargar(ahora);
+                    nuevo.tokens = nuevo.limite - (anterior.limite - anterior.tokens);
+                    nuevo.ultimaRecarga = ahora;
+                    break;
+                }
+            }
+        }
+        cubos = nuevos;
+    }
+
+    private static long intervaloEnMs(String intervalo, int num) {
+        if (intervalo == null) return -1;
+        switch (intervalo) {
+            case "SECOND": return TimeUnit.SECONDS.toMillis(num);
+            case "MINUTE": return TimeUnit.MINUTES.toMillis(num);
+            case "HOUR": return TimeUnit.HOURS.toMillis(num);
+            case "DAY": return TimeUnit.DAYS.toMillis(num);
+            default: return -1;
+        }
+    }
+
+    // Permite ajustar el peso de un endpoint
+    public synchronized void setPeso(String endpoint, int peso) {
+        pesos.put(endpoint, peso);
+    }
+
+    // Peso de una petición según método, endpoint y parámetros
+    public synchronized int pesoDe(String metodo, String endpoint, Map<String, String> params) {
+        if (!"GET".equals(metodo)) {
+            // Crear o cancelar una orden pesa 1; consultarla (GET) pesa 4
+            if (endpoint.equals("/api/v3/order") || endpoint.equals("/api/v3/openOrders")) return 1;
+        }
+        return pesoDe(endpoint, params);
+    }
+
+    // Peso de una petición GET según endpoint y parámetros
+    public synchronized int pesoDe(String endpoint, Map<String, String> params) {
+        boolean conSimbolo = params != null && params.containsKey("symbol");
+        switch (endpoint) {
+            case "/api/v3/openOrders":
+                return conSimbolo ? pesos.get(endpoint) : 80;
+            case "/api/v3/ticker/price":
+                return conSimbolo ? pesos.get(endpoint) : 4;
+            case "/api/v3/depth":
+                return pesoProfundidad(params);
+            default:
+                return pesos.getOrDefault(endpoint, PESO_POR_DEFECTO);
+        }
+    }
+
+    private static int pesoProfundidad(Map<String, String> params) {
+        int limite = 100;
+        if (params != null && params.containsKey("limit")) {
+            limite = Integer.parseInt(params.get("limit"));
+        }
+        if (limite <= 100) return 5;
+        if (limite <= 500) return 25;
+        if (limite <= 1000) return 50;
+        return 250;
+    }
+
+    // Bloquea hasta tener presupuesto para la petición o lanza RateLimitExceededException
+    public void adquirir(String endpoint, Map<String, String> params, boolean esOrden)
+            throws RateLimitExceededException, InterruptedException {
+        adquirir("GET", endpoint, params, esOrden);
+    }
+
+    public void adquirir(String metodo, String endpoint, Map<String, String> params, boolean esOrden)
+            throws RateLimitExceededException, InterruptedException {
+        long espera = reservar(metodo, endpoint, params, esOrden);
+        if (espera > 0) {
+            TimeUnit.MILLISECONDS.sleep(espera);
+        }
+    }
+
+    // Reserva presupuesto y devuelve los milisegundos a esperar antes de enviar
+    public long reservar(String endpoint, Map<String, String> params, boolean esOrden)
+            throws RateLimitExceededException {
+        return reservar("GET", endpoint, params, esOrden);
+    }
+
+    public synchronized long reservar(String metodo, String endpoint, Map<String, String> params, boolean esOrden)
+            throws RateLimitExceededException {
+        int peso = pesoDe(metodo, endpoint, params);
+        long ahora = System.nanoTime();
+
+        long esperaNanos = Math.max(0, bloqueadoHastaNanos - ahora);
+        for (Cubo cubo : cubos) {
+            cubo.recargar(ahora);
+            double coste = cubo.coste(peso, esOrden);
+            if (coste > 0 && cubo.tokens < coste) {
+                esperaNanos = Math.max(esperaNanos, cubo.nanosHasta(coste));
+            }
+        }
+
+        long esperaMs = TimeUnit.NANOSECONDS.toMillis(esperaNanos) + (esperaNanos > 0 ? 1 : 0);
+        if (esperaMs > 0 && (politica == Politica.DESCARTAR || esperaMs > esperaMaximaMs)) {
+            throw new RateLimitExceededException(endpoint, peso, esperaMs);
+        }
+
+        // Los tokens pueden quedar en negativo: eso es la cola de peticiones reservadas
+        for (Cubo cubo : cubos) {
+            cubo.tokens -= cubo.coste(peso, esOrden);
+        }
+        return esperaMs;
+    }
+
+    // Corrige el estado local con las cabeceras X-MBX-USED-WEIGHT-* y X-MBX-ORDER-COUNT-*
+    public synchronized void actualizar(HttpHeaders headers) {
+        for (Map.Entry<String, List<String>> cabecera : headers.map().entrySet()) {
+            String nombre = cabecera.getKey().toLowerCase(Locale.ROOT);
+            String tipo;
+            String sufijo;
+            if (nombre.startsWith(CABECERA_PESO)) {
+                tipo = REQUEST_WEIGHT;
+                sufijo = nombre.substring(CABECERA_PESO.length());
+            } else if (nombre.startsWith(CABECERA_ORDENES)) {
+                tipo = ORDERS;
+                sufijo = nombre.substring(CABECERA_ORDENES.length());
+            } else {
+                continue;
+            }
+            if (cabecera.getValue().isEmpty()) continue;
+            long usado;
+            try {
+                usado = Long.parseLong(cabecera.getValue().get(0).trim());
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            for (Cubo cubo : cubos) {
+                if (cubo.tipo.equals(tipo) && cubo.sufijo.equals(sufijo)) {
+                    // Solo se reduce: una respuesta atrasada no debe devolver presupuesto
+                    cubo.tokens = Math.min(cubo.tokens, cubo.limite - usado);
+                }
+            }
+        }
+    }
+
+    // Ante un 429/418 Binance indica en Retry-After cuántos segundos hay que parar
+    public synchronized void penalizar(HttpHeaders headers) {
+        long segundos = headers.firstValueAsLong("Retry-After").orElse(60);
+        bloqueadoHastaNanos = Math.max(bloqueadoHastaNanos, System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos));
+    }
+
+    // Tokens disponibles del cubo de peso principal (útil para monitorizar)
+    public synchronized long getPesoDisponible() {
+        long ahora = System.nanoTime();
+        long disponible = Long.MAX_VALUE;
+        for (Cubo cubo : cubos) {
+            if (REQUEST_WEIGHT.equals(cubo.tipo)) {
+                cubo.recargar(ahora);
+                disponible = Math.min(disponible, (long) Math.floor(cubo.tokens));
+            }
+        }
+        return disponible == Long.MAX_VALUE ? -1 : disponible;
+    }
+
+    // Cubo de tokens para un límite concreto (tipo + intervalo)
+    private static final class Cubo {
+        private final String tipo;
+        private final long limite;
+        private final long intervaloMs;
+        private final String sufijo;
+        private final double tokensPorNano;
+        private double tokens;
+        private long ultimaRecarga;
+
+        private Cubo(String tipo, long intervaloMs, long limite, String sufijo) {
+            this.tipo = tipo;
+            this.limite = limite;
+            this.intervaloMs = intervaloMs;
+            this.sufijo = sufijo;
+            this.tokensPorNano = (double) limite / TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+            this.tokens = limite;
+            this.ultimaRecarga = System.nanoTime();
+        }
+
+        private void recargar(long ahora) {
+            tokens = Math.min(limite, tokens + (ahora - ultimaRecarga) * tokensPorNano);
+            ultimaRecarga = ahora;
+        }
+
+        private double coste(int peso, boolean esOrden) {
+            switch (tipo) {
+                case REQUEST_WEIGHT: return peso;
+                case RAW_REQUESTS: return 1;
+                case ORDERS: return esOrden ? 1 : 0;
+                default: return 0;
+            }
+        }
+
+        private long nanosHasta(double coste) {
+            return (long) Math.ceil((coste - tokens) / tokensPorNano);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+// Construye la URL de una petición en un único buffer de bytes reutilizado por hilo:
+// base + endpoint + "?" + query (parámetros ordenados por nombre y codificados en %XX)
+// + "&signature=" + firma. La firma se calcula sobre el mismo buffer y el único objeto
+// que se crea al final es el String que recibe URI.create. Se usa con try-with-resources:
+// close() lo devuelve al pool si el hilo es virtual (ver PorHilo)
+final class RequestBuilder implements AutoCloseable {
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FIRMA = "&signature=".getBytes(StandardCharsets.US_ASCII);
+    private static final PorHilo<RequestBuilder> LOCAL = new PorHilo<>(RequestBuilder::new);
+
+    private byte[] buffer = new byte[1024];
+    private int longitud;
+    // Posición del primer byte del query string (tras el '?')
+    private int inicioQuery;
+    private String[] claves = new String[16];
+
+    private RequestBuilder() {
+    }
+
+    // Builder del hilo actual, vacío. No se debe guardar entre peticiones
+    static RequestBuilder local() {
+        return LOCAL.obtener().iniciar();
+    }
+
+    @Override
+    public void close() {
+        LOCAL.devolver(this);
+    }
+
+    private RequestBuilder iniciar() {
+        longitud = 0;
+        inicioQuery = -1;
+        return this;
+    }
+
+    // Escribe base + endpoint; el query empieza después. Sin url() solo se construye el query
+    // (para los cuerpos de POST/PUT/DELETE)
+    RequestBuilder url(String baseUrl, String endpoint) {
+        escribirAscii(baseUrl);
+        escribirAscii(endpoint);
+        return this;
+    }
+
+    // Añade los parámetros del mapa ordenados por nombre, salvo el indicado en excluido
+    RequestBuilder parametros(Map<String, String> params, String excluido) {
+        int n = 0;
+        if (claves.length < params.size()) {
+            claves = new String[Math.max(params.size(), claves.length * 2)];
+        }
+        for (String clave : params.keySet()) {
+            if (clave.equals(excluido)) continue;
+            // Inserción ordenada: suele haber muy pocos parámetros
+            int i = n++;
+            while (i > 0 && claves[i - 1].compareTo(clave) > 0) {
+                claves[i] = claves[i - 1];
+                i--;
+            }
+            claves[i] = clave;
+        }
+        for (int i = 0; i < n; i++) {
+            parametro(claves[i], params.get(claves[i]));
+            claves[i] = null;
+        }
+        return this;
+    }
+
+    RequestBuilder parametro(String clave, String valor) {
+        separador();
+        codificar(clave);
+        escribir((byte) '=');
+        codificar(valor);
+        return this;
+    }
+
+    // Valor numérico escrito directamente, sin pasar por String
+    RequestBuilder parametro(String clave, long valor) {
+        separador();
+        codificar(clave);
+        escribir((byte) '=');
+        if (valor < 0) {
+            escribir((byte) '-');
+            valor = -valor;
+        }
+        int digitos = 1;
+        for (long v = valor / 10; v > 0; v /= 10) digitos++;
+        asegurar(digitos);
+        for (int i = longitud + digitos - 1; i >= longitud; i--) {
+            buffer[i] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        }
+        longitud += digitos;
+        return this;
+    }
+
+    // Añade "&signature=" con la HMAC del query string calculada sobre el propio buffer
+    RequestBuilder firmar(HmacSigner signer) {
+        int inicio = inicioQuery < 0 ? longitud : inicioQuery;
+        int longitudQuery = longitud - inicio;
+        asegurar(FIRMA.length + HmacSigner.LONGITUD_FIRMA);
+        int destino = longitud + FIRMA.length;
+        signer.signInto(buffer, inicio, longitudQuery, buffer, destino);
+        System.arraycopy(FIRMA, 0, buffer, longitud, FIRMA.length);
+        longitud = destino + HmacSigner.LONGITUD_FIRMA;
+        return this;
+    }
+
+    // Query string (sin '?'), para cuerpos application/x-www-form-urlencoded
+    String query() {
+        return inicioQuery < 0 ? "" : new String(buffer, inicioQuery, longitud - inicioQuery, StandardCharsets.US_ASCII);
+    }
+
+    // Query string en bytes, listo para enviarse como cuerpo sin pasar por String
+    byte[] cuerpo() {
+        return inicioQuery < 0 ? new byte[0] : Arrays.copyOfRange(buffer, inicioQuery, longitud);
+    }
+
+    URI uri() {
+        return URI.create(new String(buffer, 0, longitud, StandardCharsets.US_ASCII));
+    }
+
+    private void separador() {
+        if (inicioQuery < 0) {
+            escribir((byte) '?');
+            inicioQuery = longitud;
+        } else {
+            escribir((byte) '&');
+        }
+    }
+
+    // Codificación de URL: se dejan tal cual los caracteres no reservados (RFC 3986)
+    private void codificar(String valor) {
+        int len = valor.length();
+        asegurar(len);
+        for (int i = 0; i < len; i++) {
+            char c = valor.charAt(i);
+            if (c >= 0x80) {
+                codificarUtf8(valor, i);
+                return;
+            }
+            if (noReservado(c)) {
+                escribir((byte) c);
+            } else {
+                escribirEscapado(c);
+            }
+        }
+    }
+
+    private void codificarUtf8(String valor, int desde) {
+        byte[] bytes = valor.substring(desde).getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            int c = b & 0xff;
+            if (c < 0x80 && noReservado((char) c)) {
+                escribir(b);
+            } else {
+                escribirEscapado(c);
+            }
+        }
+    }
+
+    private static boolean noReservado(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == '~';
+    }
+
+    private void escribirEscapado(int c) {
+        asegurar(3);
+        buffer[longitud++] = '%';
+        buffer[longitud++] = HEX[(c >>> 4) & 0x0f];
+        buffer[longitud++] = HEX[c & 0x0f];
+    }
+
+    private void escribirAscii(String texto) {
+        int len = texto.length();
+        asegurar(len);
+        for (int i = 0; i < len; i++) {
+            buffer[longitud++] = (byte) texto.charAt(i);
+        }
+    }
+
+    private void escribir(byte b) {
+        asegurar(1);
+        buffer[longitud++] = b;
+    }
+
+    private void asegurar(int extra) {
+        if (longitud + extra > buffer.length) {
+            byte[] nuevo = new byte[Math.max(longitud + extra, buffer.length * 2)];
+            System.arraycopy(buffer, 0, nuevo, 0, longitud);
+            buffer = nuevo;
+        }
+    }
+}
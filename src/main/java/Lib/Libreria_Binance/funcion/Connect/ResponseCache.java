@@ -0,0 +1,144 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Caché de respuestas con TTL por endpoint y tamaño máximo (se expulsa la menos usada).
+// Las peticiones simultáneas a la misma clave comparten una sola petición en vuelo
+public class ResponseCache {
+    public static final int MAX_ENTRADAS_POR_DEFECTO = 1024;
+
+    private final int maxEntradas;
+    private final Map<String, Long> ttls = new HashMap<>();
+    // LinkedHashMap en orden de acceso: la primera entrada es la menos usada
+    private final LinkedHashMap<String, Entrada> entradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder coalescidas = new LongAdder();
+    private final LongAdder expulsadas = new LongAdder();
+
+    public ResponseCache() {
+        this(MAX_ENTRADAS_POR_DEFECTO);
+    }
+
+    public ResponseCache(int maxEntradas) {
+        if (maxEntradas <= 0) {
+            throw new IllegalArgumentException("El tamaño de la caché debe ser positivo");
+        }
+        this.maxEntradas = maxEntradas;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                if (size() > ResponseCache.this.maxEntradas) {
+                    expulsadas.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        // exchangeInfo cambia muy poco y pesa varios MB; el precio y la hora caducan enseguida
+        ttls.put("/api/v3/exchangeInfo", TimeUnit.MINUTES.toMillis(10));
+        ttls.put("/api/v3/time", TimeUnit.SECONDS.toMillis(1));
+        ttls.put("/api/v3/ticker/price", TimeUnit.SECONDS.toMillis(1));
+    }
+
+    // TTL de un endpoint; 0 desactiva la caché para él
+    public synchronized void setTtl(String endpoint, long ttlMs) {
+        ttls.put(endpoint, ttlMs);
+    }
+
+    public synchronized long getTtl(String endpoint) {
+        return ttls.getOrDefault(endpoint, 0L);
+    }
+
+    // Devuelve el valor en caché o lanza la carga; si ya hay una carga en vuelo para la clave
+    // se espera a esa misma. Los fallos no se guardan. Cada llamada recibe su propia copia del
+    // futuro: completarla o cancelarla no afecta a la entrada ni a los demás llamantes
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> obtener(String clave, long ttlMs, Supplier<CompletableFuture<T>> carga) {
+        if (ttlMs <= 0) {
+            return carga.get();
+        }
+        Entrada nueva;
+        synchronized (this) {
+            Entrada actual = entradas.get(clave);
+            if (actual != null) {
+                if (!actual.futuro.isDone()) {
+                    coalescidas.increment();
+                    return (CompletableFuture<T>) actual.futuro.copy();
+                }
+                if (System.nanoTime() - actual.expiraNanos < 0) {
+                    aciertos.increment();
+                    return (CompletableFuture<T>) actual.futuro.copy();
+                }
+            }
+            fallos.increment();
+            nueva = new Entrada();
+            entradas.put(clave, nueva);
+        }
+        CompletableFuture<T> cargado;
+        try {
+            cargado = carga.get();
+        } catch (RuntimeException e) {
+            cargado = CompletableFuture.failedFuture(e);
+        }
+        cargado.whenComplete((valor, error) -> {
+            if (error != null) {
+                synchronized (this) {
+                    entradas.remove(clave, nueva);
+                }
+                nueva.futuro.completeExceptionally(error);
+            } else {
+                nueva.expiraNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMs);
+                nueva.futuro.complete(valor);
+            }
+        });
+        return (CompletableFuture<T>) nueva.futuro.copy();
+    }
+
+    public synchronized void invalidar(String clave) {
+        entradas.remove(clave);
+    }
+
+    public synchronized void limpiar() {
+        entradas.clear();
+    }
+
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    public int getMaxEntradas() {
+        return maxEntradas;
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    // Peticiones que se unieron a una carga ya en vuelo
+    public long getCoalescidas() {
+        return coalescidas.sum();
+    }
+
+    public long getExpulsadas() {
+        return expulsadas.sum();
+    }
+
+    private static final class Entrada {
+        private final CompletableFuture<Object> futuro = new CompletableFuture<>();
+        private volatile long expiraNanos;
+    }
+}
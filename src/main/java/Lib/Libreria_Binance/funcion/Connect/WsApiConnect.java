@@ -0,0 +1,419 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Metricas.EndpointMetrics;
+import Lib.Libreria_Binance.funcion.Metricas.MetricRegistry;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.RealTrades.ConnectionSupervisor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.WebSocket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Transporte sobre la API WebSocket de Binance (ws-api): las peticiones firmadas viajan como
+// JSON por una única conexión persistente, sin abrir ni negociar HTTP en cada llamada.
+// Cada petición lleva un id y su CompletableFuture se completa cuando llega la respuesta
+// con ese id. Usa la clave, el firmador, el reloj y el limitador del Connect que recibe
+public class WsApiConnect implements ApiTransport, WebSocket.Listener {
+
+    public static final String WS_API_URL = "wss://ws-api.binance.com:443/ws-api/v3";
+    public static final String WS_API_TEST_URL = "wss://ws-api.testnet.binance.vision/ws-api/v3";
+
+    // Sin respuesta en este tiempo el futuro falla con TimeoutException
+    private static final long TIMEOUT_MS = 10_000;
+
+    // Endpoint REST -> método de la API WebSocket
+    private static final Map<String, String> METODOS = new HashMap<>();
+    // Parámetros que la API WebSocket espera como número y no como texto (solo si el valor es un entero)
+    private static final Set<String> ENTEROS = Set.of("timestamp", "recvWindow", "orderId", "cancelOrderId",
+            "orderListId", "limit", "fromId", "startTime", "endTime", "strategyId", "strategyType", "trailingDelta");
+    // Parámetros que son arrays JSON, p. ej. symbols=["BTCUSDT","ETHUSDT"]; el resto va siempre como texto
+    private static final Set<String> ARRAYS = Set.of("symbols", "permissions");
+    // Métodos que llevan apiKey pero no timestamp ni firma (USER_STREAM)
+    private static final Set<String> SOLO_CLAVE = Set.of("userDataStream.start", "userDataStream.ping",
+            "userDataStream.stop");
+
+    static {
+        METODOS.put("GET /api/v3/ping", "ping");
+        METODOS.put("GET /api/v3/time", "time");
+        METODOS.put("GET /api/v3/exchangeInfo", "exchangeInfo");
+        METODOS.put("GET /api/v3/depth", "depth");
+        METODOS.put("GET /api/v3/aggTrades", "trades.aggregate");
+        METODOS.put("GET /api/v3/klines", "klines");
+        METODOS.put("GET /api/v3/ticker/price", "ticker.price");
+        METODOS.put("GET /api/v3/account", "account.status");
+        METODOS.put("GET /api/v3/myTrades", "myTrades");
+        METODOS.put("GET /api/v3/openOrders", "openOrders.status");
+        METODOS.put("DELETE /api/v3/openOrders", "openOrders.cancelAll");
+        METODOS.put("GET /api/v3/allOrders", "allOrders");
+        METODOS.put("GET /api/v3/order", "order.status");
+        METODOS.put("POST /api/v3/order", "order.place");
+        METODOS.put("DELETE /api/v3/order", "order.cancel");
+        METODOS.put("POST /api/v3/order/test", "order.test");
+        METODOS.put("POST /api/v3/order/cancelReplace", "order.cancelReplace");
+        METODOS.put("POST /api/v3/userDataStream", "userDataStream.start");
+        METODOS.put("PUT /api/v3/userDataStream", "userDataStream.ping");
+        METODOS.put("DELETE /api/v3/userDataStream", "userDataStream.stop");
+    }
+
+    private final Connect rest;
+    private final String url;
+    // Se crea en iniciar(): pasarle this desde el constructor lo publicaría a medio construir
+    private volatile ConnectionSupervisor supervisor;
+    private final Map<Long, Pendiente<?>> pendientes = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    // Mensaje a medio recibir de cada conexión: al rotar, la vieja y la nueva entregan a la vez
+    private final Map<WebSocket, StringBuilder> parciales = new ConcurrentHashMap<>();
+    private boolean iniciado;
+    // Se completa al abrir la conexión; mientras no hay conexión los mensajes esperan en él
+    private CompletableFuture<WebSocket> abierta = new CompletableFuture<>();
+    // Los envíos se encadenan a partir de abierta: un WebSocket no admite dos sendText a la vez
+    private CompletableFuture<WebSocket> cola = abierta;
+
+    public WsApiConnect(Connect rest) {
+        this(rest, rest.isTestnet() ? WS_API_TEST_URL : WS_API_URL);
+    }
+
+    // Permite apuntar a otro servidor (un servidor local de pruebas)
+    public WsApiConnect(Connect rest, String url) {
+        this.rest = rest;
+        this.url = url;
+    }
+
+    // Abre la conexión; las peticiones la abren solas si hace falta
+    public synchronized void iniciar() {
+        if (iniciado) return;
+        iniciado = true;
+        if (supervisor == null) {
+            supervisor = new ConnectionSupervisor("ws-api", () -> URI.create(url), this);
+            supervisor.setAlConectar(this::alConectar);
+            supervisor.setDrenaje(this::drenar);
+        }
+        supervisor.iniciar();
+    }
+
+    public synchronized void cerrar() {
+        iniciado = false;
+        if (supervisor != null) supervisor.detener();
+        abierta = new CompletableFuture<>();
+        cola = abierta;
+        fallarPendientes("Conexión ws-api cerrada");
+    }
+
+    @Override
+    public <T> T signedRequest(String metodo, String endpoint, Map<String, String> params, ObjectReader lector)
+            throws IOException, InterruptedException {
+        return Connect.esperar(signedRequestAsync(metodo, endpoint, params, lector));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> signedRequestAsync(String metodo, String endpoint, Map<String, String> params,
+                                                       ObjectReader lector) {
+        rest.prepararRelojAsync();
+        return enviar(metodo, endpoint, params, lector, true);
+    }
+
+    @Override
+    public <T> T publicRequest(String endpoint, Map<String, String> params, ObjectReader lector)
+            throws IOException, InterruptedException {
+        return Connect.esperar(publicRequestAsync(endpoint, params, lector));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> publicRequestAsync(String endpoint, Map<String, String> params, ObjectReader lector) {
+        return enviar("GET", endpoint, params, lector, false);
+    }
+
+    private <T> CompletableFuture<T> enviar(String metodo, String endpoint, Map<String, String> params,
+                                            ObjectReader lector, boolean firmada) {
+        String metodoWs = METODOS.get(metodo + " " + endpoint);
+        if (metodoWs == null) {
+            return CompletableFuture.failedFuture(new UnsupportedOperationException(
+                    "Sin equivalente en la API WebSocket: " + metodo + " " + endpoint));
+        }
+        iniciar();
+        // La API WebSocket comparte los límites por IP con REST
+        RateLimiter limitador = rest.getRateLimiter();
+        long espera = 0;
+        if (limitador != null) {
+            try {
+                espera = limitador.reservar(metodo, endpoint, params, Connect.esOrden(metodo, endpoint));
+            } catch (RateLimitExceededException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        long id = ids.incrementAndGet();
+        // Las métricas van por método ws-api (order.place...), separadas de las de REST
+        Pendiente<T> pendiente = new Pendiente<>(lector, MetricRegistry.global().endpoint(metodoWs));
+        pendientes.put(id, pendiente);
+        pendiente.futuro.orTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        // El mensaje (y su timestamp) se crea justo antes de enviarlo
+        Runnable envio = () -> {
+            if (!pendiente.futuro.isDone()) {
+                encolar(mensaje(id, metodoWs, params, firmada), pendiente);
+            }
+        };
+        if (espera > 0) {
+            CompletableFuture.delayedExecutor(espera, TimeUnit.MILLISECONDS).execute(envio);
+        } else {
+            envio.run();
+        }
+        return pendiente.futuro.whenComplete((valor, error) -> {
+            pendientes.remove(id);
+            // Sin respuesta (timeout o conexión perdida)
+            if (error != null && !(error instanceof BinanceApiException)) pendiente.metricas.contarFallo();
+        });
+    }
+
+    private synchronized void encolar(String mensaje, Pendiente<?> pendiente) {
+        cola = cola.thenCompose(ws -> {
+            // Una petición que caducó mientras esperaba la conexión ya no se envía
+            if (pendiente.futuro.isDone()) return CompletableFuture.completedFuture(ws);
+            pendiente.socket = ws;
+            return ws.sendText(mensaje, true).handle((nada, error) -> {
+                if (error != null) pendiente.futuro.completeExceptionally(error);
+                return ws;
+            });
+        });
+    }
+
+    // {"id":n,"method":"...","params":{...}} con los parámetros ordenados por nombre. Las
+    // firmadas añaden apiKey, recvWindow y timestamp y firman "clave=valor&..." con los valores
+    // tal cual, sin codificar: en ws-api no hay URL y Binance firma los valores sin %XX
+    private String mensaje(long id, String metodoWs, Map<String, String> params, boolean firmada) {
+        Map<String, String> todos = new TreeMap<>(params);
+        for (String clave : ARRAYS) {
+            String valor = todos.get(clave);
+            JsonNode array = valor == null ? null : comoArray(valor);
+            // Se firma el mismo texto que se envía
+            if (array != null) todos.put(clave, array.toString());
+        }
+        if (firmada) {
+            todos.put("apiKey", rest.getApiKey());
+            if (!SOLO_CLAVE.contains(metodoWs)) {
+                ClockSync reloj = rest.getClockSync();
+                if (!todos.containsKey("recvWindow") && reloj.isSincronizado()) {
+                    todos.put("recvWindow", Long.toString(reloj.getRecvWindowRecomendado()));
+                }
+                todos.put("timestamp", Long.toString(reloj.ahora()));
+                todos.put("signature", rest.getSigner().sign(cargaFirmada(todos)));
+            }
+        }
+        StringBuilder json = new StringBuilder(256)
+                .append("{\"id\":").append(id)
+                .append(",\"method\":\"").append(metodoWs).append('"');
+        if (!todos.isEmpty()) {
+            json.append(",\"params\":{");
+            char separador = ' ';
+            for (Map.Entry<String, String> entry : todos.entrySet()) {
+                if (separador != ' ') json.append(separador);
+                separador = ',';
+                String clave = entry.getKey();
+                String valor = entry.getValue();
+                escapar(json, clave);
+                json.append(':');
+                if ((ENTEROS.contains(clave) && esEntero(valor)) || (ARRAYS.contains(clave) && comoArray(valor) != null)) {
+                    // Solo números y arrays ya validados van sin comillas; lo demás no puede inyectar JSON
+                    json.append(valor);
+                } else {
+                    escapar(json, valor);
+                }
+            }
+            json.append('}');
+        }
+        return json.append('}').toString();
+    }
+
+    static String cargaFirmada(Map<String, String> ordenados) {
+        StringBuilder carga = new StringBuilder(256);
+        for (Map.Entry<String, String> entry : ordenados.entrySet()) {
+            if (carga.length() > 0) carga.append('&');
+            carga.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return carga.toString();
+    }
+
+    private static boolean esEntero(String valor) {
+        int inicio = valor.startsWith("-") ? 1 : 0;
+        if (valor.length() == inicio || valor.length() > 19 + inicio) return false;
+        for (int i = inicio; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    // El array ya parseado, o null si el valor no es un array JSON
+    private static JsonNode comoArray(String valor) {
+        if (!valor.startsWith("[")) return null;
+        try {
+            JsonNode nodo = JsonReaders.MAPPER.readTree(valor);
+            return nodo != null && nodo.isArray() ? nodo : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void escapar(StringBuilder json, String valor) {
+        json.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private synchronized void alConectar(WebSocket webSocket) {
+        // Los mensajes acumulados sin conexión salen ahora, en orden
+        if (!abierta.complete(webSocket)) {
+            // Rotación: los siguientes mensajes salen por la conexión nueva
+            abierta = CompletableFuture.completedFuture(webSocket);
+            cola = cola.thenApply(anterior -> webSocket);
+        }
+    }
+
+    // Tras una rotación la conexión vieja se cierra cuando ya han respondido las peticiones
+    // enviadas por ella; las que estaban en cola salen antes por ella o por la nueva
+    private CompletableFuture<Void> drenar(WebSocket anterior) {
+        CompletableFuture<WebSocket> enviados;
+        synchronized (this) {
+            enviados = cola;
+        }
+        return enviados.handle((ws, error) -> null).thenCompose(nada -> CompletableFuture.allOf(pendientes.values().stream()
+                        .filter(pendiente -> pendiente.socket == anterior)
+                        .map(pendiente -> pendiente.futuro.handle((valor, error) -> null))
+                        .toArray(CompletableFuture[]::new)))
+                .whenComplete((nada, error) -> parciales.remove(anterior));
+    }
+
+    // Al perder la conexión las respuestas pendientes ya no llegarán. Una orden enviada puede
+    // haberse ejecutado: se consulta con order.status antes de repetirla
+    private synchronized void perdida() {
+        if (abierta.isDone()) {
+            abierta = new CompletableFuture<>();
+            cola = abierta;
+        }
+        fallarPendientes("Conexión ws-api perdida");
+    }
+
+    private void fallarPendientes(String motivo) {
+        for (Long id : pendientes.keySet()) {
+            Pendiente<?> pendiente = pendientes.remove(id);
+            if (pendiente != null) {
+                pendiente.futuro.completeExceptionally(new IOException(motivo));
+            }
+        }
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        parciales.put(webSocket, new StringBuilder());
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        StringBuilder parcial = parciales.computeIfAbsent(webSocket, ws -> new StringBuilder());
+        if (!last) {
+            parcial.append(data);
+        } else {
+            try {
+                String texto = parcial.length() == 0 ? data.toString() : parcial.append(data).toString();
+                procesar(JsonReaders.MAPPER.readTree(texto));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("❌ Error al procesar respuesta ws-api: " + e.getMessage());
+            } finally {
+                parcial.setLength(0);
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    // {"id":n,"status":200,"result":...} o {"id":n,"status":4xx,"error":{"code":..,"msg":..,"data":..}}
+    private void procesar(JsonNode respuesta) {
+        Pendiente<?> pendiente = pendientes.remove(respuesta.path("id").asLong(-1));
+        if (pendiente == null) return;
+        int status = respuesta.path("status").asInt();
+        pendiente.metricas.registrar(pendiente.inicio, status);
+        JsonNode error = respuesta.get("error");
+        if (status >= 400 || error != null) {
+            int codigo = error == null ? 0 : error.path("code").asInt();
+            MetricRegistry.global().contarErrorBinance(codigo);
+            if (codigo == Connect.TIMESTAMP_FUERA_DE_VENTANA) {
+                rest.getClockSync().sincronizarAsync();
+            }
+            pendiente.futuro.completeExceptionally(new BinanceApiException(status, codigo,
+                    error == null ? "" : error.path("msg").asText(), error == null ? null : error.get("data")));
+            return;
+        }
+        pendiente.completar(respuesta.path("result"));
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        System.err.println("❌ Error en ws-api: " + error.getMessage());
+        parciales.remove(webSocket);
+        perdida();
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        System.out.println("🔌 ws-api cerrada: " + reason);
+        parciales.remove(webSocket);
+        perdida();
+        return null;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    // null hasta la primera llamada a iniciar() (o la primera petición)
+    public ConnectionSupervisor getSupervisor() {
+        return supervisor;
+    }
+
+    public int getPendientes() {
+        return pendientes.size();
+    }
+
+    // Petición enviada a la espera de su respuesta
+    private static final class Pendiente<T> {
+        private final CompletableFuture<T> futuro = new CompletableFuture<>();
+        private final ObjectReader lector;
+        private final EndpointMetrics metricas;
+        private final long inicio = System.nanoTime();
+        // Conexión por la que salió (para drenar la vieja al rotar)
+        private volatile WebSocket socket;
+
+        private Pendiente(ObjectReader lector, EndpointMetrics metricas) {
+            this.lector = lector;
+            this.metricas = metricas;
+        }
+
+        private void completar(JsonNode resultado) {
+            try {
+                futuro.complete(lector.readValue(resultado));
+            } catch (IOException e) {
+                futuro.completeExceptionally(e);
+            }
+        }
+    }
+}
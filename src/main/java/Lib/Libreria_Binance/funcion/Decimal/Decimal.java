@@ -0,0 +1,184 @@
+package Lib.Libreria_Binance.funcion.Decimal;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Número decimal inmutable en punto fijo: mantisa long y escala de 0 a 18 ("0.00100000" es
+// mantisa 100000 con escala 8). Sustituye a BigDecimal en los modelos: ocupa un objeto en vez
+// de tres y las operaciones trabajan sobre long (ver Fijo). equals y compareTo comparan el valor,
+// no la escala: 1.5 y 1.50 son iguales. Jackson lo lee con DecimalDeserializer y lo escribe como texto
+@JsonDeserialize(using = DecimalDeserializer.class)
+@JsonSerialize(using = ToStringSerializer.class)
+public final class Decimal implements Comparable<Decimal> {
+
+    public static final Decimal CERO = new Decimal(0, 0);
+
+    private final long mantisa;
+    private final int escala;
+
+    private Decimal(long mantisa, int escala) {
+        this.mantisa = mantisa;
+        this.escala = escala;
+    }
+
+    public static Decimal de(long mantisa, int escala) {
+        if (escala < 0 || escala > Fijo.MAX_ESCALA) {
+            throw new IllegalArgumentException("Escala fuera de rango: " + escala);
+        }
+        return mantisa == 0 && escala == 0 ? CERO : new Decimal(mantisa, escala);
+    }
+
+    public static Decimal de(long entero) {
+        return de(entero, 0);
+    }
+
+    // Conserva los decimales del texto salvo los ceros finales ("0.00100000" -> escala 3)
+    public static Decimal parse(CharSequence texto) {
+        int hasta = texto.length();
+        int escala = Math.min(Fijo.decimales(texto, 0, hasta), Fijo.MAX_ESCALA);
+        return de(Fijo.parse(texto, 0, hasta, escala), escala);
+    }
+
+    public static Decimal parse(char[] texto, int desde, int hasta) {
+        int escala = Math.min(Fijo.decimales(texto, desde, hasta), Fijo.MAX_ESCALA);
+        return de(Fijo.parse(texto, desde, hasta, escala), escala);
+    }
+
+    // ArithmeticException si el valor no cabe en un long con 18 decimales como mucho
+    public static Decimal de(BigDecimal valor) {
+        BigDecimal normalizado = valor.stripTrailingZeros();
+        if (normalizado.scale() < 0) normalizado = normalizado.setScale(0);
+        if (normalizado.scale() > Fijo.MAX_ESCALA) {
+            normalizado = normalizado.setScale(Fijo.MAX_ESCALA, RoundingMode.HALF_UP);
+        }
+        return de(normalizado.unscaledValue().longValueExact(), normalizado.scale());
+    }
+
+    public long getMantisa() {
+        return mantisa;
+    }
+
+    public int getEscala() {
+        return escala;
+    }
+
+    // Mantisa en otra escala, redondeando si se pierden decimales (p. ej. para guardarla como long)
+    public long mantisa(int escala) {
+        return Fijo.reescalar(mantisa, this.escala, escala);
+    }
+
+    public int signum() {
+        return Long.signum(mantisa);
+    }
+
+    public boolean esCero() {
+        return mantisa == 0;
+    }
+
+    // ---- Aritmética: el resultado tiene la mayor de las dos escalas ----
+
+    public Decimal sumar(Decimal otro) {
+        int e = Math.max(escala, otro.escala);
+        return de(Math.addExact(Fijo.reescalar(mantisa, escala, e), Fijo.reescalar(otro.mantisa, otro.escala, e)), e);
+    }
+
+    public Decimal restar(Decimal otro) {
+        int e = Math.max(escala, otro.escala);
+        return de(Math.subtractExact(Fijo.reescalar(mantisa, escala, e), Fijo.reescalar(otro.mantisa, otro.escala, e)), e);
+    }
+
+    public Decimal negar() {
+        return de(Math.negateExact(mantisa), escala);
+    }
+
+    // Producto redondeado a 'escala' decimales (precio * cantidad con la escala del activo cotizado)
+    public Decimal multiplicar(Decimal otro, int escala) {
+        return de(Fijo.multiplicar(mantisa, this.escala, otro.mantisa, otro.escala, escala), escala);
+    }
+
+    public Decimal dividir(Decimal otro, int escala) {
+        return de(Fijo.dividir(mantisa, this.escala, otro.mantisa, otro.escala, escala), escala);
+    }
+
+    // Mismo valor con otra escala, redondeando si se pierden decimales
+    public Decimal conEscala(int escala) {
+        return escala == this.escala ? this : de(Fijo.reescalar(mantisa, this.escala, escala), escala);
+    }
+
+    // Múltiplo de 'paso' más cercano (precio ajustado al tickSize)
+    public Decimal redondearA(Decimal paso) {
+        return ajustar(paso, true);
+    }
+
+    // Múltiplo de 'paso' hacia cero (cantidad ajustada al stepSize, sin pasarse del saldo)
+    public Decimal truncarA(Decimal paso) {
+        return ajustar(paso, false);
+    }
+
+    private Decimal ajustar(Decimal paso, boolean redondear) {
+        if (paso.signum() <= 0) throw new IllegalArgumentException("El paso debe ser positivo: " + paso);
+        int e = Math.max(escala, paso.escala);
+        long valor = Fijo.reescalar(mantisa, escala, e);
+        long unidad = Fijo.reescalar(paso.mantisa, paso.escala, e);
+        long pasos = valor / unidad;
+        long resto = Math.abs(valor % unidad);
+        if (redondear && resto >= unidad - resto) pasos += valor < 0 ? -1 : 1;
+        return de(Math.multiplyExact(pasos, unidad), e).conEscala(paso.escalaMinima());
+    }
+
+    // Decimales necesarios para escribir el valor sin ceros finales (tickSize 0.01000000 -> 2)
+    public int escalaMinima() {
+        long m = mantisa;
+        int e = escala;
+        while (e > 0 && m % 10 == 0) {
+            m /= 10;
+            e--;
+        }
+        return e;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(mantisa, escala);
+    }
+
+    public double toDouble() {
+        return (double) mantisa / Fijo.potencia(escala);
+    }
+
+    // Escribe el valor con todos los decimales de su escala, sin crear un String
+    public void escribir(StringBuilder sb) {
+        Fijo.escribir(sb, mantisa, escala);
+    }
+
+    public void escribir(StringBuilder sb, int decimales) {
+        Fijo.escribir(sb, mantisa, escala, decimales);
+    }
+
+    @Override
+    public int compareTo(Decimal otro) {
+        return Fijo.comparar(mantisa, escala, otro.mantisa, otro.escala);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Decimal otro && compareTo(otro) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int e = escalaMinima();
+        return 31 * Long.hashCode(mantisa / Fijo.potencia(escala - e)) + e;
+    }
+
+    // Sin notación científica, con los decimales de la escala: lo que espera la API de Binance
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(24);
+        escribir(sb);
+        return sb.toString();
+    }
+}
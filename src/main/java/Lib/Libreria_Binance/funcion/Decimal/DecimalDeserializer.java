@@ -0,0 +1,48 @@
+package Lib.Libreria_Binance.funcion.Decimal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonTokenId;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// Lee un Decimal del texto del token ("0.00100000" o 0.001) sobre el buffer de caracteres del
+// parser, sin crear el String ni el BigDecimal intermedios
+public class DecimalDeserializer extends StdScalarDeserializer<Decimal> {
+    private static final long serialVersionUID = 1L;
+
+    public DecimalDeserializer() {
+        super(Decimal.class);
+    }
+
+    @Override
+    public Decimal deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
+        switch (parser.currentTokenId()) {
+            case JsonTokenId.ID_STRING:
+            case JsonTokenId.ID_NUMBER_INT:
+            case JsonTokenId.ID_NUMBER_FLOAT:
+                int largo = parser.getTextLength();
+                if (largo == 0) return null;
+                int desde = parser.getTextOffset();
+                try {
+                    return Decimal.parse(parser.getTextCharacters(), desde, desde + largo);
+                } catch (NumberFormatException e) {
+                    // Notación científica u otros formatos poco habituales: se deja a BigDecimal
+                    return deBigDecimal(parser, ctxt);
+                }
+            default:
+                return (Decimal) ctxt.handleUnexpectedToken(Decimal.class, parser);
+        }
+    }
+
+    private Decimal deBigDecimal(JsonParser parser, DeserializationContext ctxt) throws IOException {
+        String texto = parser.getText();
+        try {
+            return Decimal.de(new BigDecimal(texto));
+        } catch (NumberFormatException | ArithmeticException e) {
+            return (Decimal) ctxt.handleWeirdStringValue(Decimal.class, texto, "no es un decimal válido");
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package Lib.Libreria_Binance.funcion.Decimal;
+
+// Operaciones de punto fijo sobre una mantisa long con una escala de 0 a 18 decimales:
+// "1.5" con escala 8 es 150000000. Parsea y escribe directamente sobre char/byte y calcula
+// sin crear objetos; los productos usan 128 bits, así que precio * cantidad no desborda antes
+// de redondear. Los redondeos son al más cercano, mitad hacia arriba (como HALF_UP)
+public final class Fijo {
+
+    public static final int MAX_ESCALA = 18;
+
+    private static final long[] POTENCIAS = new long[MAX_ESCALA + 1];
+    private static final long MASCARA = 0xFFFF_FFFFL;
+
+    static {
+        POTENCIAS[0] = 1;
+        for (int i = 1; i < POTENCIAS.length; i++) {
+            POTENCIAS[i] = POTENCIAS[i - 1] * 10;
+        }
+    }
+
+    private Fijo() {
+    }
+
+    public static long potencia(int escala) {
+        return POTENCIAS[escala];
+    }
+
+    // ---- Parseo ----
+
+    // Decimal en [desde, hasta) convertido a punto fijo con la escala indicada.
+    // Los decimales que sobran se redondean; si no cabe en un long lanza NumberFormatException
+    public static long parse(CharSequence s, int desde, int hasta, int escala) {
+        if (desde >= hasta) throw new NumberFormatException("Número vacío");
+        boolean negativo = s.charAt(desde) == '-';
+        int i = negativo ? desde + 1 : desde;
+        long entero = 0;
+        long fraccion = 0;
+        int decimales = 0;
+        boolean enFraccion = false;
+        boolean redondear = false;
+        boolean hayDigitos = false;
+        for (; i < hasta; i++) {
+            int c = s.charAt(i);
+            if (c == '.' && !enFraccion) {
+                enFraccion = true;
+            } else if (c >= '0' && c <= '9') {
+                hayDigitos = true;
+                if (!enFraccion) {
+                    entero = acumular(entero, c);
+                } else if (decimales < escala) {
+                    fraccion = fraccion * 10 + (c - '0');
+                    decimales++;
+                } else if (decimales++ == escala) {
+                    redondear = c >= '5';
+                }
+            } else {
+                throw caracterInvalido(c, i);
+            }
+        }
+        if (!hayDigitos) throw new NumberFormatException("Número sin dígitos");
+        return componer(negativo, entero, fraccion, decimales, escala, redondear);
+    }
+
+    public static long parse(char[] s, int desde, int hasta, int escala) {
+        if (desde >= hasta) throw new NumberFormatException("Número vacío");
+        boolean negativo = s[desde] == '-';
+        int i = negativo ? desde + 1 : desde;
+        long entero = 0;
+        long fraccion = 0;
+        int decimales = 0;
+        boolean enFraccion = false;
+        boolean redondear = false;
+        boolean hayDigitos = false;
+        for (; i < hasta; i++) {
+            int c = s[i];
+            if (c == '.' && !enFraccion) {
+                enFraccion = true;
+            } else if (c >= '0' && c <= '9') {
+                hayDigitos = true;
+                if (!enFraccion) {
+                    entero = acumular(entero, c);
+                } else if (decimales < escala) {
+                    fraccion = fraccion * 10 + (c - '0');
+                    decimales++;
+                } else if (decimales++ == escala) {
+                    redondear = c >= '5';
+                }
+            } else {
+                throw caracterInvalido(c, i);
+            }
+        }
+        if (!hayDigitos) throw new NumberFormatException("Número sin dígitos");
+        return componer(negativo, entero, fraccion, decimales, escala, redondear);
+    }
+
+    // Sobre bytes ASCII, por ejemplo un cuerpo HTTP sin decodificar
+    public static long parse(byte[] s, int desde, int hasta, int escala) {
+        if (desde >= hasta) throw new NumberFormatException("Número vacío");
+        boolean negativo = s[desde] == '-';
+        int i = negativo ? desde + 1 : desde;
+        long entero = 0;
+        long fraccion = 0;
+        int decimales = 0;
+        boolean enFraccion = false;
+        boolean redondear = false;
+        boolean hayDigitos = false;
+        for (; i < hasta; i++) {
+            int c = s[i];
+            if (c == '.' && !enFraccion) {
+                enFraccion = true;
+            } else if (c >= '0' && c <= '9') {
+                hayDigitos = true;
+                if (!enFraccion) {
+                    entero = acumular(entero, c);
+                } else if (decimales < escala) {
+                    fraccion = fraccion * 10 + (c - '0');
+                    decimales++;
+                } else if (decimales++ == escala) {
+                    redondear = c >= '5';
+                }
+            } else {
+                throw caracterInvalido(c, i);
+            }
+        }
+        if (!hayDigitos) throw new NumberFormatException("Número sin dígitos");
+        return componer(negativo, entero, fraccion, decimales, escala, redondear);
+    }
+
+    // Número de decimales escritos en [desde, hasta), sin contar los ceros finales
+    public static int decimales(CharSequence s, int desde, int hasta) {
+        int punto = -1;
+        for (int i = desde; i < hasta; i++) {
+            if (s.charAt(i) == '.') {
+                punto = i;
+                break;
+            }
+        }
+        if (punto < 0) return 0;
+        int fin = hasta;
+        while (fin > punto + 1 && s.charAt(fin - 1) == '0') fin--;
+        return fin - punto - 1;
+    }
+
+    public static int decimales(char[] s, int desde, int hasta) {
+        int punto = -1;
+        for (int i = desde; i < hasta; i++) {
+            if (s[i] == '.') {
+                punto = i;
+                break;
+            }
+        }
+        if (punto < 0) return 0;
+        int fin = hasta;
+        while (fin > punto + 1 && s[fin - 1] == '0') fin--;
+        return fin - punto - 1;
+    }
+
+    private static long acumular(long entero, int c) {
+        if (entero > (Long.MAX_VALUE - 9) / 10) throw new NumberFormatException("Número fuera de rango");
+        return entero * 10 + (c - '0');
+    }
+
+    private static long componer(boolean negativo, long entero, long fraccion, int decimales, int escala,
+                                 boolean redondear) {
+        int usados = Math.min(decimales, escala);
+        long valor;
+        try {
+            valor = Math.addExact(Math.multiplyExact(entero, POTENCIAS[escala]), fraccion * POTENCIAS[escala - usados]);
+            if (redondear) valor = Math.incrementExact(valor);
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Número fuera de rango con escala " + escala);
+        }
+        return negativo ? -valor : valor;
+    }
+
+    private static NumberFormatException caracterInvalido(int c, int posicion) {
+        return new NumberFormatException("Carácter no numérico '" + (char) c + "' en la posición " + posicion);
+    }
+
+    // ---- Formato ----
+
+    // 150000000 con escala 8 -> "1.50000000" (siempre con todos los decimales de la escala)
+    public static void escribir(StringBuilder sb, long valor, int escala) {
+        long potencia = POTENCIAS[escala];
+        long entero = valor / potencia;
+        long fraccion = Math.abs(valor % potencia);
+        if (valor < 0 && entero == 0) sb.append('-');
+        sb.append(entero);
+        if (escala == 0) return;
+        sb.append('.');
+        for (long p = potencia / 10; p > 1 && fraccion < p; p /= 10) {
+            sb.append('0');
+        }
+        sb.append(fraccion);
+    }
+
+    // Con 'decimales' decimales, redondeando si hace falta: (150000000, 8, 2) -> "1.50"
+    public static void escribir(StringBuilder sb, long valor, int escala, int decimales) {
+        escribir(sb, reescalar(valor, escala, decimales), decimales);
+    }
+
+    // Como el anterior, separando los miles con ',': (123456789000, 8, 2) -> "1,234.57"
+    public static void escribirConMiles(StringBuilder sb, long valor, int escala, int decimales) {
+        long v = reescalar(valor, escala, decimales);
+        long potencia = POTENCIAS[decimales];
+        long entero = Math.abs(v / potencia);
+        long fraccion = Math.abs(v % potencia);
+        if (v < 0) sb.append('-');
+        int digitos = digitos(entero);
+        for (int i = digitos; i > 0; i--) {
+            sb.append((char) ('0' + entero / POTENCIAS[i - 1] % 10));
+            if (i > 1 && (i - 1) % 3 == 0) sb.append(',');
+        }
+        if (decimales == 0) return;
+        sb.append('.');
+        for (int i = decimales; i > 0; i--) {
+            sb.append((char) ('0' + fraccion / POTENCIAS[i - 1] % 10));
+        }
+    }
+
+    // Escribe el valor como bytes ASCII a partir de 'posicion' y devuelve la posición siguiente.
+    // Necesita hasta 21 bytes libres
+    public static int escribir(byte[] destino, int posicion, long valor, int escala) {
+        long potencia = POTENCIAS[escala];
+        long entero = Math.abs(valor / potencia);
+        long fraccion = Math.abs(valor % potencia);
+        if (valor < 0) destino[posicion++] = '-';
+        for (int i = digitos(entero); i > 0; i--) {
+            destino[posicion++] = (byte) ('0' + entero / POTENCIAS[i - 1] % 10);
+        }
+        if (escala == 0) return posicion;
+        destino[posicion++] = '.';
+        for (int i = escala; i > 0; i--) {
+            destino[posicion++] = (byte) ('0' + fraccion / POTENCIAS[i - 1] % 10);
+        }
+        return posicion;
+    }
+
+    // Dígitos decimales de un valor no negativo (al menos 1)
+    private static int digitos(long valor) {
+        int n = 1;
+        while (n <= MAX_ESCALA && valor >= POTENCIAS[n]) n++;
+        return n;
+    }
+
+    // ---- Aritmética ----
+
+    // Cambia la escala: hacia arriba es exacto (ArithmeticException si desborda), hacia abajo redondea
+    public static long reescalar(long valor, int escala, int nuevaEscala) {
+        if (nuevaEscala >= escala) {
+            return Math.multiplyExact(valor, POTENCIAS[nuevaEscala - escala]);
+        }
+        long divisor = POTENCIAS[escala - nuevaEscala];
+        long cociente = valor / divisor;
+        long resto = Math.abs(valor % divisor);
+        if (resto >= divisor - resto) cociente += valor < 0 ? -1 : 1;
+        return cociente;
+    }
+
+    // Cambia la escala hacia abajo descartando los decimales que sobran (hacia cero)
+    public static long truncar(long valor, int escala, int nuevaEscala) {
+        if (nuevaEscala >= escala) {
+            return Math.multiplyExact(valor, POTENCIAS[nuevaEscala - escala]);
+        }
+        return valor / POTENCIAS[escala - nuevaEscala];
+    }
+
+    // Compara dos valores con escalas distintas sin perder precisión
+    public static int comparar(long a, int escalaA, long b, int escalaB) {
+        if (escalaA == escalaB) return Long.compare(a, b);
+        if (escalaA < escalaB) return -comparar(b, escalaB, a, escalaA);
+        // Se lleva b a la escala de a; si no cabe en un long, su signo decide
+        long factor = POTENCIAS[escalaA - escalaB];
+        long alto = Math.multiplyHigh(b, factor);
+        long bajo = b * factor;
+        if (alto != (bajo >> 63)) return b < 0 ? 1 : -1;
+        return Long.compare(a, bajo);
+    }
+
+    // a * b con escala 'escala': el producto exacto se calcula en 128 bits y se redondea una sola vez
+    public static long multiplicar(long a, int escalaA, long b, int escalaB, int escala) {
+        int sobrantes = escalaA + escalaB - escala;
+        if (sobrantes < 0) {
+            return Math.multiplyExact(Math.multiplyExact(a, b), POTENCIAS[-sobrantes]);
+        }
+        if (sobrantes > MAX_ESCALA) {
+            throw new IllegalArgumentException("Escala de resultado demasiado pequeña: " + escala);
+        }
+        boolean negativo = (a < 0) != (b < 0);
+        long x = Math.absExact(a);
+        long y = Math.absExact(b);
+        long bajo = x * y;
+        long alto = Math.unsignedMultiplyHigh(x, y);
+        long divisor = POTENCIAS[sobrantes];
+        long cociente;
+        long resto;
+        if (alto == 0) {
+            // Cabe en 64 bits sin signo (lo normal con precio * cantidad a escala 8)
+            cociente = Long.divideUnsigned(bajo, divisor);
+            resto = bajo - cociente * divisor;
+            if (cociente < 0) throw new ArithmeticException("Desbordamiento de punto fijo");
+        } else {
+            // 128 bits entre 10^s: en dos pasos de como mucho 10^9, que caben en 32 bits
+            long l3 = alto >>> 32, l2 = alto & MASCARA, l1 = bajo >>> 32, l0 = bajo & MASCARA;
+            long d1 = POTENCIAS[Math.min(sobrantes, 9)];
+            long r = l3 % d1;
+            l3 /= d1;
+            long t = (r << 32) | l2;
+            l2 = t / d1;
+            t = (t % d1 << 32) | l1;
+            l1 = t / d1;
+            t = (t % d1 << 32) | l0;
+            l0 = t / d1;
+            resto = t % d1;
+            if (sobrantes > 9) {
+                long d2 = POTENCIAS[sobrantes - 9];
+                r = l3 % d2;
+                l3 /= d2;
+                t = (r << 32) | l2;
+                l2 = t / d2;
+                t = (t % d2 << 32) | l1;
+                l1 = t / d2;
+                t = (t % d2 << 32) | l0;
+                l0 = t / d2;
+                resto += t % d2 * d1;
+            }
+            if (l3 != 0 || l2 != 0 || l1 > Integer.MAX_VALUE) {
+                throw new ArithmeticException("Desbordamiento de punto fijo");
+            }
+            cociente = (l1 << 32) | l0;
+        }
+        if (resto >= divisor - resto) cociente = Math.incrementExact(cociente);
+        return negativo ? -cociente : cociente;
+    }
+
+    // a / b con escala 'escala', redondeando el último decimal
+    public static long dividir(long a, int escalaA, long b, int escalaB, int escala) {
+        if (b == 0) throw new ArithmeticException("División entre cero");
+        int desplazamiento = escala - escalaA + escalaB;
+        if (desplazamiento > MAX_ESCALA) {
+            throw new IllegalArgumentException("Escala de resultado demasiado grande: " + escala);
+        }
+        boolean negativo = (a < 0) != (b < 0);
+        long x = Math.absExact(a);
+        long y = Math.absExact(b);
+        if (desplazamiento < 0) {
+            // Sobran decimales en el dividendo: se escala el divisor (en 128 bits) en lugar de
+            // redondear antes el dividendo, para redondear una sola vez
+            long factor = POTENCIAS[-desplazamiento];
+            long divisor = y * factor;
+            // Un divisor de 64 bits o más es mayor que el doble de x: el resultado redondea a 0
+            if (Math.unsignedMultiplyHigh(y, factor) != 0) return 0;
+            long cociente = Long.divideUnsigned(x, divisor);
+            long resto = x - cociente * divisor;
+            if (Long.compareUnsigned(resto, divisor - resto) >= 0) cociente++;
+            return negativo ? -cociente : cociente;
+        }
+        long factor = POTENCIAS[desplazamiento];
+        long bajo = x * factor;
+        long alto = Math.unsignedMultiplyHigh(x, factor);
+        long cociente;
+        long resto;
+        if (alto == 0 && bajo >= 0) {
+            cociente = bajo / y;
+            resto = bajo % y;
+        } else {
+            if (Long.compareUnsigned(alto, y) >= 0) throw new ArithmeticException("Desbordamiento de punto fijo");
+            cociente = dividir128(alto, bajo, y);
+            if (cociente < 0) throw new ArithmeticException("Desbordamiento de punto fijo");
+            // El resto es menor que y, así que cabe en los 64 bits bajos
+            resto = bajo - cociente * y;
+        }
+        if (resto >= y - resto) cociente = Math.incrementExact(cociente);
+        return negativo ? -cociente : cociente;
+    }
+
+    // (alto, bajo) / y sin signo, con alto < y para que el cociente quepa en 64 bits. División
+    // larga en base 2^32 (algoritmo D de Knuth): dos dígitos de cociente, estimados con el
+    // divisor normalizado y corregidos como mucho dos veces cada uno
+    private static long dividir128(long alto, long bajo, long y) {
+        int s = Long.numberOfLeadingZeros(y);
+        long v = y << s;
+        long v1 = v >>> 32, v0 = v & MASCARA;
+        long u32 = s == 0 ? alto : (alto << s) | (bajo >>> (64 - s));
+        long u10 = bajo << s;
+        long u1 = u10 >>> 32, u0 = u10 & MASCARA;
+
+        long q1 = Long.divideUnsigned(u32, v1);
+        long r = u32 - q1 * v1;
+        while (q1 > MASCARA || Long.compareUnsigned(q1 * v0, (r << 32) | u1) > 0) {
+            q1--;
+            r += v1;
+            if (r > MASCARA) break;
+        }
+        long u21 = (u32 << 32) + u1 - q1 * v;
+        long q0 = Long.divideUnsigned(u21, v1);
+        r = u21 - q0 * v1;
+        while (q0 > MASCARA || Long.compareUnsigned(q0 * v0, (r << 32) | u0) > 0) {
+            q0--;
+            r += v1;
+            if (r > MASCARA) break;
+        }
+        return (q1 << 32) | q0;
+    }
+}
@@ -0,0 +1,107 @@
+package Lib.Libreria_Binance.funcion.Metricas;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Métricas de un endpoint: tiempo hasta las cabeceras (TTFB), tiempo total hasta leer el
+// cuerpo, peticiones por código HTTP y fallos de red. java.net.http no expone los tiempos
+// de DNS ni de conexión: quedan dentro del TTFB de la primera petición de cada conexión
+public class EndpointMetrics {
+    static final int MAX_ESTADO = 600;
+
+    private final String endpoint;
+    private final LatencyHistogram ttfb = new LatencyHistogram();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final AtomicLongArray estados = new AtomicLongArray(MAX_ESTADO);
+    private final LongAdder respuestas = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    EndpointMetrics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    // Envuelve el BodyHandler de una petición que empieza ahora: al llegar las cabeceras
+    // registra el TTFB y el código, y al terminar el cuerpo el tiempo total. Con un
+    // InputStream el total se registra al cerrarlo, es decir, cuando se ha decodificado
+    public <T> HttpResponse.BodyHandler<T> medir(HttpResponse.BodyHandler<T> handler) {
+        long inicio = System.nanoTime();
+        return info -> {
+            ttfb.registrarDesde(inicio);
+            contarEstado(info.statusCode());
+            return HttpResponse.BodySubscribers.mapping(handler.apply(info), cuerpo -> alTerminar(cuerpo, inicio));
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T alTerminar(T cuerpo, long inicio) {
+        if (cuerpo instanceof InputStream) {
+            return (T) new CuerpoMedido((InputStream) cuerpo, inicio);
+        }
+        total.registrarDesde(inicio);
+        return cuerpo;
+    }
+
+    // Para transportes sin cabeceras HTTP (ws-api): registra el total y el código
+    public void registrar(long inicioNanos, int estado) {
+        total.registrarDesde(inicioNanos);
+        contarEstado(estado);
+    }
+
+    public void contarFallo() {
+        fallos.increment();
+    }
+
+    private void contarEstado(int estado) {
+        respuestas.increment();
+        estados.incrementAndGet(estado >= 0 && estado < MAX_ESTADO ? estado : 0);
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public LatencyHistogram getTtfb() {
+        return ttfb;
+    }
+
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    // Respuestas con el código HTTP indicado (0 = código fuera de rango)
+    public long getEstado(int estado) {
+        return estado >= 0 && estado < MAX_ESTADO ? estados.get(estado) : 0;
+    }
+
+    public long getRespuestas() {
+        return respuestas.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    // Registra el tiempo total cuando quien lee el cuerpo lo cierra
+    private final class CuerpoMedido extends FilterInputStream {
+        private final long inicio;
+        private boolean cerrado;
+
+        private CuerpoMedido(InputStream in, long inicio) {
+            super(in);
+            this.inicio = inicio;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!cerrado) {
+                cerrado = true;
+                total.registrarDesde(inicio);
+            }
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package Lib.Libreria_Binance.funcion.Metricas;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma de latencias con cubos log-lineales: exacto por debajo de 64 unidades y con 32
+// cubos por cada potencia de dos por encima (error relativo < 3,2 %). La unidad es el
+// microsegundo salvo que se indique otra. Registrar es un incremento atómico, sin cerrojos
+// ni objetos; se puede usar desde varios hilos a la vez
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_CUBOS = 1 << SUB_BITS;
+    private static final int LINEAL = SUB_CUBOS * 2;
+    // Hasta 2^36 unidades (~19 h en µs); lo que pase de ahí se cuenta en el último cubo
+    private static final int MAX_EXPONENTE = 36;
+    private static final long MAX_VALOR = (1L << MAX_EXPONENTE) - 1;
+    private static final int NUM_CUBOS = LINEAL + (MAX_EXPONENTE - SUB_BITS - 1) * SUB_CUBOS;
+
+    private final TimeUnit unidad;
+    private final AtomicLongArray cubos = new AtomicLongArray(NUM_CUBOS);
+    private final LongAdder conteo = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(TimeUnit.MICROSECONDS);
+    }
+
+    // Nanosegundos para tiempos de parseo; milisegundos para retrasos largos
+    public LatencyHistogram(TimeUnit unidad) {
+        this.unidad = unidad;
+    }
+
+    // Registra una duración en nanosegundos
+    public void registrar(long nanos) {
+        long valor = Math.min(Math.max(0, unidad.convert(nanos, TimeUnit.NANOSECONDS)), MAX_VALOR);
+        cubos.incrementAndGet(indice(valor));
+        conteo.increment();
+        suma.add(valor);
+        long actual;
+        while (valor > (actual = maximo.get())) {
+            if (maximo.compareAndSet(actual, valor)) break;
+        }
+    }
+
+    // Registra el tiempo transcurrido desde un System.nanoTime() anterior
+    public void registrarDesde(long inicioNanos) {
+        registrar(System.nanoTime() - inicioNanos);
+    }
+
+    // Percentil (0-100) en la unidad del histograma: límite superior del cubo donde cae
+    public long percentil(double p) {
+        long total = 0;
+        long[] copia = new long[NUM_CUBOS];
+        for (int i = 0; i < NUM_CUBOS; i++) {
+            copia[i] = cubos.get(i);
+            total += copia[i];
+        }
+        if (total == 0) return 0;
+        long objetivo = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, p)) / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < NUM_CUBOS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    public long getConteo() {
+        return conteo.sum();
+    }
+
+    public TimeUnit getUnidad() {
+        return unidad;
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getMedia() {
+        long n = conteo.sum();
+        return n == 0 ? 0 : (double) suma.sum() / n;
+    }
+
+    // Suma de todos los valores, en la unidad del histograma
+    public long getSuma() {
+        return suma.sum();
+    }
+
+    // Pone a cero el histograma; los registros simultáneos pueden repartirse entre antes y después
+    public void reiniciar() {
+        for (int i = 0; i < NUM_CUBOS; i++) {
+            cubos.set(i, 0);
+        }
+        conteo.reset();
+        suma.reset();
+        maximo.set(0);
+    }
+
+    // Resumen legible: n, media, p50, p90, p99, p99.9 y máximo
+    public String resumen() {
+        String u = simbolo(unidad);
+        return String.format("n=%d media=%.0f%s p50=%d%s p90=%d%s p99=%d%s p99.9=%d%s max=%d%s",
+                getConteo(), getMedia(), u, percentil(50), u, percentil(90), u, percentil(99), u,
+                percentil(99.9), u, getMaximo(), u);
+    }
+
+    static String simbolo(TimeUnit unidad) {
+        switch (unidad) {
+            case NANOSECONDS: return "ns";
+            case MICROSECONDS: return "µs";
+            case MILLISECONDS: return "ms";
+            case SECONDS: return "s";
+            default: return unidad.name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return resumen();
+    }
+
+    private static int indice(long valor) {
+        if (valor < LINEAL) return (int) valor;
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int desplazamiento = exponente - SUB_BITS;
+        return LINEAL + (exponente - SUB_BITS - 1) * SUB_CUBOS + (int) ((valor >>> desplazamiento) - SUB_CUBOS);
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < LINEAL) return indice;
+        int grupo = (indice - LINEAL) / SUB_CUBOS;
+        int sub = (indice - LINEAL) % SUB_CUBOS;
+        int desplazamiento = grupo + 1;
+        return ((long) (SUB_CUBOS + sub + 1) << desplazamiento) - 1;
+    }
+}
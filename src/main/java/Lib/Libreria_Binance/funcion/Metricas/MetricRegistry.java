@@ -0,0 +1,241 @@
+package Lib.Libreria_Binance.funcion.Metricas;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+// Registro de métricas de la librería: HTTP por endpoint, errores de Binance por código y
+// streams WebSocket por nombre. Las métricas se crean la primera vez que se piden y después
+// solo se consultan, así que registrar no crea objetos. Se exportan en formato de texto de
+// Prometheus o como MXBean
+public class MetricRegistry implements MetricRegistryMXBean {
+
+    // Errores que siempre se exportan, aunque no hayan ocurrido
+    public static final int DEMASIADAS_PETICIONES = -1003;
+    public static final int TIMESTAMP_FUERA_DE_VENTANA = -1021;
+    public static final int CLAVE_NO_VALIDA = -2015;
+
+    public static final String NOMBRE_JMX = "Lib.Libreria_Binance:type=Metricas";
+
+    private static final MetricRegistry GLOBAL = new MetricRegistry();
+    private static final double[] CUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, StreamMetrics> streams = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> erroresBinance = new ConcurrentHashMap<>();
+
+    public MetricRegistry() {
+        erroresBinance.put(DEMASIADAS_PETICIONES, new LongAdder());
+        erroresBinance.put(TIMESTAMP_FUERA_DE_VENTANA, new LongAdder());
+        erroresBinance.put(CLAVE_NO_VALIDA, new LongAdder());
+    }
+
+    // Registro compartido que usan Connect, WsApiConnect, RealTimeTrades y StreamManager
+    public static MetricRegistry global() {
+        return GLOBAL;
+    }
+
+    public EndpointMetrics endpoint(String endpoint) {
+        EndpointMetrics metricas = endpoints.get(endpoint);
+        return metricas != null ? metricas : endpoints.computeIfAbsent(endpoint, EndpointMetrics::new);
+    }
+
+    public StreamMetrics stream(String nombre) {
+        StreamMetrics metricas = streams.get(nombre);
+        return metricas != null ? metricas : streams.computeIfAbsent(nombre, StreamMetrics::new);
+    }
+
+    // Error de Binance ({"code":...}); no es camino caliente
+    public void contarErrorBinance(int codigo) {
+        erroresBinance.computeIfAbsent(codigo, c -> new LongAdder()).increment();
+    }
+
+    public long getErroresBinance(int codigo) {
+        LongAdder contador = erroresBinance.get(codigo);
+        return contador == null ? 0 : contador.sum();
+    }
+
+    // Registra el MXBean en el servidor JMX de la plataforma (una sola vez)
+    public synchronized void registrarJmx() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(NOMBRE_JMX));
+        } catch (InstanceAlreadyExistsException e) {
+            // Ya registrado
+        } catch (JMException e) {
+            System.err.println("❌ No se pudo registrar el MXBean de métricas: " + e.getMessage());
+        }
+    }
+
+    // Todas las métricas en formato de texto de Prometheus (versión 0.0.4)
+    public String aPrometheus() {
+        StringBuilder texto = new StringBuilder(4096);
+        try {
+            escribirPrometheus(texto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return texto.toString();
+    }
+
+    public void escribirPrometheus(Appendable salida) throws IOException {
+        Map<String, EndpointMetrics> porEndpoint = new TreeMap<>(endpoints);
+        cabecera(salida, "binance_http_respuestas_total", "counter", "Respuestas por endpoint y código HTTP");
+        for (EndpointMetrics metricas : porEndpoint.values()) {
+            String endpoint = escapar(metricas.getEndpoint());
+            for (int estado = 0; estado < EndpointMetrics.MAX_ESTADO; estado++) {
+                long respuestas = metricas.getEstado(estado);
+                if (respuestas == 0) continue;
+                salida.append("binance_http_respuestas_total{endpoint=\"").append(endpoint)
+                        .append("\",codigo=\"").append(Integer.toString(estado)).append("\"} ")
+                        .append(Long.toString(respuestas)).append('\n');
+            }
+        }
+        cabecera(salida, "binance_http_fallos_total", "counter", "Peticiones sin respuesta por error de red");
+        for (EndpointMetrics metricas : porEndpoint.values()) {
+            linea(salida, "binance_http_fallos_total", "endpoint", metricas.getEndpoint(), metricas.getFallos());
+        }
+        cabecera(salida, "binance_http_ttfb_segundos", "summary", "Tiempo hasta recibir las cabeceras");
+        for (EndpointMetrics metricas : porEndpoint.values()) {
+            resumen(salida, "binance_http_ttfb_segundos", "endpoint", metricas.getEndpoint(), metricas.getTtfb());
+        }
+        cabecera(salida, "binance_http_total_segundos", "summary", "Tiempo hasta leer la respuesta completa");
+        for (EndpointMetrics metricas : porEndpoint.values()) {
+            resumen(salida, "binance_http_total_segundos", "endpoint", metricas.getEndpoint(), metricas.getTotal());
+        }
+
+        cabecera(salida, "binance_errores_total", "counter", "Errores de Binance por código");
+        for (Map.Entry<Integer, LongAdder> entrada : new TreeMap<>(erroresBinance).entrySet()) {
+            linea(salida, "binance_errores_total", "codigo", entrada.getKey().toString(), entrada.getValue().sum());
+        }
+
+        Map<String, StreamMetrics> porStream = new TreeMap<>(streams);
+        cabecera(salida, "binance_ws_mensajes_total", "counter", "Mensajes recibidos por stream");
+        for (StreamMetrics metricas : porStream.values()) {
+            linea(salida, "binance_ws_mensajes_total", "stream", metricas.getNombre(), metricas.getMensajes());
+        }
+        cabecera(salida, "binance_ws_caracteres_total", "counter", "Caracteres recibidos por stream");
+        for (StreamMetrics metricas : porStream.values()) {
+            linea(salida, "binance_ws_caracteres_total", "stream", metricas.getNombre(), metricas.getCaracteres());
+        }
+        cabecera(salida, "binance_ws_errores_total", "counter", "Mensajes que no se pudieron procesar");
+        for (StreamMetrics metricas : porStream.values()) {
+            linea(salida, "binance_ws_errores_total", "stream", metricas.getNombre(), metricas.getErrores());
+        }
+        cabecera(salida, "binance_ws_proceso_segundos", "summary", "Tiempo de decodificar y entregar cada mensaje");
+        for (StreamMetrics metricas : porStream.values()) {
+            resumen(salida, "binance_ws_proceso_segundos", "stream", metricas.getNombre(), metricas.getProceso());
+        }
+        cabecera(salida, "binance_ws_retraso_segundos", "summary", "Retraso entre el evento en Binance y su recepción");
+        for (StreamMetrics metricas : porStream.values()) {
+            resumen(salida, "binance_ws_retraso_segundos", "stream", metricas.getNombre(), metricas.getRetraso());
+        }
+    }
+
+    private static void cabecera(Appendable salida, String nombre, String tipo, String ayuda) throws IOException {
+        salida.append("# HELP ").append(nombre).append(' ').append(ayuda).append('\n');
+        salida.append("# TYPE ").append(nombre).append(' ').append(tipo).append('\n');
+    }
+
+    private static void linea(Appendable salida, String nombre, String etiqueta, String valorEtiqueta, long valor)
+            throws IOException {
+        salida.append(nombre).append('{').append(etiqueta).append("=\"").append(escapar(valorEtiqueta))
+                .append("\"} ").append(Long.toString(valor)).append('\n');
+    }
+
+    // Cuantiles, suma y conteo en segundos
+    private static void resumen(Appendable salida, String nombre, String etiqueta, String valorEtiqueta,
+                                LatencyHistogram histograma) throws IOException {
+        String prefijo = nombre + "{" + etiqueta + "=\"" + escapar(valorEtiqueta) + "\"";
+        TimeUnit unidad = histograma.getUnidad();
+        for (double cuantil : CUANTILES) {
+            salida.append(prefijo).append(",quantile=\"").append(Double.toString(cuantil)).append("\"} ")
+                    .append(segundos(histograma.percentil(cuantil * 100), unidad)).append('\n');
+        }
+        salida.append(nombre).append("_sum{").append(etiqueta).append("=\"").append(escapar(valorEtiqueta))
+                .append("\"} ").append(segundos(histograma.getSuma(), unidad)).append('\n');
+        salida.append(nombre).append("_count{").append(etiqueta).append("=\"").append(escapar(valorEtiqueta))
+                .append("\"} ").append(Long.toString(histograma.getConteo())).append('\n');
+    }
+
+    // Valor exacto en segundos, sin el ruido de redondeo de multiplicar doubles
+    private static String segundos(long valor, TimeUnit unidad) {
+        return BigDecimal.valueOf(valor).multiply(BigDecimal.valueOf(unidad.toNanos(1))).scaleByPowerOfTen(-9)
+                .stripTrailingZeros().toPlainString();
+    }
+
+    private static String escapar(String valor) {
+        return valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static <M> Map<String, Long> porNombre(Map<String, M> metricas, ToLongFunction<M> valor) {
+        Map<String, Long> resultado = new TreeMap<>();
+        for (Map.Entry<String, M> entrada : metricas.entrySet()) {
+            resultado.put(entrada.getKey(), valor.applyAsLong(entrada.getValue()));
+        }
+        return resultado;
+    }
+
+    @Override
+    public Map<String, Long> getRespuestasPorEndpoint() {
+        return porNombre(endpoints, EndpointMetrics::getRespuestas);
+    }
+
+    @Override
+    public Map<String, Long> getFallosPorEndpoint() {
+        return porNombre(endpoints, EndpointMetrics::getFallos);
+    }
+
+    @Override
+    public Map<String, Long> getP99TtfbMicrosPorEndpoint() {
+        return porNombre(endpoints, m -> m.getTtfb().percentil(99));
+    }
+
+    @Override
+    public Map<String, Long> getP99TotalMicrosPorEndpoint() {
+        return porNombre(endpoints, m -> m.getTotal().percentil(99));
+    }
+
+    @Override
+    public Map<String, Long> getErroresBinancePorCodigo() {
+        Map<String, Long> resultado = new TreeMap<>();
+        for (Map.Entry<Integer, LongAdder> entrada : erroresBinance.entrySet()) {
+            resultado.put(entrada.getKey().toString(), entrada.getValue().sum());
+        }
+        return resultado;
+    }
+
+    @Override
+    public Map<String, Long> getMensajesPorStream() {
+        return porNombre(streams, StreamMetrics::getMensajes);
+    }
+
+    @Override
+    public Map<String, Double> getTasaMensajesPorStream() {
+        Map<String, Double> resultado = new TreeMap<>();
+        for (Map.Entry<String, StreamMetrics> entrada : streams.entrySet()) {
+            resultado.put(entrada.getKey(), entrada.getValue().getMensajesPorSegundo());
+        }
+        return resultado;
+    }
+
+    @Override
+    public Map<String, Long> getP99ProcesoNanosPorStream() {
+        return porNombre(streams, m -> m.getProceso().percentil(99));
+    }
+
+    @Override
+    public Map<String, Long> getP99RetrasoMicrosPorStream() {
+        return porNombre(streams, m -> TimeUnit.MICROSECONDS.convert(m.getRetraso().percentil(99),
+                m.getRetraso().getUnidad()));
+    }
+}
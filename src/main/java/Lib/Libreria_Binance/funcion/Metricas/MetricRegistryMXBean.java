@@ -0,0 +1,27 @@
+package Lib.Libreria_Binance.funcion.Metricas;
+
+import java.util.Map;
+
+// Vista JMX de MetricRegistry (jconsole, VisualVM...). Los mapas van por endpoint, por
+// código de error o por stream
+public interface MetricRegistryMXBean {
+
+    Map<String, Long> getRespuestasPorEndpoint();
+
+    Map<String, Long> getFallosPorEndpoint();
+
+    Map<String, Long> getP99TtfbMicrosPorEndpoint();
+
+    Map<String, Long> getP99TotalMicrosPorEndpoint();
+
+    Map<String, Long> getErroresBinancePorCodigo();
+
+    Map<String, Long> getMensajesPorStream();
+
+    // Mensajes por segundo en el último segundo (leerlo no lo reinicia)
+    Map<String, Double> getTasaMensajesPorStream();
+
+    Map<String, Long> getP99ProcesoNanosPorStream();
+
+    Map<String, Long> getP99RetrasoMicrosPorStream();
+}
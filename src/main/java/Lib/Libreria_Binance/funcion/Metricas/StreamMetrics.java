@@ -0,0 +1,90 @@
+package Lib.Libreria_Binance.funcion.Metricas;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Métricas de un stream WebSocket: mensajes, caracteres, errores de parseo, tiempo de
+// proceso de cada mensaje (decodificar y entregar) y retraso entre el tiempo del evento
+// en Binance (campo E) y su recepción. El retraso incluye el desfase del reloj local
+public class StreamMetrics {
+    private static final long VENTANA_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String nombre;
+    private final LongAdder mensajes = new LongAdder();
+    private final LongAdder caracteres = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final LatencyHistogram proceso = new LatencyHistogram(TimeUnit.NANOSECONDS);
+    private final LatencyHistogram retraso = new LatencyHistogram();
+    // Ventana de la tasa de mensajes: la cierra registrar() cuando ha pasado un segundo, así
+    // que leer la tasa no la reinicia y varios lectores (JMX, Prometheus) ven lo mismo
+    private volatile long inicioVentanaNanos = System.nanoTime();
+    private long conteoVentana;
+    private volatile double tasa;
+
+    StreamMetrics(String nombre) {
+        this.nombre = nombre;
+    }
+
+    // Mensaje procesado: longitud, inicio del proceso (System.nanoTime) y tiempo del evento
+    // en ms de época (0 si el mensaje no lo trae)
+    public void registrar(int longitud, long inicioNanos, long tiempoEventoMs) {
+        long fin = System.nanoTime();
+        mensajes.increment();
+        caracteres.add(longitud);
+        proceso.registrar(fin - inicioNanos);
+        if (tiempoEventoMs > 0) {
+            retraso.registrar(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - tiempoEventoMs));
+        }
+        if (fin - inicioVentanaNanos >= VENTANA_NANOS) {
+            cerrarVentana(fin);
+        }
+    }
+
+    // Una vez por segundo como mucho: el cerrojo no se toma mensaje a mensaje
+    private synchronized void cerrarVentana(long ahora) {
+        long transcurrido = ahora - inicioVentanaNanos;
+        if (transcurrido < VENTANA_NANOS) return;
+        long conteo = mensajes.sum();
+        tasa = (conteo - conteoVentana) * 1e9 / transcurrido;
+        conteoVentana = conteo;
+        inicioVentanaNanos = ahora;
+    }
+
+    public void contarError() {
+        errores.increment();
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long getMensajes() {
+        return mensajes.sum();
+    }
+
+    public long getCaracteres() {
+        return caracteres.sum();
+    }
+
+    public long getErrores() {
+        return errores.sum();
+    }
+
+    public LatencyHistogram getProceso() {
+        return proceso;
+    }
+
+    public LatencyHistogram getRetraso() {
+        return retraso;
+    }
+
+    // Mensajes por segundo en la última ventana cerrada (de al menos un segundo). Si desde
+    // entonces no ha llegado ningún mensaje que cierre la actual, la de lo que va de ella
+    public synchronized double getMensajesPorSegundo() {
+        long transcurrido = System.nanoTime() - inicioVentanaNanos;
+        if (transcurrido >= VENTANA_NANOS) {
+            return (mensajes.sum() - conteoVentana) * 1e9 / transcurrido;
+        }
+        return tasa;
+    }
+}
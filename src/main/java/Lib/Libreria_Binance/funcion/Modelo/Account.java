@@ -0,0 +1,63 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+import java.util.Collections;
+import java.util.List;
+
+// Respuesta de /api/v3/account
+public class Account {
+    private int makerCommission;
+    private int takerCommission;
+    private int buyerCommission;
+    private int sellerCommission;
+    private boolean canTrade;
+    private boolean canWithdraw;
+    private boolean canDeposit;
+    private long updateTime;
+    private String accountType;
+    private List<Balance> balances;
+    private List<String> permissions;
+
+    public int getMakerCommission() {
+        return makerCommission;
+    }
+
+    public int getTakerCommission() {
+        return takerCommission;
+    }
+
+    public int getBuyerCommission() {
+        return buyerCommission;
+    }
+
+    public int getSellerCommission() {
+        return sellerCommission;
+    }
+
+    public boolean isCanTrade() {
+        return canTrade;
+    }
+
+    public boolean isCanWithdraw() {
+        return canWithdraw;
+    }
+
+    public boolean isCanDeposit() {
+        return canDeposit;
+    }
+
+    public long getUpdateTime() {
+        return updateTime;
+    }
+
+    public String getAccountType() {
+        return accountType;
+    }
+
+    public List<Balance> getBalances() {
+        return balances == null ? Collections.emptyList() : balances;
+    }
+
+    public List<String> getPermissions() {
+        return permissions == null ? Collections.emptyList() : permissions;
+    }
+}
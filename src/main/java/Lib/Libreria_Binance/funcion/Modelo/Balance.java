@@ -0,0 +1,36 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+// Saldo de un activo dentro de /api/v3/account (alias: evento outboundAccountPosition)
+public class Balance {
+    @JsonAlias("a")
+    private String asset;
+    @JsonAlias("f")
+    private Decimal free;
+    @JsonAlias("l")
+    private Decimal locked;
+
+    public String getAsset() {
+        return asset;
+    }
+
+    public Decimal getFree() {
+        return free;
+    }
+
+    public Decimal getLocked() {
+        return locked;
+    }
+
+    public Decimal getTotal() {
+        Decimal libre = free == null ? Decimal.CERO : free;
+        return locked == null ? libre : libre.sumar(locked);
+    }
+
+    // true si el activo tiene saldo libre o bloqueado (sin sumar: los saldos nunca son negativos)
+    public boolean tieneSaldo() {
+        return (free != null && free.signum() > 0) || (locked != null && locked.signum() > 0);
+    }
+}
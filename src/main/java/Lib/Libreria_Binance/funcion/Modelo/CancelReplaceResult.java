@@ -0,0 +1,25 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+// Respuesta de POST /api/v3/order/cancelReplace: resultado de cada mitad y la orden cancelada y la nueva
+public class CancelReplaceResult {
+    private String cancelResult;
+    private String newOrderResult;
+    private Order cancelResponse;
+    private Order newOrderResponse;
+
+    public String getCancelResult() {
+        return cancelResult;
+    }
+
+    public String getNewOrderResult() {
+        return newOrderResult;
+    }
+
+    public Order getCancelResponse() {
+        return cancelResponse;
+    }
+
+    public Order getNewOrderResponse() {
+        return newOrderResponse;
+    }
+}
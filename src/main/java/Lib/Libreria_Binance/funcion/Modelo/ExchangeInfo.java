@@ -0,0 +1,38 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+import java.util.Collections;
+import java.util.List;
+
+// Respuesta de /api/v3/exchangeInfo
+public class ExchangeInfo {
+    private String timezone;
+    private long serverTime;
+    private List<RateLimit> rateLimits;
+    private List<SymbolInfo> symbols;
+
+    public String getTimezone() {
+        return timezone;
+    }
+
+    public long getServerTime() {
+        return serverTime;
+    }
+
+    public List<RateLimit> getRateLimits() {
+        return rateLimits == null ? Collections.emptyList() : rateLimits;
+    }
+
+    public List<SymbolInfo> getSymbols() {
+        return symbols == null ? Collections.emptyList() : symbols;
+    }
+
+    // Devuelve el símbolo indicado o null si no existe
+    public SymbolInfo getSymbol(String symbol) {
+        for (SymbolInfo info : getSymbols()) {
+            if (info.getSymbol().equalsIgnoreCase(symbol)) {
+                return info;
+            }
+        }
+        return null;
+    }
+}
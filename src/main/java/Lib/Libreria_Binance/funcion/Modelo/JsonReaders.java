@@ -0,0 +1,34 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+// Lectores compartidos y thread-safe: se crean una sola vez y decodifican directamente
+// desde el InputStream de la respuesta con el JsonParser de streaming, sin árbol intermedio
+public final class JsonReaders {
+
+    // Mapper compartido; los modelos se rellenan por campo, sin necesidad de setters
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true)
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+
+    public static final ObjectReader JSON_NODE = MAPPER.readerFor(JsonNode.class);
+    public static final ObjectReader ACCOUNT = MAPPER.readerFor(Account.class);
+    public static final ObjectReader TRADE = MAPPER.readerFor(Trade.class);
+    public static final ObjectReader TRADES = MAPPER.readerForListOf(Trade.class);
+    public static final ObjectReader ORDERS = MAPPER.readerForListOf(Order.class);
+    public static final ObjectReader ORDER = MAPPER.readerFor(Order.class);
+    public static final ObjectReader CANCEL_REPLACE = MAPPER.readerFor(CancelReplaceResult.class);
+    public static final ObjectReader TICKER_PRICE = MAPPER.readerFor(TickerPrice.class);
+    public static final ObjectReader TICKER_PRICES = MAPPER.readerForListOf(TickerPrice.class);
+    public static final ObjectReader EXCHANGE_INFO = MAPPER.readerFor(ExchangeInfo.class);
+
+    private JsonReaders() {
+    }
+}
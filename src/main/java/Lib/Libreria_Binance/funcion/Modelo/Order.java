@@ -0,0 +1,111 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+// Orden devuelta por /api/v3/openOrders y /api/v3/order. Los alias son los nombres cortos
+// del evento executionReport del user data stream, que así se lee con la misma clase
+public class Order {
+    @JsonAlias("s")
+    private String symbol;
+    @JsonAlias("i")
+    private long orderId;
+    @JsonAlias("g")
+    private long orderListId;
+    @JsonAlias("c")
+    private String clientOrderId;
+    @JsonAlias("p")
+    private Decimal price;
+    @JsonAlias("q")
+    private Decimal origQty;
+    @JsonAlias("z")
+    private Decimal executedQty;
+    @JsonAlias("Z")
+    private Decimal cummulativeQuoteQty;
+    @JsonAlias("X")
+    private String status;
+    @JsonAlias("f")
+    private String timeInForce;
+    @JsonAlias("o")
+    private String type;
+    @JsonAlias("S")
+    private String side;
+    @JsonAlias("P")
+    private Decimal stopPrice;
+    @JsonAlias("O")
+    private long time;
+    @JsonAlias("T")
+    private long updateTime;
+    @JsonAlias("w")
+    private boolean isWorking;
+    // Solo en la respuesta de POST/DELETE /api/v3/order
+    private long transactTime;
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getOrderListId() {
+        return orderListId;
+    }
+
+    public String getClientOrderId() {
+        return clientOrderId;
+    }
+
+    public Decimal getPrice() {
+        return price;
+    }
+
+    public Decimal getOrigQty() {
+        return origQty;
+    }
+
+    public Decimal getExecutedQty() {
+        return executedQty;
+    }
+
+    public Decimal getCummulativeQuoteQty() {
+        return cummulativeQuoteQty;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getTimeInForce() {
+        return timeInForce;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getSide() {
+        return side;
+    }
+
+    public Decimal getStopPrice() {
+        return stopPrice;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public long getUpdateTime() {
+        return updateTime;
+    }
+
+    public boolean isWorking() {
+        return isWorking;
+    }
+
+    public long getTransactTime() {
+        return transactTime;
+    }
+}
@@ -0,0 +1,25 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+// Entrada del array rateLimits de /api/v3/exchangeInfo
+public class RateLimit {
+    private String rateLimitType;
+    private String interval;
+    private int intervalNum;
+    private int limit;
+
+    public String getRateLimitType() {
+        return rateLimitType;
+    }
+
+    public String getInterval() {
+        return interval;
+    }
+
+    public int getIntervalNum() {
+        return intervalNum;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,47 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+
+// Filtro de un símbolo (PRICE_FILTER, LOT_SIZE, NOTIONAL...); cada tipo rellena solo sus campos
+public class SymbolFilter {
+    private String filterType;
+    private Decimal minPrice;
+    private Decimal maxPrice;
+    private Decimal tickSize;
+    private Decimal minQty;
+    private Decimal maxQty;
+    private Decimal stepSize;
+    private Decimal minNotional;
+
+    public String getFilterType() {
+        return filterType;
+    }
+
+    public Decimal getMinPrice() {
+        return minPrice;
+    }
+
+    public Decimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public Decimal getTickSize() {
+        return tickSize;
+    }
+
+    public Decimal getMinQty() {
+        return minQty;
+    }
+
+    public Decimal getMaxQty() {
+        return maxQty;
+    }
+
+    public Decimal getStepSize() {
+        return stepSize;
+    }
+
+    public Decimal getMinNotional() {
+        return minNotional;
+    }
+}
@@ -0,0 +1,94 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+
+import java.util.Collections;
+import java.util.List;
+
+// Símbolo dentro de /api/v3/exchangeInfo
+public class SymbolInfo {
+    private String symbol;
+    private String status;
+    private String baseAsset;
+    private int baseAssetPrecision;
+    private String quoteAsset;
+    private int quoteAssetPrecision;
+    private List<String> orderTypes;
+    private List<SymbolFilter> filters;
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public boolean isTrading() {
+        return "TRADING".equals(status);
+    }
+
+    public String getBaseAsset() {
+        return baseAsset;
+    }
+
+    public int getBaseAssetPrecision() {
+        return baseAssetPrecision;
+    }
+
+    public String getQuoteAsset() {
+        return quoteAsset;
+    }
+
+    public int getQuoteAssetPrecision() {
+        return quoteAssetPrecision;
+    }
+
+    public List<String> getOrderTypes() {
+        return orderTypes == null ? Collections.emptyList() : orderTypes;
+    }
+
+    public List<SymbolFilter> getFilters() {
+        return filters == null ? Collections.emptyList() : filters;
+    }
+
+    // Devuelve el filtro del tipo indicado o null si el símbolo no lo tiene
+    public SymbolFilter getFilter(String filterType) {
+        for (SymbolFilter filtro : getFilters()) {
+            if (filterType.equals(filtro.getFilterType())) {
+                return filtro;
+            }
+        }
+        return null;
+    }
+
+    // Decimales del precio según el tickSize (0.01000000 -> 2); 8 si el símbolo no tiene PRICE_FILTER
+    public int getEscalaPrecio() {
+        SymbolFilter filtro = getFilter("PRICE_FILTER");
+        return escala(filtro == null ? null : filtro.getTickSize());
+    }
+
+    // Decimales de la cantidad según el stepSize de LOT_SIZE
+    public int getEscalaCantidad() {
+        SymbolFilter filtro = getFilter("LOT_SIZE");
+        return escala(filtro == null ? null : filtro.getStepSize());
+    }
+
+    // Precio redondeado al múltiplo de tickSize más cercano, listo para una orden
+    public Decimal ajustarPrecio(Decimal precio) {
+        SymbolFilter filtro = getFilter("PRICE_FILTER");
+        if (filtro == null || filtro.getTickSize() == null || filtro.getTickSize().esCero()) return precio;
+        return precio.redondearA(filtro.getTickSize());
+    }
+
+    // Cantidad truncada al múltiplo de stepSize inferior (nunca por encima de lo pedido)
+    public Decimal ajustarCantidad(Decimal cantidad) {
+        SymbolFilter filtro = getFilter("LOT_SIZE");
+        if (filtro == null || filtro.getStepSize() == null || filtro.getStepSize().esCero()) return cantidad;
+        return cantidad.truncarA(filtro.getStepSize());
+    }
+
+    private static int escala(Decimal paso) {
+        return paso == null || paso.esCero() ? 8 : paso.escalaMinima();
+    }
+}
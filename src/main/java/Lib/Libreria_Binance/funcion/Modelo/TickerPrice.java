@@ -0,0 +1,17 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+
+// Respuesta de /api/v3/ticker/price
+public class TickerPrice {
+    private String symbol;
+    private Decimal price;
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public Decimal getPrice() {
+        return price;
+    }
+}
@@ -0,0 +1,72 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+
+// Trade propio devuelto por /api/v3/myTrades
+public class Trade {
+    private String symbol;
+    private long id;
+    private long orderId;
+    private long orderListId;
+    private Decimal price;
+    private Decimal qty;
+    private Decimal quoteQty;
+    private Decimal commission;
+    private String commissionAsset;
+    private long time;
+    private boolean isBuyer;
+    private boolean isMaker;
+    private boolean isBestMatch;
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getOrderListId() {
+        return orderListId;
+    }
+
+    public Decimal getPrice() {
+        return price;
+    }
+
+    public Decimal getQty() {
+        return qty;
+    }
+
+    public Decimal getQuoteQty() {
+        return quoteQty;
+    }
+
+    public Decimal getCommission() {
+        return commission;
+    }
+
+    public String getCommissionAsset() {
+        return commissionAsset;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public boolean isBuyer() {
+        return isBuyer;
+    }
+
+    public boolean isMaker() {
+        return isMaker;
+    }
+
+    public boolean isBestMatch() {
+        return isBestMatch;
+    }
+}
@@ -0,0 +1,67 @@
+package Lib.Libreria_Binance.funcion.Ordenes;
+
+import Lib.Libreria_Binance.funcion.Connect.BinanceApiException;
+import Lib.Libreria_Binance.funcion.Modelo.CancelReplaceResult;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+
+// cancelReplace rechazado (-2021 o -2022): el campo data dice qué mitad falló y trae la
+// respuesta de cada una. La mitad que salió bien queda como Order en getResultado(); la que
+// falló, como error con su propio código
+public class CancelReplaceException extends BinanceApiException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient CancelReplaceResult resultado;
+    private final BinanceApiException errorCancelacion;
+    private final BinanceApiException errorNuevaOrden;
+
+    private CancelReplaceException(BinanceApiException causa, CancelReplaceResult resultado,
+                                   BinanceApiException errorCancelacion, BinanceApiException errorNuevaOrden) {
+        super(causa);
+        this.resultado = resultado;
+        this.errorCancelacion = errorCancelacion;
+        this.errorNuevaOrden = errorNuevaOrden;
+    }
+
+    // El error con el detalle de cada mitad, o el mismo error si no trae data
+    static BinanceApiException desde(BinanceApiException error) {
+        JsonNode data = error.getData();
+        if (!(data instanceof ObjectNode) || error instanceof CancelReplaceException) return error;
+        ObjectNode copia = ((ObjectNode) data).deepCopy();
+        BinanceApiException errorCancelacion = mitadFallida(error.getStatus(), copia, "cancelResponse");
+        BinanceApiException errorNuevaOrden = mitadFallida(error.getStatus(), copia, "newOrderResponse");
+        try {
+            CancelReplaceResult resultado = JsonReaders.CANCEL_REPLACE.readValue(copia);
+            return new CancelReplaceException(error, resultado, errorCancelacion, errorNuevaOrden);
+        } catch (IOException e) {
+            return error;
+        }
+    }
+
+    // Una mitad que falló viene como {"code":..,"msg":..} en lugar de una orden
+    private static BinanceApiException mitadFallida(int status, ObjectNode data, String campo) {
+        JsonNode mitad = data.get(campo);
+        if (mitad == null || !mitad.has("code")) return null;
+        data.remove(campo);
+        return new BinanceApiException(status, mitad.path("code").asInt(), mitad.path("msg").asText());
+    }
+
+    // cancelResult y newOrderResult (SUCCESS, FAILURE o NOT_ATTEMPTED) y las órdenes de las
+    // mitades que salieron bien; la respuesta de una mitad fallida es null
+    public CancelReplaceResult getResultado() {
+        return resultado;
+    }
+
+    // Error de la cancelación, o null si se canceló
+    public BinanceApiException getErrorCancelacion() {
+        return errorCancelacion;
+    }
+
+    // Error de la orden nueva, o null si se creó o no llegó a intentarse
+    public BinanceApiException getErrorNuevaOrden() {
+        return errorNuevaOrden;
+    }
+}
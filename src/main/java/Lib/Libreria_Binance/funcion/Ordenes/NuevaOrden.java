@@ -0,0 +1,95 @@
+package Lib.Libreria_Binance.funcion.Ordenes;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Parámetros de una orden nueva para /api/v3/order (y la parte nueva de cancelReplace).
+// Se crea con limite(...) o mercado(...) y se completa con los métodos con...
+public class NuevaOrden {
+
+    public enum Lado { BUY, SELL }
+
+    // Respuesta pedida a Binance: ACK es la más rápida (solo ids y transactTime)
+    public enum Respuesta { ACK, RESULT, FULL }
+
+    private final String symbol;
+    private final Lado lado;
+    private final String tipo;
+    private final Decimal cantidad;
+    private final Decimal precio;
+    private String timeInForce;
+    private String clientOrderId;
+    private Decimal stopPrice;
+    private Respuesta respuesta = Respuesta.ACK;
+
+    private NuevaOrden(String symbol, Lado lado, String tipo, Decimal cantidad, Decimal precio) {
+        this.symbol = symbol;
+        this.lado = lado;
+        this.tipo = tipo;
+        this.cantidad = cantidad;
+        this.precio = precio;
+    }
+
+    // Orden límite GTC
+    public static NuevaOrden limite(String symbol, Lado lado, Decimal cantidad, Decimal precio) {
+        NuevaOrden orden = new NuevaOrden(symbol, lado, "LIMIT", cantidad, precio);
+        orden.timeInForce = "GTC";
+        return orden;
+    }
+
+    // Límite que se rechaza si fuera a ejecutarse al entrar (solo maker)
+    public static NuevaOrden limiteMaker(String symbol, Lado lado, Decimal cantidad, Decimal precio) {
+        return new NuevaOrden(symbol, lado, "LIMIT_MAKER", cantidad, precio);
+    }
+
+    public static NuevaOrden mercado(String symbol, Lado lado, Decimal cantidad) {
+        return new NuevaOrden(symbol, lado, "MARKET", cantidad, null);
+    }
+
+    // GTC, IOC o FOK
+    public NuevaOrden conTimeInForce(String timeInForce) {
+        this.timeInForce = timeInForce;
+        return this;
+    }
+
+    // Id propio de la orden; permite cancelarla sin esperar al orderId de Binance
+    public NuevaOrden conClientOrderId(String clientOrderId) {
+        this.clientOrderId = clientOrderId;
+        return this;
+    }
+
+    public NuevaOrden conStopPrice(Decimal stopPrice) {
+        this.stopPrice = stopPrice;
+        return this;
+    }
+
+    public NuevaOrden conRespuesta(Respuesta respuesta) {
+        this.respuesta = respuesta;
+        return this;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public String getClientOrderId() {
+        return clientOrderId;
+    }
+
+    // Parámetros de Binance; la firma y el timestamp los añade Connect
+    Map<String, String> aParametros() {
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", symbol);
+        params.put("side", lado.name());
+        params.put("type", tipo);
+        params.put("quantity", cantidad.toString());
+        if (precio != null) params.put("price", precio.toString());
+        if (timeInForce != null) params.put("timeInForce", timeInForce);
+        if (clientOrderId != null) params.put("newClientOrderId", clientOrderId);
+        if (stopPrice != null) params.put("stopPrice", stopPrice.toString());
+        params.put("newOrderRespType", respuesta.name());
+        return params;
+    }
+}
@@ -0,0 +1,193 @@
+package Lib.Libreria_Binance.funcion.Ordenes;
+
+import Lib.Libreria_Binance.funcion.Connect.ApiTransport;
+import Lib.Libreria_Binance.funcion.Connect.BinanceApiException;
+import Lib.Libreria_Binance.funcion.Metricas.LatencyHistogram;
+import Lib.Libreria_Binance.funcion.Modelo.CancelReplaceResult;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Modelo.Order;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Envío y cancelación de órdenes spot con firma HMAC y los parámetros en el cuerpo.
+// Las versiones asíncronas no esperan unas a otras: con Connect viajan como streams HTTP/2 de
+// la misma conexión y con WsApiConnect como mensajes del mismo WebSocket. Cada tipo de
+// llamada mide su latencia de envío a confirmación
+public class OrderApi {
+    private static final String ORDER = "/api/v3/order";
+    private static final String ORDER_TEST = "/api/v3/order/test";
+    private static final String CANCEL_REPLACE = "/api/v3/order/cancelReplace";
+
+    // Modos de cancelReplace de Binance
+    public static final String PARAR_SI_FALLA = "STOP_ON_FAILURE";
+    public static final String PERMITIR_FALLO = "ALLOW_FAILURE";
+
+    private final ApiTransport transporte;
+    private final LatencyHistogram latenciaNueva = new LatencyHistogram();
+    private final LatencyHistogram latenciaCancelar = new LatencyHistogram();
+    private final LatencyHistogram latenciaCancelarReemplazar = new LatencyHistogram();
+    private final LatencyHistogram latenciaPrueba = new LatencyHistogram();
+    private volatile CompletableFuture<Void> calentamiento;
+
+    // Connect (REST) o WsApiConnect (API WebSocket)
+    public OrderApi(ApiTransport transporte) {
+        this.transporte = transporte;
+    }
+
+    public Order nueva(NuevaOrden orden) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        try {
+            return transporte.signedRequest("POST", ORDER, orden.aParametros(), JsonReaders.ORDER);
+        } finally {
+            latenciaNueva.registrarDesde(inicio);
+        }
+    }
+
+    public CompletableFuture<Order> nuevaAsync(NuevaOrden orden) {
+        return medir(latenciaNueva, transporte.signedRequestAsync("POST", ORDER, orden.aParametros(), JsonReaders.ORDER));
+    }
+
+    public Order cancelar(String symbol, long orderId) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        try {
+            return transporte.signedRequest("DELETE", ORDER, cancelacion(symbol, orderId), JsonReaders.ORDER);
+        } finally {
+            latenciaCancelar.registrarDesde(inicio);
+        }
+    }
+
+    public CompletableFuture<Order> cancelarAsync(String symbol, long orderId) {
+        return medir(latenciaCancelar,
+                transporte.signedRequestAsync("DELETE", ORDER, cancelacion(symbol, orderId), JsonReaders.ORDER));
+    }
+
+    // Cancela por el clientOrderId propio
+    public CompletableFuture<Order> cancelarAsync(String symbol, String clientOrderId) {
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", symbol);
+        params.put("origClientOrderId", clientOrderId);
+        return medir(latenciaCancelar, transporte.signedRequestAsync("DELETE", ORDER, params, JsonReaders.ORDER));
+    }
+
+    // Cancela una orden y crea otra en una sola petición (modo PARAR_SI_FALLA). Si una de las
+    // mitades falla se lanza CancelReplaceException con el resultado de cada una
+    public CancelReplaceResult cancelarReemplazar(long orderIdACancelar, NuevaOrden nueva)
+            throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        try {
+            return transporte.signedRequest("POST", CANCEL_REPLACE, cancelReemplazo(orderIdACancelar, nueva, PARAR_SI_FALLA),
+                    JsonReaders.CANCEL_REPLACE);
+        } catch (BinanceApiException e) {
+            throw CancelReplaceException.desde(e);
+        } finally {
+            latenciaCancelarReemplazar.registrarDesde(inicio);
+        }
+    }
+
+    public CompletableFuture<CancelReplaceResult> cancelarReemplazarAsync(long orderIdACancelar, NuevaOrden nueva,
+                                                                          String modo) {
+        CompletableFuture<CancelReplaceResult> futuro = medir(latenciaCancelarReemplazar, transporte.signedRequestAsync(
+                "POST", CANCEL_REPLACE, cancelReemplazo(orderIdACancelar, nueva, modo), JsonReaders.CANCEL_REPLACE));
+        return futuro.exceptionally(error -> {
+            Throwable causa = error instanceof CompletionException ? error.getCause() : error;
+            if (causa instanceof BinanceApiException) {
+                throw new CompletionException(CancelReplaceException.desde((BinanceApiException) causa));
+            }
+            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+        });
+    }
+
+    // Valida la orden en Binance sin enviarla al motor de casado; no gasta del cubo ORDERS
+    public void probar(NuevaOrden orden) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        try {
+            transporte.signedRequest("POST", ORDER_TEST, orden.aParametros(), JsonReaders.JSON_NODE);
+        } finally {
+            latenciaPrueba.registrarDesde(inicio);
+        }
+    }
+
+    public CompletableFuture<Void> probarAsync(NuevaOrden orden) {
+        return medir(latenciaPrueba, transporte.signedRequestAsync("POST", ORDER_TEST, orden.aParametros(), JsonReaders.JSON_NODE))
+                .thenApply(respuesta -> null);
+    }
+
+    // Envía todas las órdenes a la vez y devuelve un futuro por orden, en el mismo orden.
+    // Antes del primer lote se hace un ping: así la conexión ya está abierta y las órdenes
+    // no abren una conexión cada una. El transporte limita cuántas van en vuelo
+    public List<CompletableFuture<Order>> enviarLote(List<NuevaOrden> ordenes) {
+        CompletableFuture<Void> listo = calentar();
+        List<CompletableFuture<Order>> resultados = new ArrayList<>(ordenes.size());
+        for (NuevaOrden orden : ordenes) {
+            resultados.add(listo.thenCompose(nada -> nuevaAsync(orden)));
+        }
+        return resultados;
+    }
+
+    public List<CompletableFuture<Order>> cancelarLote(String symbol, List<Long> orderIds) {
+        CompletableFuture<Void> listo = calentar();
+        List<CompletableFuture<Order>> resultados = new ArrayList<>(orderIds.size());
+        for (long orderId : orderIds) {
+            resultados.add(listo.thenCompose(nada -> cancelarAsync(symbol, orderId)));
+        }
+        return resultados;
+    }
+
+    // Abre la conexión una sola vez; si falla no bloquea el envío
+    private CompletableFuture<Void> calentar() {
+        CompletableFuture<Void> actual = calentamiento;
+        if (actual == null) {
+            synchronized (this) {
+                actual = calentamiento;
+                if (actual == null) {
+                    actual = transporte.publicRequestAsync("/api/v3/ping", new HashMap<>(), JsonReaders.JSON_NODE)
+                            .handle((respuesta, error) -> null);
+                    calentamiento = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+    private static Map<String, String> cancelacion(String symbol, long orderId) {
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", symbol);
+        params.put("orderId", Long.toString(orderId));
+        return params;
+    }
+
+    private static Map<String, String> cancelReemplazo(long orderIdACancelar, NuevaOrden nueva, String modo) {
+        Map<String, String> params = nueva.aParametros();
+        params.put("cancelOrderId", Long.toString(orderIdACancelar));
+        params.put("cancelReplaceMode", modo);
+        return params;
+    }
+
+    // La latencia va desde la llamada hasta la respuesta, incluida la espera en el limitador
+    private static <T> CompletableFuture<T> medir(LatencyHistogram histograma, CompletableFuture<T> futuro) {
+        long inicio = System.nanoTime();
+        return futuro.whenComplete((valor, error) -> histograma.registrarDesde(inicio));
+    }
+
+    public LatencyHistogram getLatenciaNueva() {
+        return latenciaNueva;
+    }
+
+    public LatencyHistogram getLatenciaCancelar() {
+        return latenciaCancelar;
+    }
+
+    public LatencyHistogram getLatenciaCancelarReemplazar() {
+        return latenciaCancelarReemplazar;
+    }
+
+    public LatencyHistogram getLatenciaPrueba() {
+        return latenciaPrueba;
+    }
+}
@@ -0,0 +1,91 @@
+package Lib.Libreria_Binance.funcion.OrderBook;
+
+import java.util.Arrays;
+
+// Un lado del libro: niveles ordenados en arrays primitivos paralelos (precio y cantidad en
+// punto fijo). El mejor nivel siempre está en la posición 0, así que el top es O(1) y los
+// N primeros niveles se leen en O(N). Las actualizaciones buscan por bisección y desplazan
+// con System.arraycopy, que es barato porque casi todos los cambios ocurren cerca del top
+class BookSide {
+    private final boolean descendente;
+    private long[] precios;
+    private long[] cantidades;
+    private int tamano;
+
+    BookSide(boolean descendente, int capacidadInicial) {
+        this.descendente = descendente;
+        this.precios = new long[capacidadInicial];
+        this.cantidades = new long[capacidadInicial];
+    }
+
+    // Fija la cantidad de un nivel; cantidad 0 elimina el nivel
+    void actualizar(long precio, long cantidad) {
+        int pos = buscar(precio);
+        if (pos >= 0) {
+            if (cantidad == 0) {
+                System.arraycopy(precios, pos + 1, precios, pos, tamano - pos - 1);
+                System.arraycopy(cantidades, pos + 1, cantidades, pos, tamano - pos - 1);
+                tamano--;
+            } else {
+                cantidades[pos] = cantidad;
+            }
+            return;
+        }
+        if (cantidad == 0) {
+            return;
+        }
+        int insercion = -pos - 1;
+        if (tamano == precios.length) {
+            precios = Arrays.copyOf(precios, tamano * 2);
+            cantidades = Arrays.copyOf(cantidades, tamano * 2);
+        }
+        System.arraycopy(precios, insercion, precios, insercion + 1, tamano - insercion);
+        System.arraycopy(cantidades, insercion, cantidades, insercion + 1, tamano - insercion);
+        precios[insercion] = precio;
+        cantidades[insercion] = cantidad;
+        tamano++;
+    }
+
+    // Bisección respetando el orden del lado; igual que Arrays.binarySearch
+    private int buscar(long precio) {
+        int bajo = 0;
+        int alto = tamano - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            long valor = precios[medio];
+            int cmp = descendente ? Long.compare(precio, valor) : Long.compare(valor, precio);
+            if (cmp < 0) {
+                bajo = medio + 1;
+            } else if (cmp > 0) {
+                alto = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -(bajo + 1);
+    }
+
+    void limpiar() {
+        tamano = 0;
+    }
+
+    int getTamano() {
+        return tamano;
+    }
+
+    long getPrecio(int nivel) {
+        return precios[nivel];
+    }
+
+    long getCantidad(int nivel) {
+        return cantidades[nivel];
+    }
+
+    // Copia hasta n niveles; devuelve cuántos se copiaron
+    int copiar(int n, long[] destinoPrecios, long[] destinoCantidades) {
+        int copiar = Math.min(n, tamano);
+        System.arraycopy(precios, 0, destinoPrecios, 0, copiar);
+        System.arraycopy(cantidades, 0, destinoCantidades, 0, copiar);
+        return copiar;
+    }
+}
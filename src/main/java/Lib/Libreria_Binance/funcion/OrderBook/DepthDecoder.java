@@ -0,0 +1,105 @@
+package Lib.Libreria_Binance.funcion.OrderBook;
+
+import Lib.Libreria_Binance.funcion.RealTrades.ParserNumerico;
+
+// Decodifica en sitio tanto los eventos depthUpdate del stream
+// {"e":"depthUpdate","E":1,"s":"BNBBTC","U":157,"u":160,"b":[["0.0024","10"]],"a":[["0.0026","100"]]}
+// como el snapshot de /api/v3/depth {"lastUpdateId":160,"bids":[[...]],"asks":[[...]]}
+public class DepthDecoder {
+
+    public boolean decodificar(CharSequence datos, DepthUpdate destino) {
+        return decodificar(datos, 0, datos.length(), destino);
+    }
+
+    public boolean decodificar(CharSequence datos, int desde, int hasta, DepthUpdate destino) {
+        destino.limpiar();
+        boolean tieneId = false;
+        int i = desde;
+        while (i < hasta) {
+            while (i < hasta && datos.charAt(i) != '"') i++;
+            if (i >= hasta) break;
+            int inicioClave = i + 1;
+            int finClave = inicioClave;
+            while (finClave < hasta && datos.charAt(finClave) != '"') finClave++;
+            i = finClave + 1;
+            while (i < hasta && datos.charAt(i) != ':') i++;
+            i++;
+            while (i < hasta && datos.charAt(i) == ' ') i++;
+            if (i >= hasta) break;
+
+            if (datos.charAt(i) == '[') {
+                boolean bids = esClave(datos, inicioClave, finClave, "b") || esClave(datos, inicioClave, finClave, "bids");
+                boolean asks = esClave(datos, inicioClave, finClave, "a") || esClave(datos, inicioClave, finClave, "asks");
+                i = leerNiveles(datos, i, hasta, destino, bids, asks);
+                continue;
+            }
+
+            int inicioValor;
+            int finValor;
+            if (datos.charAt(i) == '"') {
+                inicioValor = i + 1;
+                finValor = inicioValor;
+                while (finValor < hasta && datos.charAt(finValor) != '"') finValor++;
+                i = finValor + 1;
+            } else {
+                inicioValor = i;
+                finValor = i;
+                while (finValor < hasta && datos.charAt(finValor) != ',' && datos.charAt(finValor) != '}') finValor++;
+                i = finValor;
+            }
+
+            if (esClave(datos, inicioClave, finClave, "U")) {
+                destino.primerUpdateId = ParserNumerico.parseLong(datos, inicioValor, finValor);
+            } else if (esClave(datos, inicioClave, finClave, "u")
+                    || esClave(datos, inicioClave, finClave, "lastUpdateId")) {
+                destino.ultimoUpdateId = ParserNumerico.parseLong(datos, inicioValor, finValor);
+                tieneId = true;
+            } else if (esClave(datos, inicioClave, finClave, "E")) {
+                destino.tiempoEvento = ParserNumerico.parseLong(datos, inicioValor, finValor);
+            }
+        }
+        return tieneId;
+    }
+
+    // Lee [["precio","cantidad"],...] a partir del '[' en la posición i; devuelve la posición tras ']'
+    private int leerNiveles(CharSequence datos, int i, int hasta, DepthUpdate destino, boolean bids, boolean asks) {
+        i++;
+        while (i < hasta) {
+            char c = datos.charAt(i);
+            if (c == ']') return i + 1;
+            if (c != '[') {
+                i++;
+                continue;
+            }
+            // Nivel: ["precio","cantidad"]
+            int inicioPrecio = indice(datos, '"', i, hasta) + 1;
+            int finPrecio = indice(datos, '"', inicioPrecio, hasta);
+            int inicioCantidad = indice(datos, '"', finPrecio + 1, hasta) + 1;
+            int finCantidad = indice(datos, '"', inicioCantidad, hasta);
+            long precio = ParserNumerico.parseFijo(datos, inicioPrecio, finPrecio, ParserNumerico.ESCALA);
+            long cantidad = ParserNumerico.parseFijo(datos, inicioCantidad, finCantidad, ParserNumerico.ESCALA);
+            if (bids) {
+                destino.agregarBid(precio, cantidad);
+            } else if (asks) {
+                destino.agregarAsk(precio, cantidad);
+            }
+            i = indice(datos, ']', finCantidad, hasta) + 1;
+        }
+        return i;
+    }
+
+    private static int indice(CharSequence datos, char c, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            if (datos.charAt(i) == c) return i;
+        }
+        throw new IllegalArgumentException("Mensaje de profundidad mal formado");
+    }
+
+    private static boolean esClave(CharSequence datos, int inicio, int fin, String clave) {
+        if (fin - inicio != clave.length()) return false;
+        for (int i = 0; i < clave.length(); i++) {
+            if (datos.charAt(inicio + i) != clave.charAt(i)) return false;
+        }
+        return true;
+    }
+}
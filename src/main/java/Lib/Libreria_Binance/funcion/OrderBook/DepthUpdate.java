@@ -0,0 +1,79 @@
+package Lib.Libreria_Binance.funcion.OrderBook;
+
+import java.util.Arrays;
+
+// Actualización de profundidad (diff o snapshot) decodificada en arrays reutilizables
+public class DepthUpdate {
+    long primerUpdateId;
+    long ultimoUpdateId;
+    long tiempoEvento;
+    long[] bidPrecios = new long[64];
+    long[] bidCantidades = new long[64];
+    int numBids;
+    long[] askPrecios = new long[64];
+    long[] askCantidades = new long[64];
+    int numAsks;
+
+    void limpiar() {
+        primerUpdateId = 0;
+        ultimoUpdateId = 0;
+        tiempoEvento = 0;
+        numBids = 0;
+        numAsks = 0;
+    }
+
+    void agregarBid(long precio, long cantidad) {
+        if (numBids == bidPrecios.length) {
+            bidPrecios = Arrays.copyOf(bidPrecios, numBids * 2);
+            bidCantidades = Arrays.copyOf(bidCantidades, numBids * 2);
+        }
+        bidPrecios[numBids] = precio;
+        bidCantidades[numBids++] = cantidad;
+    }
+
+    void agregarAsk(long precio, long cantidad) {
+        if (numAsks == askPrecios.length) {
+            askPrecios = Arrays.copyOf(askPrecios, numAsks * 2);
+            askCantidades = Arrays.copyOf(askCantidades, numAsks * 2);
+        }
+        askPrecios[numAsks] = precio;
+        askCantidades[numAsks++] = cantidad;
+    }
+
+    // Copia independiente, usada solo para encolar eventos mientras se sincroniza
+    DepthUpdate copia() {
+        DepthUpdate copia = new DepthUpdate();
+        copia.primerUpdateId = primerUpdateId;
+        copia.ultimoUpdateId = ultimoUpdateId;
+        copia.tiempoEvento = tiempoEvento;
+        copia.bidPrecios = Arrays.copyOf(bidPrecios, Math.max(numBids, 1));
+        copia.bidCantidades = Arrays.copyOf(bidCantidades, Math.max(numBids, 1));
+        copia.numBids = numBids;
+        copia.askPrecios = Arrays.copyOf(askPrecios, Math.max(numAsks, 1));
+        copia.askCantidades = Arrays.copyOf(askCantidades, Math.max(numAsks, 1));
+        copia.numAsks = numAsks;
+        return copia;
+    }
+
+    // U: primer id de actualización del evento
+    public long getPrimerUpdateId() {
+        return primerUpdateId;
+    }
+
+    // u: último id de actualización del evento (lastUpdateId en un snapshot)
+    public long getUltimoUpdateId() {
+        return ultimoUpdateId;
+    }
+
+    public long getTiempoEvento() {
+        return tiempoEvento;
+    }
+
+    public int getNumBids() {
+        return numBids;
+    }
+
+    public int getNumAsks() {
+        return numAsks;
+    }
+}
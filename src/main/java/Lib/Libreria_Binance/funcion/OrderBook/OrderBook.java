@@ -0,0 +1,187 @@
+package Lib.Libreria_Binance.funcion.OrderBook;
+
+import java.util.concurrent.locks.StampedLock;
+
+// Libro de órdenes local de un símbolo. Un único hilo escribe (el de sincronización) y
+// cualquier hilo puede leer: las lecturas usan lectura optimista de StampedLock y solo
+// toman el bloqueo si coinciden con una escritura. Precios y cantidades en punto fijo
+// con ParserNumerico.ESCALA decimales
+public class OrderBook {
+    private final String symbol;
+    // Se sustituyen enteros al instalar un snapshot: solo cambian con el bloqueo de escritura
+    private BookSide bids = new BookSide(true, 1024);
+    private BookSide asks = new BookSide(false, 1024);
+    private final StampedLock lock = new StampedLock();
+    private long lastUpdateId;
+
+    public OrderBook(String symbol) {
+        this.symbol = symbol.toUpperCase();
+    }
+
+    // Sustituye todo el libro por el contenido de un snapshot
+    void cargarSnapshot(DepthUpdate snapshot) {
+        instalar(new Preparado(snapshot));
+    }
+
+    // Cambia los dos lados por los de un snapshot ya ordenado: el bloqueo dura O(1)
+    void instalar(Preparado preparado) {
+        long stamp = lock.writeLock();
+        try {
+            bids = preparado.bids;
+            asks = preparado.asks;
+            lastUpdateId = preparado.lastUpdateId;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Aplica un evento diff ya validado por el sincronizador
+    void aplicar(DepthUpdate update) {
+        long stamp = lock.writeLock();
+        try {
+            aplicarNiveles(update);
+            lastUpdateId = update.ultimoUpdateId;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void aplicarNiveles(DepthUpdate update) {
+        for (int i = 0; i < update.numBids; i++) {
+            bids.actualizar(update.bidPrecios[i], update.bidCantidades[i]);
+        }
+        for (int i = 0; i < update.numAsks; i++) {
+            asks.actualizar(update.askPrecios[i], update.askCantidades[i]);
+        }
+    }
+
+    void limpiar() {
+        long stamp = lock.writeLock();
+        try {
+            bids.limpiar();
+            asks.limpiar();
+            lastUpdateId = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Niveles de un snapshot ordenados fuera de cualquier bloqueo (p. ej. en el hilo que
+    // descargó el snapshot), listos para instalar() en el libro
+    static final class Preparado {
+        private final BookSide bids = new BookSide(true, 1024);
+        private final BookSide asks = new BookSide(false, 1024);
+        private final long lastUpdateId;
+
+        Preparado(DepthUpdate snapshot) {
+            for (int i = 0; i < snapshot.numBids; i++) {
+                bids.actualizar(snapshot.bidPrecios[i], snapshot.bidCantidades[i]);
+            }
+            for (int i = 0; i < snapshot.numAsks; i++) {
+                asks.actualizar(snapshot.askPrecios[i], snapshot.askCantidades[i]);
+            }
+            lastUpdateId = snapshot.ultimoUpdateId;
+        }
+
+        long getLastUpdateId() {
+            return lastUpdateId;
+        }
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getLastUpdateId() {
+        long stamp = lock.tryOptimisticRead();
+        long id = lastUpdateId;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                id = lastUpdateId;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return id;
+    }
+
+    // Mejor precio de compra (0 si el lado está vacío)
+    public long getMejorBid() {
+        return leerTop(true, true);
+    }
+
+    public long getMejorBidCantidad() {
+        return leerTop(true, false);
+    }
+
+    // Mejor precio de venta (0 si el lado está vacío)
+    public long getMejorAsk() {
+        return leerTop(false, true);
+    }
+
+    public long getMejorAskCantidad() {
+        return leerTop(false, false);
+    }
+
+    private long leerTop(boolean bid, boolean precio) {
+        long stamp = lock.tryOptimisticRead();
+        long valor = leerNivel0(bid ? bids : asks, precio);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                valor = leerNivel0(bid ? bids : asks, precio);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return valor;
+    }
+
+    private static long leerNivel0(BookSide lado, boolean precio) {
+        // Durante una lectura optimista los arrays pueden estar cambiando: se protege el índice
+        try {
+            if (lado.getTamano() == 0) return 0;
+            return precio ? lado.getPrecio(0) : lado.getCantidad(0);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return 0;
+        }
+    }
+
+    // Copia los n mejores niveles de compra; devuelve cuántos niveles se copiaron
+    public int getBids(int n, long[] precios, long[] cantidades) {
+        return copiar(true, n, precios, cantidades);
+    }
+
+    // Copia los n mejores niveles de venta; devuelve cuántos niveles se copiaron
+    public int getAsks(int n, long[] precios, long[] cantidades) {
+        return copiar(false, n, precios, cantidades);
+    }
+
+    private int copiar(boolean bid, int n, long[] precios, long[] cantidades) {
+        long stamp = lock.readLock();
+        try {
+            return (bid ? bids : asks).copiar(n, precios, cantidades);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int getNivelesBid() {
+        long stamp = lock.readLock();
+        try {
+            return bids.getTamano();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int getNivelesAsk() {
+        long stamp = lock.readLock();
+        try {
+            return asks.getTamano();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package Lib.Libreria_Binance.funcion.OrderBook;
+
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.RealTrades.StreamListener;
+import Lib.Libreria_Binance.funcion.RealTrades.StreamManager;
+import Lib.Libreria_Binance.funcion.RealTrades.StreamMessage;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Mantiene un OrderBook sincronizado siguiendo el procedimiento de Binance:
+// 1. Se encolan los eventos @depth mientras se descarga /api/v3/depth.
+// 2. Se descartan los eventos con u <= lastUpdateId del snapshot.
+// 3. El primer evento aplicado debe cumplir U <= lastUpdateId + 1 <= u.
+// 4. Cada evento siguiente debe tener U == u anterior + 1; si hay un hueco se resincroniza.
+// El snapshot se decodifica y se ordena fuera del hilo del WebSocket y se instala de golpe;
+// los fallos al descargarlo se reintentan con backoff exponencial
+public class OrderBookSync implements StreamListener {
+    private static final int LIMITE_SNAPSHOT = 1000;
+    private static final long BACKOFF_INICIAL_MS = 250;
+    private static final long BACKOFF_MAXIMO_MS = 30_000;
+    // Eventos encolados como máximo mientras no hay snapshot; se descartan los más antiguos
+    private static final int MAX_PENDIENTES = 10_000;
+
+    private final Connect connect;
+    private final OrderBook libro;
+    private final String stream;
+    private final DepthDecoder decoder = new DepthDecoder();
+    private final DepthUpdate actual = new DepthUpdate();
+    private final ArrayDeque<DepthUpdate> pendientes = new ArrayDeque<>();
+    private final AtomicLong resincronizaciones = new AtomicLong();
+    private final AtomicLong aplicados = new AtomicLong();
+    private final AtomicLong fallosSnapshot = new AtomicLong();
+    private boolean sincronizado;
+    private boolean descargando;
+    private int intentos;
+
+    public OrderBookSync(Connect connect, String symbol) {
+        this.connect = connect;
+        this.libro = new OrderBook(symbol);
+        this.stream = StreamManager.depth(symbol);
+    }
+
+    // Suscribe el stream de profundidad en el gestor y empieza a sincronizar
+    public void iniciar(StreamManager manager) {
+        manager.agregarListener(this);
+        manager.suscribir(stream);
+    }
+
+    @Override
+    public void onMensaje(StreamMessage mensaje) {
+        if (!mensaje.streamIgual(stream)) {
+            return;
+        }
+        procesar(mensaje.getMensaje(), mensaje.getInicioDatos(), mensaje.getFinDatos());
+    }
+
+    // Procesa un evento depthUpdate; también se puede llamar directamente desde un stream raw
+    public synchronized void procesar(CharSequence datos, int desde, int hasta) {
+        if (!decoder.decodificar(datos, desde, hasta, actual)) {
+            return;
+        }
+        if (!sincronizado) {
+            encolar(actual.copia());
+            if (!descargando) {
+                descargarSnapshot(0);
+            }
+            return;
+        }
+        if (actual.ultimoUpdateId <= libro.getLastUpdateId()) {
+            return;
+        }
+        if (actual.primerUpdateId != libro.getLastUpdateId() + 1) {
+            // Hueco en la secuencia: se vuelve a empezar con este evento en la cola
+            resincronizar();
+            encolar(actual.copia());
+            descargarSnapshot(0);
+            return;
+        }
+        libro.aplicar(actual);
+        aplicados.incrementAndGet();
+    }
+
+    private void encolar(DepthUpdate evento) {
+        if (pendientes.size() == MAX_PENDIENTES) {
+            pendientes.pollFirst();
+        }
+        pendientes.add(evento);
+    }
+
+    // Pide el snapshot tras esperaMs. La respuesta se decodifica y se ordena en otro hilo
+    // (el WebSocket sigue encolando mientras tanto) y solo la instalación toma el cerrojo
+    private void descargarSnapshot(long esperaMs) {
+        descargando = true;
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", libro.getSymbol());
+        params.put("limit", String.valueOf(LIMITE_SNAPSHOT));
+        Executor ejecutor = esperaMs == 0 ? ForkJoinPool.commonPool()
+                : CompletableFuture.delayedExecutor(esperaMs, TimeUnit.MILLISECONDS);
+        CompletableFuture.supplyAsync(() -> params, ejecutor)
+                .thenCompose(p -> connect.publicRequestAsync("/api/v3/depth", p))
+                .thenApplyAsync(this::prepararSnapshot)
+                .whenComplete((preparado, error) -> {
+                    if (error != null) {
+                        Throwable causa = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        System.err.println("❌ Error al descargar el snapshot de " + libro.getSymbol() + ": "
+                                + causa.getMessage());
+                        reintentarSnapshot();
+                        return;
+                    }
+                    aplicarSnapshot(preparado);
+                });
+    }
+
+    private OrderBook.Preparado prepararSnapshot(String json) {
+        DepthUpdate snapshot = new DepthUpdate();
+        if (!new DepthDecoder().decodificar(json, snapshot)) {
+            // También llegan aquí las respuestas de error, que publicRequestAsync devuelve como texto
+            throw new IllegalStateException("snapshot de profundidad no válido: "
+                    + json.substring(0, Math.min(json.length(), 120)));
+        }
+        return new OrderBook.Preparado(snapshot);
+    }
+
+    private synchronized void reintentarSnapshot() {
+        fallosSnapshot.incrementAndGet();
+        descargarSnapshot(calcularBackoff(intentos++));
+    }
+
+    // Backoff exponencial con jitter, como ConnectionSupervisor
+    private static long calcularBackoff(int intento) {
+        long techo = Math.min(BACKOFF_MAXIMO_MS, BACKOFF_INICIAL_MS << Math.min(intento, 16));
+        return ThreadLocalRandom.current().nextLong(techo / 2, techo + 1);
+    }
+
+    private synchronized void aplicarSnapshot(OrderBook.Preparado preparado) {
+        long lastUpdateId = preparado.getLastUpdateId();
+        // Si el snapshot es anterior al primer evento encolado hay que pedir otro
+        DepthUpdate primero = pendientes.peekFirst();
+        if (primero != null && lastUpdateId + 1 < primero.primerUpdateId) {
+            reintentarSnapshot();
+            return;
+        }
+        descargando = false;
+        intentos = 0;
+        libro.instalar(preparado);
+        while (!pendientes.isEmpty()) {
+            DepthUpdate evento = pendientes.pollFirst();
+            if (evento.ultimoUpdateId <= libro.getLastUpdateId()) {
+                continue;
+            }
+            if (evento.primerUpdateId > libro.getLastUpdateId() + 1) {
+                // Se perdió un evento: lo anterior ya está aplicado u obsoleto; lo que queda
+                // en la cola sigue siendo válido para el próximo snapshot
+                pendientes.addFirst(evento);
+                resincronizar();
+                descargarSnapshot(0);
+                return;
+            }
+            libro.aplicar(evento);
+            aplicados.incrementAndGet();
+        }
+        sincronizado = true;
+    }
+
+    // La cola se conserva: al llegar el snapshot solo se descartan los eventos que deja obsoletos
+    private void resincronizar() {
+        sincronizado = false;
+        libro.limpiar();
+        resincronizaciones.incrementAndGet();
+    }
+
+    public OrderBook getLibro() {
+        return libro;
+    }
+
+    public synchronized boolean isSincronizado() {
+        return sincronizado;
+    }
+
+    public long getResincronizaciones() {
+        return resincronizaciones.get();
+    }
+
+    public long getEventosAplicados() {
+        return aplicados.get();
+    }
+
+    // Descargas de snapshot fallidas (error HTTP, respuesta no válida o snapshot antiguo)
+    public long getFallosSnapshot() {
+        return fallosSnapshot.get();
+    }
+
+    synchronized int getPendientes() {
+        return pendientes.size();
+    }
+}
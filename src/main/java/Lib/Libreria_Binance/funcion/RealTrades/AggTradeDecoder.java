@@ -0,0 +1,101 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import Lib.Libreria_Binance.funcion.Simbolos.SymbolRegistry;
+
+// Decodificador de mensajes aggTrade que lee los campos directamente del CharSequence,
+// sin String intermedio, sin árbol JSON y sin BigDecimal:
+// {"e":"aggTrade","E":123,"s":"BNBBTC","a":1,"p":"0.001","q":"100","f":1,"l":2,"T":123,"m":true,"M":true}
+// El símbolo se resuelve además a su id del SymbolRegistry global (AggTradeEvent.getIdSimbolo)
+public class AggTradeDecoder {
+    private final SymbolRegistry simbolos = SymbolRegistry.global();
+    // Con un solo stream el símbolo se repite: se comprueba antes de buscarlo
+    private int ultimoIdSimbolo = SymbolRegistry.NO_ENCONTRADO;
+
+    // Decodifica el mensaje completo; devuelve false si no es un aggTrade válido
+    public boolean decodificar(CharSequence datos, AggTradeEvent destino) {
+        return decodificar(datos, 0, datos.length(), destino);
+    }
+
+    // Decodifica el objeto JSON contenido en [desde, hasta)
+    public boolean decodificar(CharSequence datos, int desde, int hasta, AggTradeEvent destino) {
+        destino.limpiar();
+        boolean tienePrecio = false;
+        boolean tieneCantidad = false;
+        boolean tieneTiempo = false;
+
+        int i = desde;
+        while (i < hasta) {
+            // Busca el inicio de la siguiente clave
+            while (i < hasta && datos.charAt(i) != '"') i++;
+            if (i >= hasta) break;
+            int inicioClave = i + 1;
+            int finClave = inicioClave;
+            while (finClave < hasta && datos.charAt(finClave) != '"') finClave++;
+            i = finClave + 1;
+            while (i < hasta && datos.charAt(i) != ':') i++;
+            i++;
+            while (i < hasta && datos.charAt(i) == ' ') i++;
+            if (i >= hasta) break;
+
+            // Delimita el valor (entre comillas o literal)
+            int inicioValor;
+            int finValor;
+            if (datos.charAt(i) == '"') {
+                inicioValor = i + 1;
+                finValor = inicioValor;
+                while (finValor < hasta && datos.charAt(finValor) != '"') finValor++;
+                i = finValor + 1;
+            } else {
+                inicioValor = i;
+                finValor = i;
+                while (finValor < hasta) {
+                    char c = datos.charAt(finValor);
+                    if (c == ',' || c == '}' || c == ' ') break;
+                    finValor++;
+                }
+                i = finValor;
+            }
+
+            if (finClave - inicioClave != 1) continue;
+            switch (datos.charAt(inicioClave)) {
+                case 'E':
+                    destino.tiempoEvento = ParserNumerico.parseLong(datos, inicioValor, finValor);
+                    break;
+                case 'T':
+                    destino.tiempoTrade = ParserNumerico.parseLong(datos, inicioValor, finValor);
+                    tieneTiempo = true;
+                    break;
+                case 'a':
+                    destino.aggId = ParserNumerico.parseLong(datos, inicioValor, finValor);
+                    break;
+                case 'f':
+                    destino.primerId = ParserNumerico.parseLong(datos, inicioValor, finValor);
+                    break;
+                case 'l':
+                    destino.ultimoId = ParserNumerico.parseLong(datos, inicioValor, finValor);
+                    break;
+                case 'p':
+                    destino.precio = ParserNumerico.parseFijo(datos, inicioValor, finValor, ParserNumerico.ESCALA);
+                    tienePrecio = true;
+                    break;
+                case 'q':
+                    destino.cantidad = ParserNumerico.parseFijo(datos, inicioValor, finValor, ParserNumerico.ESCALA);
+                    tieneCantidad = true;
+                    break;
+                case 'm':
+                    destino.compradorMaker = datos.charAt(inicioValor) == 't';
+                    break;
+                case 's':
+                    destino.setSimbolo(datos, inicioValor, finValor);
+                    if (!simbolos.coincide(ultimoIdSimbolo, datos, inicioValor, finValor)) {
+                        ultimoIdSimbolo = simbolos.id(datos, inicioValor, finValor);
+                    }
+                    destino.idSimbolo = ultimoIdSimbolo;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return tienePrecio && tieneCantidad && tieneTiempo;
+    }
+}
@@ -0,0 +1,134 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import Lib.Libreria_Binance.funcion.Simbolos.SymbolRegistry;
+
+// Evento aggTrade mutable y reutilizable: el decodificador lo rellena sin crear objetos.
+// Precio y cantidad se guardan en punto fijo con ParserNumerico.ESCALA decimales
+public class AggTradeEvent {
+    private static final int MAX_SIMBOLO = 20;
+
+    long tiempoEvento;
+    long tiempoTrade;
+    long aggId;
+    long primerId;
+    long ultimoId;
+    long precio;
+    long cantidad;
+    boolean compradorMaker;
+    final char[] simbolo = new char[MAX_SIMBOLO];
+    int longitudSimbolo;
+    // Id en el SymbolRegistry; NO_ENCONTRADO si el registro no conoce el símbolo
+    int idSimbolo = SymbolRegistry.NO_ENCONTRADO;
+
+    // Copia todos los campos de otro evento
+    public void copiarDe(AggTradeEvent otro) {
+        tiempoEvento = otro.tiempoEvento;
+        tiempoTrade = otro.tiempoTrade;
+        aggId = otro.aggId;
+        primerId = otro.primerId;
+        ultimoId = otro.ultimoId;
+        precio = otro.precio;
+        cantidad = otro.cantidad;
+        compradorMaker = otro.compradorMaker;
+        longitudSimbolo = otro.longitudSimbolo;
+        idSimbolo = otro.idSimbolo;
+        System.arraycopy(otro.simbolo, 0, simbolo, 0, longitudSimbolo);
+    }
+
+    void limpiar() {
+        tiempoEvento = 0;
+        tiempoTrade = 0;
+        aggId = 0;
+        primerId = 0;
+        ultimoId = 0;
+        precio = 0;
+        cantidad = 0;
+        compradorMaker = false;
+        longitudSimbolo = 0;
+        idSimbolo = SymbolRegistry.NO_ENCONTRADO;
+    }
+
+    void setSimbolo(CharSequence s, int desde, int hasta) {
+        int len = Math.min(hasta - desde, MAX_SIMBOLO);
+        for (int i = 0; i < len; i++) {
+            simbolo[i] = s.charAt(desde + i);
+        }
+        longitudSimbolo = len;
+    }
+
+    public long getTiempoEvento() {
+        return tiempoEvento;
+    }
+
+    public long getTiempoTrade() {
+        return tiempoTrade;
+    }
+
+    public long getAggId() {
+        return aggId;
+    }
+
+    public long getPrimerId() {
+        return primerId;
+    }
+
+    public long getUltimoId() {
+        return ultimoId;
+    }
+
+    // Precio en punto fijo (mantisa con ParserNumerico.ESCALA decimales)
+    public long getPrecio() {
+        return precio;
+    }
+
+    // Cantidad en punto fijo (mantisa con ParserNumerico.ESCALA decimales)
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    // m=true: el comprador es maker, es decir, el agresor fue una venta
+    public boolean isCompradorMaker() {
+        return compradorMaker;
+    }
+
+    public boolean isVenta() {
+        return compradorMaker;
+    }
+
+    // Id del símbolo en SymbolRegistry.global() (-1 si no está registrado)
+    public int getIdSimbolo() {
+        return idSimbolo;
+    }
+
+    public int getLongitudSimbolo() {
+        return longitudSimbolo;
+    }
+
+    public char getCaracterSimbolo(int i) {
+        return simbolo[i];
+    }
+
+    // Compara el símbolo sin crear un String (ignora mayúsculas/minúsculas)
+    public boolean simboloIgual(CharSequence otro) {
+        if (otro.length() != longitudSimbolo) return false;
+        for (int i = 0; i < longitudSimbolo; i++) {
+            if (Character.toUpperCase(simbolo[i]) != Character.toUpperCase(otro.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    // Crea un String con el símbolo; no usar en el camino caliente
+    public String getSimbolo() {
+        return new String(simbolo, 0, longitudSimbolo);
+    }
+
+    // Conversión para mostrar o guardar; crea un objeto, así que no usar en el camino caliente
+    public Decimal getPrecioDecimal() {
+        return Decimal.de(precio, ParserNumerico.ESCALA);
+    }
+
+    public Decimal getCantidadDecimal() {
+        return Decimal.de(cantidad, ParserNumerico.ESCALA);
+    }
+}
@@ -0,0 +1,32 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+// Conecta los streams @aggTrade de un StreamManager con un TradeRingBuffer.
+// Varias conexiones pueden entregar mensajes a la vez, así que la publicación se serializa
+public class AggTradeRouter implements StreamListener {
+    private static final String SUFIJO = "@aggTrade";
+
+    private final AggTradeDecoder decoder = new AggTradeDecoder();
+    private final TradeRingBuffer pipeline;
+
+    public AggTradeRouter(TradeRingBuffer pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public void onMensaje(StreamMessage mensaje) {
+        if (!mensaje.streamTerminaEn(SUFIJO)) {
+            return;
+        }
+        synchronized (this) {
+            AggTradeEvent evento = pipeline.reclamar();
+            if (evento != null && decoder.decodificar(mensaje.getMensaje(), mensaje.getInicioDatos(),
+                    mensaje.getFinDatos(), evento)) {
+                pipeline.publicar();
+            }
+        }
+    }
+
+    public TradeRingBuffer getPipeline() {
+        return pipeline;
+    }
+}
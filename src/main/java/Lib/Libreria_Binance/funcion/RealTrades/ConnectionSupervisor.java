@@ -0,0 +1,388 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import Lib.Libreria_Binance.funcion.Connect.HttpTransport;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Mantiene viva una conexión WebSocket y reenvía sus eventos a un listener delegado.
+// Las reconexiones se programan en un planificador compartido con backoff exponencial y
+// jitter, sin dormir ningún hilo. Envía pings, detecta streams inactivos y rota la conexión
+// antes del límite de 24 h de Binance abriendo la nueva antes de cerrar la anterior. Con
+// setDrenaje la anterior sigue entregando mensajes hasta que el delegado la da por vacía
+public class ConnectionSupervisor {
+
+    private static final long BACKOFF_INICIAL_MS = 500;
+    private static final long BACKOFF_MAXIMO_MS = 30_000;
+    private static final long INTERVALO_VIGILANCIA_MS = 5_000;
+    // Sin tráfico durante este tiempo se envía un ping
+    private static final long INTERVALO_PING_MS = 20_000;
+    // Sin tráfico ni pong durante este tiempo la conexión se da por muerta
+    private static final long INACTIVIDAD_MAXIMA_MS = 60_000;
+    // Binance corta las conexiones a las 24 h: se rota un poco antes
+    private static final long VIDA_MAXIMA_MS = TimeUnit.HOURS.toMillis(23) + TimeUnit.MINUTES.toMillis(30);
+    private static final long REINTENTO_ROTACION_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final Duration TIMEOUT_CONEXION = Duration.ofSeconds(10);
+    // Tiempo máximo que una conexión rotada sigue abierta esperando a quedar vacía
+    private static final long DRENAJE_MAXIMO_MS = 15_000;
+
+    private static final ScheduledExecutorService PLANIFICADOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "ws-supervisor");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final String nombre;
+    private final Supplier<URI> uri;
+    private final WebSocket.Listener delegado;
+    private final HttpClient client;
+    private volatile Consumer<WebSocket> alConectar;
+    private volatile Function<WebSocket, ? extends CompletionStage<?>> drenaje;
+
+    // Solo se reenvían al delegado los eventos del enlace actual
+    private volatile Enlace actual;
+    private boolean activo;
+    private boolean reconexionPendiente;
+    private boolean rotando;
+    private volatile int intentos;
+    private long desconectadoDesdeNanos;
+    private ScheduledFuture<?> vigilancia;
+    private ScheduledFuture<?> rotacion;
+
+    private final AtomicLong reconexiones = new AtomicLong();
+    private final AtomicLong desconexiones = new AtomicLong();
+    private final AtomicLong inactivas = new AtomicLong();
+    private final AtomicLong rotaciones = new AtomicLong();
+    private final AtomicLong tiempoSinConexionMs = new AtomicLong();
+    private final AtomicLong mensajes = new AtomicLong();
+
+    public ConnectionSupervisor(String nombre, Supplier<URI> uri, WebSocket.Listener delegado) {
+        this(nombre, uri, delegado, getClienteCompartido());
+    }
+
+    public ConnectionSupervisor(String nombre, Supplier<URI> uri, WebSocket.Listener delegado, HttpClient client) {
+        this.nombre = nombre;
+        this.uri = uri;
+        this.delegado = delegado;
+        this.client = client;
+    }
+
+    // Cliente del transporte HTTP global: los WebSockets comparten cliente y ejecutor con Connect
+    // (el handshake de WebSocket siempre va por HTTP/1.1)
+    public static HttpClient getClienteCompartido() {
+        return HttpTransport.global().getCliente();
+    }
+
+    // Se invoca con cada WebSocket nuevo (primera conexión, reconexión o rotación)
+    public void setAlConectar(Consumer<WebSocket> alConectar) {
+        this.alConectar = alConectar;
+    }
+
+    // Al rotar, la conexión anterior sigue abierta y sus mensajes siguen llegando al delegado
+    // hasta que se completa el futuro que devuelve drenaje (o pasan DRENAJE_MAXIMO_MS); luego se
+    // cierra. Sirve cuando por la conexión vieja aún faltan respuestas (ws-api). Sin drenaje se
+    // cierra enseguida y sus mensajes se descartan, para no duplicar eventos de los streams
+    public void setDrenaje(Function<WebSocket, ? extends CompletionStage<?>> drenaje) {
+        this.drenaje = drenaje;
+    }
+
+    public synchronized void iniciar() {
+        if (activo) return;
+        activo = true;
+        abrir(false);
+        vigilancia = PLANIFICADOR.scheduleWithFixedDelay(this::vigilar,
+                INTERVALO_VIGILANCIA_MS, INTERVALO_VIGILANCIA_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void detener() {
+        activo = false;
+        cancelar(vigilancia);
+        cancelar(rotacion);
+        Enlace enlace = actual;
+        actual = null;
+        if (enlace != null && enlace.ws != null) {
+            enlace.ws.sendClose(WebSocket.NORMAL_CLOSURE, "cierre");
+        }
+    }
+
+    // WebSocket actual o null si no hay conexión abierta
+    public WebSocket getWebSocket() {
+        Enlace enlace = actual;
+        return enlace == null ? null : enlace.ws;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public boolean isConectado() {
+        return actual != null;
+    }
+
+    // Cierra la conexión actual y abre otra (p. ej. cuando cambia la URI)
+    public void reconectar() {
+        Enlace enlace = actual;
+        if (enlace == null) return;
+        if (enlace.ws != null) {
+            enlace.ws.abort();
+        }
+        perdido(enlace);
+    }
+
+    private void abrir(boolean esRotacion) {
+        Enlace enlace = new Enlace(esRotacion);
+        URI destino;
+        try {
+            destino = uri.get();
+        } catch (RuntimeException e) {
+            fallo(enlace, e);
+            return;
+        }
+        client.newWebSocketBuilder()
+                .connectTimeout(TIMEOUT_CONEXION)
+                .buildAsync(destino, enlace)
+                .whenComplete((ws, error) -> {
+                    if (error != null) fallo(enlace, error);
+                });
+    }
+
+    private void abierto(Enlace enlace, WebSocket ws) {
+        Enlace anterior;
+        synchronized (this) {
+            if (!activo) {
+                ws.abort();
+                return;
+            }
+            enlace.ws = ws;
+            enlace.ultimaActividadNanos = System.nanoTime();
+            anterior = actual;
+            actual = enlace;
+            if (enlace.esRotacion) {
+                rotando = false;
+                rotaciones.incrementAndGet();
+            }
+            if (desconectadoDesdeNanos != 0) {
+                tiempoSinConexionMs.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - desconectadoDesdeNanos));
+                desconectadoDesdeNanos = 0;
+            }
+            cancelar(rotacion);
+            rotacion = PLANIFICADOR.schedule(this::rotar, VIDA_MAXIMA_MS, TimeUnit.MILLISECONDS);
+        }
+        delegado.onOpen(ws);
+        Consumer<WebSocket> callback = alConectar;
+        if (callback != null) {
+            callback.accept(ws);
+        }
+        // Make-before-break: la conexión vieja se cierra cuando la nueva ya recibe datos
+        if (anterior != null && anterior.ws != null) {
+            retirar(anterior);
+        }
+    }
+
+    private void retirar(Enlace anterior) {
+        Function<WebSocket, ? extends CompletionStage<?>> drenar = drenaje;
+        if (drenar == null) {
+            anterior.ws.sendClose(WebSocket.NORMAL_CLOSURE, "rotación");
+            return;
+        }
+        anterior.drenando = true;
+        drenar.apply(anterior.ws).toCompletableFuture()
+                .orTimeout(DRENAJE_MAXIMO_MS, TimeUnit.MILLISECONDS)
+                .whenComplete((nada, error) -> anterior.ws.sendClose(WebSocket.NORMAL_CLOSURE, "rotación"));
+    }
+
+    private void perdido(Enlace enlace) {
+        synchronized (this) {
+            if (enlace != actual) return;
+            actual = null;
+            desconexiones.incrementAndGet();
+            desconectadoDesdeNanos = System.nanoTime();
+            cancelar(rotacion);
+            programarReconexion();
+        }
+    }
+
+    private void fallo(Enlace enlace, Throwable error) {
+        System.err.println("❌ " + nombre + ": no se pudo conectar: " + error.getMessage());
+        synchronized (this) {
+            if (enlace.esRotacion) {
+                // La conexión actual sigue viva: se reintenta la rotación más tarde
+                rotando = false;
+                if (activo) {
+                    cancelar(rotacion);
+                    rotacion = PLANIFICADOR.schedule(this::rotar, REINTENTO_ROTACION_MS, TimeUnit.MILLISECONDS);
+                }
+            } else if (actual == null) {
+                programarReconexion();
+            }
+        }
+    }
+
+    private void programarReconexion() {
+        if (!activo || reconexionPendiente) return;
+        reconexionPendiente = true;
+        long espera = calcularBackoff(intentos++);
+        PLANIFICADOR.schedule(() -> {
+            synchronized (this) {
+                reconexionPendiente = false;
+                if (!activo || actual != null) return;
+                reconexiones.incrementAndGet();
+                abrir(false);
+            }
+        }, espera, TimeUnit.MILLISECONDS);
+    }
+
+    // Backoff exponencial con jitter: aleatorio entre la mitad y min(máximo, inicial * 2^n)
+    private static long calcularBackoff(int intento) {
+        long techo = BACKOFF_INICIAL_MS << Math.min(intento, 16);
+        techo = Math.min(BACKOFF_MAXIMO_MS, techo);
+        return ThreadLocalRandom.current().nextLong(techo / 2, techo + 1);
+    }
+
+    // Abre una conexión nueva y retira la actual sin cortar el servicio (lo mismo que se hace
+    // antes de las 24 h); no hace nada si no hay conexión o ya hay una rotación en curso
+    public synchronized void rotar() {
+        if (!activo || rotando || actual == null) return;
+        rotando = true;
+        abrir(true);
+    }
+
+    private void vigilar() {
+        Enlace enlace = actual;
+        if (enlace == null || enlace.ws == null) return;
+        long inactivoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enlace.ultimaActividadNanos);
+        if (inactivoMs >= INACTIVIDAD_MAXIMA_MS) {
+            System.err.println("⚠️ " + nombre + ": sin datos en " + inactivoMs + " ms, reconectando");
+            inactivas.incrementAndGet();
+            enlace.ws.abort();
+            perdido(enlace);
+        } else if (inactivoMs >= INTERVALO_PING_MS) {
+            try {
+                enlace.ws.sendPing(ByteBuffer.allocate(0));
+            } catch (IllegalStateException e) {
+                // Ya hay un ping en curso
+            }
+        }
+    }
+
+    private static void cancelar(ScheduledFuture<?> tarea) {
+        if (tarea != null) {
+            tarea.cancel(false);
+        }
+    }
+
+    public long getReconexiones() {
+        return reconexiones.get();
+    }
+
+    public long getDesconexiones() {
+        return desconexiones.get();
+    }
+
+    // Conexiones abortadas por no recibir nada durante INACTIVIDAD_MAXIMA_MS
+    public long getConexionesInactivas() {
+        return inactivas.get();
+    }
+
+    public long getRotaciones() {
+        return rotaciones.get();
+    }
+
+    // Tiempo acumulado sin conexión entre una caída y la siguiente apertura
+    public long getTiempoSinConexionMs() {
+        return tiempoSinConexionMs.get();
+    }
+
+    public long getMensajes() {
+        return mensajes.get();
+    }
+
+    // Listener de un intento de conexión concreto
+    private final class Enlace implements WebSocket.Listener {
+        private final boolean esRotacion;
+        private volatile WebSocket ws;
+        // Conexión rotada que aún entrega mensajes al delegado (ver setDrenaje)
+        private volatile boolean drenando;
+        private volatile long ultimaActividadNanos = System.nanoTime();
+
+        private Enlace(boolean esRotacion) {
+            this.esRotacion = esRotacion;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            abierto(this, webSocket);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            if (this != actual && !drenando) {
+                webSocket.request(1);
+                return null;
+            }
+            ultimaActividadNanos = System.nanoTime();
+            mensajes.incrementAndGet();
+            if (intentos != 0) {
+                intentos = 0;
+            }
+            return delegado.onText(webSocket, data, last);
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+            if (this != actual && !drenando) {
+                webSocket.request(1);
+                return null;
+            }
+            ultimaActividadNanos = System.nanoTime();
+            return delegado.onBinary(webSocket, data, last);
+        }
+
+        // El pong a los pings del servidor lo envía java.net.http automáticamente
+        @Override
+        public CompletionStage<?> onPing(WebSocket webSocket, ByteBuffer message) {
+            ultimaActividadNanos = System.nanoTime();
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onPong(WebSocket webSocket, ByteBuffer message) {
+            ultimaActividadNanos = System.nanoTime();
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            if (this == actual) {
+                delegado.onClose(webSocket, statusCode, reason);
+                perdido(this);
+            }
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            if (this == actual) {
+                delegado.onError(webSocket, error);
+                perdido(this);
+            } else if (ws == null) {
+                fallo(this, error);
+            }
+        }
+    }
+}
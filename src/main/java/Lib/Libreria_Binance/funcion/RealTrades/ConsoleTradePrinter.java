@@ -0,0 +1,55 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import Lib.Libreria_Binance.funcion.Decimal.Fijo;
+import Lib.Libreria_Binance.funcion.Modelo.SymbolInfo;
+
+import java.io.PrintStream;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+// Consumidor que imprime las compras por consola (el comportamiento original de RealTimeTrades).
+// Se ejecuta en su propio hilo, así que la E/S de consola no frena al WebSocket.
+// Los números se escriben desde el punto fijo del evento, sin String.format ni BigDecimal
+public class ConsoleTradePrinter implements TradeListener {
+    private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private final PrintStream salida;
+    private final int decimalesPrecio;
+    private final int decimalesCantidad;
+    private final StringBuilder linea = new StringBuilder(64);
+
+    public ConsoleTradePrinter() {
+        this(System.out);
+    }
+
+    public ConsoleTradePrinter(PrintStream salida) {
+        this(salida, 2, 5);
+    }
+
+    // Con los decimales del símbolo (tickSize y stepSize de exchangeInfo)
+    public ConsoleTradePrinter(PrintStream salida, SymbolInfo simbolo) {
+        this(salida, simbolo.getEscalaPrecio(), simbolo.getEscalaCantidad());
+    }
+
+    public ConsoleTradePrinter(PrintStream salida, int decimalesPrecio, int decimalesCantidad) {
+        this.salida = salida;
+        this.decimalesPrecio = decimalesPrecio;
+        this.decimalesCantidad = decimalesCantidad;
+    }
+
+    @Override
+    public void onTrade(AggTradeEvent evento) {
+        // Solo mostrar COMPRAS (no ventas)
+        if (evento.isVenta()) {
+            return;
+        }
+        // Formato: precio (con separador de miles), cantidad, hora
+        linea.setLength(0);
+        Fijo.escribirConMiles(linea, evento.getPrecio(), ParserNumerico.ESCALA, decimalesPrecio);
+        linea.append(System.lineSeparator());
+        Fijo.escribir(linea, evento.getCantidad(), ParserNumerico.ESCALA, decimalesCantidad);
+        linea.append(System.lineSeparator());
+        timeFormatter.formatTo(LocalTime.now(), linea);
+        linea.append(System.lineSeparator());
+        salida.append(linea);
+    }
+}
@@ -0,0 +1,114 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import Lib.Libreria_Binance.funcion.Simbolos.SymbolRegistry;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+// Reproduce segmentos grabados por TickJournal a través de un TradeListener, reutilizando
+// un único AggTradeEvent. A toda velocidad o respetando el ritmo original (o un múltiplo)
+public class JournalReplay {
+    private final List<Path> segmentos;
+
+    public JournalReplay(List<Path> segmentos) {
+        this.segmentos = new ArrayList<>(segmentos);
+    }
+
+    // Todos los segmentos de un prefijo en un directorio, en orden cronológico
+    public static JournalReplay deDirectorio(Path directorio, String prefijo) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            List<Path> segmentos = archivos
+                    .filter(p -> {
+                        String nombre = p.getFileName().toString();
+                        return nombre.startsWith(prefijo + "-") && nombre.endsWith(TickJournal.EXTENSION);
+                    })
+                    .sorted()
+                    .toList();
+            return new JournalReplay(segmentos);
+        }
+    }
+
+    // Reproduce a toda velocidad; devuelve el número de trades entregados
+    public long reproducir(TradeListener listener) throws IOException, InterruptedException {
+        return reproducir(listener, 0);
+    }
+
+    // velocidad 1.0 respeta el ritmo original, 10.0 va diez veces más rápido; 0 sin esperas
+    public long reproducir(TradeListener listener, double velocidad) throws IOException, InterruptedException {
+        AggTradeEvent evento = new AggTradeEvent();
+        long total = 0;
+        long primerTiempo = Long.MIN_VALUE;
+        long inicioNanos = 0;
+        for (Path segmento : segmentos) {
+            try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.READ)) {
+                TickJournal.validarCabecera(canal, segmento);
+                long tamano = canal.size();
+                for (long inicio = TickJournal.TAMANO_CABECERA; inicio < tamano; inicio += TickJournal.TAMANO_REGION) {
+                    MappedByteBuffer region = canal.map(FileChannel.MapMode.READ_ONLY, inicio,
+                            Math.min(TickJournal.TAMANO_REGION, tamano - inicio));
+                    region.order(ByteOrder.LITTLE_ENDIAN);
+                    boolean fin = false;
+                    for (int p = 0; p + TickJournal.TAMANO_REGISTRO <= region.capacity(); p += TickJournal.TAMANO_REGISTRO) {
+                        if (region.get(p + TickJournal.OFFSET_MARCA) == 0) {
+                            fin = true;
+                            break;
+                        }
+                        leer(region, p, evento);
+                        if (velocidad > 0) {
+                            if (primerTiempo == Long.MIN_VALUE) {
+                                primerTiempo = evento.tiempoTrade;
+                                inicioNanos = System.nanoTime();
+                            }
+                            esperarHasta(inicioNanos + (long) (TimeUnit.MILLISECONDS.toNanos(evento.tiempoTrade - primerTiempo) / velocidad));
+                        }
+                        listener.onTrade(evento);
+                        total++;
+                    }
+                    if (fin) break;
+                }
+            }
+        }
+        return total;
+    }
+
+    private static void leer(MappedByteBuffer b, int p, AggTradeEvent evento) {
+        evento.tiempoEvento = b.getLong(p);
+        evento.tiempoTrade = b.getLong(p + 8);
+        evento.aggId = b.getLong(p + 16);
+        evento.primerId = b.getLong(p + 24);
+        evento.ultimoId = b.getLong(p + 32);
+        evento.precio = b.getLong(p + 40);
+        evento.cantidad = b.getLong(p + 48);
+        evento.compradorMaker = b.get(p + 56) != 0;
+        int longitud = b.get(p + 57);
+        for (int i = 0; i < longitud; i++) {
+            evento.simbolo[i] = (char) b.get(p + 58 + i);
+        }
+        evento.longitudSimbolo = longitud;
+        evento.idSimbolo = SymbolRegistry.global().id(evento.simbolo, 0, longitud);
+    }
+
+    private static void esperarHasta(long objetivoNanos) throws InterruptedException {
+        long restante;
+        while ((restante = objetivoNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    public List<Path> getSegmentos() {
+        return List.copyOf(segmentos);
+    }
+}
@@ -0,0 +1,41 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import Lib.Libreria_Binance.funcion.Decimal.Fijo;
+
+// Conversión de texto numérico a long sin crear objetos intermedios (el punto fijo, en Fijo)
+public final class ParserNumerico {
+
+    // Escala por defecto: Binance publica precios y cantidades con hasta 8 decimales
+    public static final int ESCALA = 8;
+
+    private ParserNumerico() {
+    }
+
+    public static long potencia(int escala) {
+        return Fijo.potencia(escala);
+    }
+
+    // Entero con signo en [desde, hasta)
+    public static long parseLong(CharSequence s, int desde, int hasta) {
+        if (desde >= hasta) {
+            throw new NumberFormatException("Número vacío");
+        }
+        boolean negativo = s.charAt(desde) == '-';
+        int i = negativo ? desde + 1 : desde;
+        long valor = 0;
+        for (; i < hasta; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Carácter no numérico en la posición " + i);
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return negativo ? -valor : valor;
+    }
+
+    // Decimal en [desde, hasta) convertido a punto fijo: "1.5" con escala 8 -> 150000000.
+    // Los decimales que sobran se redondean al más cercano (mitad hacia arriba)
+    public static long parseFijo(CharSequence s, int desde, int hasta, int escala) {
+        return Fijo.parse(s, desde, hasta, escala);
+    }
+}
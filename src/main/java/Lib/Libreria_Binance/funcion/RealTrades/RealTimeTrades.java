@@ -1,103 +1,149 @@
 package Lib.Libreria_Binance.funcion.RealTrades;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import Lib.Libreria_Binance.funcion.Metricas.MetricRegistry;
+import Lib.Libreria_Binance.funcion.Metricas.StreamMetrics;
+import Lib.Libreria_Binance.funcion.Simbolos.SymbolRegistry;
 
-import java.math.BigDecimal;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.WebSocket;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 public class RealTimeTrades implements WebSocket.Listener {
 
     private static final String BINANCE_WS_URL = "wss://stream.binance.com:9443/ws/";
+    // Capacidad del buffer circular entre el WebSocket y los consumidores
+    private static final int CAPACIDAD_PIPELINE = 8192;
+
     private final String symbol;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private final String nombre;
+    private final AggTradeDecoder decoder = new AggTradeDecoder();
+    private final TradeRingBuffer pipeline = new TradeRingBuffer(CAPACIDAD_PIPELINE);
+    private final StringBuilder parcial = new StringBuilder();
+    private final ConnectionSupervisor supervisor;
+    private final StreamMetrics metricas;
+    // Último aggId recibido, para detectar huecos en el stream (p. ej. tras una reconexión)
+    private long ultimoAggId;
+    private volatile long huecos;
+
+    // Comportamiento original: imprime las compras por consola
+    public static RealTimeTrades conectar(String symbol) {
+        return conectar(symbol, new ConsoleTradePrinter());
+    }
 
-    public RealTimeTrades(String symbol) {
-        this.symbol = symbol.toLowerCase();
-        connect();
+    // Entrega los trades decodificados a los listeners indicados, cada uno en su propio hilo.
+    // La conexión se abre aquí, con el objeto ya construido: el WebSocket no puede llamar a
+    // onOpen/onText sobre una instancia a medio inicializar
+    public static RealTimeTrades conectar(String symbol, TradeListener... listeners) {
+        RealTimeTrades trades = new RealTimeTrades(symbol, listeners);
+        trades.supervisor.iniciar();
+        return trades;
     }
 
-    private void connect() {
-        HttpClient client = HttpClient.newHttpClient();
-        client.newWebSocketBuilder()
-                .buildAsync(URI.create(BINANCE_WS_URL + symbol + "@aggTrade"), this);
+    private RealTimeTrades(String symbol, TradeListener... listeners) {
+        // Si el símbolo está registrado se reutilizan sus nombres en lugar de convertirlo aquí
+        this.symbol = SymbolRegistry.global().normalizarStream(symbol);
+        this.nombre = SymbolRegistry.global().normalizar(symbol);
+        URI uri = URI.create(BINANCE_WS_URL + this.symbol + "@aggTrade");
+        this.supervisor = new ConnectionSupervisor("aggTrade " + this.symbol, () -> uri, this);
+        this.metricas = MetricRegistry.global().stream(this.symbol + "@aggTrade");
+        for (TradeListener listener : listeners) {
+            agregarListener(listener);
+        }
+    }
+
+    // Registra un consumidor adicional; recibe los trades a partir de ese momento
+    public void agregarListener(TradeListener listener) {
+        pipeline.agregarConsumidor(listener, "trades-" + symbol + "-" + listener.getClass().getSimpleName());
+    }
+
+    // Acceso a las métricas de contrapresión (pendientes, ocupación, descartados)
+    public TradeRingBuffer getPipeline() {
+        return pipeline;
+    }
+
+    // Reconexiones, rotaciones y tiempo sin conexión
+    public ConnectionSupervisor getSupervisor() {
+        return supervisor;
+    }
+
+    // Mensajes, tiempo de parseo y retraso respecto al tiempo del evento
+    public StreamMetrics getMetricas() {
+        return metricas;
+    }
+
+    // Trades agregados que faltan entre dos mensajes consecutivos
+    public long getHuecos() {
+        return huecos;
+    }
+
+    // Cierra la conexión y deja de reconectar
+    public void cerrar() {
+        supervisor.detener();
     }
 
     @Override
     public void onOpen(WebSocket webSocket) {
-        System.out.println("📡 Conexión WebSocket abierta para " + symbol.toUpperCase());
+        // Un fragmento a medias de la conexión anterior ya no se puede completar
+        parcial.setLength(0);
+        System.out.println("📡 Conexión WebSocket abierta para " + nombre);
         System.out.println("=== DATOS DE COMPRAS EN TIEMPO REAL ===");
         webSocket.request(1);
     }
 
     @Override
     public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        // Los mensajes pueden llegar fragmentados: solo se acumula en ese caso
+        if (!last || parcial.length() > 0) {
+            parcial.append(data);
+            if (!last) {
+                webSocket.request(1);
+                return null;
+            }
+            data = parcial;
+        }
+        long inicio = System.nanoTime();
         try {
-            JsonNode json = objectMapper.readTree(data.toString());
-            boolean isSell = json.get("m").asBoolean(); // m=true = venta, false = compra
-
-            // Solo mostrar COMPRAS (no ventas)
-            if (!isSell) {
-                BigDecimal price = new BigDecimal(json.get("p").asText()); // precio
-                BigDecimal qty = new BigDecimal(json.get("q").asText());   // cantidad
-                String currentTime = LocalTime.now().format(timeFormatter);
-
-                // Formato exacto que solicitas: precio, cantidad, hora
-                System.out.printf("%s%n%s%n%s%n",
-                        formatPrice(price),
-                        formatQuantity(qty),
-                        currentTime
-                );
+            AggTradeEvent evento = pipeline.reclamar();
+            // Sin hueco libre el evento se descarta (el pipeline lo contabiliza)
+            if (evento != null) {
+                if (decoder.decodificar(data, evento)) {
+                    contarHueco(evento.aggId);
+                    long tiempoEvento = evento.tiempoEvento;
+                    pipeline.publicar();
+                    metricas.registrar(data.length(), inicio, tiempoEvento);
+                } else {
+                    metricas.contarError();
+                    System.err.println("❌ Mensaje aggTrade incompleto");
+                }
+            } else {
+                metricas.registrar(data.length(), inicio, 0);
             }
-
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
+            metricas.contarError();
             System.err.println("❌ Error al parsear mensaje: " + e.getMessage());
+        } finally {
+            parcial.setLength(0);
         }
         webSocket.request(1);
         return null;
     }
 
-    private String formatPrice(BigDecimal price) {
-        // Formato con comas para miles: 103,692.65
-        return String.format("%,.2f", price);
-    }
-
-    private String formatQuantity(BigDecimal qty) {
-        // Formato con 5 decimales: 0.00300
-        return String.format("%.5f", qty);
+    private void contarHueco(long aggId) {
+        if (ultimoAggId != 0 && aggId > ultimoAggId + 1) {
+            huecos += aggId - ultimoAggId - 1;
+        }
+        ultimoAggId = aggId;
     }
 
+    // La reconexión la programa el supervisor
     @Override
     public void onError(WebSocket webSocket, Throwable error) {
         System.err.println("❌ Error en WebSocket: " + error.getMessage());
-        // Intentar reconectar después de 5 segundos
-        try {
-            Thread.sleep(5000);
-            connect();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
     }
 
     @Override
     public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
         System.out.println("🔌 WebSocket cerrado: " + reason);
-        // Intentar reconectar después de un breve delay
-        CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(2000); // Esperar 2 segundos antes de reconectar
-                connect();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        });
         return null;
     }
-}
\ No newline at end of file
+}
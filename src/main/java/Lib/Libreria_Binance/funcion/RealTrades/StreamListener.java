@@ -0,0 +1,7 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+// Recibe los mensajes de los streams combinados. La vista se reutiliza en cada mensaje
+// y se invoca desde el hilo del WebSocket de cada conexión
+public interface StreamListener {
+    void onMensaje(StreamMessage mensaje);
+}
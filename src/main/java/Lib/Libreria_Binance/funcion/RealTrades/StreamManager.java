@@ -0,0 +1,317 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import Lib.Libreria_Binance.funcion.Metricas.MetricRegistry;
+import Lib.Libreria_Binance.funcion.Metricas.StreamMetrics;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Multiplexa muchos símbolos y tipos de stream sobre el endpoint combinado /stream?streams=
+// de Binance. Permite SUBSCRIBE/UNSUBSCRIBE en caliente y reparte los streams entre varias
+// conexiones cuando se alcanza el límite por conexión
+public class StreamManager {
+
+    public static final String BINANCE_STREAM_URL = "wss://stream.binance.com:9443";
+    // Límite de Binance de streams por conexión
+    public static final int MAX_STREAMS_POR_CONEXION = 1024;
+    // Streams que se incluyen en la URL al abrir; el resto se suscribe por mensaje
+    private static final int MAX_STREAMS_EN_URL = 100;
+    // Parámetros por cada mensaje SUBSCRIBE/UNSUBSCRIBE
+    private static final int MAX_PARAMS_POR_MENSAJE = 200;
+    // Numera los gestores del proceso para que sus métricas no compartan nombre
+    private static final AtomicInteger GESTORES = new AtomicInteger();
+
+    private final String baseUrl;
+    private final int maxStreamsPorConexion;
+    private final HttpClient client;
+    private final List<Conexion> conexiones = new ArrayList<>();
+    private final Map<String, Conexion> asignacion = new LinkedHashMap<>();
+    private final List<StreamListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final int numero = GESTORES.incrementAndGet();
+    // Conexiones abiertas hasta ahora (no se reutilizan números al cerrar una)
+    private int conexionesCreadas;
+
+    public StreamManager() {
+        this(BINANCE_STREAM_URL, MAX_STREAMS_POR_CONEXION);
+    }
+
+    // Permite apuntar a otro servidor (testnet o un servidor local de pruebas)
+    public StreamManager(String baseUrl, int maxStreamsPorConexion) {
+        if (maxStreamsPorConexion <= 0) {
+            throw new IllegalArgumentException("El máximo de streams por conexión debe ser positivo");
+        }
+        this.baseUrl = baseUrl;
+        this.maxStreamsPorConexion = maxStreamsPorConexion;
+        this.client = ConnectionSupervisor.getClienteCompartido();
+    }
+
+    // Nombres de stream de Binance
+    public static String aggTrade(String symbol) {
+        return symbol.toLowerCase(Locale.ROOT) + "@aggTrade";
+    }
+
+    public static String trade(String symbol) {
+        return symbol.toLowerCase(Locale.ROOT) + "@trade";
+    }
+
+    public static String bookTicker(String symbol) {
+        return symbol.toLowerCase(Locale.ROOT) + "@bookTicker";
+    }
+
+    // Diferencias de profundidad cada 100 ms
+    public static String depth(String symbol) {
+        return symbol.toLowerCase(Locale.ROOT) + "@depth@100ms";
+    }
+
+    // Velas; intervalo como los de Binance: 1s, 1m, 5m, 1h, 1d...
+    public static String kline(String symbol, String intervalo) {
+        return symbol.toLowerCase(Locale.ROOT) + "@kline_" + intervalo;
+    }
+
+    public void agregarListener(StreamListener listener) {
+        listeners.add(listener);
+    }
+
+    public void quitarListener(StreamListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Suscribe streams nuevos, rellenando primero las conexiones con hueco
+    public synchronized void suscribir(String... streams) {
+        Map<Conexion, List<String>> porConexion = new LinkedHashMap<>();
+        List<String> sinConexion = new ArrayList<>();
+        for (String stream : new LinkedHashSet<>(Arrays.asList(streams))) {
+            if (asignacion.containsKey(stream)) continue;
+            Conexion destino = null;
+            for (Conexion conexion : conexiones) {
+                if (conexion.streams.size() < maxStreamsPorConexion) {
+                    destino = conexion;
+                    break;
+                }
+            }
+            if (destino == null) {
+                sinConexion.add(stream);
+                continue;
+            }
+            destino.streams.add(stream);
+            asignacion.put(stream, destino);
+            porConexion.computeIfAbsent(destino, c -> new ArrayList<>()).add(stream);
+        }
+        for (Map.Entry<Conexion, List<String>> entrada : porConexion.entrySet()) {
+            entrada.getKey().enviarComando("SUBSCRIBE", entrada.getValue());
+        }
+        // Conexiones nuevas para lo que no cabe
+        for (int i = 0; i < sinConexion.size(); i += maxStreamsPorConexion) {
+            List<String> grupo = sinConexion.subList(i, Math.min(sinConexion.size(), i + maxStreamsPorConexion));
+            abrirConexion(new ArrayList<>(grupo));
+        }
+    }
+
+    // Desuscribe streams; las conexiones que quedan vacías se cierran
+    public synchronized void desuscribir(String... streams) {
+        Map<Conexion, List<String>> porConexion = new LinkedHashMap<>();
+        for (String stream : streams) {
+            Conexion conexion = asignacion.remove(stream);
+            if (conexion == null) continue;
+            conexion.streams.remove(stream);
+            porConexion.computeIfAbsent(conexion, c -> new ArrayList<>()).add(stream);
+        }
+        for (Map.Entry<Conexion, List<String>> entrada : porConexion.entrySet()) {
+            Conexion conexion = entrada.getKey();
+            if (conexion.streams.isEmpty()) {
+                conexiones.remove(conexion);
+                conexion.cerrar();
+            } else {
+                conexion.enviarComando("UNSUBSCRIBE", entrada.getValue());
+            }
+        }
+    }
+
+    private void abrirConexion(List<String> streams) {
+        Conexion conexion = new Conexion();
+        conexion.streams.addAll(streams);
+        for (String stream : streams) {
+            asignacion.put(stream, conexion);
+        }
+        conexiones.add(conexion);
+        conexion.abrir();
+    }
+
+    // Cierra todas las conexiones
+    public synchronized void cerrar() {
+        for (Conexion conexion : conexiones) {
+            conexion.cerrar();
+        }
+        conexiones.clear();
+        asignacion.clear();
+    }
+
+    public synchronized int getNumeroConexiones() {
+        return conexiones.size();
+    }
+
+    // Reconexiones acumuladas de todas las conexiones abiertas
+    public synchronized long getReconexiones() {
+        long total = 0;
+        for (Conexion conexion : conexiones) {
+            total += conexion.supervisor.getReconexiones();
+        }
+        return total;
+    }
+
+    public synchronized Set<String> getStreams() {
+        return new LinkedHashSet<>(asignacion.keySet());
+    }
+
+    // Supervisores de las conexiones abiertas, en orden de apertura (estado, reconexiones, rotar())
+    public synchronized List<ConnectionSupervisor> getSupervisores() {
+        List<ConnectionSupervisor> supervisores = new ArrayList<>(conexiones.size());
+        for (Conexion conexion : conexiones) {
+            supervisores.add(conexion.supervisor);
+        }
+        return supervisores;
+    }
+
+    // Una conexión WebSocket con su propio conjunto de streams. El supervisor la reabre si cae;
+    // al reconectar se vuelven a suscribir los streams que no caben en la URL
+    private final class Conexion implements WebSocket.Listener {
+        // El gestor la modifica con su propio cerrojo y el supervisor la lee al reconectar sin
+        // tomar ninguno: uri() se llama con el monitor del supervisor cogido y cerrar() toma el
+        // del supervisor, así que si uri() tomara el de la conexión podrían bloquearse entre sí
+        private final List<String> streams = new CopyOnWriteArrayList<>();
+        private final StringBuilder parcial = new StringBuilder();
+        private final StreamMessage vista = new StreamMessage();
+        // Se crea con el monitor del gestor tomado (abrirConexion)
+        private final String nombre = "stream combinado " + numero + "-" + (++conexionesCreadas);
+        private final ConnectionSupervisor supervisor = new ConnectionSupervisor(nombre, this::uri, this, client);
+        private final StreamMetrics metricas = MetricRegistry.global().stream(nombre);
+        // Streams incluidos en la URL del último intento de conexión
+        private volatile List<String> enUrl = List.of();
+        // Los envíos se encadenan: un WebSocket no admite dos sendText a la vez.
+        // Es null mientras no haya conexión abierta
+        private CompletableFuture<WebSocket> cola;
+
+        private void abrir() {
+            supervisor.setAlConectar(this::alConectar);
+            supervisor.iniciar();
+        }
+
+        private URI uri() {
+            List<String> actuales = new ArrayList<>(streams);
+            enUrl = List.copyOf(actuales.subList(0, Math.min(actuales.size(), MAX_STREAMS_EN_URL)));
+            return URI.create(baseUrl + "/stream?streams=" + String.join("/", enUrl));
+        }
+
+        // Reconcilia la conexión nueva con los streams que se quieren ahora
+        private synchronized void alConectar(WebSocket webSocket) {
+            cola = CompletableFuture.completedFuture(webSocket);
+            List<String> suscribir = new ArrayList<>(streams);
+            suscribir.removeAll(enUrl);
+            List<String> sobrantes = new ArrayList<>(enUrl);
+            sobrantes.removeAll(streams);
+            if (!suscribir.isEmpty()) enviarComando("SUBSCRIBE", suscribir);
+            if (!sobrantes.isEmpty()) enviarComando("UNSUBSCRIBE", sobrantes);
+        }
+
+        private synchronized void enviarComando(String metodo, List<String> params) {
+            // Sin conexión no se envía nada: alConectar lo reconcilia al abrir
+            if (cola == null) return;
+            for (int i = 0; i < params.size(); i += MAX_PARAMS_POR_MENSAJE) {
+                List<String> grupo = params.subList(i, Math.min(params.size(), i + MAX_PARAMS_POR_MENSAJE));
+                StringBuilder json = new StringBuilder("{\"method\":\"").append(metodo).append("\",\"params\":[");
+                for (int j = 0; j < grupo.size(); j++) {
+                    if (j > 0) json.append(',');
+                    json.append('"').append(grupo.get(j)).append('"');
+                }
+                json.append("],\"id\":").append(ids.incrementAndGet()).append('}');
+                String mensaje = json.toString();
+                cola = cola.thenCompose(ws -> ws.sendText(mensaje, true));
+            }
+            cola.exceptionally(error -> {
+                System.err.println("❌ Error al enviar " + metodo + ": " + error.getMessage());
+                return null;
+            });
+        }
+
+        // detener() toma el monitor del supervisor: fuera del de la conexión
+        private void cerrar() {
+            synchronized (this) {
+                cola = null;
+            }
+            supervisor.detener();
+        }
+
+        private synchronized void perdida() {
+            cola = null;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            parcial.setLength(0);
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            if (!last || parcial.length() > 0) {
+                parcial.append(data);
+                if (!last) {
+                    webSocket.request(1);
+                    return null;
+                }
+                data = parcial;
+            }
+            long inicio = System.nanoTime();
+            try {
+                if (vista.analizar(data)) {
+                    for (StreamListener listener : listeners) {
+                        listener.onMensaje(vista);
+                    }
+                    metricas.registrar(data.length(), inicio, vista.getTiempoEvento());
+                } else if (contiene(data, "\"error\"")) {
+                    // Respuesta de error a un SUBSCRIBE/UNSUBSCRIBE
+                    System.err.println("❌ Error de suscripción: " + data);
+                }
+            } catch (RuntimeException e) {
+                metricas.contarError();
+                System.err.println("❌ Error al procesar mensaje: " + e.getMessage());
+            } finally {
+                parcial.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            System.err.println("❌ Error en WebSocket combinado: " + error.getMessage());
+            perdida();
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            System.out.println("🔌 WebSocket combinado cerrado: " + reason);
+            perdida();
+            return null;
+        }
+    }
+
+    private static boolean contiene(CharSequence texto, String patron) {
+        return StreamMessage.indexOf(texto, patron, 0) >= 0;
+    }
+}
@@ -0,0 +1,98 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+// Vista reutilizable sobre un mensaje de stream combinado {"stream":"...","data":{...}}:
+// guarda las posiciones del nombre del stream y de los datos sin copiar el texto
+public class StreamMessage {
+    CharSequence mensaje;
+    int inicioStream;
+    int finStream;
+    int inicioDatos;
+    int finDatos;
+
+    // Localiza stream y data; devuelve false si no es un mensaje de stream combinado
+    boolean analizar(CharSequence texto) {
+        mensaje = texto;
+        int len = texto.length();
+        int clave = indexOf(texto, "\"stream\"", 0);
+        if (clave < 0) return false;
+        int i = clave + 8;
+        while (i < len && texto.charAt(i) != '"') i++;
+        inicioStream = i + 1;
+        finStream = inicioStream;
+        while (finStream < len && texto.charAt(finStream) != '"') finStream++;
+
+        int datos = indexOf(texto, "\"data\"", finStream);
+        if (datos < 0) return false;
+        i = datos + 6;
+        while (i < len && (texto.charAt(i) == ':' || texto.charAt(i) == ' ')) i++;
+        inicioDatos = i;
+        // "data" es la última clave: los datos terminan antes de la llave final del envoltorio
+        int fin = len - 1;
+        while (fin > inicioDatos && texto.charAt(fin) != '}') fin--;
+        fin--;
+        while (fin > inicioDatos && texto.charAt(fin) == ' ') fin--;
+        finDatos = fin + 1;
+        return finDatos > inicioDatos;
+    }
+
+    static int indexOf(CharSequence texto, String patron, int desde) {
+        int max = texto.length() - patron.length();
+        for (int i = desde; i <= max; i++) {
+            int j = 0;
+            while (j < patron.length() && texto.charAt(i + j) == patron.charAt(j)) j++;
+            if (j == patron.length()) return i;
+        }
+        return -1;
+    }
+
+    // Campo E de los datos (tiempo del evento en ms), o 0 si no lo tienen
+    public long getTiempoEvento() {
+        int clave = indexOf(mensaje, "\"E\":", inicioDatos);
+        if (clave < 0 || clave >= finDatos) return 0;
+        int inicio = clave + 4;
+        int fin = inicio;
+        while (fin < finDatos && mensaje.charAt(fin) >= '0' && mensaje.charAt(fin) <= '9') fin++;
+        return fin > inicio ? ParserNumerico.parseLong(mensaje, inicio, fin) : 0;
+    }
+
+    public CharSequence getMensaje() {
+        return mensaje;
+    }
+
+    public int getInicioDatos() {
+        return inicioDatos;
+    }
+
+    public int getFinDatos() {
+        return finDatos;
+    }
+
+    // Compara el nombre del stream sin crear un String
+    public boolean streamIgual(CharSequence stream) {
+        if (stream.length() != finStream - inicioStream) return false;
+        for (int i = 0; i < stream.length(); i++) {
+            if (mensaje.charAt(inicioStream + i) != stream.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    // true si el nombre del stream termina en el sufijo (p. ej. "@aggTrade")
+    public boolean streamTerminaEn(CharSequence sufijo) {
+        int len = sufijo.length();
+        if (finStream - inicioStream < len) return false;
+        for (int i = 0; i < len; i++) {
+            if (mensaje.charAt(finStream - len + i) != sufijo.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    // Crea un String con el nombre del stream; no usar en el camino caliente
+    public String getStream() {
+        return mensaje.subSequence(inicioStream, finStream).toString();
+    }
+
+    // Crea un String con los datos; no usar en el camino caliente
+    public String getDatos() {
+        return mensaje.subSequence(inicioDatos, finDatos).toString();
+    }
+}
@@ -0,0 +1,180 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Diario binario de aggTrades: registros de tamaño fijo escritos sobre un MappedByteBuffer,
+// sin crear objetos por evento. Un archivo (segmento) por día UTC según el tiempo del trade:
+// <directorio>/<prefijo>-AAAA-MM-DD.journal. Los segmentos solo avanzan: un trade de un día
+// anterior que llega tarde (desorden cerca de medianoche) se escribe en el segmento actual.
+// Se registra como TradeListener de RealTimeTrades y se reproduce con JournalReplay.
+//
+// Cabecera (64 bytes): magia, versión, tamaño de registro. Registro (80 bytes, little endian):
+//  0 tiempoEvento | 8 tiempoTrade | 16 aggId | 24 primerId | 32 ultimoId | 40 precio | 48 cantidad
+//  56 compradorMaker | 57 longitud del símbolo | 58..77 símbolo ASCII | 79 marca de registro completo
+public class TickJournal implements TradeListener, Closeable {
+    static final int MAGIA = 0x424E4A31; // "BNJ1"
+    static final int VERSION = 1;
+    static final int TAMANO_CABECERA = 64;
+    static final int TAMANO_REGISTRO = 80;
+    static final int MAX_SIMBOLO = 20;
+    static final int OFFSET_MARCA = TAMANO_REGISTRO - 1;
+    // Registros por región mapeada (80 MB); el archivo crece región a región
+    static final int REGISTROS_POR_REGION = 1 << 20;
+    static final long TAMANO_REGION = (long) REGISTROS_POR_REGION * TAMANO_REGISTRO;
+    static final String EXTENSION = ".journal";
+
+    private static final long MS_DIA = TimeUnit.DAYS.toMillis(1);
+
+    private final Path directorio;
+    private final String prefijo;
+    private FileChannel canal;
+    private MappedByteBuffer region;
+    private long inicioRegion;
+    private int posicion;
+    private long dia = Long.MIN_VALUE;
+    private long escritos;
+    private long tardios;
+
+    public TickJournal(Path directorio, String prefijo) throws IOException {
+        this.directorio = directorio;
+        this.prefijo = prefijo;
+        Files.createDirectories(directorio);
+    }
+
+    static Path segmento(Path directorio, String prefijo, long dia) {
+        return directorio.resolve(prefijo + "-" + LocalDate.ofEpochDay(dia) + EXTENSION);
+    }
+
+    @Override
+    public void onTrade(AggTradeEvent evento) {
+        try {
+            escribir(evento);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Añade un registro; solo debe llamarlo un hilo
+    public void escribir(AggTradeEvent evento) throws IOException {
+        long diaEvento = Math.floorDiv(evento.tiempoTrade, MS_DIA);
+        if (diaEvento > dia) {
+            abrirSegmento(diaEvento);
+        } else if (diaEvento < dia) {
+            // Volver al segmento anterior y reabrir el actual en cada trade desordenado
+            // costaría dos mapeos por evento
+            tardios++;
+        }
+        if (posicion == region.capacity()) {
+            mapear(inicioRegion + region.capacity());
+        }
+        MappedByteBuffer b = region;
+        int p = posicion;
+        b.putLong(p, evento.tiempoEvento);
+        b.putLong(p + 8, evento.tiempoTrade);
+        b.putLong(p + 16, evento.aggId);
+        b.putLong(p + 24, evento.primerId);
+        b.putLong(p + 32, evento.ultimoId);
+        b.putLong(p + 40, evento.precio);
+        b.putLong(p + 48, evento.cantidad);
+        b.put(p + 56, (byte) (evento.compradorMaker ? 1 : 0));
+        int longitud = Math.min(evento.longitudSimbolo, MAX_SIMBOLO);
+        b.put(p + 57, (byte) longitud);
+        for (int i = 0; i < longitud; i++) {
+            b.put(p + 58 + i, (byte) evento.simbolo[i]);
+        }
+        // La marca va la última: un lector que la vea tiene el registro completo
+        VarHandle.releaseFence();
+        b.put(p + OFFSET_MARCA, (byte) 1);
+        posicion = p + TAMANO_REGISTRO;
+        escritos++;
+    }
+
+    private void abrirSegmento(long nuevoDia) throws IOException {
+        cerrarSegmento();
+        Path archivo = segmento(directorio, prefijo, nuevoDia);
+        canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (canal.size() == 0) {
+            MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANO_CABECERA);
+            cabecera.order(ByteOrder.LITTLE_ENDIAN);
+            cabecera.putInt(0, MAGIA);
+            cabecera.putInt(4, VERSION);
+            cabecera.putInt(8, TAMANO_REGISTRO);
+            cabecera.force();
+        } else {
+            validarCabecera(canal, archivo);
+        }
+        dia = nuevoDia;
+        // Si el segmento ya existía se continúa tras su último registro completo
+        mapear(TAMANO_CABECERA);
+        while (true) {
+            while (posicion < region.capacity()) {
+                if (region.get(posicion + OFFSET_MARCA) == 0) return;
+                posicion += TAMANO_REGISTRO;
+            }
+            mapear(inicioRegion + region.capacity());
+        }
+    }
+
+    static void validarCabecera(FileChannel canal, Path archivo) throws IOException {
+        MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAMANO_CABECERA);
+        cabecera.order(ByteOrder.LITTLE_ENDIAN);
+        if (cabecera.getInt(0) != MAGIA || cabecera.getInt(8) != TAMANO_REGISTRO) {
+            throw new IOException("No es un diario de trades válido: " + archivo);
+        }
+        if (cabecera.getInt(4) != VERSION) {
+            throw new IOException("Versión de diario no soportada (" + cabecera.getInt(4) + "): " + archivo);
+        }
+    }
+
+    private void mapear(long inicio) throws IOException {
+        if (region != null) {
+            region.force();
+        }
+        region = canal.map(FileChannel.MapMode.READ_WRITE, inicio, TAMANO_REGION);
+        region.order(ByteOrder.LITTLE_ENDIAN);
+        inicioRegion = inicio;
+        posicion = 0;
+    }
+
+    // Fuerza a disco lo escrito hasta ahora
+    public void flush() {
+        if (region != null) {
+            region.force();
+        }
+    }
+
+    private void cerrarSegmento() throws IOException {
+        if (canal != null) {
+            region.force();
+            canal.close();
+            canal = null;
+            region = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        cerrarSegmento();
+        dia = Long.MIN_VALUE;
+    }
+
+    public long getEscritos() {
+        return escritos;
+    }
+
+    // Trades de un día anterior escritos en el segmento del día en curso
+    public long getTardios() {
+        return tardios;
+    }
+}
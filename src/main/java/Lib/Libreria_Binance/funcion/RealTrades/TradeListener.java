@@ -0,0 +1,7 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+// Consumidor de trades decodificados. El evento pertenece al buffer circular y se reutiliza:
+// si hay que conservarlo después de volver, se debe copiar (AggTradeEvent.copiarDe)
+public interface TradeListener {
+    void onTrade(AggTradeEvent evento);
+}
@@ -0,0 +1,171 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Buffer circular estilo Disruptor: un productor (el hilo del WebSocket) y varios consumidores,
+// cada uno en su propio hilo y recibiendo todos los eventos. Los eventos están preasignados,
+// así que publicar no crea objetos. Si el consumidor más lento se queda sin hueco, el evento
+// se descarta y se cuenta en lugar de bloquear al productor
+public class TradeRingBuffer {
+    private static final long ESPERA_MAXIMA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AggTradeEvent[] slots;
+    private final int mascara;
+    // Última secuencia publicada
+    private final AtomicLong cursor = new AtomicLong(-1);
+    // Copia en escritura: publicar recorre el array sin crear un iterador
+    private volatile Consumidor[] consumidores = new Consumidor[0];
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong publicados = new AtomicLong();
+    // Solo lo usa el productor: evita recorrer los consumidores en cada evento
+    private long minimoCacheado = -1;
+
+    public TradeRingBuffer(int capacidad) {
+        if (capacidad <= 0 || Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser una potencia de 2");
+        }
+        this.slots = new AggTradeEvent[capacidad];
+        for (int i = 0; i < capacidad; i++) {
+            slots[i] = new AggTradeEvent();
+        }
+        this.mascara = capacidad - 1;
+    }
+
+    // Registra un consumidor y arranca su hilo; empieza a recibir desde el siguiente evento
+    public synchronized void agregarConsumidor(TradeListener listener, String nombre) {
+        Consumidor consumidor = new Consumidor(listener, cursor.get());
+        Thread hilo = new Thread(consumidor, nombre);
+        hilo.setDaemon(true);
+        consumidor.hilo = hilo;
+        Consumidor[] actuales = consumidores;
+        Consumidor[] nuevos = Arrays.copyOf(actuales, actuales.length + 1);
+        nuevos[actuales.length] = consumidor;
+        consumidores = nuevos;
+        hilo.start();
+    }
+
+    // Devuelve el hueco donde escribir el siguiente evento o null si no hay espacio (se descarta).
+    // Solo debe llamarlo el hilo productor
+    public AggTradeEvent reclamar() {
+        long siguiente = cursor.get() + 1;
+        long envoltura = siguiente - slots.length;
+        if (envoltura > minimoCacheado) {
+            minimoCacheado = minimoConsumidores();
+            if (envoltura > minimoCacheado) {
+                descartados.incrementAndGet();
+                return null;
+            }
+        }
+        return slots[(int) (siguiente & mascara)];
+    }
+
+    // Publica el hueco devuelto por el último reclamar()
+    public void publicar() {
+        // Escritura volátil (no lazySet): tiene que quedar visible antes de leer 'esperando'. Si
+        // no, un consumidor que acaba de comprobar el cursor y aparcarse se pierde el aviso y
+        // espera el milisegundo entero
+        cursor.set(cursor.get() + 1);
+        publicados.incrementAndGet();
+        for (Consumidor consumidor : consumidores) {
+            if (consumidor.esperando) {
+                LockSupport.unpark(consumidor.hilo);
+            }
+        }
+    }
+
+    private long minimoConsumidores() {
+        long minimo = cursor.get();
+        for (Consumidor consumidor : consumidores) {
+            minimo = Math.min(minimo, consumidor.secuencia.get());
+        }
+        return minimo;
+    }
+
+    // Detiene todos los consumidores
+    public synchronized void detener() {
+        Consumidor[] actuales = consumidores;
+        consumidores = new Consumidor[0];
+        for (Consumidor consumidor : actuales) {
+            consumidor.activo = false;
+            LockSupport.unpark(consumidor.hilo);
+        }
+    }
+
+    public int getCapacidad() {
+        return slots.length;
+    }
+
+    // Eventos publicados que el consumidor más lento aún no ha procesado
+    public long getPendientes() {
+        return cursor.get() - minimoConsumidores();
+    }
+
+    // Fracción del buffer ocupada (0..1): indica la contrapresión actual
+    public double getOcupacion() {
+        return (double) getPendientes() / slots.length;
+    }
+
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    public long getPublicados() {
+        return publicados.get();
+    }
+
+    // Excepciones lanzadas por los consumidores (el evento se da por procesado)
+    public long getErroresConsumidores() {
+        long total = 0;
+        for (Consumidor consumidor : consumidores) {
+            total += consumidor.errores.get();
+        }
+        return total;
+    }
+
+    private final class Consumidor implements Runnable {
+        private final TradeListener listener;
+        private final AtomicLong secuencia;
+        private final AtomicLong errores = new AtomicLong();
+        private volatile boolean activo = true;
+        private volatile boolean esperando;
+        private Thread hilo;
+
+        private Consumidor(TradeListener listener, long inicio) {
+            this.listener = listener;
+            this.secuencia = new AtomicLong(inicio);
+        }
+
+        @Override
+        public void run() {
+            while (activo) {
+                long siguiente = secuencia.get() + 1;
+                long disponible = cursor.get();
+                if (siguiente > disponible) {
+                    esperar(siguiente);
+                    continue;
+                }
+                for (long s = siguiente; s <= disponible; s++) {
+                    try {
+                        listener.onTrade(slots[(int) (s & mascara)]);
+                    } catch (RuntimeException e) {
+                        errores.incrementAndGet();
+                        System.err.println("❌ Error en consumidor de trades: " + e.getMessage());
+                    }
+                }
+                secuencia.lazySet(disponible);
+            }
+        }
+
+        private void esperar(long siguiente) {
+            esperando = true;
+            // Se vuelve a comprobar tras marcar la espera para no perder un aviso del productor
+            if (cursor.get() < siguiente && activo) {
+                LockSupport.parkNanos(this, ESPERA_MAXIMA_NANOS);
+            }
+            esperando = false;
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package Lib.Libreria_Binance.funcion.Simbolos;
+
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import Lib.Libreria_Binance.funcion.Modelo.ExchangeInfo;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Modelo.SymbolFilter;
+import Lib.Libreria_Binance.funcion.Modelo.SymbolInfo;
+import Lib.Libreria_Binance.funcion.RealTrades.ParserNumerico;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Símbolos de exchangeInfo con ids enteros densos (0, 1, 2...) que no cambian mientras viva el
+// registro. Estado, tickSize, stepSize, minNotional y precisiones se guardan en arrays primitivos
+// indexados por id, y el id se busca por CharSequence, char[] o bytes sin crear un String.
+// Las lecturas no bloquean: cada actualización con cambios publica una copia nueva de los arrays
+public final class SymbolRegistry {
+
+    public static final int NO_ENCONTRADO = -1;
+
+    // Estados de exchangeInfo; RETIRADO es un símbolo que ya no aparece en exchangeInfo
+    public enum Estado { PRE_TRADING, TRADING, POST_TRADING, END_OF_DAY, HALT, AUCTION_MATCH, BREAK, DESCONOCIDO, RETIRADO }
+
+    private static final Estado[] ESTADOS = Estado.values();
+    private static final SymbolRegistry GLOBAL = new SymbolRegistry();
+
+    private volatile Datos datos = Datos.VACIO;
+    // Último exchangeInfo completo aplicado (null tras refrescar): la caché de Connect devuelve el
+    // mismo objeto mientras no caduca, y entonces no hace falta compararlo otra vez
+    private ExchangeInfo ultimo;
+
+    // Registro compartido por TraerData, RealTimeTrades, CandleAggregator y ConnectionInfo
+    public static SymbolRegistry global() {
+        return GLOBAL;
+    }
+
+    // ---- Carga y refresco ----
+
+    // Descarga /api/v3/exchangeInfo (a través de la caché de Connect) y lo aplica entero.
+    // Devuelve cuántos símbolos han cambiado; sin cambios no se copia nada
+    public int cargar(Connect connect) throws IOException, InterruptedException {
+        ExchangeInfo info = connect.publicRequestCached("/api/v3/exchangeInfo", new HashMap<>(), JsonReaders.EXCHANGE_INFO);
+        return actualizar(info);
+    }
+
+    // Refresca solo los símbolos indicados (exchangeInfo?symbols=[...]); el resto no se toca
+    public int refrescar(Connect connect, Collection<String> symbols) throws IOException, InterruptedException {
+        if (symbols.isEmpty()) return 0;
+        StringBuilder lista = new StringBuilder().append('[');
+        for (String symbol : symbols) {
+            if (lista.length() > 1) lista.append(',');
+            lista.append('"').append(normalizar(symbol)).append('"');
+        }
+        Map<String, String> params = new HashMap<>();
+        params.put("symbols", lista.append(']').toString());
+        ExchangeInfo info = connect.publicRequest("/api/v3/exchangeInfo", params, JsonReaders.EXCHANGE_INFO);
+        synchronized (this) {
+            // El registro ya no es el último exchangeInfo completo: el siguiente se aplica aunque
+            // sea el mismo objeto de la caché
+            ultimo = null;
+            return aplicar(info.getSymbols(), false);
+        }
+    }
+
+    // Aplica un exchangeInfo completo ya descargado: los símbolos nuevos reciben el siguiente id,
+    // los existentes se actualizan en su sitio y los que ya no aparecen pasan a RETIRADO
+    public synchronized int actualizar(ExchangeInfo info) {
+        if (info == ultimo) return 0;
+        ultimo = info;
+        return aplicar(info.getSymbols(), true);
+    }
+
+    private synchronized int aplicar(List<SymbolInfo> simbolos, boolean completo) {
+        Datos actual = datos;
+        Datos nuevo = null;
+        int cambios = 0;
+        boolean[] vistos = completo ? new boolean[actual.total] : null;
+        for (SymbolInfo info : simbolos) {
+            if (info.getSymbol() == null) continue;
+            int id = actual.buscar(info.getSymbol(), 0, info.getSymbol().length());
+            if (id == NO_ENCONTRADO && nuevo != null) {
+                id = nuevo.buscar(info.getSymbol(), 0, info.getSymbol().length());
+            }
+            if (id >= 0 && id < actual.total) {
+                if (vistos != null) vistos[id] = true;
+                if (actual.igual(id, info)) continue;
+            }
+            if (nuevo == null) nuevo = actual.copia(actual.total + simbolos.size());
+            if (id == NO_ENCONTRADO) id = nuevo.agregar(info.getSymbol());
+            nuevo.escribir(id, info);
+            cambios++;
+        }
+        if (vistos != null) {
+            for (int id = 0; id < vistos.length; id++) {
+                if (vistos[id] || actual.estados[id] == Estado.RETIRADO.ordinal()) continue;
+                if (nuevo == null) nuevo = actual.copia(actual.total);
+                nuevo.estados[id] = (byte) Estado.RETIRADO.ordinal();
+                cambios++;
+            }
+        }
+        if (nuevo != null) {
+            nuevo.contarActivos();
+            datos = nuevo;
+        }
+        return cambios;
+    }
+
+    // ---- Búsqueda por nombre (sin distinguir mayúsculas) ----
+
+    public int id(CharSequence symbol) {
+        return datos.buscar(symbol, 0, symbol.length());
+    }
+
+    public int id(CharSequence s, int desde, int hasta) {
+        return datos.buscar(s, desde, hasta);
+    }
+
+    public int id(char[] s, int desde, int hasta) {
+        Datos d = datos;
+        int h = 0;
+        for (int i = desde; i < hasta; i++) h = 31 * h + mayuscula(s[i]);
+        for (int pos = posicion(h, d.mascara); ; pos = (pos + 1) & d.mascara) {
+            int v = d.tabla[pos];
+            if (v == 0) return NO_ENCONTRADO;
+            String nombre = d.nombres[v - 1];
+            if (nombre.length() == hasta - desde) {
+                int i = 0;
+                while (i < nombre.length() && nombre.charAt(i) == mayuscula(s[desde + i])) i++;
+                if (i == nombre.length()) return v - 1;
+            }
+        }
+    }
+
+    // Sobre los bytes ASCII de un mensaje sin decodificar
+    public int id(byte[] s, int desde, int hasta) {
+        Datos d = datos;
+        int h = 0;
+        for (int i = desde; i < hasta; i++) h = 31 * h + mayuscula((char) (s[i] & 0xFF));
+        for (int pos = posicion(h, d.mascara); ; pos = (pos + 1) & d.mascara) {
+            int v = d.tabla[pos];
+            if (v == 0) return NO_ENCONTRADO;
+            String nombre = d.nombres[v - 1];
+            if (nombre.length() == hasta - desde) {
+                int i = 0;
+                while (i < nombre.length() && nombre.charAt(i) == mayuscula((char) (s[desde + i] & 0xFF))) i++;
+                if (i == nombre.length()) return v - 1;
+            }
+        }
+    }
+
+    // true si el id corresponde a ese nombre; sirve para comprobar primero el último id usado
+    public boolean coincide(int id, CharSequence s, int desde, int hasta) {
+        if (id < 0) return false;
+        String nombre = datos.nombres[id];
+        if (nombre.length() != hasta - desde) return false;
+        for (int i = 0; i < nombre.length(); i++) {
+            if (nombre.charAt(i) != mayuscula(s.charAt(desde + i))) return false;
+        }
+        return true;
+    }
+
+    // Nombre canónico (el mismo String siempre) si el símbolo está registrado; si no, en mayúsculas
+    public String normalizar(String symbol) {
+        int id = id(symbol);
+        return id >= 0 ? datos.nombres[id] : symbol.toUpperCase(Locale.ROOT);
+    }
+
+    // Igual, en minúsculas para los nombres de stream
+    public String normalizarStream(String symbol) {
+        int id = id(symbol);
+        return id >= 0 ? datos.nombresStream[id] : symbol.toLowerCase(Locale.ROOT);
+    }
+
+    // ---- Datos por id ----
+
+    // Número de ids asignados (incluidos los retirados)
+    public int getTotal() {
+        return datos.total;
+    }
+
+    // Símbolos en estado TRADING
+    public int getActivos() {
+        return datos.activos;
+    }
+
+    public String nombre(int id) {
+        return datos.nombres[id];
+    }
+
+    // Nombre en minúsculas, como lo usan los streams WebSocket (btcusdt@aggTrade)
+    public String nombreStream(int id) {
+        return datos.nombresStream[id];
+    }
+
+    public Estado estado(int id) {
+        return ESTADOS[datos.estados[id]];
+    }
+
+    public boolean isTrading(int id) {
+        return datos.estados[id] == Estado.TRADING.ordinal();
+    }
+
+    // Filtros en punto fijo con ParserNumerico.ESCALA decimales (0 si el símbolo no tiene el filtro)
+    public long tickSize(int id) {
+        return datos.tickSize[id];
+    }
+
+    public long stepSize(int id) {
+        return datos.stepSize[id];
+    }
+
+    public long minNotional(int id) {
+        return datos.minNotional[id];
+    }
+
+    // Decimales que admite el precio y la cantidad (salen de tickSize y stepSize)
+    public int escalaPrecio(int id) {
+        return datos.escalaPrecio[id];
+    }
+
+    public int escalaCantidad(int id) {
+        return datos.escalaCantidad[id];
+    }
+
+    public int precisionBase(int id) {
+        return datos.precisionBase[id];
+    }
+
+    public int precisionCotizada(int id) {
+        return datos.precisionCotizada[id];
+    }
+
+    // Precio en punto fijo redondeado al múltiplo de tickSize más cercano
+    public long ajustarPrecio(int id, long precio) {
+        long tick = datos.tickSize[id];
+        if (tick == 0) return precio;
+        long pasos = precio / tick;
+        long resto = precio % tick;
+        if (resto >= tick - resto) pasos++;
+        return pasos * tick;
+    }
+
+    // Cantidad en punto fijo truncada al múltiplo de stepSize inferior
+    public long ajustarCantidad(int id, long cantidad) {
+        long paso = datos.stepSize[id];
+        return paso == 0 ? cantidad : cantidad / paso * paso;
+    }
+
+    private static char mayuscula(char c) {
+        return c >= 'a' && c <= 'z' ? (char) (c - 32) : c;
+    }
+
+    // Hash de Fibonacci: los nombres se parecen mucho (XXXUSDT, XXXBTC...) y con los bits bajos del
+    // hash polinómico se amontonan en la tabla; los bits altos del producto se reparten mejor
+    private static int posicion(int h, int mascara) {
+        return (int) (((h * 0x9E3779B9L) & 0xFFFF_FFFFL) >>> 16) & mascara;
+    }
+
+    // Copia inmutable una vez publicada; solo se modifica mientras aplicar() la construye
+    private static final class Datos {
+        static final Datos VACIO = new Datos(0);
+
+        String[] nombres;
+        String[] nombresStream;
+        byte[] estados;
+        long[] tickSize;
+        long[] stepSize;
+        long[] minNotional;
+        byte[] escalaPrecio;
+        byte[] escalaCantidad;
+        byte[] precisionBase;
+        byte[] precisionCotizada;
+        // Direccionamiento abierto: id + 1 en cada hueco ocupado, 0 en los libres
+        int[] tabla;
+        int mascara;
+        int total;
+        int activos;
+
+        Datos(int capacidad) {
+            nombres = new String[capacidad];
+            nombresStream = new String[capacidad];
+            estados = new byte[capacidad];
+            tickSize = new long[capacidad];
+            stepSize = new long[capacidad];
+            minNotional = new long[capacidad];
+            escalaPrecio = new byte[capacidad];
+            escalaCantidad = new byte[capacidad];
+            precisionBase = new byte[capacidad];
+            precisionCotizada = new byte[capacidad];
+            tabla = new int[Math.max(2, Integer.highestOneBit(Math.max(1, capacidad)) * 4)];
+            mascara = tabla.length - 1;
+        }
+
+        Datos copia(int capacidad) {
+            Datos c = new Datos(capacidad);
+            System.arraycopy(nombres, 0, c.nombres, 0, total);
+            System.arraycopy(nombresStream, 0, c.nombresStream, 0, total);
+            System.arraycopy(estados, 0, c.estados, 0, total);
+            System.arraycopy(tickSize, 0, c.tickSize, 0, total);
+            System.arraycopy(stepSize, 0, c.stepSize, 0, total);
+            System.arraycopy(minNotional, 0, c.minNotional, 0, total);
+            System.arraycopy(escalaPrecio, 0, c.escalaPrecio, 0, total);
+            System.arraycopy(escalaCantidad, 0, c.escalaCantidad, 0, total);
+            System.arraycopy(precisionBase, 0, c.precisionBase, 0, total);
+            System.arraycopy(precisionCotizada, 0, c.precisionCotizada, 0, total);
+            c.total = total;
+            if (c.tabla.length == tabla.length) {
+                System.arraycopy(tabla, 0, c.tabla, 0, tabla.length);
+            } else {
+                for (int id = 0; id < total; id++) c.indexar(id);
+            }
+            return c;
+        }
+
+        int buscar(CharSequence s, int desde, int hasta) {
+            int h = 0;
+            for (int i = desde; i < hasta; i++) h = 31 * h + mayuscula(s.charAt(i));
+            for (int pos = posicion(h, mascara); ; pos = (pos + 1) & mascara) {
+                int v = tabla[pos];
+                if (v == 0) return NO_ENCONTRADO;
+                String nombre = nombres[v - 1];
+                if (nombre.length() == hasta - desde) {
+                    int i = 0;
+                    while (i < nombre.length() && nombre.charAt(i) == mayuscula(s.charAt(desde + i))) i++;
+                    if (i == nombre.length()) return v - 1;
+                }
+            }
+        }
+
+        int agregar(String symbol) {
+            if (total == nombres.length) throw new IllegalStateException("Registro de símbolos lleno");
+            int id = total++;
+            nombres[id] = symbol.toUpperCase(Locale.ROOT);
+            nombresStream[id] = symbol.toLowerCase(Locale.ROOT);
+            indexar(id);
+            return id;
+        }
+
+        private void indexar(int id) {
+            String nombre = nombres[id];
+            int h = 0;
+            for (int i = 0; i < nombre.length(); i++) h = 31 * h + nombre.charAt(i);
+            int pos = posicion(h, mascara);
+            while (tabla[pos] != 0) pos = (pos + 1) & mascara;
+            tabla[pos] = id + 1;
+        }
+
+        void escribir(int id, SymbolInfo info) {
+            estados[id] = (byte) estado(info.getStatus()).ordinal();
+            SymbolFilter precio = info.getFilter("PRICE_FILTER");
+            SymbolFilter lote = info.getFilter("LOT_SIZE");
+            SymbolFilter nocional = nocional(info);
+            tickSize[id] = mantisa(precio == null ? null : precio.getTickSize());
+            stepSize[id] = mantisa(lote == null ? null : lote.getStepSize());
+            minNotional[id] = mantisa(nocional == null ? null : nocional.getMinNotional());
+            escalaPrecio[id] = (byte) info.getEscalaPrecio();
+            escalaCantidad[id] = (byte) info.getEscalaCantidad();
+            precisionBase[id] = (byte) info.getBaseAssetPrecision();
+            precisionCotizada[id] = (byte) info.getQuoteAssetPrecision();
+        }
+
+        boolean igual(int id, SymbolInfo info) {
+            SymbolFilter precio = info.getFilter("PRICE_FILTER");
+            SymbolFilter lote = info.getFilter("LOT_SIZE");
+            SymbolFilter nocional = nocional(info);
+            return estados[id] == estado(info.getStatus()).ordinal()
+                    && tickSize[id] == mantisa(precio == null ? null : precio.getTickSize())
+                    && stepSize[id] == mantisa(lote == null ? null : lote.getStepSize())
+                    && minNotional[id] == mantisa(nocional == null ? null : nocional.getMinNotional())
+                    && precisionBase[id] == info.getBaseAssetPrecision()
+                    && precisionCotizada[id] == info.getQuoteAssetPrecision();
+        }
+
+        void contarActivos() {
+            int n = 0;
+            for (int id = 0; id < total; id++) {
+                if (estados[id] == Estado.TRADING.ordinal()) n++;
+            }
+            activos = n;
+        }
+
+        // NOTIONAL sustituyó a MIN_NOTIONAL; se acepta cualquiera de los dos
+        private static SymbolFilter nocional(SymbolInfo info) {
+            SymbolFilter filtro = info.getFilter("NOTIONAL");
+            return filtro != null ? filtro : info.getFilter("MIN_NOTIONAL");
+        }
+
+        private static long mantisa(Decimal valor) {
+            return valor == null ? 0 : valor.mantisa(ParserNumerico.ESCALA);
+        }
+
+        private static Estado estado(String status) {
+            if (status == null) return Estado.DESCONOCIDO;
+            for (Estado estado : ESTADOS) {
+                if (estado.name().equals(status)) return estado;
+            }
+            return Estado.DESCONOCIDO;
+        }
+    }
+
+    @Override
+    public String toString() {
+        Datos d = datos;
+        return "SymbolRegistry[" + d.total + " símbolos, " + d.activos + " activos]";
+    }
+}
@@ -0,0 +1,54 @@
+package Lib.Libreria_Binance.funcion.Tabla;
+
+// Cabeceras y anchos de una tabla. El separador y la fila de cabecera se construyen una sola
+// vez, al crear el objeto; después el renderizador solo los copia al buffer
+public final class Columnas {
+    private final String[] cabeceras;
+    private final int[] anchos;
+    private final String separador;
+    private final String encabezado;
+
+    public Columnas(String[] cabeceras, int[] anchos) {
+        if (cabeceras.length != anchos.length) {
+            throw new IllegalArgumentException("Hay " + cabeceras.length + " cabeceras y " + anchos.length + " anchos");
+        }
+        for (int ancho : anchos) {
+            if (ancho < 5) throw new IllegalArgumentException("Ancho de columna demasiado pequeño: " + ancho);
+        }
+        this.cabeceras = cabeceras.clone();
+        this.anchos = anchos.clone();
+
+        StringBuilder sb = new StringBuilder().append('+');
+        for (int ancho : anchos) {
+            sb.append("-".repeat(ancho)).append('+');
+        }
+        this.separador = sb.append('\n').toString();
+
+        Renderizador fila = new Renderizador();
+        fila.empezar(this, Renderizador.Formato.TABLA);
+        for (String cabecera : cabeceras) {
+            fila.celda(cabecera);
+        }
+        this.encabezado = fila.contenido();
+    }
+
+    int numero() {
+        return anchos.length;
+    }
+
+    String cabecera(int columna) {
+        return cabeceras[columna];
+    }
+
+    int ancho(int columna) {
+        return anchos[columna];
+    }
+
+    String separador() {
+        return separador;
+    }
+
+    String encabezado() {
+        return encabezado;
+    }
+}
@@ -0,0 +1,287 @@
+package Lib.Libreria_Binance.funcion.Tabla;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import Lib.Libreria_Binance.funcion.Decimal.Fijo;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Construye tablas de texto en un StringBuilder reutilizado y las escribe de una vez en un
+// Writer: una escritura y un flush por tabla en vez de una llamada a la consola por celda.
+// Las celdas se escriben directamente en el buffer y se rellenan o recortan allí mismo.
+// No es seguro entre hilos
+public final class Renderizador {
+
+    // TABLA: con bordes y celdas recortadas al ancho. ALINEADO: columnas rellenas con espacios,
+    // sin bordes ni recortes. CSV: RFC 4180, con comillas solo cuando hacen falta
+    public enum Formato { TABLA, ALINEADO, CSV }
+
+    private static final DateTimeFormatter FECHA =
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final String ESPACIOS = " ".repeat(64);
+    private static final String IGUALES = "=".repeat(64);
+    private static final int DECIMALES = 8;
+
+    private final Writer salida;
+    private final StringBuilder buffer = new StringBuilder(8192);
+    private final char[] bloque = new char[8192];
+    private Columnas columnas;
+    private Formato formato = Formato.TABLA;
+    private int columna;
+
+    public Renderizador(Writer salida) {
+        this.salida = salida;
+    }
+
+    // Sin salida: solo para construir texto (lo usa Columnas para su cabecera)
+    Renderizador() {
+        this.salida = null;
+    }
+
+    public Renderizador linea(CharSequence texto) {
+        buffer.append(texto).append('\n');
+        return this;
+    }
+
+    // Título principal enmarcado con '=', precedido de una línea en blanco
+    public Renderizador titulo(String titulo) {
+        int longitud = titulo.length() + 4;
+        buffer.append('\n');
+        repetir(IGUALES, longitud);
+        buffer.append("\n  ").append(titulo).append("  \n");
+        repetir(IGUALES, longitud);
+        buffer.append('\n');
+        return this;
+    }
+
+    public Renderizador subtitulo(String subtitulo) {
+        buffer.append("\n--- ").append(subtitulo).append(" ---\n");
+        return this;
+    }
+
+    // Separador, fila de cabeceras y separador; las celdas siguientes usan estas columnas
+    public Renderizador encabezado(Columnas columnas) {
+        return encabezado(columnas, Formato.TABLA);
+    }
+
+    // Cabecera en el formato indicado (en ALINEADO y CSV, una sola línea con los nombres)
+    public Renderizador encabezado(Columnas columnas, Formato formato) {
+        empezar(columnas, formato);
+        if (formato == Formato.TABLA) {
+            buffer.append(columnas.separador()).append(columnas.encabezado()).append(columnas.separador());
+        } else {
+            for (int i = 0; i < columnas.numero(); i++) {
+                celda(columnas.cabecera(i));
+            }
+        }
+        return this;
+    }
+
+    // Separador final de la tabla (nada en ALINEADO y CSV)
+    public Renderizador cierre() {
+        if (formato == Formato.TABLA) buffer.append(columnas.separador());
+        columnas = null;
+        return this;
+    }
+
+    public Renderizador celda(CharSequence texto) {
+        int inicio = abrirCelda();
+        if (texto != null) buffer.append(texto);
+        return cerrarCelda(inicio);
+    }
+
+    public Renderizador celda(long valor) {
+        int inicio = abrirCelda();
+        buffer.append(valor);
+        return cerrarCelda(inicio);
+    }
+
+    // Precio o cantidad con 8 decimales, mitad hacia arriba; vacío si es null
+    public Renderizador celda(Decimal valor) {
+        int inicio = abrirCelda();
+        if (valor != null) valor.escribir(buffer, DECIMALES);
+        return cerrarCelda(inicio);
+    }
+
+    // Igual que celda(Decimal) para valores que aún llegan como BigDecimal
+    public Renderizador celda(BigDecimal valor) {
+        int inicio = abrirCelda();
+        if (valor != null) escribirDecimal(buffer, valor);
+        return cerrarCelda(inicio);
+    }
+
+    // Valor en punto fijo (por ejemplo un precio de AggTradeEvent) con sus decimales
+    public Renderizador celdaFijo(long valor, int escala) {
+        int inicio = abrirCelda();
+        escribirFijo(buffer, valor, escala);
+        return cerrarCelda(inicio);
+    }
+
+    // Milisegundos de época como dd/MM/yyyy HH:mm:ss en la zona local; 0 es "N/A"
+    public Renderizador celdaFecha(long milisegundos) {
+        int inicio = abrirCelda();
+        escribirFecha(buffer, milisegundos);
+        return cerrarCelda(inicio);
+    }
+
+    // Escribe todo lo acumulado en la salida, hace flush y vacía el buffer
+    public void volcar() throws IOException {
+        try {
+            escribir();
+        } finally {
+            buffer.setLength(0);
+            columnas = null;
+            formato = Formato.TABLA;
+            columna = 0;
+        }
+    }
+
+    // Para tablas en streaming: escribe lo acumulado si ya ocupa un bloque, sin cerrar la tabla.
+    // Así la memoria no crece con el número de filas
+    public void volcarSiLleno() throws IOException {
+        if (buffer.length() >= bloque.length) {
+            volcarPendiente();
+        }
+    }
+
+    // Escribe lo acumulado hasta ahora sin cerrar la tabla (por ejemplo antes de esperar más datos)
+    public void volcarPendiente() throws IOException {
+        if (buffer.length() == 0) return;
+        try {
+            escribir();
+        } finally {
+            buffer.setLength(0);
+        }
+    }
+
+    private void escribir() throws IOException {
+        for (int i = 0, n = buffer.length(); i < n; i += bloque.length) {
+            int fin = Math.min(n, i + bloque.length);
+            buffer.getChars(i, fin, bloque, 0);
+            salida.write(bloque, 0, fin - i);
+        }
+        salida.flush();
+    }
+
+    static void escribirFecha(StringBuilder sb, long milisegundos) {
+        if (milisegundos == 0) {
+            sb.append("N/A");
+        } else {
+            FECHA.formatTo(Instant.ofEpochMilli(milisegundos), sb);
+        }
+    }
+
+    // Sin toPlainString: si el valor cabe en un long con 8 decimales se escribe como punto fijo
+    static void escribirDecimal(StringBuilder sb, BigDecimal valor) {
+        int escala = valor.scale();
+        if (escala >= 0 && escala <= DECIMALES && valor.precision() - escala <= 18 - DECIMALES) {
+            long unidades = valor.unscaledValue().longValue() * Fijo.potencia(DECIMALES - escala);
+            escribirFijo(sb, unidades, DECIMALES);
+            return;
+        }
+        BigDecimal redondeado = valor.setScale(DECIMALES, RoundingMode.HALF_UP);
+        if (redondeado.precision() <= 18) {
+            escribirFijo(sb, redondeado.unscaledValue().longValue(), DECIMALES);
+        } else {
+            sb.append(redondeado.toPlainString());
+        }
+    }
+
+    // Punto fijo con 'escala' decimales: 150000000 con escala 8 -> "1.50000000"
+    static void escribirFijo(StringBuilder sb, long valor, int escala) {
+        Fijo.escribir(sb, valor, escala);
+    }
+
+    void empezar(Columnas columnas, Formato formato) {
+        this.columnas = columnas;
+        this.formato = formato;
+        this.columna = 0;
+    }
+
+    String contenido() {
+        return buffer.toString();
+    }
+
+    private int abrirCelda() {
+        switch (formato) {
+            case TABLA:
+                if (columna == 0) buffer.append('|');
+                buffer.append(' ');
+                break;
+            case ALINEADO:
+                if (columna > 0) buffer.append("  ");
+                break;
+            case CSV:
+                if (columna > 0) buffer.append(',');
+                break;
+        }
+        return buffer.length();
+    }
+
+    private Renderizador cerrarCelda(int inicio) {
+        boolean ultima = columna + 1 == columnas.numero();
+        int ancho = columnas.ancho(columna) - 2;
+        int largo = buffer.length() - inicio;
+        switch (formato) {
+            case TABLA:
+                // Recorta con "..." o rellena con espacios hasta el ancho de la columna
+                if (largo > ancho) {
+                    buffer.setLength(inicio + ancho - 3);
+                    buffer.append("...");
+                } else {
+                    repetir(ESPACIOS, ancho - largo);
+                }
+                buffer.append(" |");
+                break;
+            case ALINEADO:
+                // Sin recortar: un valor largo desplaza la fila pero no se pierde
+                if (!ultima && largo < ancho) repetir(ESPACIOS, ancho - largo);
+                break;
+            case CSV:
+                entrecomillar(inicio);
+                break;
+        }
+        if (ultima) {
+            buffer.append('\n');
+            columna = 0;
+        } else {
+            columna++;
+        }
+        return this;
+    }
+
+    // Pone entre comillas la celda si lleva coma, comillas o saltos de línea (las comillas se doblan)
+    private void entrecomillar(int inicio) {
+        int comillas = 0;
+        boolean especial = false;
+        for (int i = inicio; i < buffer.length(); i++) {
+            char c = buffer.charAt(i);
+            if (c == '"') comillas++;
+            if (c == '"' || c == ',' || c == '\n' || c == '\r') especial = true;
+        }
+        if (!especial) return;
+        int fin = buffer.length();
+        buffer.setLength(fin + comillas + 2);
+        // Se recorre de atrás hacia delante para mover los caracteres una sola vez
+        int destino = buffer.length() - 1;
+        buffer.setCharAt(destino--, '"');
+        for (int i = fin - 1; i >= inicio; i--) {
+            char c = buffer.charAt(i);
+            buffer.setCharAt(destino--, c);
+            if (c == '"') buffer.setCharAt(destino--, '"');
+        }
+        buffer.setCharAt(destino, '"');
+    }
+
+    private void repetir(String relleno, int veces) {
+        for (; veces > relleno.length(); veces -= relleno.length()) {
+            buffer.append(relleno);
+        }
+        buffer.append(relleno, 0, veces);
+    }
+}
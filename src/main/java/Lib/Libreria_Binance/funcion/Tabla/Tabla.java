@@ -1,21 +1,56 @@
 package Lib.Libreria_Binance.funcion.Tabla;
 
+import Lib.Libreria_Binance.funcion.Modelo.Account;
+import Lib.Libreria_Binance.funcion.Modelo.Balance;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Modelo.Order;
+import Lib.Libreria_Binance.funcion.Modelo.TickerPrice;
+import Lib.Libreria_Binance.funcion.Modelo.Trade;
+import Lib.Libreria_Binance.funcion.RealTrades.ParserNumerico;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
+// Cada tabla se construye entera en el Renderizador y se escribe con un solo flush.
+// Los métodos están sincronizados porque comparten el buffer del renderizador
 public class Tabla {
+    private static final Columnas TRADES = new Columnas(
+            new String[]{"ID", "Symbol", "Side", "Quantity", "Price", "Commission", "Time"},
+            new int[]{12, 12, 6, 15, 15, 12, 20});
+    private static final Columnas ORDENES = new Columnas(
+            new String[]{"Symbol", "Side", "Type", "Quantity", "Price", "Status", "Time"},
+            new int[]{12, 6, 10, 15, 15, 12, 20});
+    private static final Columnas BALANCES = new Columnas(
+            new String[]{"Asset", "Free", "Locked", "Total"},
+            new int[]{8, 18, 18, 18});
+    private static final Columnas CAMPO_VALOR = new Columnas(
+            new String[]{"Campo", "Valor"},
+            new int[]{25, 30});
+
     private final ObjectMapper objectMapper;
-    private static final String SEPARATOR = "+";
-    private static final String VERTICAL = "|";
-    private static final String HORIZONTAL = "-";
+    private final Renderizador renderizador;
+    // Línea en construcción de mostrarJsonGenerico
+    private final StringBuilder lineaJson = new StringBuilder();
 
     public Tabla() {
-        this.objectMapper = new ObjectMapper();
+        this(new OutputStreamWriter(System.out, System.out.charset()));
+    }
+
+    // Escribe las tablas en cualquier Writer (fichero, StringWriter, socket...)
+    public Tabla(Writer salida) {
+        this.objectMapper = JsonReaders.MAPPER;
+        this.renderizador = new Renderizador(salida);
     }
 
 
@@ -23,287 +58,232 @@ public class Tabla {
 
     public void mostrarDatosCuenta(String jsonResponse) {
         try {
-            JsonNode root = objectMapper.readTree(jsonResponse);
-
-            System.out.println("\n" + crearTitulo("INFORMACIÓN DE LA CUENTA"));
-
-            // Información general
-            String[][] datosGenerales = {
-                    {"Maker Commission", root.path("makerCommission").asText()},
-                    {"Taker Commission", root.path("takerCommission").asText()},
-                    {"Buyer Commission", root.path("buyerCommission").asText()},
-                    {"Seller Commission", root.path("sellerCommission").asText()},
-                    {"Can Trade", root.path("canTrade").asText()},
-                    {"Can Withdraw", root.path("canWithdraw").asText()},
-                    {"Can Deposit", root.path("canDeposit").asText()},
-                    {"Account Type", root.path("accountType").asText()},
-                    {"Update Time", formatearTimestamp(root.path("updateTime").asLong())}
-            };
-
-            mostrarTablaSimple("Datos Generales", datosGenerales);
-
-            // Balances
-            JsonNode balances = root.path("balances");
-            if (balances.isArray() && balances.size() > 0) {
-                mostrarBalances(balances);
-            }
-
+            Account cuenta = JsonReaders.ACCOUNT.readValue(jsonResponse);
+            mostrarDatosCuenta(cuenta);
         } catch (IOException e) {
             System.err.println("Error al procesar los datos de la cuenta: " + e.getMessage());
         }
     }
 
+    public synchronized void mostrarDatosCuenta(Account cuenta) {
+        renderizador.titulo("INFORMACIÓN DE LA CUENTA");
+
+        // Información general
+        renderizador.subtitulo("Datos Generales").encabezado(CAMPO_VALOR);
+        renderizador.celda("Maker Commission").celda(cuenta.getMakerCommission());
+        renderizador.celda("Taker Commission").celda(cuenta.getTakerCommission());
+        renderizador.celda("Buyer Commission").celda(cuenta.getBuyerCommission());
+        renderizador.celda("Seller Commission").celda(cuenta.getSellerCommission());
+        renderizador.celda("Can Trade").celda(String.valueOf(cuenta.isCanTrade()));
+        renderizador.celda("Can Withdraw").celda(String.valueOf(cuenta.isCanWithdraw()));
+        renderizador.celda("Can Deposit").celda(String.valueOf(cuenta.isCanDeposit()));
+        renderizador.celda("Account Type").celda(cuenta.getAccountType());
+        renderizador.celda("Update Time").celdaFecha(cuenta.getUpdateTime());
+        renderizador.cierre();
+
+        // Balances
+        if (!cuenta.getBalances().isEmpty()) {
+            mostrarBalances(cuenta.getBalances());
+        }
+        volcar();
+    }
+
 
     //Muestra el historial de trades en formato tabla
 
     public void mostrarHistorialTrades(String jsonResponse) {
         try {
-            JsonNode trades = objectMapper.readTree(jsonResponse);
-
-            if (!trades.isArray() || trades.size() == 0) {
-                System.out.println("No se encontraron trades.");
-                return;
-            }
-
-            System.out.println("\n" + crearTitulo("HISTORIAL DE TRADES"));
-
-            String[] headers = {"ID", "Symbol", "Side", "Quantity", "Price", "Commission", "Time"};
-            int[] widths = {12, 12, 6, 15, 15, 12, 20};
-
-            mostrarEncabezado(headers, widths);
-
-            for (JsonNode trade : trades) {
-                String[] fila = {
-                        trade.path("id").asText(),
-                        trade.path("symbol").asText(),
-                        trade.path("isBuyer").asBoolean() ? "BUY" : "SELL",
-                        formatearDecimal(trade.path("qty").asText()),
-                        formatearDecimal(trade.path("price").asText()),
-                        formatearDecimal(trade.path("commission").asText()),
-                        formatearTimestamp(trade.path("time").asLong())
-                };
-                mostrarFila(fila, widths);
-            }
-
-            mostrarSeparador(widths);
-
+            List<Trade> trades = JsonReaders.TRADES.readValue(jsonResponse);
+            mostrarHistorialTrades(trades);
         } catch (IOException e) {
             System.err.println("Error al procesar el historial de trades: " + e.getMessage());
         }
     }
 
+    public synchronized void mostrarHistorialTrades(List<Trade> trades) {
+        if (trades == null || trades.isEmpty()) {
+            renderizador.linea("No se encontraron trades.");
+            volcar();
+            return;
+        }
 
-    //Muestra las órdenes abiertas en formato tabla
-
-    public void mostrarOrdenesAbiertas(String jsonResponse) {
-        try {
-            JsonNode ordenes = objectMapper.readTree(jsonResponse);
-
-            if (!ordenes.isArray() || ordenes.size() == 0) {
-                System.out.println("No hay órdenes abiertas.");
-                return;
-            }
+        renderizador.titulo("HISTORIAL DE TRADES").encabezado(TRADES);
 
-            System.out.println("\n" + crearTitulo("ÓRDENES ABIERTAS"));
+        for (Trade trade : trades) {
+            filaTrade(trade);
+        }
 
-            String[] headers = {"Symbol", "Side", "Type", "Quantity", "Price", "Status", "Time"};
-            int[] widths = {12, 6, 10, 15, 15, 12, 20};
+        renderizador.cierre();
+        volcar();
+    }
 
-            mostrarEncabezado(headers, widths);
 
-            for (JsonNode orden : ordenes) {
-                String[] fila = {
-                        orden.path("symbol").asText(),
-                        orden.path("side").asText(),
-                        orden.path("type").asText(),
-                        formatearDecimal(orden.path("origQty").asText()),
-                        formatearDecimal(orden.path("price").asText()),
-                        orden.path("status").asText(),
-                        formatearTimestamp(orden.path("time").asLong())
-                };
-                mostrarFila(fila, widths);
-            }
+    //Muestra el historial de trades fila a fila según se lee el JSON, sin cargarlo entero
 
-            mostrarSeparador(widths);
+    public synchronized void mostrarHistorialTrades(InputStream json, Renderizador.Formato formato) {
+        this.<Trade>mostrarFilas(json, JsonReaders.TRADE, "HISTORIAL DE TRADES", TRADES, formato,
+                "No se encontraron trades.", this::filaTrade, "Error al procesar el historial de trades: ");
+    }
 
-        } catch (IOException e) {
-            System.err.println("Error al procesar las órdenes abiertas: " + e.getMessage());
-        }
+    private void filaTrade(Trade trade) {
+        renderizador.celda(trade.getId())
+                .celda(trade.getSymbol())
+                .celda(trade.isBuyer() ? "BUY" : "SELL")
+                .celda(trade.getQty())
+                .celda(trade.getPrice())
+                .celda(trade.getCommission())
+                .celdaFecha(trade.getTime());
     }
 
 
-    //Muestra información de precios
+    //Muestra las órdenes abiertas en formato tabla
 
-    public void mostrarPrecioSimbolo(String jsonResponse) {
+    public void mostrarOrdenesAbiertas(String jsonResponse) {
         try {
-            JsonNode precio = objectMapper.readTree(jsonResponse);
-
-            System.out.println("\n" + crearTitulo("PRECIO DEL SÍMBOLO"));
-
-            String[][] datos = {
-                    {"Symbol", precio.path("symbol").asText()},
-                    {"Price", formatearDecimal(precio.path("price").asText())}
-            };
-
-            mostrarTablaSimple("Información de Precio", datos);
-
+            List<Order> ordenes = JsonReaders.ORDERS.readValue(jsonResponse);
+            mostrarOrdenesAbiertas(ordenes);
         } catch (IOException e) {
-            System.err.println("Error al procesar el precio del símbolo: " + e.getMessage());
+            System.err.println("Error al procesar las órdenes abiertas: " + e.getMessage());
         }
     }
 
+    public synchronized void mostrarOrdenesAbiertas(List<Order> ordenes) {
+        if (ordenes == null || ordenes.isEmpty()) {
+            renderizador.linea("No hay órdenes abiertas.");
+            volcar();
+            return;
+        }
 
-   //Muestra los balances de la cuenta
-
-    private void mostrarBalances(JsonNode balances) {
-        System.out.println("\n" + crearSubtitulo("BALANCES"));
-
-        String[] headers = {"Asset", "Free", "Locked", "Total"};
-        int[] widths = {8, 18, 18, 18};
-
-        mostrarEncabezado(headers, widths);
-
-        for (JsonNode balance : balances) {
-            double free = Double.parseDouble(balance.path("free").asText());
-            double locked = Double.parseDouble(balance.path("locked").asText());
-            double total = free + locked;
+        renderizador.titulo("ÓRDENES ABIERTAS").encabezado(ORDENES);
 
-            // Solo mostrar balances que tengan algo
-            if (total > 0) {
-                String[] fila = {
-                        balance.path("asset").asText(),
-                        formatearDecimal(balance.path("free").asText()),
-                        formatearDecimal(balance.path("locked").asText()),
-                        String.format("%.8f", total)
-                };
-                mostrarFila(fila, widths);
-            }
+        for (Order orden : ordenes) {
+            filaOrden(orden);
         }
 
-        mostrarSeparador(widths);
+        renderizador.cierre();
+        volcar();
     }
 
 
-    //Muestra una tabla simple de clave-valor
-
-    private void mostrarTablaSimple(String titulo, String[][] datos) {
-        System.out.println("\n" + crearSubtitulo(titulo));
-
-        int[] widths = {25, 30};
-        String[] headers = {"Campo", "Valor"};
-
-        mostrarEncabezado(headers, widths);
-
-        for (String[] fila : datos) {
-            mostrarFila(fila, widths);
-        }
+    //Muestra las órdenes abiertas fila a fila según se lee el JSON
 
-        mostrarSeparador(widths);
+    public synchronized void mostrarOrdenesAbiertas(InputStream json, Renderizador.Formato formato) {
+        this.<Order>mostrarFilas(json, JsonReaders.ORDER, "ÓRDENES ABIERTAS", ORDENES, formato,
+                "No hay órdenes abiertas.", this::filaOrden, "Error al procesar las órdenes abiertas: ");
     }
 
-
-    //Muestra el encabezado de la tabla
-
-    private void mostrarEncabezado(String[] headers, int[] widths) {
-        mostrarSeparador(widths);
-        mostrarFila(headers, widths);
-        mostrarSeparador(widths);
+    private void filaOrden(Order orden) {
+        renderizador.celda(orden.getSymbol())
+                .celda(orden.getSide())
+                .celda(orden.getType())
+                .celda(orden.getOrigQty())
+                .celda(orden.getPrice())
+                .celda(orden.getStatus())
+                .celdaFecha(orden.getTime());
     }
 
 
-    //Muestra una fila de datos
+    //Lee un array JSON elemento a elemento y escribe cada fila en cuanto se ha leído. Solo hay
+    //un elemento en memoria a la vez; el buffer se vacía cada 8 KB y antes de esperar más datos
+    //de la red, así las filas recibidas se ven sin esperar al resto. Cierra el InputStream
 
-    private void mostrarFila(String[] datos, int[] widths) {
-        System.out.print(VERTICAL);
-        for (int i = 0; i < datos.length; i++) {
-            String dato = datos[i];
-            if (dato.length() > widths[i] - 2) {
-                dato = dato.substring(0, widths[i] - 5) + "...";
+    private <T> void mostrarFilas(InputStream json, ObjectReader lector, String titulo, Columnas columnas,
+                                  Renderizador.Formato formato, String vacio, Consumer<T> fila, String error) {
+        boolean tabla = formato == Renderizador.Formato.TABLA;
+        boolean abierta = false;
+        try (JsonParser parser = objectMapper.createParser(new EntradaConVolcado(json, renderizador))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Se esperaba un array JSON y llegó " + parser.currentToken());
             }
-            System.out.printf(" %-" + (widths[i] - 2) + "s " + VERTICAL, dato);
+            // En CSV y alineado la cabecera sale siempre, aunque no haya filas
+            if (!tabla) {
+                renderizador.encabezado(columnas, formato);
+                abierta = true;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                T elemento = lector.readValue(parser);
+                if (!abierta) {
+                    renderizador.titulo(titulo).encabezado(columnas, formato);
+                    abierta = true;
+                }
+                fila.accept(elemento);
+                renderizador.volcarSiLleno();
+            }
+            if (!abierta) renderizador.linea(vacio);
+        } catch (IOException e) {
+            // Las filas ya escritas se quedan; la tabla se cierra igualmente
+            System.err.println(error + e.getMessage());
         }
-        System.out.println();
+        if (abierta) renderizador.cierre();
+        volcar();
     }
 
 
-    //Muestra el separador horizontal
+    //Muestra información de precios
 
-    private void mostrarSeparador(int[] widths) {
-        System.out.print(SEPARATOR);
-        for (int width : widths) {
-            for (int i = 0; i < width; i++) {
-                System.out.print(HORIZONTAL);
-            }
-            System.out.print(SEPARATOR);
+    public void mostrarPrecioSimbolo(String jsonResponse) {
+        try {
+            TickerPrice precio = JsonReaders.TICKER_PRICE.readValue(jsonResponse);
+            mostrarPrecioSimbolo(precio);
+        } catch (IOException e) {
+            System.err.println("Error al procesar el precio del símbolo: " + e.getMessage());
         }
-        System.out.println();
     }
 
+    public synchronized void mostrarPrecioSimbolo(TickerPrice precio) {
+        renderizador.titulo("PRECIO DEL SÍMBOLO");
 
-    //Crea un título principal
-
-    private String crearTitulo(String titulo) {
-        StringBuilder sb = new StringBuilder();
-        int longitud = titulo.length() + 4;
-
-        // Línea superior
-        for (int i = 0; i < longitud; i++) sb.append("=");
-        sb.append("\n");
-
-        // Título
-        sb.append("  ").append(titulo).append("  \n");
-
-        // Línea inferior
-        for (int i = 0; i < longitud; i++) sb.append("=");
-
-        return sb.toString();
+        renderizador.subtitulo("Información de Precio").encabezado(CAMPO_VALOR);
+        renderizador.celda("Symbol").celda(precio.getSymbol());
+        renderizador.celda("Price").celda(precio.getPrice());
+        renderizador.cierre();
+        volcar();
     }
 
 
-    //Crea un subtítulo
-
-    private String crearSubtitulo(String subtitulo) {
-        return "--- " + subtitulo + " ---";
-    }
+   //Muestra los balances de la cuenta
 
+    private void mostrarBalances(List<Balance> balances) {
+        renderizador.subtitulo("BALANCES").encabezado(BALANCES);
 
-    //Formatea un timestamp a fecha legible
+        for (Balance balance : balances) {
+            // Solo mostrar balances que tengan algo
+            if (balance.tieneSaldo()) {
+                renderizador.celda(balance.getAsset())
+                        .celda(balance.getFree())
+                        .celda(balance.getLocked())
+                        .celda(balance.getTotal());
+            }
+        }
 
-    private String formatearTimestamp(long timestamp) {
-        if (timestamp == 0) return "N/A";
-        Date date = new Date(timestamp);
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
-        return sdf.format(date);
+        renderizador.cierre();
     }
 
 
-    //Formatea números decimales
+    //Escribe la tabla acumulada de una vez
 
-    private String formatearDecimal(String valor) {
+    private void volcar() {
         try {
-            double num = Double.parseDouble(valor);
-            if (num == 0) return "0.00000000";
-            return String.format("%.8f", num);
-        } catch (NumberFormatException e) {
-            return valor;
+            renderizador.volcar();
+        } catch (IOException e) {
+            System.err.println("❌ Error al escribir la tabla: " + e.getMessage());
         }
     }
 
 
     //Muestra información del servidor
 
-    public void mostrarInfoServidor(String jsonResponse) {
+    public synchronized void mostrarInfoServidor(String jsonResponse) {
         try {
             JsonNode info = objectMapper.readTree(jsonResponse);
 
-            System.out.println("\n" + crearTitulo("INFORMACIÓN DEL SERVIDOR"));
-
-            String[][] datos = {
-                    {"Server Time", formatearTimestamp(info.path("serverTime").asLong())},
-                    {"Timestamp", info.path("serverTime").asText()}
-            };
+            renderizador.titulo("INFORMACIÓN DEL SERVIDOR");
 
-            mostrarTablaSimple("Estado del Servidor", datos);
+            renderizador.subtitulo("Estado del Servidor").encabezado(CAMPO_VALOR);
+            renderizador.celda("Server Time").celdaFecha(info.path("serverTime").asLong());
+            renderizador.celda("Timestamp").celda(info.path("serverTime").asText());
+            renderizador.cierre();
+            volcar();
 
         } catch (IOException e) {
             System.err.println("Error al procesar la información del servidor: " + e.getMessage());
@@ -313,28 +293,111 @@ public class Tabla {
 
     //Muestra cualquier JSON en formato tabla genérica
 
-    public void mostrarJsonGenerico(String jsonResponse, String titulo) {
+    public synchronized void mostrarJsonGenerico(String jsonResponse, String titulo) {
         try {
             JsonNode root = objectMapper.readTree(jsonResponse);
 
-            System.out.println("\n" + crearTitulo(titulo.toUpperCase()));
+            renderizador.titulo(titulo.toUpperCase());
 
             if (root.isObject()) {
                 mostrarObjetoJson(root, "");
             } else if (root.isArray()) {
-                System.out.println("Array con " + root.size() + " elementos:");
+                renderizador.linea("Array con " + root.size() + " elementos:");
                 for (int i = 0; i < root.size(); i++) {
-                    System.out.println("\n--- Elemento " + (i + 1) + " ---");
+                    renderizador.linea("\n--- Elemento " + (i + 1) + " ---");
                     mostrarObjetoJson(root.get(i), "");
                 }
             } else {
-                System.out.println("Valor: " + root.asText());
+                renderizador.linea("Valor: " + root.asText());
             }
 
         } catch (IOException e) {
             System.err.println("Error al procesar JSON: " + e.getMessage());
-            System.out.println("Respuesta cruda: " + jsonResponse);
+            renderizador.linea("Respuesta cruda: " + jsonResponse);
         }
+        volcar();
+    }
+
+
+    //Muestra cualquier JSON según se lee, sin construir el árbol. En los arrays de primer nivel
+    //el número de elementos se muestra al final. Cierra el InputStream
+
+    public synchronized void mostrarJsonGenerico(InputStream json, String titulo) {
+        renderizador.titulo(titulo.toUpperCase());
+        try (JsonParser parser = objectMapper.createParser(new EntradaConVolcado(json, renderizador))) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                mostrarObjetoJson(parser, 0);
+            } else if (token == JsonToken.START_ARRAY) {
+                int elementos = 0;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    renderizador.linea("\n--- Elemento " + (++elementos) + " ---");
+                    if (token == JsonToken.START_OBJECT) {
+                        mostrarObjetoJson(parser, 0);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                renderizador.linea("Array con " + elementos + " elementos");
+            } else if (token != null) {
+                renderizador.linea("Valor: " + parser.getText());
+            }
+        } catch (IOException e) {
+            System.err.println("Error al procesar JSON: " + e.getMessage());
+        }
+        volcar();
+    }
+
+
+    //Recorre los campos del objeto en el que está el parser hasta su cierre
+
+    private void mostrarObjetoJson(JsonParser parser, int nivel) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            lineaJson.setLength(0);
+            for (int i = 0; i < nivel; i++) lineaJson.append("  ");
+            lineaJson.append(key);
+            if (value == JsonToken.START_OBJECT) {
+                renderizador.linea(lineaJson.append(':'));
+                mostrarObjetoJson(parser, nivel + 1);
+            } else if (value == JsonToken.START_ARRAY) {
+                int elementos = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                    elementos++;
+                }
+                renderizador.linea(lineaJson.append(": [Array con ").append(elementos).append(" elementos]"));
+            } else {
+                lineaJson.append(": ");
+                int inicio = lineaJson.length();
+                lineaJson.append(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                int fin = lineaJson.length();
+                if (esTimestamp(key, lineaJson, inicio, fin)) {
+                    lineaJson.append(" (");
+                    Renderizador.escribirFecha(lineaJson, ParserNumerico.parseLong(lineaJson, inicio, fin));
+                    lineaJson.append(')');
+                }
+                renderizador.linea(lineaJson);
+            }
+            renderizador.volcarSiLleno();
+        }
+    }
+
+
+    //Campo con "time" en el nombre y un valor de 13 dígitos (milisegundos de época)
+
+    private static boolean esTimestamp(String clave, CharSequence valor, int desde, int hasta) {
+        if (hasta - desde != 13) return false;
+        for (int i = desde; i < hasta; i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        for (int i = 0; i + 4 <= clave.length(); i++) {
+            if (clave.regionMatches(true, i, "time", 0, 4)) return true;
+        }
+        return false;
     }
 
 
@@ -347,19 +410,42 @@ public class Tabla {
             String key = field.getKey();
             JsonNode value = field.getValue();
 
+            lineaJson.setLength(0);
+            lineaJson.append(prefijo).append(key);
             if (value.isObject()) {
-                System.out.println(prefijo + key + ":");
+                renderizador.linea(lineaJson.append(':'));
                 mostrarObjetoJson(value, prefijo + "  ");
             } else if (value.isArray()) {
-                System.out.println(prefijo + key + ": [Array con " + value.size() + " elementos]");
+                renderizador.linea(lineaJson.append(": [Array con ").append(value.size()).append(" elementos]"));
             } else {
                 String valorFormateado = value.asText();
+                lineaJson.append(": ").append(valorFormateado);
                 // Intentar formatear timestamps
-                if (key.toLowerCase().contains("time") && valorFormateado.matches("\\d{13}")) {
-                    valorFormateado += " (" + formatearTimestamp(value.asLong()) + ")";
+                if (esTimestamp(key, valorFormateado, 0, valorFormateado.length())) {
+                    lineaJson.append(" (");
+                    Renderizador.escribirFecha(lineaJson, value.asLong());
+                    lineaJson.append(')');
                 }
-                System.out.println(prefijo + key + ": " + valorFormateado);
+                renderizador.linea(lineaJson);
             }
         }
     }
-}
\ No newline at end of file
+
+
+    //Antes de una lectura que se bloquearía, escribe las filas que ya están en el buffer
+
+    private static final class EntradaConVolcado extends FilterInputStream {
+        private final Renderizador renderizador;
+
+        EntradaConVolcado(InputStream entrada, Renderizador renderizador) {
+            super(entrada);
+            this.renderizador = renderizador;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (in.available() == 0) renderizador.volcarPendiente();
+            return in.read(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package Lib.Libreria_Binance.funcion.TraerData;
+
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Modelo.Trade;
+import Lib.Libreria_Binance.funcion.Simbolos.SymbolRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Descarga el historial completo de /api/v3/myTrades de un símbolo entre dos instantes.
+// Binance limita cada consulta por tiempo a 24 h y 1000 trades, así que el rango se parte en
+// ventanas de un día que se descargan en paralelo (Connect aplica el limitador de peso y el
+// máximo de peticiones en vuelo). Dentro de una ventana se pagina con fromId. Cada página se
+// entrega al consumidor según llega y el progreso se guarda en un checkpoint para reanudar
+public class TradeHistoryDownloader {
+    public static final int LIMITE_PAGINA = 1000;
+    private static final long VENTANA_MS = TimeUnit.HOURS.toMillis(24);
+    private static final int PARALELISMO_POR_DEFECTO = 4;
+    private static final String COMPLETA = "completa";
+
+    private final Connect connect;
+    private int paralelismo = PARALELISMO_POR_DEFECTO;
+
+    public TradeHistoryDownloader(Connect connect) {
+        this.connect = connect;
+    }
+
+    // Ventanas de un día que se descargan a la vez
+    public void setParalelismo(int paralelismo) {
+        if (paralelismo <= 0) {
+            throw new IllegalArgumentException("El paralelismo debe ser positivo");
+        }
+        this.paralelismo = paralelismo;
+    }
+
+    // Descarga sin checkpoint
+    public long descargar(String symbol, long desdeMs, long hastaMs, Consumer<List<Trade>> consumidor)
+            throws IOException, InterruptedException {
+        return descargar(symbol, desdeMs, hastaMs, consumidor, null);
+    }
+
+    // Entrega cada página (trades en orden ascendente dentro de su ventana; las ventanas pueden
+    // llegar desordenadas). El consumidor se llama desde un solo hilo a la vez. Si checkpoint no
+    // es null, las ventanas terminadas y el último id entregado se guardan ahí y una nueva
+    // llamada con los mismos argumentos continúa donde se quedó. Devuelve los trades entregados
+    public long descargar(String symbol, long desdeMs, long hastaMs, Consumer<List<Trade>> consumidor, Path checkpoint)
+            throws IOException, InterruptedException {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("El símbolo no puede ser nulo o vacío");
+        }
+        if (hastaMs < desdeMs) {
+            throw new IllegalArgumentException("El final del rango es anterior al inicio");
+        }
+        Descarga descarga = new Descarga(SymbolRegistry.global().normalizar(symbol), desdeMs, hastaMs, consumidor, checkpoint);
+        descarga.cargarCheckpoint();
+
+        // El primer fallo cancela la descarga: las ventanas que faltan no se empiezan, las que
+        // están a medias no piden más páginas y no se espera a que terminen los demás trabajadores
+        CompletableFuture<Void> resultado = new CompletableFuture<>();
+        List<CompletableFuture<Void>> trabajadores = new ArrayList<>();
+        for (int i = 0; i < paralelismo; i++) {
+            CompletableFuture<Void> trabajador = descarga.siguienteVentana();
+            trabajador.whenComplete((ignorado, error) -> {
+                if (error != null) {
+                    descarga.cancelar();
+                    resultado.completeExceptionally(error);
+                }
+            });
+            trabajadores.add(trabajador);
+        }
+        CompletableFuture.allOf(trabajadores.toArray(new CompletableFuture<?>[0]))
+                .thenRun(() -> resultado.complete(null));
+        try {
+            resultado.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (causa instanceof IOException) throw (IOException) causa;
+            if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+            throw new IOException("Error al descargar el historial de trades", causa);
+        } catch (InterruptedException e) {
+            descarga.cancelar();
+            throw e;
+        }
+        return descarga.entregados.get();
+    }
+
+    // Estado de una descarga concreta
+    private final class Descarga {
+        private final String symbol;
+        private final long desdeMs;
+        private final long hastaMs;
+        private final Consumer<List<Trade>> consumidor;
+        private final Path checkpoint;
+        private final List<Ventana> ventanas = new ArrayList<>();
+        private final AtomicInteger siguiente = new AtomicInteger();
+        private final AtomicLong entregados = new AtomicLong();
+        private volatile boolean cancelada;
+
+        private Descarga(String symbol, long desdeMs, long hastaMs, Consumer<List<Trade>> consumidor, Path checkpoint) {
+            this.symbol = symbol;
+            this.desdeMs = desdeMs;
+            this.hastaMs = hastaMs;
+            this.consumidor = consumidor;
+            this.checkpoint = checkpoint;
+            for (long inicio = desdeMs; inicio <= hastaMs; inicio += VENTANA_MS) {
+                ventanas.add(new Ventana(inicio, Math.min(hastaMs, inicio + VENTANA_MS - 1)));
+            }
+        }
+
+        // Con el monitor de la descarga: después de volver ya no se entrega nada al consumidor
+        // ni se toca el checkpoint, aunque sigan llegando respuestas de peticiones en vuelo
+        private synchronized void cancelar() {
+            cancelada = true;
+        }
+
+        // Cada trabajador encadena ventanas hasta que no quedan
+        private CompletableFuture<Void> siguienteVentana() {
+            while (true) {
+                int indice = siguiente.getAndIncrement();
+                if (indice >= ventanas.size() || cancelada) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                Ventana ventana = ventanas.get(indice);
+                if (!ventana.completa) {
+                    return pagina(ventana).thenCompose(ignorado -> siguienteVentana());
+                }
+            }
+        }
+
+        private CompletableFuture<Void> pagina(Ventana ventana) {
+            if (cancelada) {
+                return CompletableFuture.completedFuture(null);
+            }
+            Map<String, String> params = new HashMap<>();
+            params.put("symbol", symbol);
+            params.put("limit", String.valueOf(LIMITE_PAGINA));
+            if (ventana.ultimoId >= 0) {
+                // Binance no admite fromId junto a startTime/endTime
+                params.put("fromId", String.valueOf(ventana.ultimoId + 1));
+            } else {
+                params.put("startTime", String.valueOf(ventana.inicio));
+                params.put("endTime", String.valueOf(ventana.fin));
+            }
+            CompletableFuture<List<Trade>> respuesta = connect.signedRequestAsync("/api/v3/myTrades", params, JsonReaders.TRADES);
+            return respuesta.thenCompose(trades -> {
+                boolean terminada = procesar(ventana, trades);
+                return terminada ? CompletableFuture.completedFuture(null) : pagina(ventana);
+            });
+        }
+
+        // Entrega la parte de la página que cae en la ventana; devuelve true si la ventana ha terminado
+        private boolean procesar(Ventana ventana, List<Trade> trades) {
+            List<Trade> dentro = trades;
+            boolean fueraDeVentana = false;
+            for (int i = 0; i < trades.size(); i++) {
+                if (trades.get(i).getTime() > ventana.fin) {
+                    dentro = trades.subList(0, i);
+                    fueraDeVentana = true;
+                    break;
+                }
+            }
+            synchronized (this) {
+                if (cancelada) return true;
+                if (!dentro.isEmpty()) {
+                    consumidor.accept(dentro);
+                    entregados.addAndGet(dentro.size());
+                    ventana.ultimoId = dentro.get(dentro.size() - 1).getId();
+                }
+                ventana.completa = fueraDeVentana || trades.size() < LIMITE_PAGINA;
+                guardarCheckpoint();
+            }
+            return ventana.completa;
+        }
+
+        private void cargarCheckpoint() throws IOException {
+            if (checkpoint == null || !Files.exists(checkpoint)) return;
+            Properties estado = new Properties();
+            try (InputStream entrada = Files.newInputStream(checkpoint)) {
+                estado.load(entrada);
+            }
+            if (!symbol.equals(estado.getProperty("symbol"))
+                    || !String.valueOf(desdeMs).equals(estado.getProperty("desde"))
+                    || !String.valueOf(hastaMs).equals(estado.getProperty("hasta"))) {
+                throw new IOException("El checkpoint " + checkpoint + " pertenece a otra descarga");
+            }
+            for (Ventana ventana : ventanas) {
+                String valor = estado.getProperty(String.valueOf(ventana.inicio));
+                if (valor == null) continue;
+                if (COMPLETA.equals(valor)) {
+                    ventana.completa = true;
+                } else {
+                    ventana.ultimoId = Long.parseLong(valor);
+                }
+            }
+        }
+
+        // Escritura atómica: archivo temporal y rename, para no dejar un checkpoint a medias
+        private void guardarCheckpoint() {
+            if (checkpoint == null) return;
+            Properties estado = new Properties();
+            estado.setProperty("symbol", symbol);
+            estado.setProperty("desde", String.valueOf(desdeMs));
+            estado.setProperty("hasta", String.valueOf(hastaMs));
+            for (Ventana ventana : ventanas) {
+                if (ventana.completa) {
+                    estado.setProperty(String.valueOf(ventana.inicio), COMPLETA);
+                } else if (ventana.ultimoId >= 0) {
+                    estado.setProperty(String.valueOf(ventana.inicio), String.valueOf(ventana.ultimoId));
+                }
+            }
+            try {
+                Path temporal = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+                try (OutputStream salida = Files.newOutputStream(temporal)) {
+                    estado.store(salida, "Descarga de myTrades");
+                }
+                Files.move(temporal, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }
+    }
+
+    // Rango de como mucho 24 h; ultimoId es el último trade entregado (-1 si ninguno)
+    private static final class Ventana {
+        private final long inicio;
+        private final long fin;
+        private long ultimoId = -1;
+        private boolean completa;
+
+        private Ventana(long inicio, long fin) {
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+    }
+}
@@ -1,13 +1,46 @@
 package Lib.Libreria_Binance.funcion.TraerData;
 
 import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Modelo.Account;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Modelo.Order;
+import Lib.Libreria_Binance.funcion.Modelo.TickerPrice;
+import Lib.Libreria_Binance.funcion.Modelo.Trade;
+import Lib.Libreria_Binance.funcion.Simbolos.SymbolRegistry;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class TraerData {
 
+    // ASINCRONO usa HttpClient.sendAsync; el resto ejecuta las llamadas bloqueantes
+    public enum ModoEjecucion { ASINCRONO, HILOS_VIRTUALES, HILOS_PLATAFORMA, SECUENCIAL }
+
+    // Llamada bloqueante por símbolo usada en los lotes
+    private interface LlamadaBloqueante {
+        String llamar(String symbol) throws IOException, InterruptedException;
+    }
+
     private final Connect connect;
+    // Nombres canónicos de los símbolos: evita pasar a mayúsculas en cada llamada
+    private final SymbolRegistry registro = SymbolRegistry.global();
+    private volatile ModoEjecucion modoEjecucion = ModoEjecucion.ASINCRONO;
+    private int hilosPlataforma = 16;
+    private ExecutorService poolPlataforma;
 
     // Constructor para producción
     public TraerData(String apiKey, String secretKey) {
@@ -24,10 +57,15 @@ public class TraerData {
         this.connect = new Connect(apiKey, secretKey, customBaseUrl);
     }
 
+    // Sobre un Connect ya configurado (limitador, caché, transporte...)
+    public TraerData(Connect connect) {
+        this.connect = connect;
+    }
+
     // Obtiene información de la cuenta actual
     public String obtenerDatasCuenta() throws IOException, InterruptedException {
+        // Sin recvWindow fijo: Connect lo ajusta según el RTT medido con el servidor
         Map<String, String> params = new HashMap<>();
-        params.put("recvWindow", "5000");
         return connect.signedRequest("/api/v3/account", params);
     }
 
@@ -38,11 +76,23 @@ public class TraerData {
         }
 
         Map<String, String> params = new HashMap<>();
-        params.put("symbol", symbol.toUpperCase());
+        params.put("symbol", registro.normalizar(symbol));
         params.put("limit", "500");
         return connect.signedRequest("/api/v3/myTrades", params);
     }
 
+    // Historial de trades sin leer, para mostrarlo fila a fila con Tabla; hay que cerrarlo
+    public InputStream obtenerHistorialTradesStream(String symbol) throws IOException, InterruptedException {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("El símbolo no puede ser nulo o vacío");
+        }
+
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", registro.normalizar(symbol));
+        params.put("limit", "1000");
+        return connect.signedRequestStream("/api/v3/myTrades", params);
+    }
+
     // Obtiene las órdenes abiertas para un símbolo específico
     public String obtenerOrdenesAbiertas(String symbol) throws IOException, InterruptedException {
         if (symbol == null || symbol.trim().isEmpty()) {
@@ -50,7 +100,7 @@ public class TraerData {
         }
 
         Map<String, String> params = new HashMap<>();
-        params.put("symbol", symbol.toUpperCase());
+        params.put("symbol", registro.normalizar(symbol));
         return connect.signedRequest("/api/v3/openOrders", params);
     }
 
@@ -60,6 +110,11 @@ public class TraerData {
         return connect.signedRequest("/api/v3/openOrders", params);
     }
 
+    // Todas las órdenes abiertas sin leer, para mostrarlas fila a fila; hay que cerrarlo
+    public InputStream obtenerTodasOrdenesAbiertasStream() throws IOException, InterruptedException {
+        return connect.signedRequestStream("/api/v3/openOrders", new HashMap<>());
+    }
+
     // Obtiene información de precios de un símbolo específico
     public String obtenerPrecioSimbolo(String symbol) throws IOException, InterruptedException {
         if (symbol == null || symbol.trim().isEmpty()) {
@@ -67,17 +122,228 @@ public class TraerData {
         }
 
         Map<String, String> params = new HashMap<>();
-        params.put("symbol", symbol.toUpperCase());
-        return connect.signedRequest("/api/v3/ticker/price", params);
+        params.put("symbol", registro.normalizar(symbol));
+        // Endpoint público: no necesita firma y se sirve desde la caché de Connect
+        return connect.publicRequestCached("/api/v3/ticker/price", params);
     }
 
     // Obtiene el balance de la cuenta
     public String obtenerBalance() throws IOException, InterruptedException {
         Map<String, String> params = new HashMap<>();
-        params.put("recvWindow", "5000");
         return connect.signedRequest("/api/v3/account", params);
     }
 
+    // Cuenta decodificada directamente del stream de la respuesta
+    public Account obtenerCuenta() throws IOException, InterruptedException {
+        Map<String, String> params = new HashMap<>();
+        return connect.signedRequest("/api/v3/account", params, JsonReaders.ACCOUNT);
+    }
+
+    // Historial de trades tipado
+    public List<Trade> obtenerTrades(String symbol) throws IOException, InterruptedException {
+        validarSimbolo(symbol);
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", registro.normalizar(symbol));
+        params.put("limit", "500");
+        return connect.signedRequest("/api/v3/myTrades", params, JsonReaders.TRADES);
+    }
+
+    // Órdenes abiertas tipadas de un símbolo
+    public List<Order> obtenerOrdenes(String symbol) throws IOException, InterruptedException {
+        validarSimbolo(symbol);
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", registro.normalizar(symbol));
+        return connect.signedRequest("/api/v3/openOrders", params, JsonReaders.ORDERS);
+    }
+
+    // Todas las órdenes abiertas tipadas
+    public List<Order> obtenerTodasOrdenes() throws IOException, InterruptedException {
+        return connect.signedRequest("/api/v3/openOrders", new HashMap<>(), JsonReaders.ORDERS);
+    }
+
+    // Precio tipado de un símbolo
+    public TickerPrice obtenerPrecio(String symbol) throws IOException, InterruptedException {
+        validarSimbolo(symbol);
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", registro.normalizar(symbol));
+        return connect.publicRequestCached("/api/v3/ticker/price", params, JsonReaders.TICKER_PRICE);
+    }
+
+    // Historial completo de trades entre dos instantes (ms), entregado por páginas al consumidor.
+    // Con checkpoint distinto de null una descarga interrumpida se reanuda donde se quedó
+    public long descargarHistorialTrades(String symbol, long desdeMs, long hastaMs,
+                                         Consumer<List<Trade>> consumidor, Path checkpoint)
+            throws IOException, InterruptedException {
+        return new TradeHistoryDownloader(connect).descargar(symbol, desdeMs, hastaMs, consumidor, checkpoint);
+    }
+
+    // Versión asíncrona de obtenerHistorialTrades
+    public CompletableFuture<String> obtenerHistorialTradesAsync(String symbol) {
+        validarSimbolo(symbol);
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", registro.normalizar(symbol));
+        params.put("limit", "500");
+        return connect.signedRequestAsync("/api/v3/myTrades", params);
+    }
+
+    // Versión asíncrona de obtenerOrdenesAbiertas
+    public CompletableFuture<String> obtenerOrdenesAbiertasAsync(String symbol) {
+        validarSimbolo(symbol);
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", registro.normalizar(symbol));
+        return connect.signedRequestAsync("/api/v3/openOrders", params);
+    }
+
+    // Versión asíncrona de obtenerPrecioSimbolo
+    public CompletableFuture<String> obtenerPrecioSimboloAsync(String symbol) {
+        validarSimbolo(symbol);
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", registro.normalizar(symbol));
+        return connect.publicRequestCachedAsync("/api/v3/ticker/price", params);
+    }
+
+    // Historial de trades de varios símbolos a la vez; el resultado conserva el orden de entrada
+    public Map<String, String> obtenerHistorialTrades(Collection<String> symbols) throws IOException, InterruptedException {
+        return ejecutarLote(symbols, this::obtenerHistorialTrades, this::obtenerHistorialTradesAsync);
+    }
+
+    // Órdenes abiertas de varios símbolos a la vez
+    public Map<String, String> obtenerOrdenesAbiertas(Collection<String> symbols) throws IOException, InterruptedException {
+        return ejecutarLote(symbols, this::obtenerOrdenesAbiertas, this::obtenerOrdenesAbiertasAsync);
+    }
+
+    // Precios de varios símbolos a la vez
+    public Map<String, String> obtenerPreciosSimbolos(Collection<String> symbols) throws IOException, InterruptedException {
+        return ejecutarLote(symbols, this::obtenerPrecioSimbolo, this::obtenerPrecioSimboloAsync);
+    }
+
+    // Ejecuta el lote según el modo configurado
+    private Map<String, String> ejecutarLote(Collection<String> symbols, LlamadaBloqueante bloqueante,
+                                             Function<String, CompletableFuture<String>> asincrona)
+            throws IOException, InterruptedException {
+        switch (modoEjecucion) {
+            case SECUENCIAL:
+                Map<String, String> resultados = new LinkedHashMap<>();
+                for (String simbolo : symbols) {
+                    resultados.put(registro.normalizar(simbolo), bloqueante.llamar(simbolo));
+                }
+                return resultados;
+            case HILOS_VIRTUALES:
+                try (ExecutorService hilosVirtuales = Executors.newVirtualThreadPerTaskExecutor()) {
+                    return enHilos(hilosVirtuales, symbols, bloqueante);
+                }
+            case HILOS_PLATAFORMA:
+                return enHilos(hilosPlataforma(), symbols, bloqueante);
+            default:
+                return esperarLote(enLote(symbols, asincrona));
+        }
+    }
+
+    // Una tarea bloqueante por símbolo en el ejecutor indicado
+    private Map<String, String> enHilos(ExecutorService ejecutor, Collection<String> symbols,
+                                        LlamadaBloqueante llamada) throws IOException, InterruptedException {
+        List<String> simbolos = new ArrayList<>(symbols);
+        List<Future<String>> futuros = new ArrayList<>(simbolos.size());
+        for (String simbolo : simbolos) {
+            futuros.add(ejecutor.submit(() -> llamada.llamar(simbolo)));
+        }
+        Map<String, String> resultados = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < simbolos.size(); i++) {
+                resultados.put(registro.normalizar(simbolos.get(i)), futuros.get(i).get());
+            }
+        } catch (ExecutionException e) {
+            for (Future<String> futuro : futuros) {
+                futuro.cancel(true);
+            }
+            throw desenvolver(e);
+        }
+        return resultados;
+    }
+
+    private synchronized ExecutorService hilosPlataforma() {
+        if (poolPlataforma == null) {
+            poolPlataforma = Executors.newFixedThreadPool(hilosPlataforma, r -> {
+                Thread hilo = new Thread(r, "traerdata-lote");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        return poolPlataforma;
+    }
+
+    // Modo de ejecución de los métodos en lote
+    public void setModoEjecucion(ModoEjecucion modoEjecucion) {
+        this.modoEjecucion = modoEjecucion;
+    }
+
+    public ModoEjecucion getModoEjecucion() {
+        return modoEjecucion;
+    }
+
+    // Tamaño del pool usado en modo HILOS_PLATAFORMA
+    public synchronized void setHilosPlataforma(int hilos) {
+        if (hilos <= 0) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo");
+        }
+        this.hilosPlataforma = hilos;
+        if (poolPlataforma != null) {
+            poolPlataforma.shutdown();
+            poolPlataforma = null;
+        }
+    }
+
+    // Lanza una llamada asíncrona por símbolo (Connect limita cuántas van en vuelo) y agrega los resultados
+    public CompletableFuture<Map<String, String>> enLote(Collection<String> symbols,
+                                                        Function<String, CompletableFuture<String>> llamada) {
+        List<String> simbolos = new ArrayList<>(symbols);
+        List<CompletableFuture<String>> futuros = new ArrayList<>(simbolos.size());
+        for (String simbolo : simbolos) {
+            futuros.add(llamada.apply(simbolo));
+        }
+        return CompletableFuture.allOf(futuros.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignorado -> {
+                    Map<String, String> resultados = new LinkedHashMap<>();
+                    for (int i = 0; i < simbolos.size(); i++) {
+                        resultados.put(registro.normalizar(simbolos.get(i)), futuros.get(i).join());
+                    }
+                    return resultados;
+                });
+    }
+
+    // Espera un lote y traduce los fallos a las excepciones de los métodos síncronos
+    private static Map<String, String> esperarLote(CompletableFuture<Map<String, String>> lote)
+            throws IOException, InterruptedException {
+        try {
+            return lote.get();
+        } catch (ExecutionException e) {
+            throw desenvolver(e);
+        }
+    }
+
+    private static IOException desenvolver(ExecutionException e) {
+        Throwable causa = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                ? e.getCause().getCause() : e.getCause();
+        if (causa instanceof IOException) return (IOException) causa;
+        if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+        return new IOException("Error en la petición en lote", causa);
+    }
+
+    private static void validarSimbolo(String symbol) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("El símbolo no puede ser nulo o vacío");
+        }
+    }
+
+    // Carga los símbolos de exchangeInfo en el registro (o lo refresca); devuelve los que cambiaron
+    public int cargarSimbolos() throws IOException, InterruptedException {
+        return registro.cargar(connect);
+    }
+
+    public SymbolRegistry getSimbolos() {
+        return registro;
+    }
+
     // Método útil para saber en qué entorno estamos
     public boolean isTestnet() {
         return connect.isTestnet();
@@ -0,0 +1,311 @@
+package Lib.Libreria_Binance.funcion.UserData;
+
+import Lib.Libreria_Binance.funcion.Connect.BinanceApiException;
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import Lib.Libreria_Binance.funcion.Modelo.Account;
+import Lib.Libreria_Binance.funcion.Modelo.Balance;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Modelo.Order;
+import Lib.Libreria_Binance.funcion.RealTrades.ConnectionSupervisor;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Copia local de saldos y órdenes abiertas mantenida con el user data stream.
+// Arranca una vez por REST (/api/v3/account y /api/v3/openOrders) y después aplica los eventos
+// outboundAccountPosition y executionReport. Los eventos que llegan durante el arranque se
+// guardan y se aplican todos al terminar: los que la respuesta REST ya incluye se descartan por
+// su u (saldos) o su updateTime (órdenes). Las lecturas devuelven un AccountSnapshot inmutable.
+// Cada arranque pesa 100 (account 20 + openOrders sin símbolo 80); se hace al conectar y tras
+// cada caída, pero no en las rotaciones del supervisor, que no pierden eventos
+public class AccountMirror implements WebSocket.Listener {
+    private static final String PROD_WS_URL = "wss://stream.binance.com:9443";
+    private static final String TEST_WS_URL = "wss://stream.testnet.binance.vision";
+    private static final String USER_DATA_STREAM = "/api/v3/userDataStream";
+    // Binance caduca el listenKey a los 60 minutos sin keepalive
+    private static final long KEEPALIVE_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long REINTENTO_ARRANQUE_MS = TimeUnit.SECONDS.toMillis(5);
+    // -1125: el listenKey no existe (caducado)
+    private static final int LISTEN_KEY_INEXISTENTE = -1125;
+    private static final Set<String> ESTADOS_CERRADOS = Set.of("FILLED", "CANCELED", "REJECTED", "EXPIRED", "EXPIRED_IN_MATCH");
+
+    private final Connect connect;
+    private final String wsBaseUrl;
+    // Se crea en iniciar(): el constructor no publica this
+    private volatile ConnectionSupervisor supervisor;
+    private final AtomicReference<AccountSnapshot> estado = new AtomicReference<>(AccountSnapshot.VACIO);
+    private final CompletableFuture<AccountSnapshot> listo = new CompletableFuture<>();
+    private final StringBuilder parcial = new StringBuilder();
+    private final ScheduledExecutorService planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "user-data-stream");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private volatile String listenKey;
+    // Estado del arranque; protegido por this
+    private final List<JsonNode> pendientes = new ArrayList<>();
+    private boolean arrancando;
+    private int generacion;
+    private long rotacionesVistas;
+
+    public AccountMirror(Connect connect) {
+        this(connect, connect.isTestnet() ? TEST_WS_URL : PROD_WS_URL);
+    }
+
+    // Permite apuntar el WebSocket a otro servidor (p. ej. uno local de pruebas)
+    public AccountMirror(Connect connect, String wsBaseUrl) {
+        this.connect = connect;
+        this.wsBaseUrl = wsBaseUrl;
+    }
+
+    // Crea el listenKey, abre el stream y programa el keepalive. El arranque por REST se hace
+    // al abrir cada conexión; getListo() se completa con el primer estado
+    public synchronized void iniciar() throws IOException, InterruptedException {
+        if (supervisor != null) {
+            throw new IllegalStateException("El user data stream ya está iniciado");
+        }
+        listenKey = crearListenKey();
+        supervisor = new ConnectionSupervisor("user data stream", () -> URI.create(wsBaseUrl + "/ws/" + listenKey), this);
+        supervisor.iniciar();
+        planificador.scheduleWithFixedDelay(this::keepalive, KEEPALIVE_MS, KEEPALIVE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void detener() {
+        planificador.shutdownNow();
+        ConnectionSupervisor actual = supervisor;
+        if (actual == null) return;
+        actual.detener();
+        try {
+            Map<String, String> params = new HashMap<>();
+            params.put("listenKey", listenKey);
+            connect.apiKeyRequest("DELETE", USER_DATA_STREAM, params);
+        } catch (IOException e) {
+            System.err.println("❌ Error al cerrar el listenKey: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Se completa cuando el primer arranque por REST ha terminado
+    public CompletableFuture<AccountSnapshot> getListo() {
+        return listo;
+    }
+
+    public AccountSnapshot getSnapshot() {
+        return estado.get();
+    }
+
+    public Balance getBalance(String asset) {
+        return estado.get().getBalance(asset);
+    }
+
+    public Decimal getLibre(String asset) {
+        return estado.get().getLibre(asset);
+    }
+
+    public Collection<Order> getOrdenesAbiertas() {
+        return estado.get().getOrdenesAbiertas();
+    }
+
+    public List<Order> getOrdenesAbiertas(String symbol) {
+        return estado.get().getOrdenesAbiertas(symbol);
+    }
+
+    // null hasta llamar a iniciar()
+    public ConnectionSupervisor getSupervisor() {
+        return supervisor;
+    }
+
+    private String crearListenKey() throws IOException, InterruptedException {
+        String respuesta = connect.apiKeyRequest("POST", USER_DATA_STREAM, new HashMap<>());
+        return JsonReaders.JSON_NODE.<JsonNode>readValue(respuesta).path("listenKey").asText();
+    }
+
+    private void keepalive() {
+        try {
+            Map<String, String> params = new HashMap<>();
+            params.put("listenKey", listenKey);
+            connect.apiKeyRequest("PUT", USER_DATA_STREAM, params);
+        } catch (BinanceApiException e) {
+            if (e.getCode() == LISTEN_KEY_INEXISTENTE) {
+                renovarListenKey();
+            } else {
+                System.err.println("❌ Error en keepalive del listenKey: " + e.getMessage());
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Error en keepalive del listenKey: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Pide un listenKey nuevo y reabre el stream con él (el supervisor lee la URI al conectar)
+    private void renovarListenKey() {
+        try {
+            listenKey = crearListenKey();
+            supervisor.reconectar();
+        } catch (IOException e) {
+            System.err.println("❌ Error al renovar el listenKey: " + e.getMessage());
+            planificador.schedule(this::renovarListenKey, REINTENTO_ARRANQUE_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        parcial.setLength(0);
+        // El supervisor cuenta la rotación antes de avisar de la apertura
+        long rotaciones = supervisor.getRotaciones();
+        int gen;
+        synchronized (this) {
+            boolean rotacion = rotaciones != rotacionesVistas;
+            rotacionesVistas = rotaciones;
+            if (rotacion && listo.isDone() && !arrancando) {
+                // La conexión anterior siguió abierta hasta que esta estuvo lista: no falta nada
+                webSocket.request(1);
+                return;
+            }
+            // Tras cada (re)conexión se pueden haber perdido eventos: se vuelve a arrancar
+            arrancando = true;
+            pendientes.clear();
+            gen = ++generacion;
+        }
+        arrancar(gen);
+        webSocket.request(1);
+    }
+
+    private void arrancar(int gen) {
+        synchronized (this) {
+            if (gen != generacion) return;
+        }
+        CompletableFuture<Account> cuenta = connect.signedRequestAsync("/api/v3/account", new HashMap<>(), JsonReaders.ACCOUNT);
+        CompletableFuture<List<Order>> ordenes = connect.signedRequestAsync("/api/v3/openOrders", new HashMap<>(), JsonReaders.ORDERS);
+        cuenta.thenCombine(ordenes, (c, o) -> {
+            aplicarArranque(gen, c, o);
+            return null;
+        }).exceptionally(error -> {
+            System.err.println("❌ Error al cargar la cuenta: " + error.getMessage());
+            planificador.schedule(() -> arrancar(gen), REINTENTO_ARRANQUE_MS, TimeUnit.MILLISECONDS);
+            return null;
+        });
+    }
+
+    private synchronized void aplicarArranque(int gen, Account cuenta, List<Order> ordenes) {
+        if (gen != generacion) return;
+        Map<String, Balance> balances = new LinkedHashMap<>();
+        for (Balance balance : cuenta.getBalances()) {
+            balances.put(balance.getAsset(), balance);
+        }
+        Map<Long, Order> abiertas = new LinkedHashMap<>();
+        for (Order orden : ordenes) {
+            abiertas.put(orden.getOrderId(), orden);
+        }
+        estado.set(new AccountSnapshot(cuenta, balances, abiertas, cuenta.getUpdateTime()));
+        // Todos, en orden: aplicar() descarta los que la respuesta REST ya refleja, y una orden
+        // que ya no está abierta recibe después su evento de cierre. Un evento que no se puede
+        // aplicar se descarta, como en onText: si no, el arranque se reintentaría sin fin
+        try {
+            for (JsonNode evento : pendientes) {
+                try {
+                    aplicar(evento);
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Error al procesar evento de cuenta: " + e.getMessage());
+                }
+            }
+        } finally {
+            pendientes.clear();
+            arrancando = false;
+        }
+        listo.complete(estado.get());
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        parcial.append(data);
+        if (!last) {
+            webSocket.request(1);
+            return null;
+        }
+        try {
+            JsonNode evento = JsonReaders.JSON_NODE.readValue(parcial.toString());
+            synchronized (this) {
+                if (arrancando) {
+                    pendientes.add(evento);
+                } else {
+                    aplicar(evento);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Error al procesar evento de cuenta: " + e.getMessage());
+        } finally {
+            parcial.setLength(0);
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    // Aplica un evento sobre el estado actual; se llama con el cerrojo tomado
+    private void aplicar(JsonNode evento) {
+        AccountSnapshot actual = estado.get();
+        switch (evento.path("e").asText()) {
+            case "outboundAccountPosition":
+                long updateTime = evento.path("u").asLong();
+                if (updateTime < actual.getUpdateTime()) return;
+                List<Balance> cambios = new ArrayList<>();
+                for (JsonNode balance : evento.path("B")) {
+                    cambios.add(convertir(balance, Balance.class));
+                }
+                estado.set(actual.conBalances(cambios, updateTime));
+                break;
+            case "executionReport":
+                Order orden = convertir(evento, Order.class);
+                Order anterior = actual.getOrden(orden.getOrderId());
+                if (anterior != null && anterior.getUpdateTime() > orden.getUpdateTime()) return;
+                estado.set(actual.conOrden(orden, !ESTADOS_CERRADOS.contains(orden.getStatus())));
+                break;
+            case "listenKeyExpired":
+                planificador.execute(this::renovarListenKey);
+                break;
+            default:
+                // balanceUpdate va seguido de un outboundAccountPosition con el saldo final
+                break;
+        }
+    }
+
+    private static <T> T convertir(JsonNode nodo, Class<T> tipo) {
+        try {
+            return JsonReaders.MAPPER.treeToValue(nodo, tipo);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Evento no válido: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        System.err.println("❌ Error en el user data stream: " + error.getMessage());
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        System.out.println("🔌 User data stream cerrado: " + reason);
+        return null;
+    }
+}
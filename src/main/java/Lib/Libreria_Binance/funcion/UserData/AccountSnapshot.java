@@ -0,0 +1,93 @@
+package Lib.Libreria_Binance.funcion.UserData;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import Lib.Libreria_Binance.funcion.Modelo.Account;
+import Lib.Libreria_Binance.funcion.Modelo.Balance;
+import Lib.Libreria_Binance.funcion.Modelo.Order;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Estado inmutable de la cuenta en un instante. AccountMirror publica uno nuevo por cada
+// evento, así que leerlo no necesita cerrojos ni peticiones HTTP
+public final class AccountSnapshot {
+    static final AccountSnapshot VACIO = new AccountSnapshot(null, Collections.emptyMap(), Collections.emptyMap(), 0);
+
+    private final Account cuenta;
+    private final Map<String, Balance> balances;
+    private final Map<Long, Order> ordenes;
+    private final long updateTime;
+
+    AccountSnapshot(Account cuenta, Map<String, Balance> balances, Map<Long, Order> ordenes, long updateTime) {
+        this.cuenta = cuenta;
+        this.balances = Collections.unmodifiableMap(balances);
+        this.ordenes = Collections.unmodifiableMap(ordenes);
+        this.updateTime = updateTime;
+    }
+
+    // Nuevo estado con los saldos indicados sustituidos
+    AccountSnapshot conBalances(Collection<Balance> cambios, long nuevoUpdateTime) {
+        Map<String, Balance> copia = new LinkedHashMap<>(balances);
+        for (Balance balance : cambios) {
+            copia.put(balance.getAsset(), balance);
+        }
+        return new AccountSnapshot(cuenta, copia, ordenes, Math.max(updateTime, nuevoUpdateTime));
+    }
+
+    // Nuevo estado con la orden añadida, actualizada o quitada (si ya no está abierta)
+    AccountSnapshot conOrden(Order orden, boolean abierta) {
+        Map<Long, Order> copia = new LinkedHashMap<>(ordenes);
+        if (abierta) {
+            copia.put(orden.getOrderId(), orden);
+        } else {
+            copia.remove(orden.getOrderId());
+        }
+        return new AccountSnapshot(cuenta, balances, copia, updateTime);
+    }
+
+    // Respuesta de /api/v3/account usada en el arranque (comisiones, permisos...); null si no ha arrancado
+    public Account getCuenta() {
+        return cuenta;
+    }
+
+    public Map<String, Balance> getBalances() {
+        return balances;
+    }
+
+    public Balance getBalance(String asset) {
+        return balances.get(asset.toUpperCase());
+    }
+
+    // Saldo libre de un activo (0 si no existe)
+    public Decimal getLibre(String asset) {
+        Balance balance = getBalance(asset);
+        return balance == null || balance.getFree() == null ? Decimal.CERO : balance.getFree();
+    }
+
+    public Collection<Order> getOrdenesAbiertas() {
+        return ordenes.values();
+    }
+
+    public List<Order> getOrdenesAbiertas(String symbol) {
+        List<Order> resultado = new ArrayList<>();
+        for (Order orden : ordenes.values()) {
+            if (orden.getSymbol().equalsIgnoreCase(symbol)) {
+                resultado.add(orden);
+            }
+        }
+        return resultado;
+    }
+
+    public Order getOrden(long orderId) {
+        return ordenes.get(orderId);
+    }
+
+    // Última actualización de saldos conocida (ms)
+    public long getUpdateTime() {
+        return updateTime;
+    }
+}
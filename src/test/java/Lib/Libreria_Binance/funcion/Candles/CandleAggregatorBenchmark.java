@@ -0,0 +1,61 @@
+package Lib.Libreria_Binance.funcion.Candles;
+
+import Lib.Libreria_Binance.funcion.RealTrades.AggTradeEvent;
+import Lib.Libreria_Binance.funcion.RealTrades.EventosDePrueba;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Coste por trade de CandleAggregator.onTrade con los cuatro intervalos: 10 ms de mercado por
+// trade repartidos entre varios símbolos (una vela de 1s nueva cada 100 trades por símbolo).
+// mvn -Pjmh test-compile exec:exec -Djmh.args="CandleAggregator -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CandleAggregatorBenchmark {
+
+    private static final long UNIDAD = 100_000_000L;
+
+    @Param({"1", "50"})
+    public int simbolos;
+
+    private CandleAggregator velas;
+    private AggTradeEvent[] eventos;
+    private long tiempo = 1_700_000_000_000L;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        velas = new CandleAggregator();
+        Random aleatorio = new Random(11);
+        eventos = new AggTradeEvent[simbolos];
+        for (int i = 0; i < simbolos; i++) {
+            long precio = (100 + aleatorio.nextInt(60_000)) * UNIDAD;
+            long cantidad = (1 + aleatorio.nextInt(1000)) * UNIDAD / 1000;
+            eventos[i] = EventosDePrueba.aggTrade("SIM" + i + "USDT", tiempo, precio, cantidad);
+        }
+    }
+
+    @Benchmark
+    public void onTrade() {
+        AggTradeEvent evento = eventos[siguiente];
+        if (++siguiente == simbolos) siguiente = 0;
+        tiempo += 10;
+        EventosDePrueba.setTiempoTrade(evento, tiempo);
+        velas.onTrade(evento);
+    }
+}
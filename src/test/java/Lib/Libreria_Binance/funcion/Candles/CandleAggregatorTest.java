@@ -0,0 +1,79 @@
+package Lib.Libreria_Binance.funcion.Candles;
+
+import Lib.Libreria_Binance.funcion.RealTrades.EventosDePrueba;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandleAggregatorTest {
+
+    private static final long UNIDAD = 100_000_000L;
+    private static final long MINUTO = 60_000L;
+
+    private final CandleAggregator velas = new CandleAggregator(EnumSet.of(Intervalo.M1), 16);
+    private final CandleSnapshot snapshot = new CandleSnapshot(16);
+
+    @Test
+    void calculaOhlcvYVwap() {
+        velas.onTrade(EventosDePrueba.aggTrade("BTCUSDT", 1_000, 10 * UNIDAD, 1 * UNIDAD));
+        velas.onTrade(EventosDePrueba.aggTrade("BTCUSDT", 2_000, 12 * UNIDAD, 3 * UNIDAD));
+        velas.onTrade(EventosDePrueba.aggTrade("BTCUSDT", 3_000, 9 * UNIDAD, 1 * UNIDAD));
+        velas.onTrade(EventosDePrueba.aggTrade("BTCUSDT", MINUTO + 1, 11 * UNIDAD, 1 * UNIDAD));
+
+        assertEquals(2, velas.snapshot("BTCUSDT", Intervalo.M1, 16, snapshot));
+        assertEquals(10 * UNIDAD, snapshot.getOpen(0));
+        assertEquals(12 * UNIDAD, snapshot.getHigh(0));
+        assertEquals(9 * UNIDAD, snapshot.getLow(0));
+        assertEquals(9 * UNIDAD, snapshot.getClose(0));
+        assertEquals(5 * UNIDAD, snapshot.getVolumen(0));
+        assertEquals(55 * UNIDAD, snapshot.getVolumenCotizadoFijo(0));
+        assertEquals(11 * UNIDAD, snapshot.getVwapFijo(0));
+        assertEquals(3, snapshot.getTrades(0));
+        assertEquals(MINUTO, snapshot.getApertura(1));
+    }
+
+    @Test
+    void unTradeTardioNoReescribeLaVelaCerrada() {
+        velas.onTrade(EventosDePrueba.aggTrade("BTCUSDT", MINUTO + 1, 10 * UNIDAD, UNIDAD));
+        velas.onTrade(EventosDePrueba.aggTrade("BTCUSDT", 1, 99 * UNIDAD, UNIDAD));
+        assertEquals(1, velas.snapshot("BTCUSDT", Intervalo.M1, 16, snapshot));
+        assertEquals(10 * UNIDAD, snapshot.getHigh(0));
+        assertEquals(1, velas.getTardios("BTCUSDT", Intervalo.M1));
+    }
+
+    @Test
+    void elVolumenSaturaEnLugarDeDarLaVuelta() {
+        // 50.000 millones por trade a 8 decimales: el segundo trade supera Long.MAX_VALUE
+        long cantidad = 50_000_000_000L * UNIDAD;
+        velas.onTrade(EventosDePrueba.aggTrade("SHIBUSDT", 1_000, 1_000, cantidad));
+        velas.ultimaVela("SHIBUSDT", Intervalo.M1, snapshot);
+        assertFalse(snapshot.isDesbordada(0));
+
+        velas.onTrade(EventosDePrueba.aggTrade("SHIBUSDT", 2_000, 1_000, cantidad));
+        velas.ultimaVela("SHIBUSDT", Intervalo.M1, snapshot);
+        assertTrue(snapshot.isDesbordada(0));
+        assertEquals(Long.MAX_VALUE, snapshot.getVolumen(0));
+        assertEquals(0, snapshot.getVwapFijo(0));
+        assertEquals(2, snapshot.getTrades(0));
+
+        // La vela siguiente empieza limpia
+        velas.onTrade(EventosDePrueba.aggTrade("SHIBUSDT", MINUTO, 1_000, UNIDAD));
+        velas.ultimaVela("SHIBUSDT", Intervalo.M1, snapshot);
+        assertFalse(snapshot.isDesbordada(0));
+        assertEquals(UNIDAD, snapshot.getVolumen(0));
+    }
+
+    @Test
+    void unVolumenCotizadoQueNoCabeTambienSatura() {
+        // precio * cantidad > 9,2e10: Fijo.multiplicar desborda y la vela queda marcada
+        velas.onTrade(EventosDePrueba.aggTrade("BTCUSDT", 1_000, 70_000 * UNIDAD, 2_000_000 * UNIDAD));
+        velas.ultimaVela("BTCUSDT", Intervalo.M1, snapshot);
+        assertTrue(snapshot.isDesbordada(0));
+        assertEquals(Long.MAX_VALUE, snapshot.getVolumenCotizadoFijo(0));
+        assertEquals(2_000_000 * UNIDAD, snapshot.getVolumen(0));
+    }
+}
@@ -0,0 +1,72 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer.Respuesta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Sincronización del reloj desde las peticiones firmadas asíncronas
+class ClockSyncTest {
+
+    private StubHttpServer servidor;
+    private Connect connect;
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        servidor = new StubHttpServer();
+        servidor.ruta("/api/v3/account", "{}");
+        connect = new Connect("clave", "secreto", servidor.url());
+        connect.setCache(null);
+        connect.setRateLimiter(null);
+    }
+
+    @AfterEach
+    void cerrar() {
+        connect.getClockSync().detener();
+        servidor.close();
+    }
+
+    @Test
+    void sinHoraDelServidorNoSeReintentaEnCadaPeticion() throws Exception {
+        servidor.ruta("/api/v3/time", p -> Respuesta.error(503, "no disponible"));
+        connect.signedRequestAsync("GET", "/api/v3/account", new HashMap<>(), JsonReaders.JSON_NODE).get(5, TimeUnit.SECONDS);
+        esperar(() -> servidor.peticiones("/api/v3/time").size() == 1);
+        Thread.sleep(50);
+
+        // Tras el fallo se espera REINTENTO_MS antes de volver a pedir /api/v3/time
+        for (int i = 0; i < 20; i++) {
+            connect.signedRequestAsync("GET", "/api/v3/account", new HashMap<>(), JsonReaders.JSON_NODE).get(5, TimeUnit.SECONDS);
+        }
+        Thread.sleep(100);
+        assertEquals(1, servidor.peticiones("/api/v3/time").size());
+        assertFalse(connect.getClockSync().isSincronizado());
+    }
+
+    @Test
+    void sincronizaEnSegundoPlanoUnaSolaVez() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            connect.signedRequestAsync("GET", "/api/v3/account", new HashMap<>(), JsonReaders.JSON_NODE).get(5, TimeUnit.SECONDS);
+        }
+        esperar(connect.getClockSync()::isSincronizado);
+        assertEquals(1, connect.getClockSync().getSincronizaciones());
+        assertTrue(servidor.peticiones("/api/v3/time").size() <= 4);
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!condicion.getAsBoolean()) {
+            if (System.currentTimeMillis() > limite) throw new AssertionError("Condición no cumplida en 5 s");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer.Respuesta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Todos los cuerpos de error, sean JSON de Binance o no, acaban en BinanceApiException
+class ConnectErroresTest {
+
+    private static final String HTML_502 = "<html><body><h1>502 Bad Gateway</h1></body></html>";
+
+    private StubHttpServer servidor;
+    private Connect connect;
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        servidor = new StubHttpServer();
+        connect = new Connect("clave", "secreto", servidor.url());
+        connect.setCache(null);
+        connect.setRateLimiter(null);
+    }
+
+    @AfterEach
+    void cerrar() {
+        servidor.close();
+    }
+
+    @Test
+    void errorDeBinanceConservaCodigoYMensaje() {
+        servidor.ruta("/api/v3/account", p -> Respuesta.error(400, "{\"code\":-2015,\"msg\":\"Invalid API-key\"}"));
+        BinanceApiException error = assertThrows(BinanceApiException.class,
+                () -> connect.signedRequest("/api/v3/account", new HashMap<>(), JsonReaders.JSON_NODE));
+        assertEquals(400, error.getStatus());
+        assertEquals(-2015, error.getCode());
+        assertEquals("Invalid API-key", error.getMsg());
+    }
+
+    @Test
+    void htmlDeLaCdnEsBinanceApiException() {
+        servidor.ruta("/api/v3/ticker/price", p -> Respuesta.error(502, HTML_502));
+        BinanceApiException error = assertThrows(BinanceApiException.class,
+                () -> connect.publicRequest("/api/v3/ticker/price", new HashMap<>(), JsonReaders.JSON_NODE));
+        assertEquals(502, error.getStatus());
+        assertEquals(0, error.getCode());
+        assertTrue(error.getMsg().contains("502 Bad Gateway"), error.getMsg());
+    }
+
+    @Test
+    void cuerpoVacioEsBinanceApiException() {
+        servidor.ruta("/api/v3/ticker/price", p -> Respuesta.error(429, ""));
+        BinanceApiException error = assertThrows(BinanceApiException.class,
+                () -> connect.publicRequestStream("/api/v3/ticker/price", new HashMap<>()));
+        assertEquals(429, error.getStatus());
+        assertEquals(0, error.getCode());
+    }
+
+    @Test
+    void lasVariantesAsincronasYCacheadasTambien() {
+        servidor.ruta("/api/v3/ticker/price", p -> Respuesta.error(502, HTML_502));
+        ExecutionException tipada = assertThrows(ExecutionException.class,
+                () -> connect.publicRequestAsync("/api/v3/ticker/price", new HashMap<>(), JsonReaders.JSON_NODE).get());
+        assertEquals(502, assertInstanceOf(BinanceApiException.class, tipada.getCause()).getStatus());
+
+        connect.setCache(new ResponseCache());
+        ExecutionException cacheada = assertThrows(ExecutionException.class,
+                () -> connect.publicRequestCachedAsync("/api/v3/ticker/price", new HashMap<>()).get());
+        assertEquals(502, assertInstanceOf(BinanceApiException.class, cacheada.getCause()).getStatus());
+    }
+}
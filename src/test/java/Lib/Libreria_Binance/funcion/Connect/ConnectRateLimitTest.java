@@ -0,0 +1,92 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer.Respuesta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Connect contra un servidor local: el limitador se corrige con las cabeceras de Binance
+class ConnectRateLimitTest {
+
+    private static final String EXCHANGE_INFO = "{\"timezone\":\"UTC\",\"serverTime\":1,\"rateLimits\":["
+            + "{\"rateLimitType\":\"REQUEST_WEIGHT\",\"interval\":\"MINUTE\",\"intervalNum\":1,\"limit\":6000},"
+            + "{\"rateLimitType\":\"ORDERS\",\"interval\":\"SECOND\",\"intervalNum\":10,\"limit\":100}],\"symbols\":[]}";
+
+    private StubHttpServer servidor;
+    private Connect connect;
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        servidor = new StubHttpServer();
+        connect = new Connect("clave", "secreto", servidor.url());
+        connect.setCache(null);
+    }
+
+    @AfterEach
+    void cerrar() {
+        servidor.close();
+    }
+
+    @Test
+    void lasCabecerasDePesoReducenElPresupuesto() throws Exception {
+        servidor.ruta("/api/v3/ticker/price", p -> Respuesta.json("[]").conCabecera("X-MBX-USED-WEIGHT-1M", "5990"));
+        connect.publicRequest("/api/v3/ticker/price", new HashMap<>());
+        long disponible = connect.getRateLimiter().getPesoDisponible();
+        // Sin la cabecera quedarían 5998 (peso 2); la recarga es de 100 por segundo
+        assertTrue(disponible < 1000, "disponible=" + disponible);
+    }
+
+    @Test
+    void un429BloqueaHastaRetryAfter() throws Exception {
+        connect.setRateLimiter(new RateLimiter(RateLimiter.Politica.DESCARTAR, 0));
+        servidor.ruta("/api/v3/ticker/price", p -> Respuesta.error(429, "{\"code\":-1003,\"msg\":\"Too many requests\"}")
+                .conCabecera("Retry-After", "30"));
+        assertThrows(BinanceApiException.class,
+                () -> connect.publicRequest("/api/v3/ticker/price", new HashMap<>(), JsonReaders.JSON_NODE));
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> connect.publicRequestAsync("/api/v3/ping", new HashMap<>()).get());
+        assertInstanceOf(RateLimitExceededException.class, error.getCause());
+        assertEquals(1, servidor.peticiones("/api/v3/ticker/price").size());
+        assertEquals(0, servidor.peticiones("/api/v3/ping").size());
+    }
+
+    @Test
+    void crearOrdenPesaUno() throws Exception {
+        servidor.ruta("/api/v3/order", "{\"orderId\":1}");
+        connect.getClockSync().sincronizar();
+        // Cubo diario: la recarga durante el test no tapa el peso gastado
+        connect.getRateLimiter().configurar(JsonReaders.MAPPER.readTree("[{\"rateLimitType\":\"REQUEST_WEIGHT\","
+                + "\"interval\":\"DAY\",\"intervalNum\":1,\"limit\":6000}]"));
+        long antes = connect.getRateLimiter().getPesoDisponible();
+        Map<String, String> params = new HashMap<>(Map.of("symbol", "BTCUSDT", "side", "BUY", "type", "MARKET",
+                "quantity", "0.001"));
+        connect.signedRequest("POST", "/api/v3/order", params);
+        assertEquals(antes - 1, connect.getRateLimiter().getPesoDisponible());
+        assertEquals("POST", servidor.peticiones("/api/v3/order").get(0).metodo());
+    }
+
+    @Test
+    void recargarExchangeInfoNoDevuelveElPresupuesto() throws Exception {
+        servidor.ruta("/api/v3/exchangeInfo", EXCHANGE_INFO);
+        connect.getRateLimiter().setPeso("/api/v3/pesado", 3000);
+        servidor.ruta("/api/v3/pesado", "{}");
+        connect.publicRequest("/api/v3/pesado", new HashMap<>());
+
+        connect.cargarLimitesExchange();
+        long disponible = connect.getRateLimiter().getPesoDisponible();
+        // 6000 - 3000 - 20 de exchangeInfo (más lo que se recarga mientras tanto)
+        assertTrue(disponible >= 2980 && disponible < 3100, "disponible=" + disponible);
+    }
+}
@@ -0,0 +1,78 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+// Firma de un query string típico: Mac nuevo por petición (lo que hacía Connect antes)
+// frente a HmacSigner. mvn -Pjmh test-compile exec:exec -Djmh.args="HmacSigner -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HmacSignerBenchmark {
+
+    private static final String SECRETO = "NhqPtmdSJYdKjVHjA7PZj4Mge3R5YNiP1e3UZjInClVN65XAbvqqM6A7H5fATj0j";
+
+    private final String query = "symbol=BTCUSDT&side=BUY&type=LIMIT&timeInForce=GTC&quantity=0.00100000"
+            + "&price=65000.00&recvWindow=5000&timestamp=1700000000000";
+    private final byte[] bytes = query.getBytes(StandardCharsets.US_ASCII);
+    private final byte[] destino = new byte[HmacSigner.LONGITUD_FIRMA];
+    private HmacSigner signer;
+
+    @Setup
+    public void preparar() {
+        signer = new HmacSigner(SECRETO);
+    }
+
+    // Copia literal de Connect.generateSignature antes de HmacSigner
+    @Benchmark
+    public String macNuevoPorPeticion() {
+        return generateSignature(query);
+    }
+
+    private String generateSignature(String data) {
+        try {
+            Mac hmacSha256 = Mac.getInstance("HmacSHA256");
+            SecretKeySpec secretKeySpec = new SecretKeySpec(SECRETO.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+            hmacSha256.init(secretKeySpec);
+            byte[] hash = hmacSha256.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hexString = new StringBuilder(2 * hash.length);
+            for (byte b : hash) {
+                String hex = Integer.toHexString(0xff & b);
+                if (hex.length() == 1) hexString.append('0');
+                hexString.append(hex);
+            }
+            return hexString.toString();
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new RuntimeException("Error al generar la firma", e);
+        }
+    }
+
+    @Benchmark
+    public String sign() {
+        return signer.sign(query);
+    }
+
+    @Benchmark
+    public byte[] signInto() {
+        signer.signInto(bytes, 0, bytes.length, destino, 0);
+        return destino;
+    }
+}
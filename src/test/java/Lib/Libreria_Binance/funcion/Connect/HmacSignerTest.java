@@ -0,0 +1,77 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HmacSignerTest {
+
+    private static final String SECRETO = "NhqPtmdSJYdKjVHjA7PZj4Mge3R5YNiP1e3UZjInClVN65XAbvqqM6A7H5fATj0j";
+
+    // Ejemplo de la documentación de Binance (SIGNED endpoint examples)
+    @Test
+    void firmaComoLaDocumentacionDeBinance() {
+        String query = "symbol=LTCBTC&side=BUY&type=LIMIT&timeInForce=GTC&quantity=1&price=0.1"
+                + "&recvWindow=5000&timestamp=1499827319559";
+        assertEquals("c8db56825ae71d6d79447849e617115f4a920fa2acdcab2b053c4b2838bd6b71",
+                new HmacSigner(SECRETO).sign(query));
+    }
+
+    @Test
+    void lasTresFormasDanLaMismaFirma() throws Exception {
+        HmacSigner signer = new HmacSigner(SECRETO);
+        String query = "symbol=BTCUSDT&timestamp=1700000000000&nota=ñandú";
+        byte[] bytes = query.getBytes(StandardCharsets.UTF_8);
+        String esperada = referencia(query);
+
+        assertEquals(esperada, signer.sign(query));
+        assertEquals(esperada, signer.sign(bytes, 0, bytes.length));
+        byte[] destino = new byte[HmacSigner.LONGITUD_FIRMA + 2];
+        signer.signInto(bytes, 0, bytes.length, destino, 2);
+        assertEquals(esperada, new String(destino, 2, HmacSigner.LONGITUD_FIRMA, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void entradaMasLargaQueElBuffer() throws Exception {
+        String query = "symbols=" + "BTCUSDT,".repeat(200);
+        assertEquals(referencia(query), new HmacSigner(SECRETO).sign(query));
+    }
+
+    @Test
+    void variosHilosNoSeMezclan() throws Exception {
+        HmacSigner signer = new HmacSigner(SECRETO);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < 8; h++) {
+                int hilo = h;
+                tareas.add(hilos.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        String query = "hilo=" + hilo + "&i=" + i;
+                        assertEquals(referencia(query), signer.sign(query));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) tarea.get();
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    private static String referencia(String query) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRETO.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(query.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,81 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpsServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// /api/v3/ping por TLS contra un servidor local. fria: un transporte nuevo en cada petición,
+// como cuando cada Connect creaba su HttpClient (paga TCP y el handshake TLS; la caché de
+// sesiones del SSLContext se comparte, igual que con SSLContext.getDefault()). caliente: un
+// Connect nuevo sobre el transporte compartido, que reutiliza la conexión abierta.
+// mvn -Pjmh test-compile exec:exec -Djmh.args="HttpTransport -prof gc"
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpTransportBenchmark {
+
+    private StubHttpsServer servidor;
+    private SSLContext contexto;
+    private HttpTransport compartido;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        servidor = new StubHttpsServer();
+        contexto = StubHttpsServer.contextoCliente();
+        compartido = transporte(contexto);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        compartido.cerrar();
+        servidor.close();
+    }
+
+    private static HttpTransport transporte(SSLContext contexto) {
+        return new HttpTransport(HttpTransport.TIMEOUT_CONEXION, HttpTransport.TIMEOUT_PETICION, 2, true, contexto);
+    }
+
+    // Transporte recién creado para cada petición; crearlo y cerrarlo no se mide
+    @State(Scope.Thread)
+    public static class Frio {
+        HttpTransport transporte;
+
+        @Setup(Level.Invocation)
+        public void crear(HttpTransportBenchmark benchmark) {
+            transporte = transporte(benchmark.contexto);
+        }
+
+        @TearDown(Level.Invocation)
+        public void cerrar() {
+            transporte.cerrar();
+        }
+    }
+
+    @Benchmark
+    public String fria(Frio frio) throws IOException, InterruptedException {
+        return new Connect("clave", "secreto", servidor.url(), frio.transporte).publicRequest("/api/v3/ping", Map.of());
+    }
+
+    @Benchmark
+    public String caliente() throws IOException, InterruptedException {
+        return new Connect("clave", "secreto", servidor.url(), compartido).publicRequest("/api/v3/ping", Map.of());
+    }
+}
@@ -0,0 +1,69 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpsServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// HttpTransport contra un servidor TLS local con certificado autofirmado
+class HttpTransportTest {
+
+    private StubHttpsServer servidor;
+    private HttpTransport transporte;
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        servidor = new StubHttpsServer();
+        transporte = new HttpTransport(Duration.ofSeconds(5), Duration.ofSeconds(5), 2, true,
+                StubHttpsServer.contextoCliente());
+    }
+
+    @AfterEach
+    void cerrar() {
+        transporte.cerrar();
+        servidor.close();
+    }
+
+    @Test
+    void variosConnectReutilizanLaConexionTls() throws Exception {
+        Connect primero = new Connect("clave", "secreto", servidor.url(), transporte);
+        Connect segundo = new Connect("clave", "secreto", servidor.url(), transporte);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("{}", primero.publicRequest("/api/v3/ping", Map.of()));
+            assertEquals("{}", segundo.publicRequest("/api/v3/ping", Map.of()));
+        }
+
+        assertEquals(6, transporte.getPeticiones());
+        assertEquals(1, transporte.getConexionesNuevas());
+        assertEquals(6, transporte.getRespuestasHttp11());
+        assertEquals(1, transporte.getLatenciaConexionNueva().getConteo());
+        assertEquals(5, transporte.getLatenciaReutilizada().getConteo());
+    }
+
+    @Test
+    void sinConfiarEnElCertificadoFallaElHandshake() {
+        HttpTransport porDefecto = new HttpTransport(Duration.ofSeconds(5), Duration.ofSeconds(5), 1, true);
+        try {
+            Connect connect = new Connect("clave", "secreto", servidor.url(), porDefecto);
+            assertThrows(IOException.class, () -> connect.publicRequest("/api/v3/ping", Map.of()));
+            assertEquals(1, porDefecto.getFallos());
+        } finally {
+            porDefecto.cerrar();
+        }
+    }
+
+    @Test
+    void cerradoNoAceptaPeticiones() throws Exception {
+        Connect connect = new Connect("clave", "secreto", servidor.url(), transporte);
+        connect.publicRequest("/api/v3/ping", Map.of());
+        transporte.cerrar();
+        assertThrows(IOException.class, () -> connect.publicRequest("/api/v3/ping", Map.of()));
+    }
+}
@@ -0,0 +1,122 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// InFlightLimiter con tareas que se completan a mano: así se ve exactamente cuántas hay lanzadas
+class InFlightLimiterTest {
+
+    private final AtomicInteger lanzadas = new AtomicInteger();
+    private final AtomicInteger maximoVisto = new AtomicInteger();
+    private final Queue<CompletableFuture<Integer>> abiertas = new ConcurrentLinkedQueue<>();
+
+    // Tarea que queda abierta hasta completarla desde el test
+    private CompletableFuture<Integer> tarea() {
+        maximoVisto.accumulateAndGet(lanzadas.incrementAndGet(), Math::max);
+        CompletableFuture<Integer> futuro = new CompletableFuture<>();
+        abiertas.add(futuro);
+        return futuro.whenComplete((v, e) -> lanzadas.decrementAndGet());
+    }
+
+    @Test
+    void encolaLoQueNoCabeYLoLanzaAlTerminarOtra() throws Exception {
+        InFlightLimiter limitador = new InFlightLimiter(2);
+        List<CompletableFuture<Integer>> resultados = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            resultados.add(limitador.ejecutar(this::tarea));
+        }
+        assertEquals(2, limitador.getEnVuelo());
+        assertEquals(3, limitador.getEncoladas());
+
+        for (int i = 0; i < 5; i++) {
+            abiertas.poll().complete(i);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, resultados.get(i).get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(0, limitador.getEnVuelo());
+        assertEquals(0, limitador.getEncoladas());
+        assertEquals(2, maximoVisto.get());
+    }
+
+    @Test
+    void nuncaSuperaElMaximoConEnviosConcurrentes() throws Exception {
+        InFlightLimiter limitador = new InFlightLimiter(4);
+        int hilos = 8;
+        int porHilo = 500;
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> emisores = new ArrayList<>();
+        Queue<CompletableFuture<Integer>> resultados = new ConcurrentLinkedQueue<>();
+        for (int h = 0; h < hilos; h++) {
+            Thread emisor = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < porHilo; i++) {
+                    resultados.add(limitador.ejecutar(this::tarea));
+                }
+            });
+            emisor.start();
+            emisores.add(emisor);
+        }
+        // Otro hilo va completando tareas mientras se envían
+        Thread completador = new Thread(() -> {
+            int completadas = 0;
+            while (completadas < hilos * porHilo) {
+                CompletableFuture<Integer> siguiente = abiertas.poll();
+                if (siguiente == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                siguiente.complete(completadas++);
+            }
+        });
+        completador.start();
+        salida.countDown();
+        for (Thread emisor : emisores) emisor.join();
+        completador.join(10_000);
+        assertFalse(completador.isAlive());
+
+        assertEquals(hilos * porHilo, resultados.size());
+        for (CompletableFuture<Integer> resultado : resultados) {
+            assertTrue(resultado.isDone());
+        }
+        assertTrue(maximoVisto.get() <= 4, "máximo en vuelo " + maximoVisto.get());
+        assertEquals(0, limitador.getEnVuelo());
+    }
+
+    @Test
+    void losErroresCompletanElFuturoYLiberanElHueco() throws Exception {
+        InFlightLimiter limitador = new InFlightLimiter(1);
+        BinanceApiException error = new BinanceApiException(400, -1100, "Illegal characters");
+        CompletableFuture<Integer> fallida = limitador.ejecutar(() -> CompletableFuture.failedFuture(error));
+        CompletableFuture<Integer> lanzaExcepcion = limitador.ejecutar(() -> {
+            throw new IllegalStateException("sin conexión");
+        });
+        CompletableFuture<Integer> siguiente = limitador.ejecutar(() -> CompletableFuture.completedFuture(7));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> fallida.get(1, TimeUnit.SECONDS));
+        assertSame(error, e.getCause());
+        e = assertThrows(ExecutionException.class, () -> lanzaExcepcion.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertEquals(7, siguiente.get(1, TimeUnit.SECONDS));
+        assertEquals(0, limitador.getEnVuelo());
+    }
+}
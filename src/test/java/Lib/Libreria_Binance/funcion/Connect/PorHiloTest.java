@@ -0,0 +1,61 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PorHiloTest {
+
+    @Test
+    void losHilosVirtualesReutilizanLosObjetos() throws Exception {
+        AtomicInteger creados = new AtomicInteger();
+        PorHilo<Object> pool = new PorHilo<>(() -> {
+            creados.incrementAndGet();
+            return new Object();
+        });
+        // 1000 tareas, una detrás de otra: cada una en su propio hilo virtual
+        try (ExecutorService virtuales = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1000; i++) {
+                virtuales.submit(() -> pool.devolver(pool.obtener())).get();
+            }
+        }
+        assertEquals(1, creados.get());
+    }
+
+    @Test
+    void concurrentesNoCompartenObjeto() throws Exception {
+        AtomicInteger creados = new AtomicInteger();
+        PorHilo<int[]> pool = new PorHilo<>(() -> {
+            creados.incrementAndGet();
+            return new int[1];
+        });
+        AtomicInteger errores = new AtomicInteger();
+        try (ExecutorService virtuales = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                virtuales.submit(() -> {
+                    int[] propio = pool.obtener();
+                    if (++propio[0] != 1) errores.incrementAndGet();
+                    Thread.yield();
+                    propio[0]--;
+                    pool.devolver(propio);
+                });
+            }
+        }
+        assertEquals(0, errores.get());
+        assertTrue(creados.get() < 10_000, "creados=" + creados.get());
+    }
+
+    @Test
+    void losHilosDePlataformaUsanSuThreadLocal() {
+        PorHilo<Object> pool = new PorHilo<>(Object::new);
+        Object primero = pool.obtener();
+        pool.devolver(primero);
+        assertSame(primero, pool.obtener());
+    }
+}
@@ -0,0 +1,69 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static JsonNode limites(int pesoPorMinuto) throws Exception {
+        return JsonReaders.MAPPER.readTree("[{\"rateLimitType\":\"REQUEST_WEIGHT\",\"interval\":\"MINUTE\","
+                + "\"intervalNum\":1,\"limit\":" + pesoPorMinuto + "},"
+                + "{\"rateLimitType\":\"ORDERS\",\"interval\":\"SECOND\",\"intervalNum\":10,\"limit\":100}]");
+    }
+
+    @Test
+    void reconfigurarConservaLoGastado() throws Exception {
+        RateLimiter limitador = new RateLimiter(RateLimiter.Politica.DESCARTAR, 0);
+        limitador.setPeso("/api/v3/pesado", 5000);
+        limitador.reservar("/api/v3/pesado", Map.of(), false);
+
+        limitador.configurar(limites(6000));
+        long disponible = limitador.getPesoDisponible();
+        assertTrue(disponible >= 1000 && disponible < 1500, "disponible=" + disponible);
+        // Sin presupuesto para otra petición pesada: no vuelve a empezar lleno
+        assertThrows(RateLimitExceededException.class, () -> limitador.reservar("/api/v3/pesado", Map.of(), false));
+    }
+
+    @Test
+    void unLimiteMenorDejaLaDeuda() throws Exception {
+        RateLimiter limitador = new RateLimiter(RateLimiter.Politica.ESPERAR, TimeUnit.MINUTES.toMillis(5));
+        limitador.setPeso("/api/v3/pesado", 5000);
+        limitador.reservar("/api/v3/pesado", Map.of(), false);
+
+        limitador.configurar(limites(1200));
+        assertTrue(limitador.getPesoDisponible() < -3700);
+        assertTrue(limitador.reservar("/api/v3/ping", Map.of(), false) > TimeUnit.MINUTES.toMillis(3));
+    }
+
+    @Test
+    void unLimiteNuevoEmpiezaLleno() throws Exception {
+        RateLimiter limitador = new RateLimiter(RateLimiter.Politica.DESCARTAR, 0);
+        limitador.setPeso("/api/v3/pesado", 5000);
+        limitador.reservar("/api/v3/pesado", Map.of(), false);
+
+        // Otro intervalo (2 minutos): no hereda nada del cubo de 1 minuto
+        limitador.configurar(JsonReaders.MAPPER.readTree("[{\"rateLimitType\":\"REQUEST_WEIGHT\","
+                + "\"interval\":\"MINUTE\",\"intervalNum\":2,\"limit\":6000}]"));
+        assertEquals(6000, limitador.getPesoDisponible());
+    }
+
+    @Test
+    void pesoSegunMetodo() {
+        RateLimiter limitador = RateLimiter.porDefecto();
+        assertEquals(4, limitador.pesoDe("GET", "/api/v3/order", Map.of("symbol", "BTCUSDT")));
+        assertEquals(1, limitador.pesoDe("POST", "/api/v3/order", Map.of("symbol", "BTCUSDT")));
+        assertEquals(1, limitador.pesoDe("DELETE", "/api/v3/order", Map.of("symbol", "BTCUSDT")));
+        assertEquals(6, limitador.pesoDe("GET", "/api/v3/openOrders", Map.of("symbol", "BTCUSDT")));
+        assertEquals(80, limitador.pesoDe("GET", "/api/v3/openOrders", Map.of()));
+        assertEquals(1, limitador.pesoDe("DELETE", "/api/v3/openOrders", Map.of("symbol", "BTCUSDT")));
+        assertEquals(50, limitador.pesoDe("GET", "/api/v3/depth", Map.of("limit", "1000")));
+    }
+}
@@ -0,0 +1,92 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// URL de una orden firmada: el camino anterior de Connect (copia del mapa, query con
+// StringBuilder, firma del String y concatenación de la URL) frente a RequestBuilder.
+// Las variantes sinFirma aíslan el coste de construir la URL, que la HMAC tapa.
+// mvn -Pjmh test-compile exec:exec -Djmh.args="RequestBuilder -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestBuilderBenchmark {
+
+    private static final String BASE = "https://api.binance.com";
+    private static final String ENDPOINT = "/api/v3/order";
+    private static final long TIMESTAMP = 1700000000000L;
+
+    private final Map<String, String> params = new LinkedHashMap<>();
+    private HmacSigner signer;
+
+    @Setup
+    public void preparar() {
+        signer = new HmacSigner("NhqPtmdSJYdKjVHjA7PZj4Mge3R5YNiP1e3UZjInClVN65XAbvqqM6A7H5fATj0j");
+        params.put("symbol", "BTCUSDT");
+        params.put("side", "BUY");
+        params.put("type", "LIMIT");
+        params.put("timeInForce", "GTC");
+        params.put("quantity", "0.00100000");
+        params.put("price", "65000.00");
+        params.put("newClientOrderId", "x-bot-1700000000000");
+        params.put("recvWindow", "5000");
+    }
+
+    @Benchmark
+    public URI anterior() {
+        Map<String, String> copia = new HashMap<>(params);
+        copia.put("timestamp", String.valueOf(TIMESTAMP));
+        String query = consulta(copia);
+        String firma = signer.sign(query);
+        return URI.create(BASE + ENDPOINT + "?" + query + "&signature=" + firma);
+    }
+
+    @Benchmark
+    public URI requestBuilder() {
+        try (RequestBuilder builder = RequestBuilder.local()) {
+            return builder.url(BASE, ENDPOINT).parametros(params, "timestamp")
+                    .parametro("timestamp", TIMESTAMP).firmar(signer).uri();
+        }
+    }
+
+    @Benchmark
+    public URI anteriorSinFirma() {
+        Map<String, String> copia = new HashMap<>(params);
+        copia.put("timestamp", String.valueOf(TIMESTAMP));
+        return URI.create(BASE + ENDPOINT + "?" + consulta(copia));
+    }
+
+    @Benchmark
+    public URI requestBuilderSinFirma() {
+        try (RequestBuilder builder = RequestBuilder.local()) {
+            return builder.url(BASE, ENDPOINT).parametros(params, "timestamp").parametro("timestamp", TIMESTAMP).uri();
+        }
+    }
+
+    // Connect.buildQueryString tal como estaba: orden del HashMap y sin codificar
+    private static String consulta(Map<String, String> params) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            if (sb.length() > 0) sb.append("&");
+            sb.append(entry.getKey()).append("=").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestBuilderTest {
+
+    private final HmacSigner signer = new HmacSigner("secreto");
+
+    @Test
+    void ordenaPorNombreSinImportarElMapa() {
+        Map<String, String> a = new LinkedHashMap<>();
+        a.put("symbol", "BTCUSDT");
+        a.put("side", "BUY");
+        a.put("quantity", "1");
+        Map<String, String> b = new HashMap<>();
+        b.put("quantity", "1");
+        b.put("symbol", "BTCUSDT");
+        b.put("side", "BUY");
+        assertEquals("quantity=1&side=BUY&symbol=BTCUSDT", query(a));
+        assertEquals(query(a), query(b));
+    }
+
+    @Test
+    void codificaLosValoresReservadosYNoAscii() {
+        Map<String, String> params = new HashMap<>();
+        params.put("symbols", "[\"BTCUSDT\",\"ETHUSDT\"]");
+        params.put("nota", "año & más=1");
+        assertEquals("nota=a%C3%B1o%20%26%20m%C3%A1s%3D1&symbols=%5B%22BTCUSDT%22%2C%22ETHUSDT%22%5D", query(params));
+    }
+
+    @Test
+    void firmaElQueryDelPropioBuffer() {
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", "BTCUSDT");
+        params.put("timestamp", "ignorado");
+        try (RequestBuilder builder = RequestBuilder.local()) {
+            String uri = builder.url("https://api.binance.com", "/api/v3/order").parametros(params, "timestamp")
+                    .parametro("timestamp", 1700000000000L).firmar(signer).uri().toString();
+            String query = "symbol=BTCUSDT&timestamp=1700000000000";
+            assertEquals("https://api.binance.com/api/v3/order?" + query + "&signature=" + signer.sign(query), uri);
+        }
+    }
+
+    private static String query(Map<String, String> params) {
+        try (RequestBuilder builder = RequestBuilder.local()) {
+            return builder.parametros(params, null).query();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTest {
+
+    @Test
+    void cancelarUnaCopiaNoAfectaALosDemas() throws Exception {
+        ResponseCache cache = new ResponseCache();
+        CompletableFuture<String> carga = new CompletableFuture<>();
+        AtomicInteger cargas = new AtomicInteger();
+
+        CompletableFuture<String> primero = cache.obtener("k", 1_000, () -> {
+            cargas.incrementAndGet();
+            return carga;
+        });
+        CompletableFuture<String> segundo = cache.obtener("k", 1_000, () -> {
+            cargas.incrementAndGet();
+            return carga;
+        });
+        assertNotSame(primero, segundo);
+        assertEquals(1, cache.getCoalescidas());
+
+        primero.cancel(true);
+        carga.complete("valor");
+        assertEquals("valor", segundo.get());
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void completarUnaCopiaNoCambiaLoGuardado() throws Exception {
+        ResponseCache cache = new ResponseCache();
+        CompletableFuture<String> primero = cache.obtener("k", 60_000, () -> CompletableFuture.completedFuture("valor"));
+        primero.obtrudeValue("manipulado");
+
+        CompletableFuture<String> segundo = cache.obtener("k", 60_000, () -> CompletableFuture.completedFuture("otro"));
+        assertEquals("valor", segundo.get());
+        assertEquals(1, cache.getAciertos());
+    }
+
+    @Test
+    void losFallosNoSeGuardan() throws Exception {
+        ResponseCache cache = new ResponseCache();
+        CompletableFuture<String> fallo = cache.obtener("k", 60_000,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("caído")));
+        assertTrue(fallo.isCompletedExceptionally());
+
+        assertEquals("valor", cache.obtener("k", 60_000, () -> CompletableFuture.completedFuture("valor")).get());
+        assertEquals(2, cache.getFallos());
+    }
+}
@@ -0,0 +1,79 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubWebSocketServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Ida y vuelta de una petición firmada por loopback: una petición HTTP por llamada (Connect,
+// conexión keep-alive) frente a un mensaje por el WebSocket persistente (WsApiConnect). Los dos
+// servidores locales responden lo mismo al momento, así que la diferencia es el transporte.
+// mvn -Pjmh test-compile exec:exec -Djmh.args="WsApiConnect -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WsApiConnectBenchmark {
+
+    private static final String RESPUESTA = "{\"symbol\":\"BTCUSDT\",\"orderId\":1,\"status\":\"NEW\"}";
+
+    private final Map<String, String> params = new HashMap<>();
+    private StubHttpServer http;
+    private StubWebSocketServer ws;
+    private Connect connect;
+    private WsApiConnect wsApi;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        http = new StubHttpServer();
+        http.ruta("/api/v3/order", RESPUESTA);
+        ws = new StubWebSocketServer();
+        // Los mensajes empiezan por {"id":n,
+        ws.setRespuesta((cliente, mensaje) -> cliente.enviar(
+                "{\"id\":" + mensaje.substring(6, mensaje.indexOf(',')) + ",\"status\":200,\"result\":" + RESPUESTA + "}"));
+        connect = new Connect("clave", "secreto", http.url());
+        connect.setCache(null);
+        connect.setRateLimiter(null);
+        connect.getClockSync().sincronizar();
+        wsApi = new WsApiConnect(connect, ws.url());
+        params.put("symbol", "BTCUSDT");
+        params.put("orderId", "1");
+        http();
+        webSocket();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        wsApi.cerrar();
+        connect.getClockSync().detener();
+        ws.close();
+        http.close();
+    }
+
+    @Benchmark
+    public Object http() throws Exception {
+        return connect.signedRequest("GET", "/api/v3/order", params, JsonReaders.ORDER);
+    }
+
+    @Benchmark
+    public Object webSocket() throws Exception {
+        return wsApi.signedRequest("GET", "/api/v3/order", params, JsonReaders.ORDER);
+    }
+}
@@ -0,0 +1,164 @@
+package Lib.Libreria_Binance.funcion.Connect;
+
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubWebSocketServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubWebSocketServer.Cliente;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// WsApiConnect contra un servidor WebSocket local que hace de ws-api
+class WsApiConnectTest {
+
+    private static final long ESPERA_MS = 5_000;
+
+    private StubHttpServer http;
+    private StubWebSocketServer servidor;
+    private WsApiConnect wsApi;
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        http = new StubHttpServer();
+        servidor = new StubWebSocketServer();
+        // Responde a todo con {"id":n,"status":200,"result":{"ok":true}}
+        servidor.setRespuesta((cliente, mensaje) -> cliente.enviar(
+                "{\"id\":" + leer(mensaje).path("id").asLong() + ",\"status\":200,\"result\":{\"ok\":true}}"));
+        Connect connect = new Connect("clave", "secreto", http.url());
+        connect.setCache(null);
+        connect.setRateLimiter(null);
+        wsApi = new WsApiConnect(connect, servidor.url());
+    }
+
+    @AfterEach
+    void cerrar() {
+        wsApi.cerrar();
+        servidor.close();
+        http.close();
+    }
+
+    private static JsonNode leer(String mensaje) {
+        try {
+            return JsonReaders.MAPPER.readTree(mensaje);
+        } catch (Exception e) {
+            throw new AssertionError("Mensaje que no es JSON: " + mensaje, e);
+        }
+    }
+
+    @Test
+    void firmaLosValoresSinCodificar() throws Exception {
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", "BTCUSDT");
+        params.put("side", "BUY");
+        params.put("newClientOrderId", "mi orden/1");
+        params.put("price", "60000.00");
+        wsApi.signedRequestAsync("POST", "/api/v3/order", params, JsonReaders.JSON_NODE).get(ESPERA_MS, TimeUnit.MILLISECONDS);
+
+        JsonNode enviado = leer(servidor.esperarCliente(ESPERA_MS).mensajes().get(0));
+        assertEquals("order.place", enviado.path("method").asText());
+        JsonNode recibidos = enviado.path("params");
+        assertEquals("clave", recibidos.path("apiKey").asText());
+        assertTrue(recibidos.path("timestamp").isNumber());
+
+        // Lo que hace Binance: parámetros salvo signature, ordenados, clave=valor sin %XX
+        Map<String, String> ordenados = new TreeMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = recibidos.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> campo = it.next();
+            if (!campo.getKey().equals("signature")) ordenados.put(campo.getKey(), campo.getValue().asText());
+        }
+        String carga = WsApiConnect.cargaFirmada(ordenados);
+        assertTrue(carga.contains("newClientOrderId=mi orden/1&"), carga);
+        assertEquals(new HmacSigner("secreto").sign(carga), recibidos.path("signature").asText());
+    }
+
+    @Test
+    void soloLosArraysYEnterosConocidosVanSinComillas() throws Exception {
+        Map<String, String> params = new HashMap<>();
+        params.put("symbols", "[\"BTCUSDT\", \"ETHUSDT\"]");
+        wsApi.publicRequestAsync("/api/v3/ticker/price", params, JsonReaders.JSON_NODE).get(ESPERA_MS, TimeUnit.MILLISECONDS);
+        JsonNode precios = leer(servidor.esperarCliente(ESPERA_MS).esperarMensaje(ESPERA_MS)).path("params");
+        assertTrue(precios.path("symbols").isArray());
+        assertEquals(2, precios.path("symbols").size());
+
+        // Valores que intentan cerrar la cadena o el número e inyectar campos
+        Map<String, String> maliciosos = new HashMap<>();
+        maliciosos.put("symbol", "BTCUSDT");
+        maliciosos.put("newClientOrderId", "[1],\"quantity\":\"999");
+        maliciosos.put("orderId", "1,\"side\":\"SELL\"");
+        wsApi.signedRequestAsync("DELETE", "/api/v3/order", maliciosos, JsonReaders.JSON_NODE).get(ESPERA_MS, TimeUnit.MILLISECONDS);
+        JsonNode cancelacion = leer(servidor.clientes().get(0).esperarMensaje(ESPERA_MS)).path("params");
+        assertEquals("[1],\"quantity\":\"999", cancelacion.path("newClientOrderId").asText());
+        assertEquals("1,\"side\":\"SELL\"", cancelacion.path("orderId").asText());
+        assertFalse(cancelacion.has("quantity"));
+        assertFalse(cancelacion.has("side"));
+    }
+
+    @Test
+    void userDataStreamLlevaClaveSinFirma() throws Exception {
+        Map<String, String> params = new HashMap<>();
+        params.put("listenKey", "abc");
+        wsApi.signedRequestAsync("PUT", "/api/v3/userDataStream", params, JsonReaders.JSON_NODE).get(ESPERA_MS, TimeUnit.MILLISECONDS);
+        JsonNode enviado = leer(servidor.esperarCliente(ESPERA_MS).esperarMensaje(ESPERA_MS));
+        assertEquals("userDataStream.ping", enviado.path("method").asText());
+        assertEquals("clave", enviado.path("params").path("apiKey").asText());
+        assertFalse(enviado.path("params").has("signature"));
+        assertFalse(enviado.path("params").has("timestamp"));
+    }
+
+    @Test
+    void losErroresConservanCodigoYData() {
+        servidor.setRespuesta((cliente, mensaje) -> cliente.enviar("{\"id\":" + leer(mensaje).path("id").asLong()
+                + ",\"status\":400,\"error\":{\"code\":-2022,\"msg\":\"Order cancel-replace failed.\","
+                + "\"data\":{\"cancelResult\":\"FAILURE\",\"newOrderResult\":\"NOT_ATTEMPTED\"}}}"));
+        ExecutionException error = assertThrows(ExecutionException.class, () -> wsApi.signedRequestAsync("POST",
+                "/api/v3/order/cancelReplace", new HashMap<>(), JsonReaders.JSON_NODE).get(ESPERA_MS, TimeUnit.MILLISECONDS));
+        BinanceApiException causa = assertInstanceOf(BinanceApiException.class, error.getCause());
+        assertEquals(-2022, causa.getCode());
+        assertEquals("FAILURE", causa.getData().path("cancelResult").asText());
+    }
+
+    @Test
+    void alRotarLaConexionViejaEntregaSusRespuestasAntesDeCerrarse() throws Exception {
+        assertNull(wsApi.getSupervisor());
+        // La primera conexión no responde sola: la respuesta llega después de rotar
+        servidor.setRespuesta(null);
+        CompletableFuture<JsonNode> antes = wsApi.publicRequestAsync("/api/v3/time", new HashMap<>(), JsonReaders.JSON_NODE);
+        Cliente vieja = servidor.esperarCliente(ESPERA_MS);
+        long idAntes = leer(vieja.esperarMensaje(ESPERA_MS)).path("id").asLong();
+
+        servidor.setRespuesta((cliente, mensaje) -> cliente.enviar(
+                "{\"id\":" + leer(mensaje).path("id").asLong() + ",\"status\":200,\"result\":{\"nueva\":true}}"));
+        wsApi.getSupervisor().rotar();
+        Cliente nueva = servidor.esperarCliente(ESPERA_MS);
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (wsApi.getSupervisor().getRotaciones() == 0 && System.currentTimeMillis() < limite) Thread.sleep(5);
+
+        JsonNode despues = wsApi.<JsonNode>publicRequestAsync("/api/v3/ping", new HashMap<>(), JsonReaders.JSON_NODE)
+                .get(ESPERA_MS, TimeUnit.MILLISECONDS);
+        assertTrue(despues.path("nueva").asBoolean());
+        assertEquals(1, nueva.mensajes().size());
+        assertFalse(vieja.esperarCierre(100));
+
+        vieja.enviar("{\"id\":" + idAntes + ",\"status\":200,\"result\":{\"vieja\":true}}");
+        assertTrue(antes.get(ESPERA_MS, TimeUnit.MILLISECONDS).path("vieja").asBoolean());
+        assertTrue(vieja.esperarCierre(ESPERA_MS));
+        assertTrue(vieja.isCerradoPorCliente());
+        assertEquals(0, wsApi.getPendientes());
+    }
+}
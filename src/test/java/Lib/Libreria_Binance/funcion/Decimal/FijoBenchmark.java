@@ -0,0 +1,75 @@
+package Lib.Libreria_Binance.funcion.Decimal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Un precio y una cantidad de un trade (como llegan en el JSON, a escala 8): parsear, multiplicar
+// para el nocional y dividir para el precio medio, con Fijo, con BigDecimal y con double.
+// mvn -Pjmh test-compile exec:exec -Djmh.args="Fijo -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FijoBenchmark {
+
+    private static final int VALORES = 1024;
+    private static final int ESCALA = 8;
+
+    private final String[] precios = new String[VALORES];
+    private final String[] cantidades = new String[VALORES];
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(23);
+        for (int i = 0; i < VALORES; i++) {
+            precios[i] = BigDecimal.valueOf(1_000_000_000_000L + aleatorio.nextInt(1_000_000_000), ESCALA).toPlainString();
+            cantidades[i] = BigDecimal.valueOf(1 + aleatorio.nextInt(100_000_000), ESCALA).toPlainString();
+        }
+    }
+
+    @Benchmark
+    public long fijo() {
+        int i = siguiente++ & (VALORES - 1);
+        String p = precios[i];
+        String q = cantidades[i];
+        long precio = Fijo.parse(p, 0, p.length(), ESCALA);
+        long cantidad = Fijo.parse(q, 0, q.length(), ESCALA);
+        long nocional = Fijo.multiplicar(precio, ESCALA, cantidad, ESCALA, ESCALA);
+        return Fijo.dividir(nocional, ESCALA, cantidad, ESCALA, ESCALA);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        int i = siguiente++ & (VALORES - 1);
+        BigDecimal precio = new BigDecimal(precios[i]);
+        BigDecimal cantidad = new BigDecimal(cantidades[i]);
+        BigDecimal nocional = precio.multiply(cantidad).setScale(ESCALA, RoundingMode.HALF_UP);
+        return nocional.divide(cantidad, ESCALA, RoundingMode.HALF_UP);
+    }
+
+    // Sin redondeo decimal: la referencia de velocidad, no de exactitud
+    @Benchmark
+    public double conDouble() {
+        int i = siguiente++ & (VALORES - 1);
+        double precio = Double.parseDouble(precios[i]);
+        double cantidad = Double.parseDouble(cantidades[i]);
+        return precio * cantidad / cantidad;
+    }
+}
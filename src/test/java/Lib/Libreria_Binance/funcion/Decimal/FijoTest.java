@@ -0,0 +1,118 @@
+package Lib.Libreria_Binance.funcion.Decimal;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Fijo frente a BigDecimal con HALF_UP sobre valores aleatorios de todas las magnitudes y escalas
+class FijoTest {
+
+    private static final int CASOS = 200_000;
+
+    private final Random aleatorio = new Random(23);
+
+    @Test
+    void dividirRedondeaUnaSolaVez() {
+        // 0.29 / 2 = 0.145: redondear antes el dividendo a 0.3 daba 0.2 en lugar de 0.1
+        assertEquals(1, Fijo.dividir(29, 1, 2, 0, 0));
+        assertEquals(1, Fijo.dividir(29, 2, 2, 0, 1));
+        assertEquals(-1, Fijo.dividir(-29, 2, 2, 0, 1));
+        assertEquals(2, Fijo.dividir(15, 1, 1, 0, 0));
+        assertEquals(0, Fijo.dividir(Long.MAX_VALUE, 18, Long.MAX_VALUE, 0, 0));
+        assertEquals(2, Fijo.dividir(Long.MAX_VALUE, 18, 5, 0, 0));
+    }
+
+    @Test
+    void dividirComoBigDecimal() {
+        for (int i = 0; i < CASOS; i++) {
+            long a = valor();
+            long b = valor();
+            if (b == 0) continue;
+            int escalaA = aleatorio.nextInt(Fijo.MAX_ESCALA + 1);
+            int escalaB = aleatorio.nextInt(Fijo.MAX_ESCALA + 1);
+            int escala = aleatorio.nextInt(Fijo.MAX_ESCALA + 1);
+            if (escala - escalaA + escalaB > Fijo.MAX_ESCALA) continue;
+            BigDecimal esperado = decimal(a, escalaA).divide(decimal(b, escalaB), escala, RoundingMode.HALF_UP);
+            comprobar(esperado, () -> Fijo.dividir(a, escalaA, b, escalaB, escala),
+                    a + "e-" + escalaA + " / " + b + "e-" + escalaB + " con escala " + escala);
+        }
+    }
+
+    @Test
+    void multiplicarYReescalarComoBigDecimal() {
+        for (int i = 0; i < CASOS; i++) {
+            long a = valor();
+            long b = valor();
+            int escalaA = aleatorio.nextInt(Fijo.MAX_ESCALA + 1);
+            int escalaB = aleatorio.nextInt(Fijo.MAX_ESCALA + 1);
+            int escala = aleatorio.nextInt(Fijo.MAX_ESCALA + 1);
+            if (escalaA + escalaB - escala <= Fijo.MAX_ESCALA) {
+                BigDecimal esperado = decimal(a, escalaA).multiply(decimal(b, escalaB)).setScale(escala, RoundingMode.HALF_UP);
+                comprobar(esperado, () -> Fijo.multiplicar(a, escalaA, b, escalaB, escala),
+                        a + "e-" + escalaA + " * " + b + "e-" + escalaB + " con escala " + escala);
+            }
+            comprobar(decimal(a, escalaA).setScale(escala, RoundingMode.HALF_UP),
+                    () -> Fijo.reescalar(a, escalaA, escala), a + "e-" + escalaA + " a escala " + escala);
+            assertEquals(decimal(a, escalaA).compareTo(decimal(b, escalaB)), Fijo.comparar(a, escalaA, b, escalaB));
+        }
+    }
+
+    @Test
+    void parseYEscribirComoBigDecimal() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < CASOS; i++) {
+            String texto = decimal(valor(), aleatorio.nextInt(Fijo.MAX_ESCALA + 1)).toPlainString();
+            int escala = aleatorio.nextInt(Fijo.MAX_ESCALA + 1);
+            BigDecimal esperado = new BigDecimal(texto).setScale(escala, RoundingMode.HALF_UP);
+            if (esperado.unscaledValue().bitLength() > 63) {
+                assertThrows(NumberFormatException.class, () -> Fijo.parse(texto, 0, texto.length(), escala), texto);
+                continue;
+            }
+            long valor = Fijo.parse(texto, 0, texto.length(), escala);
+            assertEquals(esperado.unscaledValue().longValueExact(), valor, texto + " con escala " + escala);
+            assertEquals(valor, Fijo.parse(texto.toCharArray(), 0, texto.length(), escala), texto);
+            assertEquals(valor, Fijo.parse(texto.getBytes(), 0, texto.length(), escala), texto);
+            sb.setLength(0);
+            Fijo.escribir(sb, valor, escala);
+            assertEquals(esperado.toPlainString(), sb.toString());
+        }
+    }
+
+    @Test
+    void parseSinDigitosEsUnError() {
+        for (String texto : new String[]{"-", ".", "-.", ""}) {
+            assertThrows(NumberFormatException.class, () -> Fijo.parse(texto, 0, texto.length(), 8), texto);
+            assertThrows(NumberFormatException.class, () -> Fijo.parse(texto.toCharArray(), 0, texto.length(), 8), texto);
+            assertThrows(NumberFormatException.class, () -> Fijo.parse(texto.getBytes(), 0, texto.length(), 8), texto);
+        }
+        assertThrows(NumberFormatException.class, () -> Decimal.parse("-"));
+        assertEquals(-5, Fijo.parse("-.5", 0, 3, 1));
+        assertEquals(10, Fijo.parse("1.", 0, 2, 1));
+    }
+
+    // Mantisas de cualquier magnitud, de un dígito a casi Long.MAX_VALUE, con los dos signos
+    private long valor() {
+        long v = aleatorio.nextLong() >> aleatorio.nextInt(1, 64);
+        return aleatorio.nextInt(8) == 0 ? v % 100 : v;
+    }
+
+    private static BigDecimal decimal(long mantisa, int escala) {
+        return new BigDecimal(BigInteger.valueOf(mantisa), escala);
+    }
+
+    // El resultado de BigDecimal, o ArithmeticException si no cabe en un long
+    private static void comprobar(BigDecimal esperado, LongSupplier operacion, String caso) {
+        if (esperado.unscaledValue().bitLength() > 63) {
+            assertThrows(ArithmeticException.class, operacion::getAsLong, caso);
+        } else {
+            assertEquals(esperado.unscaledValue().longValueExact(), operacion.getAsLong(), caso);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package Lib.Libreria_Binance.funcion.Metricas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cubos y percentiles de LatencyHistogram con valores conocidos
+class LatencyHistogramTest {
+
+    @Test
+    void vacioDevuelveCeros() {
+        LatencyHistogram histograma = new LatencyHistogram();
+        assertEquals(0, histograma.percentil(50));
+        assertEquals(0, histograma.getConteo());
+        assertEquals(0.0, histograma.getMedia());
+        assertEquals(0, histograma.getMaximo());
+    }
+
+    @Test
+    void esExactoPorDebajoDe64YRedondeaHaciaArribaEncima() {
+        LatencyHistogram histograma = new LatencyHistogram();
+        for (long us = 1; us <= 100; us++) {
+            histograma.registrar(TimeUnit.MICROSECONDS.toNanos(us));
+        }
+        assertEquals(1, histograma.percentil(0));
+        assertEquals(1, histograma.percentil(1));
+        assertEquals(50, histograma.percentil(50));
+        assertEquals(63, histograma.percentil(63));
+        // Entre 64 y 127 los cubos tienen dos unidades: 90 cae en [90, 91]
+        assertEquals(91, histograma.percentil(90));
+        assertEquals(99, histograma.percentil(99));
+        // El último cubo llega a 101, pero nunca se devuelve más que el máximo registrado
+        assertEquals(100, histograma.percentil(100));
+        assertEquals(100, histograma.getConteo());
+        assertEquals(5050, histograma.getSuma());
+        assertEquals(50.5, histograma.getMedia());
+        assertEquals(100, histograma.getMaximo());
+    }
+
+    @Test
+    void elErrorRelativoQuedaPorDebajoDel32PorMil() {
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        LatencyHistogram histograma = new LatencyHistogram();
+        long limite = (1L << 36) - 1;
+        for (int i = 0; i < 20_000; i++) {
+            long valor = aleatorio.nextLong(1, limite) >>> aleatorio.nextInt(36);
+            histograma.reiniciar();
+            histograma.registrar(TimeUnit.MICROSECONDS.toNanos(valor));
+            // Con un valor mayor el máximo no recorta: se ve el límite superior del cubo
+            histograma.registrar(TimeUnit.MICROSECONDS.toNanos(limite));
+            long cubo = histograma.percentil(50);
+            assertTrue(cubo >= valor, valor + " -> " + cubo);
+            assertTrue(cubo - valor <= valor / 32, valor + " -> " + cubo);
+        }
+    }
+
+    @Test
+    void convierteALaUnidadYRecortaLosExtremos() {
+        LatencyHistogram micros = new LatencyHistogram();
+        micros.registrar(1_999);
+        micros.registrar(-5);
+        assertEquals(1, micros.getMaximo());
+        assertEquals(1, micros.getSuma());
+        micros.registrar(Long.MAX_VALUE);
+        assertEquals((1L << 36) - 1, micros.getMaximo());
+
+        LatencyHistogram nanos = new LatencyHistogram(TimeUnit.NANOSECONDS);
+        nanos.registrar(1_999);
+        assertEquals(1_999, nanos.getMaximo());
+        assertEquals(TimeUnit.NANOSECONDS, nanos.getUnidad());
+        assertTrue(nanos.resumen().contains("max=1999ns"), nanos.resumen());
+    }
+
+    @Test
+    void reiniciarLoDejaVacio() {
+        LatencyHistogram histograma = new LatencyHistogram();
+        histograma.registrar(TimeUnit.MILLISECONDS.toNanos(3));
+        histograma.reiniciar();
+        assertEquals(0, histograma.getConteo());
+        assertEquals(0, histograma.percentil(99));
+        histograma.registrar(TimeUnit.MICROSECONDS.toNanos(10));
+        assertEquals(10, histograma.percentil(99));
+        assertEquals(10, histograma.getMaximo());
+    }
+}
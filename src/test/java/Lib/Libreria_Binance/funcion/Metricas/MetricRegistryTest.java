@@ -0,0 +1,122 @@
+package Lib.Libreria_Binance.funcion.Metricas;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Exportación de MetricRegistry en texto de Prometheus y como MXBean
+class MetricRegistryTest {
+
+    // nombre{etiquetas} valor, con valores de etiqueta entre comillas y \ " \n escapados
+    private static final Pattern MUESTRA = Pattern.compile(
+            "([a-z_]+)\\{[a-z]+=\"(?:[^\"\\\\\\n]|\\\\[\\\\\"n])*\"(,[a-z]+=\"[^\"]*\")*} -?[0-9]+(\\.[0-9]+)?");
+
+    private static MetricRegistry ejemplo() {
+        MetricRegistry registro = new MetricRegistry();
+        EndpointMetrics depth = registro.endpoint("/api/v3/depth");
+        depth.getTtfb().registrar(TimeUnit.MICROSECONDS.toNanos(1_500));
+        depth.registrar(System.nanoTime(), 200);
+        depth.registrar(System.nanoTime(), 429);
+        depth.registrar(System.nanoTime(), 200);
+        depth.contarFallo();
+        registro.contarErrorBinance(-1003);
+        registro.contarErrorBinance(-1003);
+        registro.contarErrorBinance(-1121);
+        StreamMetrics raro = registro.stream("raro \"x\"\\y");
+        raro.registrar(7, System.nanoTime(), 0);
+        raro.contarError();
+        return registro;
+    }
+
+    @Test
+    void exportaEnTextoDePrometheus() {
+        String texto = ejemplo().aPrometheus();
+
+        assertTrue(texto.contains("# HELP binance_http_respuestas_total Respuestas por endpoint y código HTTP\n"
+                + "# TYPE binance_http_respuestas_total counter\n"
+                + "binance_http_respuestas_total{endpoint=\"/api/v3/depth\",codigo=\"200\"} 2\n"
+                + "binance_http_respuestas_total{endpoint=\"/api/v3/depth\",codigo=\"429\"} 1\n"), texto);
+        assertTrue(texto.contains("binance_http_fallos_total{endpoint=\"/api/v3/depth\"} 1\n"), texto);
+        // 1500 µs cae en el cubo [1472, 1503]; el máximo lo deja en 1500 exactos
+        assertTrue(texto.contains("# TYPE binance_http_ttfb_segundos summary\n"
+                + "binance_http_ttfb_segundos{endpoint=\"/api/v3/depth\",quantile=\"0.5\"} 0.0015\n"
+                + "binance_http_ttfb_segundos{endpoint=\"/api/v3/depth\",quantile=\"0.9\"} 0.0015\n"
+                + "binance_http_ttfb_segundos{endpoint=\"/api/v3/depth\",quantile=\"0.99\"} 0.0015\n"
+                + "binance_http_ttfb_segundos{endpoint=\"/api/v3/depth\",quantile=\"0.999\"} 0.0015\n"
+                + "binance_http_ttfb_segundos_sum{endpoint=\"/api/v3/depth\"} 0.0015\n"
+                + "binance_http_ttfb_segundos_count{endpoint=\"/api/v3/depth\"} 1\n"), texto);
+        assertTrue(texto.contains("binance_http_total_segundos_count{endpoint=\"/api/v3/depth\"} 3\n"), texto);
+        // Por código, de menor a mayor, incluidos los que siempre se exportan
+        assertTrue(texto.contains("# TYPE binance_errores_total counter\n"
+                + "binance_errores_total{codigo=\"-2015\"} 0\n"
+                + "binance_errores_total{codigo=\"-1121\"} 1\n"
+                + "binance_errores_total{codigo=\"-1021\"} 0\n"
+                + "binance_errores_total{codigo=\"-1003\"} 2\n"), texto);
+        assertTrue(texto.contains("binance_ws_mensajes_total{stream=\"raro \\\"x\\\"\\\\y\"} 1\n"), texto);
+        assertTrue(texto.contains("binance_ws_caracteres_total{stream=\"raro \\\"x\\\"\\\\y\"} 7\n"), texto);
+        assertTrue(texto.contains("binance_ws_errores_total{stream=\"raro \\\"x\\\"\\\\y\"} 1\n"), texto);
+    }
+
+    @Test
+    void cadaMuestraTieneSuCabeceraYFormatoValido() {
+        String texto = ejemplo().aPrometheus();
+        assertTrue(texto.endsWith("\n"));
+        List<String> declaradas = new ArrayList<>();
+        for (String linea : texto.split("\n")) {
+            if (linea.startsWith("# HELP ")) continue;
+            if (linea.startsWith("# TYPE ")) {
+                String[] partes = linea.split(" ");
+                assertEquals(4, partes.length, linea);
+                assertTrue(List.of("counter", "summary").contains(partes[3]), linea);
+                declaradas.add(partes[2]);
+                continue;
+            }
+            var muestra = MUESTRA.matcher(linea);
+            assertTrue(muestra.matches(), linea);
+            // Una muestra pertenece a la última familia declarada (los summary añaden _sum y _count)
+            String familia = declaradas.get(declaradas.size() - 1);
+            String nombre = muestra.group(1);
+            assertTrue(nombre.equals(familia) || nombre.equals(familia + "_sum") || nombre.equals(familia + "_count"),
+                    linea);
+        }
+        assertEquals(10, declaradas.size());
+    }
+
+    @Test
+    void seRegistraComoMxBean() throws Exception {
+        MetricRegistry registro = MetricRegistry.global();
+        registro.stream("prueba jmx").registrar(3, System.nanoTime(), 0);
+        registro.registrarJmx();
+        // Registrar otra vez no falla
+        registro.registrarJmx();
+
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nombre = new ObjectName(MetricRegistry.NOMBRE_JMX);
+        assertTrue(servidor.isRegistered(nombre));
+        assertTrue(JMX.isMXBeanInterface(MetricRegistryMXBean.class));
+        assertTrue(servidor.isInstanceOf(nombre, MetricRegistryMXBean.class.getName()));
+
+        // Los Map<String, Long> se ven como TabularData con filas key/value
+        TabularData mensajes = (TabularData) servidor.getAttribute(nombre, "MensajesPorStream");
+        CompositeData fila = mensajes.get(new Object[]{"prueba jmx"});
+        assertEquals(1L, fila.get("value"));
+        TabularData errores = (TabularData) servidor.getAttribute(nombre, "ErroresBinancePorCodigo");
+        assertTrue(errores.containsKey(new Object[]{"-1021"}));
+
+        MetricRegistryMXBean proxy = JMX.newMXBeanProxy(servidor, nombre, MetricRegistryMXBean.class);
+        assertEquals(1L, proxy.getMensajesPorStream().get("prueba jmx"));
+        assertTrue(proxy.getTasaMensajesPorStream().containsKey("prueba jmx"));
+    }
+}
@@ -0,0 +1,57 @@
+package Lib.Libreria_Binance.funcion.Metricas;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Contadores de StreamMetrics y su tasa de mensajes (ventanas de un segundo reales)
+class StreamMetricsTest {
+
+    private static void registrar(StreamMetrics metricas, int mensajes) {
+        for (int i = 0; i < mensajes; i++) {
+            metricas.registrar(10, System.nanoTime(), 0);
+        }
+    }
+
+    @Test
+    void cuentaMensajesCaracteresYErrores() {
+        StreamMetrics metricas = new StreamMetrics("btcusdt@aggTrade");
+        registrar(metricas, 3);
+        metricas.registrar(5, System.nanoTime(), System.currentTimeMillis());
+        metricas.contarError();
+        assertEquals(4, metricas.getMensajes());
+        assertEquals(35, metricas.getCaracteres());
+        assertEquals(1, metricas.getErrores());
+        assertEquals(4, metricas.getProceso().getConteo());
+        // Solo el mensaje con tiempo de evento cuenta para el retraso
+        assertEquals(1, metricas.getRetraso().getConteo());
+    }
+
+    @Test
+    void leerLaTasaNoLaReinicia() throws Exception {
+        StreamMetrics metricas = new StreamMetrics("tasa");
+        assertEquals(0.0, metricas.getMensajesPorSegundo());
+        registrar(metricas, 100);
+        Thread.sleep(1_100);
+        // Este mensaje cierra la ventana: 101 mensajes en algo más de un segundo
+        registrar(metricas, 1);
+
+        double primera = metricas.getMensajesPorSegundo();
+        double segunda = metricas.getMensajesPorSegundo();
+        assertTrue(primera > 50 && primera <= 101, String.valueOf(primera));
+        assertEquals(primera, segunda);
+    }
+
+    @Test
+    void sinMensajesLaTasaBajaACero() throws Exception {
+        StreamMetrics metricas = new StreamMetrics("parado");
+        registrar(metricas, 50);
+        Thread.sleep(1_100);
+        registrar(metricas, 1);
+        assertTrue(metricas.getMensajesPorSegundo() > 0);
+        // Nadie cierra la ventana siguiente: la lectura cuenta lo que va de ella
+        Thread.sleep(1_100);
+        assertEquals(0.0, metricas.getMensajesPorSegundo());
+    }
+}
@@ -0,0 +1,67 @@
+package Lib.Libreria_Binance.funcion.Modelo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Respuesta de /api/v3/account con 500 balances: cuerpo en String + readTree con un ObjectMapper
+// por instancia (lo que hacían Tabla y ConnectionInfo) frente al lector compartido desde el stream.
+// mvn -Pjmh test-compile exec:exec -Djmh.args="JsonReaders -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonReadersBenchmark {
+
+    private byte[] cuerpo;
+
+    @Setup
+    public void preparar() {
+        StringBuilder json = new StringBuilder("{\"makerCommission\":10,\"takerCommission\":10,\"buyerCommission\":0,"
+                + "\"sellerCommission\":0,\"canTrade\":true,\"canWithdraw\":true,\"canDeposit\":true,"
+                + "\"updateTime\":1700000000000,\"accountType\":\"SPOT\",\"balances\":[");
+        for (int i = 0; i < 500; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"asset\":\"A").append(i).append("\",\"free\":\"").append(i).append(".12345678\",")
+                    .append("\"locked\":\"0.00000000\"}");
+        }
+        cuerpo = json.append("],\"permissions\":[\"SPOT\"]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public double arbolDesdeTexto() throws IOException {
+        String texto = new String(cuerpo, StandardCharsets.UTF_8);
+        JsonNode raiz = new ObjectMapper().readTree(texto);
+        double total = 0;
+        for (JsonNode balance : raiz.path("balances")) {
+            total += Double.parseDouble(balance.path("free").asText());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double tipadoDesdeStream() throws IOException {
+        Account cuenta = JsonReaders.ACCOUNT.readValue(new ByteArrayInputStream(cuerpo));
+        double total = 0;
+        for (Balance balance : cuenta.getBalances()) {
+            total += balance.getFree().toDouble();
+        }
+        return total;
+    }
+}
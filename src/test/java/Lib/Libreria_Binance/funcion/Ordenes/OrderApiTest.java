@@ -0,0 +1,159 @@
+package Lib.Libreria_Binance.funcion.Ordenes;
+
+import Lib.Libreria_Binance.funcion.Connect.BinanceApiException;
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import Lib.Libreria_Binance.funcion.Modelo.CancelReplaceResult;
+import Lib.Libreria_Binance.funcion.Modelo.Order;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer.Peticion;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer.Respuesta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// OrderApi sobre Connect contra un servidor REST local que hace de /api/v3/order
+class OrderApiTest {
+
+    private static final String ORDEN = "{\"symbol\":\"BTCUSDT\",\"orderId\":%d,\"clientOrderId\":\"c%d\","
+            + "\"transactTime\":1700000000000,\"status\":\"%s\"}";
+    // Respuesta de Binance a un cancelReplace STOP_ON_FAILURE con la cancelación hecha y la orden nueva rechazada
+    private static final String CANCEL_REPLACE_FALLIDO = "{\"code\":-2021,\"msg\":\"Order cancel-replace partially failed.\","
+            + "\"data\":{\"cancelResult\":\"SUCCESS\",\"newOrderResult\":\"FAILURE\","
+            + "\"cancelResponse\":{\"symbol\":\"BTCUSDT\",\"orderId\":1,\"status\":\"CANCELED\"},"
+            + "\"newOrderResponse\":{\"code\":-2010,\"msg\":\"Order would immediately match and take.\"}}}";
+
+    private StubHttpServer servidor;
+    private OrderApi ordenes;
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        servidor = new StubHttpServer();
+        servidor.ruta("/api/v3/order", p -> Respuesta.json(String.format(ORDEN, 7, 7,
+                "DELETE".equals(p.metodo()) ? "CANCELED" : "NEW")));
+        Connect connect = new Connect("clave", "secreto", servidor.url());
+        connect.setCache(null);
+        ordenes = new OrderApi(connect);
+    }
+
+    @AfterEach
+    void cerrar() {
+        servidor.close();
+    }
+
+    private static NuevaOrden limite() {
+        return NuevaOrden.limite("BTCUSDT", NuevaOrden.Lado.BUY, Decimal.parse("0.001"), Decimal.parse("60000"))
+                .conClientOrderId("mi-orden");
+    }
+
+    @Test
+    void nuevaVaFirmadaConLosParametrosEnElCuerpo() throws Exception {
+        Order orden = ordenes.nueva(limite());
+        assertEquals(7, orden.getOrderId());
+        assertEquals("NEW", orden.getStatus());
+
+        Peticion peticion = servidor.peticiones("/api/v3/order").get(0);
+        assertEquals("POST", peticion.metodo());
+        assertNull(peticion.query());
+        assertEquals("BTCUSDT", peticion.parametro("symbol"));
+        assertEquals("BUY", peticion.parametro("side"));
+        assertEquals("LIMIT", peticion.parametro("type"));
+        assertEquals("GTC", peticion.parametro("timeInForce"));
+        assertEquals("mi-orden", peticion.parametro("newClientOrderId"));
+        assertEquals("ACK", peticion.parametro("newOrderRespType"));
+        assertNotNull(peticion.parametro("timestamp"));
+        assertEquals(64, peticion.parametro("signature").length());
+        assertEquals("clave", peticion.cabeceras().getFirst("X-MBX-APIKEY"));
+        assertEquals(1, ordenes.getLatenciaNueva().getConteo());
+    }
+
+    @Test
+    void cancelarUsaDeletePorOrderIdOClientOrderId() throws Exception {
+        assertEquals("CANCELED", ordenes.cancelar("BTCUSDT", 7).getStatus());
+        ordenes.cancelarAsync("BTCUSDT", "mi-orden").get(5, TimeUnit.SECONDS);
+
+        List<Peticion> peticiones = servidor.peticiones("/api/v3/order");
+        assertEquals("DELETE", peticiones.get(0).metodo());
+        assertEquals("7", peticiones.get(0).parametro("orderId"));
+        assertEquals("mi-orden", peticiones.get(1).parametro("origClientOrderId"));
+    }
+
+    @Test
+    void unRechazoLlegaComoBinanceApiException() {
+        servidor.ruta("/api/v3/order", p -> Respuesta.error(400, "{\"code\":-2010,\"msg\":\"Account has insufficient balance\"}"));
+        BinanceApiException error = assertThrows(BinanceApiException.class, () -> ordenes.nueva(limite()));
+        assertEquals(-2010, error.getCode());
+        assertNull(error.getData());
+    }
+
+    @Test
+    void cancelarReemplazarDevuelveAmbasMitades() throws Exception {
+        servidor.ruta("/api/v3/order/cancelReplace", "{\"cancelResult\":\"SUCCESS\",\"newOrderResult\":\"SUCCESS\","
+                + "\"cancelResponse\":" + String.format(ORDEN, 1, 1, "CANCELED")
+                + ",\"newOrderResponse\":" + String.format(ORDEN, 2, 2, "NEW") + "}");
+        CancelReplaceResult resultado = ordenes.cancelarReemplazar(1, limite());
+        assertEquals(1, resultado.getCancelResponse().getOrderId());
+        assertEquals(2, resultado.getNewOrderResponse().getOrderId());
+
+        Peticion peticion = servidor.peticiones("/api/v3/order/cancelReplace").get(0);
+        assertEquals("1", peticion.parametro("cancelOrderId"));
+        assertEquals(OrderApi.PARAR_SI_FALLA, peticion.parametro("cancelReplaceMode"));
+    }
+
+    @Test
+    void cancelarReemplazarFallidoExponeElResultadoDeCadaMitad() {
+        servidor.ruta("/api/v3/order/cancelReplace", p -> Respuesta.error(409, CANCEL_REPLACE_FALLIDO));
+        CancelReplaceException error = assertThrows(CancelReplaceException.class,
+                () -> ordenes.cancelarReemplazar(1, limite()));
+        comprobarFalloParcial(error);
+    }
+
+    @Test
+    void cancelarReemplazarAsyncFallidoExponeElResultadoDeCadaMitad() {
+        servidor.ruta("/api/v3/order/cancelReplace", p -> Respuesta.error(409, CANCEL_REPLACE_FALLIDO));
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> ordenes.cancelarReemplazarAsync(1, limite(), OrderApi.PARAR_SI_FALLA).get(5, TimeUnit.SECONDS));
+        comprobarFalloParcial(assertInstanceOf(CancelReplaceException.class, error.getCause()));
+    }
+
+    private static void comprobarFalloParcial(CancelReplaceException error) {
+        assertEquals(-2021, error.getCode());
+        assertEquals(409, error.getStatus());
+        CancelReplaceResult resultado = error.getResultado();
+        assertEquals("SUCCESS", resultado.getCancelResult());
+        assertEquals("FAILURE", resultado.getNewOrderResult());
+        assertEquals(1, resultado.getCancelResponse().getOrderId());
+        assertEquals("CANCELED", resultado.getCancelResponse().getStatus());
+        assertNull(resultado.getNewOrderResponse());
+        assertNull(error.getErrorCancelacion());
+        assertEquals(-2010, error.getErrorNuevaOrden().getCode());
+        assertEquals("Order would immediately match and take.", error.getErrorNuevaOrden().getMsg());
+    }
+
+    @Test
+    void enviarLoteCalientaUnaSolaVez() throws Exception {
+        List<NuevaOrden> lote = new ArrayList<>();
+        for (int i = 0; i < 5; i++) lote.add(limite());
+        for (CompletableFuture<Order> futuro : ordenes.enviarLote(lote)) {
+            assertEquals(7, futuro.get(5, TimeUnit.SECONDS).getOrderId());
+        }
+        ordenes.cancelarLote("BTCUSDT", List.of(1L, 2L)).forEach(CompletableFuture::join);
+
+        assertEquals(1, servidor.peticiones("/api/v3/ping").size());
+        assertEquals(7, servidor.peticiones("/api/v3/order").size());
+        assertFalse(servidor.peticiones("/api/v3/order").stream().anyMatch(p -> p.parametro("signature") == null));
+    }
+}
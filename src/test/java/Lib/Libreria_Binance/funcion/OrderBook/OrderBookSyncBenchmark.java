@@ -0,0 +1,117 @@
+package Lib.Libreria_Binance.funcion.OrderBook;
+
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Camino de aplicación de un evento @depth ya sincronizado: decodificar + validar U/u + aplicar
+// 10 niveles cerca del top. El objetivo son 10k eventos/s por símbolo; el resultado está en ops/s.
+// Los ids se escriben en sitio sobre mensajes pregenerados para no medir la creación de Strings.
+// mvn -Pjmh test-compile exec:exec -Djmh.args="OrderBookSync -prof gc"
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderBookSyncBenchmark {
+
+    private static final int MENSAJES = 256;
+    private static final int DIGITOS = 12;
+
+    private final StringBuilder[] mensajes = new StringBuilder[MENSAJES];
+    private final int[] posicionPrimero = new int[MENSAJES];
+    private final int[] posicionUltimo = new int[MENSAJES];
+    private StubHttpServer servidor;
+    private OrderBookSync sync;
+    private long id = 1;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        Random aleatorio = new Random(7);
+        for (int m = 0; m < MENSAJES; m++) {
+            StringBuilder json = new StringBuilder("{\"e\":\"depthUpdate\",\"E\":1700000000000,\"s\":\"BTCUSDT\",\"U\":");
+            posicionPrimero[m] = json.length();
+            json.append("0".repeat(DIGITOS)).append(",\"u\":");
+            posicionUltimo[m] = json.length();
+            json.append("0".repeat(DIGITOS)).append(",\"b\":[");
+            niveles(json, aleatorio, 6500000);
+            json.append("],\"a\":[");
+            niveles(json, aleatorio, 6500001);
+            mensajes[m] = json.append("]}");
+        }
+
+        servidor = new StubHttpServer();
+        StringBuilder snapshot = new StringBuilder("{\"lastUpdateId\":0,\"bids\":[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) snapshot.append(',');
+            snapshot.append("[\"").append(precio(6500000 - i)).append("\",\"1.00000000\"]");
+        }
+        snapshot.append("],\"asks\":[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) snapshot.append(',');
+            snapshot.append("[\"").append(precio(6500001 + i)).append("\",\"1.00000000\"]");
+        }
+        servidor.ruta("/api/v3/depth", snapshot.append("]}").toString());
+        Connect connect = new Connect("clave", "secreto", servidor.url());
+        connect.setCache(null);
+        sync = new OrderBookSync(connect, "BTCUSDT");
+        aplicar();
+        while (!sync.isSincronizado()) {
+            Thread.sleep(5);
+        }
+    }
+
+    // Cinco niveles a menos de 50 ticks del top; uno de cada cinco borra el nivel
+    private static void niveles(StringBuilder json, Random aleatorio, int top) {
+        for (int i = 0; i < 5; i++) {
+            if (i > 0) json.append(',');
+            int desplazamiento = aleatorio.nextInt(50);
+            int precio = top < 6500001 ? top - desplazamiento : top + desplazamiento;
+            String cantidad = aleatorio.nextInt(5) == 0 ? "0.00000000" : "0." + (10000000 + aleatorio.nextInt(89999999));
+            json.append("[\"").append(precio(precio)).append("\",\"").append(cantidad).append("\"]");
+        }
+    }
+
+    private static String precio(int centimos) {
+        return (centimos / 100) + "." + String.format("%02d", centimos % 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        servidor.close();
+    }
+
+    @Benchmark
+    public long aplicar() {
+        StringBuilder mensaje = mensajes[siguiente];
+        escribirId(mensaje, posicionPrimero[siguiente], id);
+        escribirId(mensaje, posicionUltimo[siguiente], id);
+        siguiente = (siguiente + 1) % MENSAJES;
+        id++;
+        sync.procesar(mensaje, 0, mensaje.length());
+        return sync.getLibro().getMejorBid();
+    }
+
+    private static void escribirId(StringBuilder mensaje, int posicion, long valor) {
+        for (int i = posicion + DIGITOS - 1; i >= posicion; i--) {
+            mensaje.setCharAt(i, (char) ('0' + valor % 10));
+            valor /= 10;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package Lib.Libreria_Binance.funcion.OrderBook;
+
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer.Respuesta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// OrderBookSync con el snapshot servido por un servidor local y los eventos inyectados a mano
+class OrderBookSyncTest {
+
+    private static final long UNIDAD = 100_000_000L;
+
+    private StubHttpServer servidor;
+    private OrderBookSync sync;
+    private final AtomicLong lastUpdateId = new AtomicLong(100);
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        servidor = new StubHttpServer();
+        servidor.ruta("/api/v3/depth", p -> Respuesta.json("{\"lastUpdateId\":" + lastUpdateId.get()
+                + ",\"bids\":[[\"10.0\",\"1\"]],\"asks\":[[\"11.0\",\"1\"]]}"));
+        Connect connect = new Connect("clave", "secreto", servidor.url());
+        connect.setCache(null);
+        sync = new OrderBookSync(connect, "BTCUSDT");
+    }
+
+    @AfterEach
+    void cerrar() {
+        servidor.close();
+    }
+
+    private void evento(long primero, long ultimo, String bidPrecio, String bidCantidad) {
+        String json = "{\"e\":\"depthUpdate\",\"E\":1,\"s\":\"BTCUSDT\",\"U\":" + primero + ",\"u\":" + ultimo
+                + ",\"b\":[[\"" + bidPrecio + "\",\"" + bidCantidad + "\"]],\"a\":[]}";
+        sync.procesar(json, 0, json.length());
+    }
+
+    @Test
+    void aplicaElSnapshotYLosEventosEncolados() throws Exception {
+        evento(95, 100, "9.0", "5");     // obsoleto: u <= lastUpdateId
+        evento(101, 102, "10.5", "2");
+        evento(103, 103, "10.0", "0");
+        esperar(sync::isSincronizado);
+
+        OrderBook libro = sync.getLibro();
+        assertEquals(103, libro.getLastUpdateId());
+        assertEquals(1_050_000_000L, libro.getMejorBid());
+        assertEquals(2 * UNIDAD, libro.getMejorBidCantidad());
+        assertEquals(1, libro.getNivelesBid());
+        assertEquals(2, sync.getEventosAplicados());
+    }
+
+    @Test
+    void unHuecoResincronizaSinPerderLaCola() throws Exception {
+        evento(101, 101, "10.0", "2");
+        esperar(sync::isSincronizado);
+
+        // Se pierde 102-104: el evento 105 abre el hueco y los siguientes siguen llegando
+        // mientras baja el snapshot nuevo, que cubre hasta 106
+        lastUpdateId.set(106);
+        evento(105, 105, "10.1", "1");
+        evento(106, 106, "10.2", "1");
+        evento(107, 107, "10.3", "3");
+        evento(108, 108, "10.4", "4");
+        esperar(sync::isSincronizado);
+
+        OrderBook libro = sync.getLibro();
+        assertEquals(1, sync.getResincronizaciones());
+        assertEquals(108, libro.getLastUpdateId());
+        assertEquals(1_040_000_000L, libro.getMejorBid());
+        assertEquals(0, sync.getPendientes());
+    }
+
+    @Test
+    void reintentaElSnapshotConBackoffTrasUnFallo() throws Exception {
+        AtomicInteger llamadas = new AtomicInteger();
+        servidor.ruta("/api/v3/depth", p -> llamadas.incrementAndGet() == 1
+                ? Respuesta.error(502, "<html>502 Bad Gateway</html>")
+                : Respuesta.json("{\"lastUpdateId\":100,\"bids\":[[\"10.0\",\"1\"]],\"asks\":[]}"));
+        evento(101, 101, "10.0", "3");
+        evento(102, 102, "9.0", "1");
+        esperar(sync::isSincronizado);
+
+        assertEquals(2, llamadas.get());
+        assertEquals(1, sync.getFallosSnapshot());
+        assertEquals(3 * UNIDAD, sync.getLibro().getMejorBidCantidad());
+        assertEquals(2, sync.getLibro().getNivelesBid());
+    }
+
+    @Test
+    void unSnapshotAnteriorALaColaSePideOtraVez() throws Exception {
+        lastUpdateId.set(50);
+        evento(101, 101, "10.0", "3");
+        Thread.sleep(100);
+        lastUpdateId.set(100);
+        esperar(sync::isSincronizado);
+
+        assertTrue(servidor.peticiones("/api/v3/depth").size() >= 2);
+        assertEquals(101, sync.getLibro().getLastUpdateId());
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!condicion.getAsBoolean()) {
+            if (System.currentTimeMillis() > limite) throw new AssertionError("Sin sincronizar en 5 s");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Un mensaje aggTrade recibido como CharSequence (lo que entrega el WebSocket.Listener):
+// String + readTree + dos BigDecimal (lo que hacía RealTimeTrades.onText) frente a AggTradeDecoder.
+// mvn -Pjmh test-compile exec:exec -Djmh.args="AggTradeDecoder -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AggTradeDecoderBenchmark {
+
+    private final CharSequence mensaje = new StringBuilder("{\"e\":\"aggTrade\",\"E\":1700000000123,\"s\":\"BTCUSDT\","
+            + "\"a\":3210987654,\"p\":\"65123.45000000\",\"q\":\"0.01234000\",\"f\":4100000001,\"l\":4100000003,"
+            + "\"T\":1700000000120,\"m\":true,\"M\":true}");
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AggTradeDecoder decoder = new AggTradeDecoder();
+    private final AggTradeEvent evento = new AggTradeEvent();
+
+    @Benchmark
+    public void arbolJson(Blackhole bh) throws IOException {
+        JsonNode nodo = mapper.readTree(mensaje.toString());
+        bh.consume(new BigDecimal(nodo.get("p").asText()));
+        bh.consume(new BigDecimal(nodo.get("q").asText()));
+        bh.consume(nodo.get("T").asLong());
+        bh.consume(nodo.get("m").asBoolean());
+    }
+
+    @Benchmark
+    public void decoder(Blackhole bh) {
+        decoder.decodificar(mensaje, evento);
+        bh.consume(evento.getPrecio());
+        bh.consume(evento.getCantidad());
+        bh.consume(evento.getTiempoTrade());
+        bh.consume(evento.isCompradorMaker());
+    }
+}
@@ -0,0 +1,45 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AggTradeDecoderTest {
+
+    private final AggTradeDecoder decoder = new AggTradeDecoder();
+    private final AggTradeEvent evento = new AggTradeEvent();
+
+    @Test
+    void leeTodosLosCampos() {
+        String mensaje = "{\"e\":\"aggTrade\",\"E\":123456789,\"s\":\"BNBBTC\",\"a\":12345,\"p\":\"0.001\","
+                + "\"q\":\"100\",\"f\":100,\"l\":105,\"T\":123456785,\"m\":true,\"M\":true}";
+        assertTrue(decoder.decodificar(new StringBuilder(mensaje), evento));
+        assertEquals(123456789L, evento.getTiempoEvento());
+        assertEquals(123456785L, evento.getTiempoTrade());
+        assertEquals(12345L, evento.getAggId());
+        assertEquals(100L, evento.getPrimerId());
+        assertEquals(105L, evento.getUltimoId());
+        assertEquals(100_000L, evento.getPrecio());
+        assertEquals(100L * ParserNumerico.potencia(ParserNumerico.ESCALA), evento.getCantidad());
+        assertTrue(evento.isCompradorMaker());
+        assertEquals("BNBBTC", evento.getSimbolo());
+    }
+
+    @Test
+    void decodificaElObjetoDentroDeUnMensajeCombinado() {
+        String mensaje = "{\"stream\":\"ethusdt@aggTrade\",\"data\":{\"e\":\"aggTrade\",\"s\":\"ETHUSDT\","
+                + "\"p\":\"3000.5\",\"q\":\"2\",\"T\":1,\"m\":false}}";
+        int desde = mensaje.indexOf("{", 1);
+        assertTrue(decoder.decodificar(mensaje, desde, mensaje.length() - 1, evento));
+        assertEquals(300_050_000_000L, evento.getPrecio());
+        assertFalse(evento.isCompradorMaker());
+        assertTrue(evento.simboloIgual("ETHUSDT"));
+    }
+
+    @Test
+    void sinPrecioNoEsValido() {
+        assertFalse(decoder.decodificar("{\"e\":\"aggTrade\",\"q\":\"1\",\"T\":1}", evento));
+    }
+}
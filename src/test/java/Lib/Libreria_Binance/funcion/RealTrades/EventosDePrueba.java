@@ -0,0 +1,25 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+// Construye y modifica AggTradeEvent desde tests y benchmarks de otros paquetes sin pasar por
+// el decodificador (los campos son de paquete)
+public final class EventosDePrueba {
+
+    private EventosDePrueba() {
+    }
+
+    // Precio y cantidad en punto fijo con ParserNumerico.ESCALA decimales
+    public static AggTradeEvent aggTrade(String symbol, long tiempoTrade, long precio, long cantidad) {
+        AggTradeEvent evento = new AggTradeEvent();
+        evento.setSimbolo(symbol, 0, symbol.length());
+        evento.tiempoEvento = tiempoTrade;
+        evento.tiempoTrade = tiempoTrade;
+        evento.precio = precio;
+        evento.cantidad = cantidad;
+        return evento;
+    }
+
+    public static void setTiempoTrade(AggTradeEvent evento, long tiempoTrade) {
+        evento.tiempoEvento = tiempoTrade;
+        evento.tiempoTrade = tiempoTrade;
+    }
+}
@@ -0,0 +1,189 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import Lib.Libreria_Binance.funcion.Stubs.StubWebSocketServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubWebSocketServer.Cliente;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// StreamManager contra un servidor WebSocket local que hace de /stream de Binance
+class StreamManagerTest {
+
+    private static final long ESPERA_MS = 5_000;
+
+    private StubWebSocketServer servidor;
+    private StreamManager gestor;
+    private final BlockingQueue<String> recibidos = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        servidor = new StubWebSocketServer();
+    }
+
+    @AfterEach
+    void cerrar() {
+        if (gestor != null) gestor.cerrar();
+        servidor.close();
+    }
+
+    private void crearGestor(int maxStreamsPorConexion) {
+        gestor = new StreamManager(servidor.url(), maxStreamsPorConexion);
+        gestor.agregarListener(mensaje -> recibidos.add(mensaje.getStream() + "|" + mensaje.getDatos()));
+    }
+
+    @Test
+    void abreUnaConexionCombinadaYEntregaLosMensajes() throws Exception {
+        crearGestor(StreamManager.MAX_STREAMS_POR_CONEXION);
+        gestor.suscribir(StreamManager.aggTrade("BTCUSDT"), StreamManager.bookTicker("ETHUSDT"));
+        Cliente cliente = servidor.esperarCliente(ESPERA_MS);
+        assertEquals("/stream?streams=btcusdt@aggTrade/ethusdt@bookTicker", cliente.ruta());
+
+        cliente.enviar("{\"stream\":\"btcusdt@aggTrade\",\"data\":{\"e\":\"aggTrade\",\"E\":1,\"p\":\"1.5\"}}");
+        assertEquals("btcusdt@aggTrade|{\"e\":\"aggTrade\",\"E\":1,\"p\":\"1.5\"}",
+                recibidos.poll(ESPERA_MS, TimeUnit.MILLISECONDS));
+        assertEquals(1, gestor.getNumeroConexiones());
+    }
+
+    @Test
+    void suscribeYDesuscribeSobreElSocketAbierto() throws Exception {
+        crearGestor(StreamManager.MAX_STREAMS_POR_CONEXION);
+        gestor.suscribir(StreamManager.trade("BTCUSDT"));
+        Cliente cliente = servidor.esperarCliente(ESPERA_MS);
+
+        // Si el socket aún no está listo, alConectar envía el SUBSCRIBE al abrir
+        gestor.suscribir(StreamManager.depth("BTCUSDT"), StreamManager.kline("BTCUSDT", "1m"));
+        String suscribir = cliente.esperarMensaje(ESPERA_MS);
+        assertTrue(suscribir.startsWith("{\"method\":\"SUBSCRIBE\",\"params\":[\"btcusdt@depth@100ms\","
+                + "\"btcusdt@kline_1m\"],\"id\":"), suscribir);
+
+        gestor.desuscribir(StreamManager.depth("BTCUSDT"));
+        String desuscribir = cliente.esperarMensaje(ESPERA_MS);
+        assertTrue(desuscribir.startsWith("{\"method\":\"UNSUBSCRIBE\",\"params\":[\"btcusdt@depth@100ms\"]"),
+                desuscribir);
+        assertEquals(Set.of("btcusdt@trade", "btcusdt@kline_1m"), gestor.getStreams());
+        assertEquals(1, servidor.clientes().size());
+    }
+
+    @Test
+    void repartePorConexionesAlLlegarAlLimite() throws Exception {
+        crearGestor(2);
+        gestor.suscribir("a@trade", "b@trade", "c@trade", "d@trade", "e@trade");
+        Set<String> rutas = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            rutas.add(servidor.esperarCliente(ESPERA_MS).ruta());
+        }
+        assertEquals(Set.of("/stream?streams=a@trade/b@trade", "/stream?streams=c@trade/d@trade",
+                "/stream?streams=e@trade"), rutas);
+        assertEquals(3, gestor.getNumeroConexiones());
+    }
+
+    @Test
+    void cierraLaConexionQueSeQuedaVacia() throws Exception {
+        crearGestor(1);
+        gestor.suscribir("a@trade", "b@trade");
+        Cliente primero = servidor.esperarCliente(ESPERA_MS);
+        Cliente segundo = servidor.esperarCliente(ESPERA_MS);
+
+        Cliente vaciado = primero.ruta().endsWith("a@trade") ? primero : segundo;
+        gestor.desuscribir("a@trade");
+        assertTrue(vaciado.esperarCierre(ESPERA_MS));
+        assertEquals(1, gestor.getNumeroConexiones());
+    }
+
+    @Test
+    void reconectaConLosStreamsSuscritosEnCaliente() throws Exception {
+        crearGestor(StreamManager.MAX_STREAMS_POR_CONEXION);
+        gestor.suscribir("a@trade");
+        Cliente primero = servidor.esperarCliente(ESPERA_MS);
+        gestor.suscribir("b@trade");
+        primero.esperarMensaje(ESPERA_MS);
+
+        primero.cortar();
+        // La reconexión usa el backoff del supervisor (250-500 ms en el primer intento)
+        Cliente segundo = servidor.esperarCliente(ESPERA_MS);
+        assertEquals("/stream?streams=a@trade/b@trade", segundo.ruta());
+        segundo.enviar("{\"stream\":\"b@trade\",\"data\":{\"E\":2}}");
+        assertEquals("b@trade|{\"E\":2}", recibidos.poll(ESPERA_MS, TimeUnit.MILLISECONDS));
+        assertEquals(1, gestor.getReconexiones());
+    }
+
+    @Test
+    void cerrarMientrasReconectaNoSeBloquea() throws Exception {
+        crearGestor(StreamManager.MAX_STREAMS_POR_CONEXION);
+        gestor.suscribir("a@trade");
+        servidor.esperarCliente(ESPERA_MS);
+        ConnectionSupervisor supervisor = gestor.getSupervisores().get(0);
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (!supervisor.isConectado() && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+        assertTrue(supervisor.isConectado());
+
+        // La tarea de reconexión (o de rotación) abre la conexión nueva con el monitor del
+        // supervisor cogido. Aquí se hace lo mismo a mano: con el monitor cogido se desuscribe
+        // el último stream desde otro hilo, que cierra la conexión, y se pide la rotación
+        AtomicBoolean desuscrito = new AtomicBoolean();
+        Thread desuscribir = new Thread(() -> {
+            gestor.desuscribir("a@trade");
+            desuscrito.set(true);
+        });
+        Thread reconexion = new Thread(() -> {
+            synchronized (supervisor) {
+                desuscribir.start();
+                // Bloqueado en el monitor del supervisor (antes, con el de la conexión cogido)
+                while (desuscribir.getState() != Thread.State.BLOCKED && desuscribir.isAlive()) {
+                    Thread.onSpinWait();
+                }
+                supervisor.rotar();
+            }
+        });
+        reconexion.setDaemon(true);
+        desuscribir.setDaemon(true);
+        reconexion.start();
+        reconexion.join(ESPERA_MS);
+        desuscribir.join(ESPERA_MS);
+        if (reconexion.isAlive()) {
+            // Interbloqueo: cerrar el gestor en cerrar() se quedaría también esperando
+            gestor = null;
+        }
+        assertFalse(reconexion.isAlive(), "la rotación quedó bloqueada");
+        assertTrue(desuscrito.get(), "el cierre quedó bloqueado");
+        assertEquals(0, gestor.getNumeroConexiones());
+        assertFalse(supervisor.isConectado());
+    }
+
+    @Test
+    void lasMetricasDeCadaConexionTienenNombrePropio() throws Exception {
+        crearGestor(StreamManager.MAX_STREAMS_POR_CONEXION);
+        StreamManager otro = new StreamManager(servidor.url(), StreamManager.MAX_STREAMS_POR_CONEXION);
+        try {
+            gestor.suscribir("a@trade");
+            otro.suscribir("b@trade");
+            String primera = gestor.getSupervisores().get(0).getNombre();
+            String deOtroGestor = otro.getSupervisores().get(0).getNombre();
+            assertTrue(primera.startsWith("stream combinado ") && primera.endsWith("-1"), primera);
+            assertTrue(deOtroGestor.endsWith("-1"), deOtroGestor);
+            assertNotEquals(primera, deOtroGestor);
+
+            // Cerrar una conexión no libera su número: la siguiente no hereda sus métricas
+            gestor.desuscribir("a@trade");
+            gestor.suscribir("c@trade");
+            String siguiente = gestor.getSupervisores().get(0).getNombre();
+            assertEquals(primera.substring(0, primera.length() - 1) + "2", siguiente);
+        } finally {
+            otro.cerrar();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Escritura y lectura de 1M de registros (80 MB) en el diario. Cada medida es una pasada completa:
+// con tiempo fijo la escritura llenaría el disco. ms por pasada = ns por registro.
+// mvn -Pjmh test-compile exec:exec -Djmh.args="TickJournal -prof gc"
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class TickJournalBenchmark {
+
+    private static final int REGISTROS = 1_000_000;
+    private static final long INICIO = 1_700_000_000_000L;
+
+    private final AggTradeEvent evento = EventosDePrueba.aggTrade("BTCUSDT", INICIO, 65_000_00000000L, 1_000_000);
+    private Path lectura;
+    private Path escritura;
+    private JournalReplay replay;
+    private long leidos;
+
+    @Setup(Level.Trial)
+    public void prepararLectura() throws IOException {
+        lectura = Files.createTempDirectory("journal-lectura");
+        try (TickJournal diario = new TickJournal(lectura, "bench")) {
+            escribirTodo(diario);
+        }
+        replay = JournalReplay.deDirectorio(lectura, "bench");
+    }
+
+    @Setup(Level.Iteration)
+    public void prepararEscritura() throws IOException {
+        escritura = Files.createTempDirectory("journal-escritura");
+    }
+
+    @TearDown(Level.Iteration)
+    public void borrarEscritura() throws IOException {
+        borrar(escritura);
+    }
+
+    @TearDown(Level.Trial)
+    public void borrarLectura() throws IOException {
+        borrar(lectura);
+    }
+
+    @Benchmark
+    public long escribir() throws IOException {
+        try (TickJournal diario = new TickJournal(escritura, "bench")) {
+            escribirTodo(diario);
+            return diario.getEscritos();
+        }
+    }
+
+    @Benchmark
+    public long leer() throws IOException, InterruptedException {
+        leidos = 0;
+        return replay.reproducir(e -> leidos += e.getCantidad());
+    }
+
+    private void escribirTodo(TickJournal diario) throws IOException {
+        for (int i = 0; i < REGISTROS; i++) {
+            EventosDePrueba.setTiempoTrade(evento, INICIO + i);
+            evento.aggId = i;
+            diario.escribir(evento);
+        }
+    }
+
+    private static void borrar(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            for (Path archivo : archivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(archivo);
+            }
+        }
+    }
+}
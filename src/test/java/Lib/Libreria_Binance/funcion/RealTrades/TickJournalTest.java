@@ -0,0 +1,85 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TickJournalTest {
+
+    private static final long DIA = 86_400_000L;
+    // 2024-01-01T00:00:00Z
+    private static final long MEDIANOCHE = 19_723 * DIA;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void reproduceLoEscritoEnElMismoOrden() throws Exception {
+        try (TickJournal diario = new TickJournal(directorio, "btc")) {
+            for (int i = 0; i < 1000; i++) {
+                AggTradeEvent evento = EventosDePrueba.aggTrade("BTCUSDT", MEDIANOCHE + i, 65_000_00000000L + i, 1000 + i);
+                evento.aggId = i;
+                evento.compradorMaker = i % 2 == 0;
+                diario.escribir(evento);
+            }
+        }
+        List<AggTradeEvent> leidos = reproducir();
+        assertEquals(1000, leidos.size());
+        AggTradeEvent ultimo = leidos.get(999);
+        assertEquals(999, ultimo.getAggId());
+        assertEquals(MEDIANOCHE + 999, ultimo.getTiempoTrade());
+        assertEquals(65_000_00000999L, ultimo.getPrecio());
+        assertEquals(1999, ultimo.getCantidad());
+        assertEquals(false, ultimo.isCompradorMaker());
+        assertEquals("BTCUSDT", ultimo.getSimbolo());
+    }
+
+    @Test
+    void losSegmentosSoloAvanzanConTradesDesordenadosEnMedianoche() throws Exception {
+        long[] tiempos = {MEDIANOCHE - 2, MEDIANOCHE + 1, MEDIANOCHE - 1, MEDIANOCHE + 2, MEDIANOCHE - 3, MEDIANOCHE + 3};
+        try (TickJournal diario = new TickJournal(directorio, "btc")) {
+            for (int i = 0; i < tiempos.length; i++) {
+                AggTradeEvent evento = EventosDePrueba.aggTrade("BTCUSDT", tiempos[i], 1, 1);
+                evento.aggId = i;
+                diario.escribir(evento);
+            }
+            assertEquals(2, diario.getTardios());
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            assertEquals(List.of("btc-2023-12-31.journal", "btc-2024-01-01.journal"),
+                    archivos.map(p -> p.getFileName().toString()).sorted().toList());
+        }
+        List<AggTradeEvent> leidos = reproducir();
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L), leidos.stream().map(AggTradeEvent::getAggId).toList());
+    }
+
+    @Test
+    void reabrirUnSegmentoContinuaTrasElUltimoRegistro() throws Exception {
+        try (TickJournal diario = new TickJournal(directorio, "btc")) {
+            diario.escribir(EventosDePrueba.aggTrade("BTCUSDT", MEDIANOCHE + 1, 1, 1));
+        }
+        try (TickJournal diario = new TickJournal(directorio, "btc")) {
+            diario.escribir(EventosDePrueba.aggTrade("BTCUSDT", MEDIANOCHE + 2, 2, 2));
+        }
+        List<AggTradeEvent> leidos = reproducir();
+        assertEquals(2, leidos.size());
+        assertEquals(2, leidos.get(1).getPrecio());
+    }
+
+    private List<AggTradeEvent> reproducir() throws Exception {
+        List<AggTradeEvent> leidos = new ArrayList<>();
+        JournalReplay.deDirectorio(directorio, "btc").reproducir(evento -> {
+            AggTradeEvent copia = new AggTradeEvent();
+            copia.copiarDe(evento);
+            leidos.add(copia);
+        });
+        return leidos;
+    }
+}
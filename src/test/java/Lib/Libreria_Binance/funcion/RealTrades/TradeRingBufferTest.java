@@ -0,0 +1,152 @@
+package Lib.Libreria_Binance.funcion.RealTrades;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// TradeRingBuffer con consumidores reales: cada evento lleva su número en aggId
+class TradeRingBufferTest {
+
+    private static final long ESPERA_MS = 5_000;
+
+    private final TradeRingBuffer buffer = new TradeRingBuffer(8);
+
+    @AfterEach
+    void cerrar() {
+        buffer.detener();
+    }
+
+    // Reclama y publica un evento con el id indicado; false si se descartó
+    private boolean publicar(long id) {
+        AggTradeEvent hueco = buffer.reclamar();
+        if (hueco == null) return false;
+        hueco.aggId = id;
+        buffer.publicar();
+        return true;
+    }
+
+    @Test
+    void laCapacidadDebeSerPotenciaDeDos() {
+        assertThrows(IllegalArgumentException.class, () -> new TradeRingBuffer(6));
+        assertThrows(IllegalArgumentException.class, () -> new TradeRingBuffer(0));
+    }
+
+    @Test
+    void daVariasVueltasSinPerderNiReordenar() throws Exception {
+        List<Long> recibidos = new CopyOnWriteArrayList<>();
+        buffer.agregarConsumidor(evento -> recibidos.add(evento.getAggId()), "consumidor");
+        // 100 eventos en un buffer de 8: el productor espera cuando el consumidor va detrás
+        for (long id = 0; id < 100; id++) {
+            long actual = id;
+            esperar(() -> buffer.getPendientes() < buffer.getCapacidad());
+            assertTrue(publicar(actual));
+        }
+        esperar(() -> recibidos.size() == 100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, recibidos.get(i));
+        }
+        assertEquals(0, buffer.getDescartados());
+        assertEquals(100, buffer.getPublicados());
+        assertEquals(0, buffer.getPendientes());
+    }
+
+    @Test
+    void conElBufferLlenoDescartaYCuenta() throws Exception {
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        List<Long> recibidos = new CopyOnWriteArrayList<>();
+        buffer.agregarConsumidor(evento -> {
+            try {
+                bloqueo.await(ESPERA_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            recibidos.add(evento.getAggId());
+        }, "lento");
+
+        int aceptados = 0;
+        for (long id = 0; id < 13; id++) {
+            if (publicar(id)) aceptados++;
+        }
+        // El consumidor no ha terminado ni el primero: caben 8 y se descartan 5
+        assertEquals(8, aceptados);
+        assertEquals(5, buffer.getDescartados());
+        assertEquals(1.0, buffer.getOcupacion());
+        assertNull(buffer.reclamar());
+
+        bloqueo.countDown();
+        esperar(() -> recibidos.size() == 8);
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L), recibidos);
+        // Con hueco otra vez se vuelve a aceptar
+        assertTrue(publicar(99));
+        esperar(() -> recibidos.size() == 9);
+        assertEquals(6, buffer.getDescartados());
+    }
+
+    @Test
+    void todosLosConsumidoresVenLaMismaSecuencia() throws Exception {
+        List<Long> primero = new CopyOnWriteArrayList<>();
+        List<Long> segundo = new CopyOnWriteArrayList<>();
+        List<Long> tercero = new CopyOnWriteArrayList<>();
+        buffer.agregarConsumidor(evento -> primero.add(evento.getAggId()), "primero");
+        buffer.agregarConsumidor(evento -> segundo.add(evento.getAggId()), "segundo");
+        buffer.agregarConsumidor(evento -> {
+            if (evento.getAggId() == 3) throw new IllegalStateException("fallo de prueba");
+            tercero.add(evento.getAggId());
+        }, "tercero");
+
+        for (long id = 0; id < 50; id++) {
+            esperar(() -> buffer.getPendientes() < buffer.getCapacidad());
+            assertTrue(publicar(id));
+        }
+        esperar(() -> primero.size() == 50 && segundo.size() == 50 && tercero.size() == 49);
+        assertEquals(primero, segundo);
+        assertFalse(tercero.contains(3L));
+        // Un consumidor que lanza no se detiene: el evento cuenta como procesado
+        assertEquals(1, buffer.getErroresConsumidores());
+    }
+
+    @Test
+    void detenerParaLosHilosConsumidores() throws Exception {
+        List<Thread> hilos = new CopyOnWriteArrayList<>();
+        List<Long> recibidos = new CopyOnWriteArrayList<>();
+        buffer.agregarConsumidor(evento -> {
+            hilos.add(Thread.currentThread());
+            recibidos.add(evento.getAggId());
+        }, "detenido");
+        assertTrue(publicar(1));
+        esperar(() -> recibidos.size() == 1);
+        Thread hilo = hilos.get(0);
+        assertEquals("detenido", hilo.getName());
+
+        buffer.detener();
+        hilo.join(ESPERA_MS);
+        assertFalse(hilo.isAlive());
+        // Sin consumidores nada limita al productor ni recibe eventos
+        for (long id = 2; id < 20; id++) {
+            assertNotNull(buffer.reclamar());
+            buffer.publicar();
+        }
+        assertEquals(1, recibidos.size());
+        assertEquals(0, buffer.getDescartados());
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (!condicion.getAsBoolean()) {
+            if (System.currentTimeMillis() > limite) throw new AssertionError("Condición no cumplida en " + ESPERA_MS + " ms");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package Lib.Libreria_Binance.funcion.Simbolos;
+
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import Lib.Libreria_Binance.funcion.Modelo.ExchangeInfo;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.RealTrades.ParserNumerico;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// SymbolRegistry con exchangeInfo construidos a mano (y un servidor local para refrescar)
+class SymbolRegistryTest {
+
+    private final SymbolRegistry registro = new SymbolRegistry();
+
+    // Un símbolo de exchangeInfo con sus filtros de precio, cantidad y nocional
+    private static String simbolo(String nombre, String estado, String tick, String paso) {
+        return "{\"symbol\":\"" + nombre + "\",\"status\":\"" + estado + "\",\"baseAssetPrecision\":8,"
+                + "\"quoteAssetPrecision\":8,\"filters\":["
+                + "{\"filterType\":\"PRICE_FILTER\",\"tickSize\":\"" + tick + "\"},"
+                + "{\"filterType\":\"LOT_SIZE\",\"stepSize\":\"" + paso + "\"},"
+                + "{\"filterType\":\"NOTIONAL\",\"minNotional\":\"5\"}]}";
+    }
+
+    private static String simbolo(String nombre) {
+        return simbolo(nombre, "TRADING", "0.01", "0.001");
+    }
+
+    private static String json(List<String> simbolos) {
+        return "{\"timezone\":\"UTC\",\"serverTime\":1,\"symbols\":[" + String.join(",", simbolos) + "]}";
+    }
+
+    private static ExchangeInfo info(String... simbolos) throws Exception {
+        return JsonReaders.EXCHANGE_INFO.readValue(json(List.of(simbolos)));
+    }
+
+    private static long fijo(String valor) {
+        return Decimal.parse(valor).mantisa(ParserNumerico.ESCALA);
+    }
+
+    @Test
+    void lasBusquedasCoincidenSinDistinguirMayusculas() throws Exception {
+        assertEquals(3, registro.actualizar(info(simbolo("BTCUSDT"), simbolo("ETHUSDT"), simbolo("ETHBTC"))));
+        for (String nombre : List.of("BTCUSDT", "btcusdt", "BtcUsdt", "ETHBTC", "ethusdt")) {
+            int id = registro.id(nombre);
+            assertTrue(id >= 0, nombre);
+            String enMensaje = "xx" + nombre + "@aggTrade";
+            int hasta = 2 + nombre.length();
+            assertEquals(id, registro.id(enMensaje, 2, hasta), nombre);
+            assertEquals(id, registro.id(enMensaje.toCharArray(), 2, hasta), nombre);
+            assertEquals(id, registro.id(enMensaje.getBytes(StandardCharsets.US_ASCII), 2, hasta), nombre);
+            assertEquals(id, registro.id(new StringBuilder(nombre)), nombre);
+            assertTrue(registro.coincide(id, enMensaje, 2, hasta), nombre);
+        }
+        for (String nombre : List.of("BNBUSDT", "BTCUSD", "BTCUSDTT", "")) {
+            assertEquals(SymbolRegistry.NO_ENCONTRADO, registro.id(nombre), nombre);
+            assertEquals(SymbolRegistry.NO_ENCONTRADO, registro.id(nombre.toCharArray(), 0, nombre.length()), nombre);
+            assertEquals(SymbolRegistry.NO_ENCONTRADO,
+                    registro.id(nombre.getBytes(StandardCharsets.US_ASCII), 0, nombre.length()), nombre);
+        }
+        assertFalse(registro.coincide(registro.id("ETHUSDT"), "ETHBTC", 0, 6));
+        // Siempre el mismo String para un símbolo registrado
+        assertSame(registro.nombre(registro.id("ETHUSDT")), registro.normalizar("ethUSDT"));
+        assertSame(registro.nombreStream(registro.id("ETHUSDT")), registro.normalizarStream("ETHusdt"));
+        assertEquals("ethusdt", registro.normalizarStream("ETHUSDT"));
+        assertEquals("BNBUSDT", registro.normalizar("bnbusdt"));
+    }
+
+    @Test
+    void losIdsNoCambianEntreActualizaciones() throws Exception {
+        registro.actualizar(info(simbolo("BTCUSDT"), simbolo("ETHUSDT")));
+        int btc = registro.id("BTCUSDT");
+        int eth = registro.id("ETHUSDT");
+
+        // Otro orden, un símbolo nuevo y un tickSize distinto
+        assertEquals(2, registro.actualizar(info(simbolo("SOLUSDT"), simbolo("ETHUSDT", "TRADING", "0.1", "0.001"),
+                simbolo("BTCUSDT"))));
+        assertEquals(btc, registro.id("BTCUSDT"));
+        assertEquals(eth, registro.id("ETHUSDT"));
+        assertEquals(2, registro.id("SOLUSDT"));
+        assertEquals(fijo("0.1"), registro.tickSize(eth));
+        assertEquals(1, registro.escalaPrecio(eth));
+        assertEquals(3, registro.getTotal());
+        assertEquals(3, registro.getActivos());
+    }
+
+    @Test
+    void unSimboloQueFaltaSeRetiraYVuelveConSuId() throws Exception {
+        registro.actualizar(info(simbolo("BTCUSDT"), simbolo("ETHBTC")));
+        int ethbtc = registro.id("ETHBTC");
+
+        assertEquals(1, registro.actualizar(info(simbolo("BTCUSDT"))));
+        assertEquals(SymbolRegistry.Estado.RETIRADO, registro.estado(ethbtc));
+        assertFalse(registro.isTrading(ethbtc));
+        assertEquals(ethbtc, registro.id("ETHBTC"));
+        assertEquals(1, registro.getActivos());
+        // Sigue faltando: ya estaba retirado, no hay cambios
+        assertEquals(0, registro.actualizar(info(simbolo("BTCUSDT"))));
+
+        assertEquals(1, registro.actualizar(info(simbolo("ETHBTC", "BREAK", "0.01", "0.001"), simbolo("BTCUSDT"))));
+        assertEquals(ethbtc, registro.id("ETHBTC"));
+        assertEquals(SymbolRegistry.Estado.BREAK, registro.estado(ethbtc));
+        assertEquals(2, registro.getTotal());
+    }
+
+    @Test
+    void refrescarSoloTocaLosSimbolosPedidos() throws Exception {
+        ExchangeInfo completo = info(simbolo("BTCUSDT"), simbolo("ETHUSDT"));
+        registro.actualizar(completo);
+        try (StubHttpServer servidor = new StubHttpServer()) {
+            servidor.ruta("/api/v3/exchangeInfo", json(List.of(simbolo("BTCUSDT", "HALT", "0.1", "0.01"))));
+            Connect connect = new Connect("clave", "secreto", servidor.url());
+            connect.setCache(null);
+            connect.setRateLimiter(null);
+
+            assertEquals(1, registro.refrescar(connect, List.of("btcusdt")));
+            String pedido = servidor.peticiones("/api/v3/exchangeInfo").get(0).parametro("symbols");
+            assertEquals("[\"BTCUSDT\"]", URLDecoder.decode(pedido, StandardCharsets.UTF_8));
+        }
+        int btc = registro.id("BTCUSDT");
+        int eth = registro.id("ETHUSDT");
+        assertEquals(SymbolRegistry.Estado.HALT, registro.estado(btc));
+        assertEquals(fijo("0.1"), registro.tickSize(btc));
+        // El que no se pidió no pasa a RETIRADO ni cambia
+        assertEquals(SymbolRegistry.Estado.TRADING, registro.estado(eth));
+        assertEquals(fijo("0.01"), registro.tickSize(eth));
+        assertEquals(1, registro.getActivos());
+
+        // Tras refrescar, el mismo exchangeInfo completo de la caché se vuelve a aplicar
+        assertEquals(1, registro.actualizar(completo));
+        assertEquals(SymbolRegistry.Estado.TRADING, registro.estado(btc));
+        assertEquals(0, registro.actualizar(completo));
+    }
+
+    @Test
+    void redondeaElPrecioAlTickYTruncaLaCantidadAlPaso() throws Exception {
+        registro.actualizar(info(simbolo("BTCUSDT", "TRADING", "0.01", "0.001"),
+                simbolo("RARO", "TRADING", "0", "0")));
+        int btc = registro.id("BTCUSDT");
+        assertEquals(fijo("0.01"), registro.tickSize(btc));
+        assertEquals(fijo("0.001"), registro.stepSize(btc));
+        assertEquals(fijo("5"), registro.minNotional(btc));
+        assertEquals(2, registro.escalaPrecio(btc));
+        assertEquals(3, registro.escalaCantidad(btc));
+
+        // Mitad hacia arriba
+        assertEquals(fijo("123.46"), registro.ajustarPrecio(btc, fijo("123.455")));
+        assertEquals(fijo("123.45"), registro.ajustarPrecio(btc, fijo("123.45499999")));
+        assertEquals(fijo("123.45"), registro.ajustarPrecio(btc, fijo("123.45")));
+        assertEquals(fijo("0.01"), registro.ajustarPrecio(btc, fijo("0.005")));
+        assertEquals(0, registro.ajustarPrecio(btc, fijo("0.00499999")));
+        // Siempre hacia abajo
+        assertEquals(fijo("1.234"), registro.ajustarCantidad(btc, fijo("1.23499999")));
+        assertEquals(fijo("1.234"), registro.ajustarCantidad(btc, fijo("1.234")));
+        assertEquals(0, registro.ajustarCantidad(btc, fijo("0.0009")));
+
+        // Sin filtro (0) el valor no se toca
+        int raro = registro.id("RARO");
+        assertEquals(fijo("1.23456789"), registro.ajustarPrecio(raro, fijo("1.23456789")));
+        assertEquals(fijo("1.23456789"), registro.ajustarCantidad(raro, fijo("1.23456789")));
+    }
+
+    @Test
+    void creceMasAllaDeLaCapacidadInicial() throws Exception {
+        registro.actualizar(info(simbolo("BTCUSDT")));
+        assertEquals(0, registro.id("BTCUSDT"));
+
+        // De uno en uno (cada copia crece un poco) y luego de golpe (la tabla se rehace)
+        List<String> simbolos = new ArrayList<>();
+        simbolos.add(simbolo("BTCUSDT"));
+        for (int i = 0; i < 40; i++) {
+            simbolos.add(simbolo("UNO" + i + "USDT"));
+            assertEquals(1, registro.actualizar(JsonReaders.EXCHANGE_INFO.readValue(json(simbolos))));
+        }
+        for (int i = 0; i < 3000; i++) {
+            simbolos.add(simbolo("S" + i + "BTC"));
+        }
+        assertEquals(3000, registro.actualizar(JsonReaders.EXCHANGE_INFO.readValue(json(simbolos))));
+
+        assertEquals(3041, registro.getTotal());
+        assertEquals(3041, registro.getActivos());
+        assertEquals(0, registro.id("btcusdt"));
+        for (int i = 0; i < 40; i++) {
+            assertEquals(1 + i, registro.id("uno" + i + "usdt"));
+        }
+        for (int i = 0; i < 3000; i++) {
+            String nombre = "S" + i + "BTC";
+            assertEquals(41 + i, registro.id(nombre.toLowerCase()), nombre);
+            assertEquals(41 + i, registro.id(nombre.getBytes(StandardCharsets.US_ASCII), 0, nombre.length()), nombre);
+        }
+        assertEquals(SymbolRegistry.NO_ENCONTRADO, registro.id("S3000BTC"));
+    }
+}
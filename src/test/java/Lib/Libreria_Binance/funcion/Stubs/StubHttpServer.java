@@ -0,0 +1,130 @@
+package Lib.Libreria_Binance.funcion.Stubs;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+// Servidor HTTP local que hace de Binance en los tests: cada ruta contesta con una función y
+// todas las peticiones quedan registradas. /api/v3/time y /api/v3/ping vienen configuradas
+public class StubHttpServer implements AutoCloseable {
+
+    static {
+        // Sin TCP_NODELAY el servidor del JDK escribe cabeceras y cuerpo por separado y cada
+        // respuesta espera ~40 ms al ACK retrasado del cliente
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    public record Peticion(String metodo, String ruta, String query, String cuerpo, Headers cabeceras) {
+
+        // Valor de un parámetro de la query o del cuerpo (sin decodificar)
+        public String parametro(String nombre) {
+            for (String fuente : new String[]{query, cuerpo}) {
+                if (fuente == null) continue;
+                for (String par : fuente.split("&")) {
+                    int igual = par.indexOf('=');
+                    if (igual > 0 && par.substring(0, igual).equals(nombre)) return par.substring(igual + 1);
+                }
+            }
+            return null;
+        }
+    }
+
+    public record Respuesta(int estado, String cuerpo, Map<String, String> cabeceras) {
+
+        public static Respuesta json(String cuerpo) {
+            return new Respuesta(200, cuerpo, Map.of());
+        }
+
+        public static Respuesta error(int estado, String cuerpo) {
+            return new Respuesta(estado, cuerpo, Map.of());
+        }
+
+        public Respuesta conCabecera(String nombre, String valor) {
+            Map<String, String> todas = new LinkedHashMap<>(cabeceras);
+            todas.put(nombre, valor);
+            return new Respuesta(estado, cuerpo, todas);
+        }
+    }
+
+    protected final HttpServer servidor;
+    private final ExecutorService hilos = Executors.newCachedThreadPool(r -> {
+        Thread hilo = new Thread(r, "stub-http");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private final Map<String, Function<Peticion, Respuesta>> rutas = new ConcurrentHashMap<>();
+    private final List<Peticion> peticiones = new CopyOnWriteArrayList<>();
+
+    public StubHttpServer() throws IOException {
+        this(HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0));
+    }
+
+    protected StubHttpServer(HttpServer servidor) {
+        this.servidor = servidor;
+        servidor.createContext("/", this::atender);
+        servidor.setExecutor(hilos);
+        ruta("/api/v3/time", p -> Respuesta.json("{\"serverTime\":" + System.currentTimeMillis() + "}"));
+        ruta("/api/v3/ping", "{}");
+        servidor.start();
+    }
+
+    public StubHttpServer ruta(String ruta, Function<Peticion, Respuesta> respuesta) {
+        rutas.put(ruta, respuesta);
+        return this;
+    }
+
+    public StubHttpServer ruta(String ruta, String json) {
+        return ruta(ruta, p -> Respuesta.json(json));
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    public List<Peticion> peticiones() {
+        return peticiones;
+    }
+
+    public List<Peticion> peticiones(String ruta) {
+        return peticiones.stream().filter(p -> p.ruta().equals(ruta)).toList();
+    }
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            String cuerpo = new String(intercambio.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            Peticion peticion = new Peticion(intercambio.getRequestMethod(), intercambio.getRequestURI().getPath(),
+                    intercambio.getRequestURI().getRawQuery(), cuerpo, intercambio.getRequestHeaders());
+            peticiones.add(peticion);
+            Function<Peticion, Respuesta> ruta = rutas.get(peticion.ruta());
+            Respuesta respuesta = ruta == null
+                    ? Respuesta.error(404, "{\"code\":-1,\"msg\":\"Sin stub para " + peticion.ruta() + "\"}")
+                    : ruta.apply(peticion);
+            byte[] bytes = respuesta.cuerpo().getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+            respuesta.cabeceras().forEach(intercambio.getResponseHeaders()::set);
+            intercambio.sendResponseHeaders(respuesta.estado(), bytes.length == 0 ? -1 : bytes.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        hilos.shutdownNow();
+    }
+}
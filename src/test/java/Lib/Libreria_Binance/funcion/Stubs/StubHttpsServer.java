@@ -0,0 +1,95 @@
+package Lib.Libreria_Binance.funcion.Stubs;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+// StubHttpServer sobre TLS (solo HTTP/1.1: el servidor del JDK no negocia h2). El certificado
+// es autofirmado para 127.0.0.1 y se genera con keytool la primera vez en cada JVM;
+// contextoCliente() confía solo en él
+public class StubHttpsServer extends StubHttpServer {
+
+    private static final char[] CLAVE = "stubstub".toCharArray();
+
+    private static KeyStore almacen;
+
+    public StubHttpsServer() throws IOException {
+        super(crear());
+    }
+
+    private static HttpsServer crear() throws IOException {
+        HttpsServer servidor = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        try {
+            KeyManagerFactory claves = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            claves.init(almacen(), CLAVE);
+            SSLContext contexto = SSLContext.getInstance("TLS");
+            contexto.init(claves.getKeyManagers(), null, null);
+            servidor.setHttpsConfigurator(new HttpsConfigurator(contexto));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("No se pudo configurar TLS", e);
+        }
+        return servidor;
+    }
+
+    @Override
+    public String url() {
+        return "https://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    // Contexto para el cliente que confía en el certificado del stub
+    public static SSLContext contextoCliente() throws IOException {
+        try {
+            KeyStore confianza = KeyStore.getInstance("PKCS12");
+            confianza.load(null, null);
+            confianza.setCertificateEntry("stub", almacen().getCertificate("stub"));
+            TrustManagerFactory certificados = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            certificados.init(confianza);
+            SSLContext contexto = SSLContext.getInstance("TLS");
+            contexto.init(null, certificados.getTrustManagers(), null);
+            return contexto;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("No se pudo crear el contexto TLS del cliente", e);
+        }
+    }
+
+    private static synchronized KeyStore almacen() throws IOException {
+        if (almacen != null) return almacen;
+        Path directorio = Files.createTempDirectory("stub-tls");
+        Path fichero = directorio.resolve("stub.p12");
+        String keytool = Path.of(System.getProperty("java.home"), "bin", "keytool").toString();
+        Process proceso = new ProcessBuilder(keytool, "-genkeypair", "-alias", "stub", "-keyalg", "EC",
+                "-groupname", "secp256r1", "-validity", "2", "-dname", "CN=127.0.0.1", "-ext", "SAN=ip:127.0.0.1",
+                "-storetype", "PKCS12", "-keystore", fichero.toString(),
+                "-storepass", new String(CLAVE), "-keypass", new String(CLAVE))
+                .redirectErrorStream(true)
+                .start();
+        try {
+            String salida = new String(proceso.getInputStream().readAllBytes());
+            if (proceso.waitFor() != 0) throw new IOException("keytool falló: " + salida);
+            KeyStore generado = KeyStore.getInstance("PKCS12");
+            try (InputStream entrada = Files.newInputStream(fichero)) {
+                generado.load(entrada, CLAVE);
+            }
+            almacen = generado;
+            return almacen;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrumpido esperando a keytool", e);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Almacén de claves no válido", e);
+        } finally {
+            Files.deleteIfExists(fichero);
+            Files.deleteIfExists(directorio);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package Lib.Libreria_Binance.funcion.Stubs;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// Servidor WebSocket local (RFC 6455, solo lo que usan los clientes del JDK) que hace de Binance
+// en los tests: registra la ruta de cada conexión y los mensajes de texto que recibe, y permite
+// enviar mensajes, responder automáticamente o cortar conexiones desde el test
+public class StubWebSocketServer implements AutoCloseable {
+
+    private static final String GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket servidor;
+    private final List<Cliente> clientes = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<Cliente> nuevos = new LinkedBlockingQueue<>();
+    private volatile BiConsumer<Cliente, String> respuesta;
+    private volatile boolean cerrado;
+
+    public StubWebSocketServer() throws IOException {
+        servidor = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread aceptador = new Thread(this::aceptar, "stub-ws-aceptar");
+        aceptador.setDaemon(true);
+        aceptador.start();
+    }
+
+    public String url() {
+        return "ws://127.0.0.1:" + servidor.getLocalPort();
+    }
+
+    // Se invoca con cada mensaje de texto recibido, en el hilo de lectura de esa conexión
+    public void setRespuesta(BiConsumer<Cliente, String> respuesta) {
+        this.respuesta = respuesta;
+    }
+
+    // Siguiente conexión aceptada (en orden de llegada)
+    public Cliente esperarCliente(long timeoutMs) throws InterruptedException {
+        Cliente cliente = nuevos.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (cliente == null) throw new AssertionError("Ningún cliente conectó en " + timeoutMs + " ms");
+        return cliente;
+    }
+
+    public List<Cliente> clientes() {
+        return clientes;
+    }
+
+    private void aceptar() {
+        while (!cerrado) {
+            try {
+                Socket socket = servidor.accept();
+                socket.setTcpNoDelay(true);
+                Thread lector = new Thread(() -> atender(socket), "stub-ws-conexion");
+                lector.setDaemon(true);
+                lector.start();
+            } catch (IOException e) {
+                // Servidor cerrado
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        Cliente cliente = null;
+        try {
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            String peticion = leerLinea(entrada);
+            String clave = null;
+            for (String linea = leerLinea(entrada); !linea.isEmpty(); linea = leerLinea(entrada)) {
+                if (linea.regionMatches(true, 0, "Sec-WebSocket-Key:", 0, 18)) {
+                    clave = linea.substring(18).strip();
+                }
+            }
+            OutputStream salida = socket.getOutputStream();
+            salida.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + aceptacion(clave) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            salida.flush();
+            cliente = new Cliente(socket, peticion.split(" ")[1]);
+            clientes.add(cliente);
+            nuevos.add(cliente);
+            cliente.leer(entrada);
+        } catch (IOException e) {
+            // Conexión cortada
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ya cerrado
+            }
+            if (cliente != null) cliente.fin.countDown();
+        }
+    }
+
+    private static String leerLinea(InputStream entrada) throws IOException {
+        StringBuilder linea = new StringBuilder();
+        for (int c = entrada.read(); c != '\n'; c = entrada.read()) {
+            if (c < 0) throw new EOFException();
+            if (c != '\r') linea.append((char) c);
+        }
+        return linea.toString();
+    }
+
+    private static String aceptacion(String clave) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest((clave + GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cerrado = true;
+        for (Cliente cliente : clientes) {
+            cliente.cortar();
+        }
+        try {
+            servidor.close();
+        } catch (IOException e) {
+            // Ya cerrado
+        }
+    }
+
+    // Una conexión aceptada
+    public final class Cliente {
+        private final Socket socket;
+        private final String ruta;
+        private final BlockingQueue<String> recibidos = new LinkedBlockingQueue<>();
+        private final List<String> historial = new CopyOnWriteArrayList<>();
+        private final CountDownLatch fin = new CountDownLatch(1);
+        private volatile boolean cerradoPorCliente;
+
+        private Cliente(Socket socket, String ruta) {
+            this.socket = socket;
+            this.ruta = ruta;
+        }
+
+        // Ruta y query de la petición de apertura, p. ej. /stream?streams=btcusdt@aggTrade
+        public String ruta() {
+            return ruta;
+        }
+
+        // Siguiente mensaje de texto del cliente
+        public String esperarMensaje(long timeoutMs) throws InterruptedException {
+            String mensaje = recibidos.poll(timeoutMs, TimeUnit.MILLISECONDS);
+            if (mensaje == null) throw new AssertionError("Sin mensaje del cliente en " + timeoutMs + " ms");
+            return mensaje;
+        }
+
+        // Todos los mensajes de texto recibidos en esta conexión
+        public List<String> mensajes() {
+            return new ArrayList<>(historial);
+        }
+
+        // true cuando el cliente envió un frame de cierre
+        public boolean isCerradoPorCliente() {
+            return cerradoPorCliente;
+        }
+
+        // Espera a que la conexión termine, con o sin frame de cierre
+        public boolean esperarCierre(long timeoutMs) throws InterruptedException {
+            return fin.await(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        public void enviar(String texto) {
+            escribir(0x1, texto.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Cierre ordenado iniciado por el servidor
+        public void cerrar(int codigo, String motivo) {
+            byte[] texto = motivo.getBytes(StandardCharsets.UTF_8);
+            byte[] cuerpo = new byte[texto.length + 2];
+            cuerpo[0] = (byte) (codigo >> 8);
+            cuerpo[1] = (byte) codigo;
+            System.arraycopy(texto, 0, cuerpo, 2, texto.length);
+            escribir(0x8, cuerpo);
+        }
+
+        // Corta el TCP sin frame de cierre, como una caída de red
+        public void cortar() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ya cerrado
+            }
+        }
+
+        private synchronized void escribir(int opcode, byte[] datos) {
+            try {
+                OutputStream salida = socket.getOutputStream();
+                ByteArrayOutputStream frame = new ByteArrayOutputStream(datos.length + 10);
+                frame.write(0x80 | opcode);
+                if (datos.length < 126) {
+                    frame.write(datos.length);
+                } else if (datos.length <= 0xFFFF) {
+                    frame.write(126);
+                    frame.write(datos.length >> 8);
+                    frame.write(datos.length);
+                } else {
+                    frame.write(127);
+                    for (int i = 7; i >= 0; i--) frame.write((int) ((long) datos.length >> (8 * i)));
+                }
+                frame.write(datos);
+                salida.write(frame.toByteArray());
+                salida.flush();
+            } catch (IOException e) {
+                // El cliente ya no está
+            }
+        }
+
+        private void leer(DataInputStream entrada) throws IOException {
+            ByteArrayOutputStream mensaje = new ByteArrayOutputStream();
+            while (true) {
+                int cabecera = entrada.readUnsignedByte();
+                int segundo = entrada.readUnsignedByte();
+                long longitud = segundo & 0x7F;
+                if (longitud == 126) longitud = entrada.readUnsignedShort();
+                else if (longitud == 127) longitud = entrada.readLong();
+                byte[] mascara = new byte[4];
+                if ((segundo & 0x80) != 0) entrada.readFully(mascara);
+                byte[] datos = new byte[(int) longitud];
+                entrada.readFully(datos);
+                for (int i = 0; i < datos.length; i++) datos[i] ^= mascara[i & 3];
+
+                int opcode = cabecera & 0x0F;
+                if (opcode == 0x8) {
+                    cerradoPorCliente = true;
+                    escribir(0x8, datos);
+                    return;
+                } else if (opcode == 0x9) {
+                    escribir(0xA, datos);
+                } else if (opcode == 0x1 || opcode == 0x0) {
+                    mensaje.write(datos);
+                    if ((cabecera & 0x80) != 0) {
+                        String texto = mensaje.toString(StandardCharsets.UTF_8);
+                        mensaje.reset();
+                        // El que responde se lee antes de publicar el mensaje: un test que cambia la
+                        // respuesta tras esperarMensaje() no debe contestar ya a este
+                        BiConsumer<Cliente, String> responder = respuesta;
+                        historial.add(texto);
+                        recibidos.add(texto);
+                        if (responder != null) responder.accept(this, texto);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package Lib.Libreria_Binance.funcion.Tabla;
+
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import Lib.Libreria_Binance.funcion.Modelo.Trade;
+
+import java.io.PrintStream;
+import java.math.RoundingMode;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+// Historial de trades tal como lo pintaba Tabla antes del Renderizador: un printf por celda,
+// un print por carácter de separador y un SimpleDateFormat por fila. Referencia para
+// TablaTest y TablaBenchmark
+final class TablaAnterior {
+    private static final String SEPARATOR = "+";
+    private static final String VERTICAL = "|";
+    private static final String HORIZONTAL = "-";
+
+    private final PrintStream out;
+
+    TablaAnterior(PrintStream out) {
+        this.out = out;
+    }
+
+    void mostrarHistorialTrades(List<Trade> trades) {
+        if (trades == null || trades.isEmpty()) {
+            out.println("No se encontraron trades.");
+            return;
+        }
+
+        out.println("\n" + crearTitulo("HISTORIAL DE TRADES"));
+
+        String[] headers = {"ID", "Symbol", "Side", "Quantity", "Price", "Commission", "Time"};
+        int[] widths = {12, 12, 6, 15, 15, 12, 20};
+
+        mostrarSeparador(widths);
+        mostrarFila(headers, widths);
+        mostrarSeparador(widths);
+
+        for (Trade trade : trades) {
+            String[] fila = {
+                    String.valueOf(trade.getId()),
+                    trade.getSymbol() == null ? "" : trade.getSymbol(),
+                    trade.isBuyer() ? "BUY" : "SELL",
+                    formatearDecimal(trade.getQty()),
+                    formatearDecimal(trade.getPrice()),
+                    formatearDecimal(trade.getCommission()),
+                    formatearTimestamp(trade.getTime())
+            };
+            mostrarFila(fila, widths);
+        }
+
+        mostrarSeparador(widths);
+    }
+
+    private void mostrarFila(String[] datos, int[] widths) {
+        out.print(VERTICAL);
+        for (int i = 0; i < datos.length; i++) {
+            String dato = datos[i];
+            if (dato.length() > widths[i] - 2) {
+                dato = dato.substring(0, widths[i] - 5) + "...";
+            }
+            out.printf(" %-" + (widths[i] - 2) + "s " + VERTICAL, dato);
+        }
+        out.println();
+    }
+
+    private void mostrarSeparador(int[] widths) {
+        out.print(SEPARATOR);
+        for (int width : widths) {
+            for (int i = 0; i < width; i++) {
+                out.print(HORIZONTAL);
+            }
+            out.print(SEPARATOR);
+        }
+        out.println();
+    }
+
+    private static String crearTitulo(String titulo) {
+        int longitud = titulo.length() + 4;
+        return "=".repeat(longitud) + "\n  " + titulo + "  \n" + "=".repeat(longitud);
+    }
+
+    private static String formatearTimestamp(long timestamp) {
+        if (timestamp == 0) return "N/A";
+        return new SimpleDateFormat("dd/MM/yyyy HH:mm:ss").format(new Date(timestamp));
+    }
+
+    // Antes los campos eran BigDecimal
+    private static String formatearDecimal(Decimal valor) {
+        if (valor == null) return "";
+        if (valor.signum() == 0) return "0.00000000";
+        return valor.toBigDecimal().setScale(8, RoundingMode.HALF_UP).toPlainString();
+    }
+}
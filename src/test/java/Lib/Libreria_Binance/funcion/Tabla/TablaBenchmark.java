@@ -0,0 +1,55 @@
+package Lib.Libreria_Binance.funcion.Tabla;
+
+import Lib.Libreria_Binance.funcion.Modelo.Trade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Historial de 500 trades a una salida que descarta los bytes: la Tabla anterior (printf por
+// celda sobre un PrintStream) frente a la actual (un buffer y un volcado por tabla). Los dos
+// escriben los mismos bytes (ver TablaTest).
+// mvn -Pjmh test-compile exec:exec -Djmh.args="TablaBenchmark -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TablaBenchmark {
+
+    private List<Trade> trades;
+    private TablaAnterior anterior;
+    private Tabla tabla;
+
+    @Setup
+    public void preparar() throws Exception {
+        trades = TablaTest.trades(500);
+        // PrintStream con autoflush como System.out
+        anterior = new TablaAnterior(new PrintStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8));
+        tabla = new Tabla(new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void anterior() {
+        anterior.mostrarHistorialTrades(trades);
+    }
+
+    @Benchmark
+    public void renderizador() {
+        tabla.mostrarHistorialTrades(trades);
+    }
+}
@@ -0,0 +1,146 @@
+package Lib.Libreria_Binance.funcion.Tabla;
+
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Modelo.Trade;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TablaTest {
+
+    // Símbolo que no cabe, decimales negativos, con exponente y con más de 8 decimales, y hora 0
+    static String json(int filas) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < filas; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"symbol\":\"").append(i % 7 == 0 ? "VERYLONGSYMBOLUSDT" : "BTCUSDT")
+                    .append("\",\"id\":").append(1_000_000L + i)
+                    .append(",\"price\":\"").append(60000 + i).append(".123456789\"")
+                    .append(",\"qty\":\"").append(i % 5 == 0 ? "1E-3" : "0.00" + i).append('"')
+                    .append(",\"commission\":\"").append(i % 11 == 0 ? "-0.5" : "0").append('"')
+                    .append(",\"time\":").append(i % 13 == 0 ? 0 : 1_700_000_000_000L + i * 1000L)
+                    .append(",\"isBuyer\":").append(i % 2 == 0).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    static List<Trade> trades(int filas) throws Exception {
+        return JsonReaders.TRADES.readValue(json(filas));
+    }
+
+    private static InputStream entrada(String texto) {
+        return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void elHistorialDeTradesSaleIgualQueAntes() throws Exception {
+        List<Trade> trades = trades(60);
+        ByteArrayOutputStream anterior = new ByteArrayOutputStream();
+        new TablaAnterior(new PrintStream(anterior, true, StandardCharsets.UTF_8)).mostrarHistorialTrades(trades);
+
+        StringWriter actual = new StringWriter();
+        new Tabla(actual).mostrarHistorialTrades(trades);
+        assertEquals(anterior.toString(StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n"),
+                actual.toString().replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    void sinTradesSoloElAviso() {
+        StringWriter salida = new StringWriter();
+        new Tabla(salida).mostrarHistorialTrades(List.of());
+        assertEquals("No se encontraron trades.", salida.toString().strip());
+    }
+
+    @Test
+    void enCsvEntrecomillaSoloLoQueHaceFalta() throws Exception {
+        StringWriter salida = new StringWriter();
+        Renderizador renderizador = new Renderizador(salida);
+        Columnas columnas = new Columnas(new String[]{"Simple", "Con, coma", "Comillas", "Salto", "Nulo"},
+                new int[]{10, 10, 10, 10, 10});
+        renderizador.encabezado(columnas, Renderizador.Formato.CSV);
+        renderizador.celda("BTCUSDT").celda("a,b").celda("di \"hola\"").celda("dos\nlíneas").celda((String) null);
+        renderizador.celda("\"").celda("\r").celda(-5).celdaFijo(150_000_000L, 8).celdaFecha(0);
+        renderizador.cierre();
+        renderizador.volcar();
+
+        assertEquals("Simple,\"Con, coma\",Comillas,Salto,Nulo\n"
+                + "BTCUSDT,\"a,b\",\"di \"\"hola\"\"\",\"dos\nlíneas\",\n"
+                + "\"\"\"\",\"\r\",-5,1.50000000,N/A\n", salida.toString());
+    }
+
+    @Test
+    void alineadoRellenaHastaElAnchoSinRecortar() throws Exception {
+        StringWriter salida = new StringWriter();
+        Renderizador renderizador = new Renderizador(salida);
+        // Anchos útiles 6, 4 y 8 (el ancho incluye los dos espacios del borde de TABLA)
+        Columnas columnas = new Columnas(new String[]{"ID", "Lado", "Precio"}, new int[]{8, 6, 10});
+        renderizador.encabezado(columnas, Renderizador.Formato.ALINEADO);
+        renderizador.celda("ab").celda("cdef").celda("x");
+        renderizador.celda("demasiado largo").celda("B").celda("1.5");
+        renderizador.cierre();
+        renderizador.volcar();
+
+        assertEquals("ID      Lado  Precio\n"
+                + "ab      cdef  x\n"
+                + "demasiado largo  B     1.5\n", salida.toString());
+    }
+
+    @Test
+    void enStreamingSaleIgualQueEnMemoria() throws Exception {
+        StringWriter memoria = new StringWriter();
+        new Tabla(memoria).mostrarHistorialTrades(trades(300));
+        StringWriter streaming = new StringWriter();
+        new Tabla(streaming).mostrarHistorialTrades(entrada(json(300)), Renderizador.Formato.TABLA);
+        assertEquals(memoria.toString(), streaming.toString());
+
+        // Sin filas, el mismo aviso
+        StringWriter vacia = new StringWriter();
+        new Tabla(vacia).mostrarHistorialTrades(entrada("[]"), Renderizador.Formato.TABLA);
+        assertEquals("No se encontraron trades.", vacia.toString().strip());
+    }
+
+    @Test
+    void unErrorAMitadDelStreamCierraLaTablaConLasFilasLeidas() throws Exception {
+        String completo = json(4);
+        // El cuarto elemento se corta a la mitad y sigue basura
+        String roto = completo.substring(0, completo.lastIndexOf("{\"symbol\"") + 20) + "}}]";
+        StringWriter salida = new StringWriter();
+        Tabla tabla = new Tabla(salida);
+        PrintStream err = System.err;
+        ByteArrayOutputStream errores = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errores, true, StandardCharsets.UTF_8));
+        String conError;
+        try {
+            tabla.mostrarHistorialTrades(entrada(roto), Renderizador.Formato.TABLA);
+            conError = salida.toString();
+            // Otro error, esta vez en CSV y al final del array
+            salida.getBuffer().setLength(0);
+            tabla.mostrarHistorialTrades(entrada(completo.replace("]", ",")), Renderizador.Formato.CSV);
+        } finally {
+            System.setErr(err);
+        }
+
+        // Las tres filas completas, con su separador final, y ninguna a medias
+        StringWriter tresFilas = new StringWriter();
+        new Tabla(tresFilas).mostrarHistorialTrades(trades(3));
+        assertEquals(tresFilas.toString(), conError);
+        assertTrue(errores.toString(StandardCharsets.UTF_8).startsWith("Error al procesar el historial de trades: "));
+        assertEquals(5, salida.toString().split("\n").length, salida.toString());
+
+        // El renderizador queda limpio: la siguiente tabla no arrastra formato ni columnas
+        salida.getBuffer().setLength(0);
+        tabla.mostrarHistorialTrades(trades(5));
+        StringWriter limpia = new StringWriter();
+        new Tabla(limpia).mostrarHistorialTrades(trades(5));
+        assertEquals(limpia.toString(), salida.toString());
+    }
+}
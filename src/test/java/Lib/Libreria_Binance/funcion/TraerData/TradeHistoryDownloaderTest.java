@@ -0,0 +1,210 @@
+package Lib.Libreria_Binance.funcion.TraerData;
+
+import Lib.Libreria_Binance.funcion.Connect.BinanceApiException;
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Modelo.Trade;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer.Peticion;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer.Respuesta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// TradeHistoryDownloader contra un /api/v3/myTrades local que filtra y pagina como Binance
+class TradeHistoryDownloaderTest {
+
+    private static final long ESPERA_MS = 5_000;
+    private static final long DIA = TimeUnit.DAYS.toMillis(1);
+    private static final long INICIO = 1_700_000_000_000L;
+    private static final String RUTA = "/api/v3/myTrades";
+
+    private StubHttpServer servidor;
+    private TradeHistoryDownloader descargador;
+    // Trades del servidor en orden de id: {id, time}
+    private final List<long[]> historial = new ArrayList<>();
+    private final List<Long> entregados = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        servidor = new StubHttpServer();
+        servidor.ruta(RUTA, this::myTrades);
+        Connect connect = new Connect("clave", "secreto", servidor.url());
+        connect.setCache(null);
+        connect.setRateLimiter(null);
+        connect.getClockSync().sincronizar();
+        descargador = new TradeHistoryDownloader(connect);
+    }
+
+    @AfterEach
+    void cerrar() {
+        servidor.close();
+    }
+
+    // n trades repartidos a partes iguales en [desde, hasta]
+    private void agregarTrades(int n, long desde, long hasta) {
+        for (int i = 0; i < n; i++) {
+            historial.add(new long[]{historial.size() + 1, desde + (hasta - desde) * i / Math.max(1, n - 1)});
+        }
+    }
+
+    // fromId no filtra por tiempo; startTime/endTime sí. Como mucho limit trades por respuesta
+    private Respuesta myTrades(Peticion peticion) {
+        int limite = Integer.parseInt(peticion.parametro("limit"));
+        String desdeId = peticion.parametro("fromId");
+        StringBuilder json = new StringBuilder("[");
+        int incluidos = 0;
+        for (long[] trade : historial) {
+            boolean dentro = desdeId != null
+                    ? trade[0] >= Long.parseLong(desdeId)
+                    : trade[1] >= Long.parseLong(peticion.parametro("startTime"))
+                    && trade[1] <= Long.parseLong(peticion.parametro("endTime"));
+            if (!dentro) continue;
+            if (incluidos > 0) json.append(',');
+            json.append("{\"symbol\":\"BTCUSDT\",\"id\":").append(trade[0]).append(",\"time\":").append(trade[1]).append('}');
+            if (++incluidos == limite) break;
+        }
+        return Respuesta.json(json.append(']').toString());
+    }
+
+    private void consumir(List<Trade> pagina) {
+        for (Trade trade : pagina) entregados.add(trade.getId());
+    }
+
+    private List<Long> ids(int desde, int hasta) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = desde; id <= hasta; id++) ids.add(id);
+        return ids;
+    }
+
+    @Test
+    void paginaConFromIdDentroDeLaVentana() throws Exception {
+        agregarTrades(2500, INICIO, INICIO + DIA / 2);
+        // Después del final del rango: llegan con fromId pero no se entregan
+        agregarTrades(700, INICIO + DIA / 2 + 1, INICIO + DIA / 2 + 1000);
+
+        long total = descargador.descargar("btcusdt", INICIO, INICIO + DIA / 2, this::consumir);
+
+        assertEquals(2500, total);
+        assertEquals(ids(1, 2500), entregados);
+        List<Peticion> peticiones = servidor.peticiones(RUTA);
+        assertEquals(3, peticiones.size());
+        assertEquals(String.valueOf(INICIO), peticiones.get(0).parametro("startTime"));
+        assertEquals(String.valueOf(INICIO + DIA / 2), peticiones.get(0).parametro("endTime"));
+        assertNull(peticiones.get(0).parametro("fromId"));
+        assertEquals("1001", peticiones.get(1).parametro("fromId"));
+        assertNull(peticiones.get(1).parametro("startTime"));
+        assertEquals("2001", peticiones.get(2).parametro("fromId"));
+        assertEquals("BTCUSDT", peticiones.get(2).parametro("symbol"));
+    }
+
+    @Test
+    void parteElRangoEnVentanasDeUnDia() throws Exception {
+        agregarTrades(1500, INICIO, INICIO + DIA - 1);
+        agregarTrades(10, INICIO + DIA, INICIO + 2 * DIA - 1);
+        agregarTrades(20, INICIO + 2 * DIA, INICIO + 2 * DIA + 100);
+        descargador.setParalelismo(2);
+
+        long total = descargador.descargar("BTCUSDT", INICIO, INICIO + 2 * DIA + 100, this::consumir);
+
+        assertEquals(1530, total);
+        List<Long> ordenados = new ArrayList<>(entregados);
+        ordenados.sort(null);
+        assertEquals(ids(1, 1530), ordenados);
+        List<String> ventanas = new ArrayList<>();
+        for (Peticion peticion : servidor.peticiones(RUTA)) {
+            if (peticion.parametro("startTime") != null) {
+                ventanas.add(peticion.parametro("startTime") + "-" + peticion.parametro("endTime"));
+            }
+        }
+        ventanas.sort(null);
+        assertEquals(List.of(
+                INICIO + "-" + (INICIO + DIA - 1),
+                (INICIO + DIA) + "-" + (INICIO + 2 * DIA - 1),
+                (INICIO + 2 * DIA) + "-" + (INICIO + 2 * DIA + 100)), ventanas);
+        // La primera ventana necesita una segunda página, que corta en el final del día
+        assertEquals(4, servidor.peticiones(RUTA).size());
+    }
+
+    @Test
+    void reanudaDesdeElCheckpointTrasUnFallo(@TempDir Path directorio) throws Exception {
+        agregarTrades(2500, INICIO, INICIO + 1000);
+        Path checkpoint = directorio.resolve("descarga.properties");
+        Function<Peticion, Respuesta> normal = this::myTrades;
+        servidor.ruta(RUTA, p -> "2001".equals(p.parametro("fromId"))
+                ? Respuesta.error(400, "{\"code\":-1003,\"msg\":\"Too many requests.\"}")
+                : normal.apply(p));
+
+        BinanceApiException error = assertThrows(BinanceApiException.class,
+                () -> descargador.descargar("BTCUSDT", INICIO, INICIO + 1000, this::consumir, checkpoint));
+        assertEquals(-1003, error.getCode());
+        assertEquals(ids(1, 2000), entregados);
+        assertTrue(Files.exists(checkpoint));
+
+        servidor.ruta(RUTA, normal);
+        entregados.clear();
+        int antes = servidor.peticiones(RUTA).size();
+        long total = descargador.descargar("BTCUSDT", INICIO, INICIO + 1000, this::consumir, checkpoint);
+
+        assertEquals(500, total);
+        assertEquals(ids(2001, 2500), entregados);
+        assertEquals("2001", servidor.peticiones(RUTA).get(antes).parametro("fromId"));
+        // Terminada: otra llamada no pide nada
+        assertEquals(0, descargador.descargar("BTCUSDT", INICIO, INICIO + 1000, this::consumir, checkpoint));
+        assertEquals(antes + 1, servidor.peticiones(RUTA).size());
+    }
+
+    @Test
+    void elPrimerFalloCancelaLoQueQuedaSinEsperarALosDemas() throws Exception {
+        for (int dia = 0; dia < 10; dia++) {
+            agregarTrades(5, INICIO + dia * DIA, INICIO + dia * DIA + 100);
+        }
+        CountDownLatch enVuelo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        servidor.ruta(RUTA, p -> {
+            try {
+                if (String.valueOf(INICIO).equals(p.parametro("startTime"))) {
+                    // Falla cuando la petición de la otra ventana ya está en el servidor
+                    enVuelo.await(ESPERA_MS, TimeUnit.MILLISECONDS);
+                    return Respuesta.error(400, "{\"code\":-1121,\"msg\":\"Invalid symbol.\"}");
+                }
+                // Las demás ventanas se quedan esperando y luego fallan con otro código
+                enVuelo.countDown();
+                liberar.await(4 * ESPERA_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Respuesta.error(400, "{\"code\":-1003,\"msg\":\"Too many requests.\"}");
+        });
+        descargador.setParalelismo(2);
+
+        // Vuelve con el primer fallo mientras la otra ventana sigue en vuelo
+        BinanceApiException error = assertTimeoutPreemptively(Duration.ofMillis(ESPERA_MS), () -> assertThrows(
+                BinanceApiException.class, () -> descargador.descargar("BTCUSDT", INICIO, INICIO + 10 * DIA - 1, this::consumir)));
+        assertEquals(-1121, error.getCode());
+        assertEquals(0, enVuelo.getCount());
+        assertEquals(1, liberar.getCount());
+
+        liberar.countDown();
+        Thread.sleep(200);
+        // Ni se empiezan las ocho ventanas restantes ni se entrega nada
+        assertEquals(2, servidor.peticiones(RUTA).size());
+        assertTrue(entregados.isEmpty());
+    }
+}
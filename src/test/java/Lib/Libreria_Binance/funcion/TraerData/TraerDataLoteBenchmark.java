@@ -0,0 +1,77 @@
+package Lib.Libreria_Binance.funcion.TraerData;
+
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer.Respuesta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Lote de myTrades firmados (50 símbolos) contra un servidor local que tarda 'latenciaMs' en
+// contestar, en cada modo de ejecución. El limitador está desactivado: se mide el modo, no la espera.
+// mvn -Pjmh test-compile exec:exec -Djmh.args="TraerDataLote -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TraerDataLoteBenchmark {
+
+    @Param({"SECUENCIAL", "HILOS_PLATAFORMA", "HILOS_VIRTUALES", "ASINCRONO"})
+    public TraerData.ModoEjecucion modo;
+
+    @Param({"5"})
+    public int latenciaMs;
+
+    private StubHttpServer servidor;
+    private TraerData datos;
+    private final List<String> simbolos = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        servidor = new StubHttpServer();
+        servidor.ruta("/api/v3/myTrades", p -> {
+            try {
+                Thread.sleep(latenciaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Respuesta.json("[]");
+        });
+        Connect connect = new Connect("clave", "secreto", servidor.url());
+        connect.setRateLimiter(null);
+        connect.setMaxPeticionesEnVuelo(64);
+        connect.getClockSync().sincronizar();
+        datos = new TraerData(connect);
+        datos.setModoEjecucion(modo);
+        for (int i = 0; i < 50; i++) {
+            simbolos.add("SIM" + i + "USDT");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        servidor.close();
+    }
+
+    @Benchmark
+    public Map<String, String> lote() throws Exception {
+        return datos.obtenerHistorialTrades(simbolos);
+    }
+}
@@ -0,0 +1,123 @@
+package Lib.Libreria_Binance.funcion.TraerData;
+
+import Lib.Libreria_Binance.funcion.Connect.BinanceApiException;
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Modelo.JsonReaders;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer.Respuesta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Lotes de TraerData en cada modo de ejecución contra un servidor local que tarda en contestar
+class TraerDataTest {
+
+    private static final int MAX_EN_VUELO = 3;
+
+    private StubHttpServer servidor;
+    private Connect connect;
+    private TraerData datos;
+    private final AtomicInteger atendiendo = new AtomicInteger();
+    private final AtomicInteger maximoAtendiendo = new AtomicInteger();
+    private final List<String> simbolos = new ArrayList<>();
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        servidor = new StubHttpServer();
+        servidor.ruta("/api/v3/myTrades", p -> {
+            maximoAtendiendo.accumulateAndGet(atendiendo.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                atendiendo.decrementAndGet();
+            }
+            String simbolo = p.parametro("symbol");
+            if (simbolo.equals("MALOUSDT")) {
+                return Respuesta.error(400, "{\"code\":-1121,\"msg\":\"Invalid symbol.\"}");
+            }
+            return Respuesta.json("[{\"symbol\":\"" + simbolo + "\",\"id\":1}]");
+        });
+        connect = new Connect("clave", "secreto", servidor.url());
+        connect.setCache(null);
+        connect.setRateLimiter(null);
+        connect.setMaxPeticionesEnVuelo(MAX_EN_VUELO);
+        connect.getClockSync().sincronizar();
+        datos = new TraerData(connect);
+        for (int i = 0; i < 12; i++) {
+            simbolos.add("sim" + i + "usdt");
+        }
+    }
+
+    @AfterEach
+    void cerrar() {
+        servidor.close();
+    }
+
+    @Test
+    void todosLosModosDevuelvenLoMismoQueSecuencial() throws Exception {
+        datos.setModoEjecucion(TraerData.ModoEjecucion.SECUENCIAL);
+        Map<String, String> esperado = datos.obtenerHistorialTrades(simbolos);
+        assertEquals(12, esperado.size());
+        assertEquals("SIM0USDT", esperado.keySet().iterator().next());
+        assertTrue(esperado.get("SIM5USDT").contains("\"SIM5USDT\""));
+
+        for (TraerData.ModoEjecucion modo : TraerData.ModoEjecucion.values()) {
+            datos.setModoEjecucion(modo);
+            Map<String, String> resultado = datos.obtenerHistorialTrades(simbolos);
+            assertEquals(esperado, resultado, modo.name());
+            // El orden de entrada se conserva en todos los modos
+            assertEquals(new ArrayList<>(esperado.keySet()), new ArrayList<>(resultado.keySet()), modo.name());
+        }
+    }
+
+    @Test
+    void elModoAsincronoRespetaElMaximoEnVuelo() throws Exception {
+        datos.setModoEjecucion(TraerData.ModoEjecucion.ASINCRONO);
+        Map<String, String> resultado = datos.obtenerHistorialTrades(simbolos);
+        assertEquals(12, resultado.size());
+        assertEquals(MAX_EN_VUELO, maximoAtendiendo.get());
+        assertEquals(0, connect.getInFlightLimiter().getEnVuelo());
+        assertEquals(0, connect.getInFlightLimiter().getEncoladas());
+    }
+
+    @Test
+    void unErrorDeBinanceFallaElFuturoTipado() throws Exception {
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", "MALOUSDT");
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> connect.signedRequestAsync("/api/v3/myTrades", params, JsonReaders.TRADES).get(5, TimeUnit.SECONDS));
+        BinanceApiException error = assertInstanceOf(BinanceApiException.class, e.getCause());
+        assertEquals(400, error.getStatus());
+        assertEquals(-1121, error.getCode());
+        assertEquals(0, connect.getInFlightLimiter().getEnVuelo());
+    }
+
+    @Test
+    void losLotesDeTextoDevuelvenElCuerpoDelErrorEnTodosLosModos() throws Exception {
+        // Como obtenerHistorialTrades(symbol): la versión String devuelve el cuerpo tal cual
+        simbolos.add(4, "MALOUSDT");
+        datos.setModoEjecucion(TraerData.ModoEjecucion.SECUENCIAL);
+        Map<String, String> esperado = datos.obtenerHistorialTrades(simbolos);
+        assertTrue(esperado.get("MALOUSDT").contains("-1121"));
+        for (TraerData.ModoEjecucion modo : TraerData.ModoEjecucion.values()) {
+            datos.setModoEjecucion(modo);
+            assertEquals(esperado, datos.obtenerHistorialTrades(simbolos), modo.name());
+        }
+        assertEquals(0, connect.getInFlightLimiter().getEnVuelo());
+    }
+}
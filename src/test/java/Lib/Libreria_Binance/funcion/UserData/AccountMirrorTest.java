@@ -0,0 +1,170 @@
+package Lib.Libreria_Binance.funcion.UserData;
+
+import Lib.Libreria_Binance.funcion.Connect.Connect;
+import Lib.Libreria_Binance.funcion.Decimal.Decimal;
+import Lib.Libreria_Binance.funcion.Modelo.Order;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubHttpServer.Respuesta;
+import Lib.Libreria_Binance.funcion.Stubs.StubWebSocketServer;
+import Lib.Libreria_Binance.funcion.Stubs.StubWebSocketServer.Cliente;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// AccountMirror contra un servidor REST local (cuenta, órdenes y listenKey) y un WebSocket local
+// que hace de user data stream
+class AccountMirrorTest {
+
+    private static final long ESPERA_MS = 5_000;
+    private static final String CUENTA = "{\"makerCommission\":10,\"takerCommission\":10,\"canTrade\":true,"
+            + "\"updateTime\":1000,\"accountType\":\"SPOT\",\"balances\":["
+            + "{\"asset\":\"USDT\",\"free\":\"100\",\"locked\":\"0\"},{\"asset\":\"BTC\",\"free\":\"1\",\"locked\":\"0\"}]}";
+    private static final String ORDENES = "[{\"symbol\":\"BTCUSDT\",\"orderId\":1,\"status\":\"NEW\",\"side\":\"BUY\","
+            + "\"type\":\"LIMIT\",\"price\":\"60000\",\"origQty\":\"0.001\",\"time\":900,\"updateTime\":900}]";
+
+    private StubHttpServer http;
+    private StubWebSocketServer ws;
+    private AccountMirror espejo;
+    private final AtomicInteger listenKeys = new AtomicInteger();
+    private volatile CountDownLatch cuentaBloqueada = new CountDownLatch(0);
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        http = new StubHttpServer();
+        ws = new StubWebSocketServer();
+        http.ruta("/api/v3/userDataStream", p -> "POST".equals(p.metodo())
+                ? Respuesta.json("{\"listenKey\":\"clave" + listenKeys.incrementAndGet() + "\"}")
+                : Respuesta.json("{}"));
+        http.ruta("/api/v3/account", p -> {
+            try {
+                cuentaBloqueada.await(ESPERA_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Respuesta.json(CUENTA);
+        });
+        http.ruta("/api/v3/openOrders", ORDENES);
+        Connect connect = new Connect("clave", "secreto", http.url());
+        connect.setCache(null);
+        espejo = new AccountMirror(connect, ws.url());
+    }
+
+    @AfterEach
+    void cerrar() {
+        espejo.detener();
+        ws.close();
+        http.close();
+    }
+
+    @Test
+    void arrancaPorRestYAplicaLosEventos() throws Exception {
+        assertNull(espejo.getSupervisor());
+        espejo.iniciar();
+        Cliente cliente = ws.esperarCliente(ESPERA_MS);
+        assertEquals("/ws/clave1", cliente.ruta());
+        espejo.getListo().get(ESPERA_MS, TimeUnit.MILLISECONDS);
+        assertEquals(Decimal.parse("100"), espejo.getLibre("USDT"));
+        assertEquals(1, espejo.getOrdenesAbiertas().size());
+
+        cliente.enviar("{\"e\":\"outboundAccountPosition\",\"E\":2000,\"u\":2000,\"B\":[{\"a\":\"USDT\",\"f\":\"40\",\"l\":\"60\"}]}");
+        cliente.enviar(reporte(2, "NEW", 2000));
+        cliente.enviar(reporte(1, "FILLED", 2001));
+        esperar(() -> espejo.getOrdenesAbiertas().size() == 1 && espejo.getOrdenesAbiertas("BTCUSDT").get(0).getOrderId() == 2);
+        assertEquals(Decimal.parse("40"), espejo.getLibre("USDT"));
+        assertEquals(Decimal.parse("1"), espejo.getLibre("BTC"));
+    }
+
+    @Test
+    void losEventosDelArranqueSeAplicanSegunUYUpdateTime() throws Exception {
+        cuentaBloqueada = new CountDownLatch(1);
+        espejo.iniciar();
+        Cliente cliente = ws.esperarCliente(ESPERA_MS);
+        esperar(() -> !http.peticiones("/api/v3/account").isEmpty());
+
+        // Tiempos de evento muy anteriores al reloj local: solo cuentan u y updateTime.
+        // El saldo con u=500 es anterior a la respuesta REST (updateTime 1000) y se descarta
+        cliente.enviar("{\"e\":\"outboundAccountPosition\",\"E\":1,\"u\":500,\"B\":[{\"a\":\"USDT\",\"f\":\"1\",\"l\":\"0\"}]}");
+        cliente.enviar(reporte(3, "NEW", 1500).replace("\"E\":1500", "\"E\":1"));
+        cliente.enviar("{\"e\":\"outboundAccountPosition\",\"E\":1,\"u\":1500,\"B\":[{\"a\":\"USDT\",\"f\":\"80\",\"l\":\"20\"}]}");
+        // La orden 1 sigue en la respuesta REST, pero este evento más antiguo no la toca
+        cliente.enviar(reporte(1, "CANCELED", 800).replace("\"E\":800", "\"E\":1"));
+        Thread.sleep(200);
+        cuentaBloqueada.countDown();
+
+        espejo.getListo().get(ESPERA_MS, TimeUnit.MILLISECONDS);
+        assertEquals(Decimal.parse("80"), espejo.getLibre("USDT"));
+        assertEquals(2, espejo.getOrdenesAbiertas().size());
+        assertTrue(espejo.getOrdenesAbiertas().stream().map(Order::getOrderId).anyMatch(id -> id == 3));
+    }
+
+    @Test
+    void unEventoInvalidoDuranteElArranqueSeDescarta() throws Exception {
+        cuentaBloqueada = new CountDownLatch(1);
+        espejo.iniciar();
+        Cliente cliente = ws.esperarCliente(ESPERA_MS);
+        esperar(() -> !http.peticiones("/api/v3/account").isEmpty());
+
+        // JSON válido que no se puede convertir en orden: queda en pendientes hasta el arranque
+        cliente.enviar(reporte(4, "NEW", 1500).replace("\"i\":4", "\"i\":\"no es un id\""));
+        cliente.enviar(reporte(5, "NEW", 1600));
+        Thread.sleep(200);
+        cuentaBloqueada.countDown();
+
+        espejo.getListo().get(ESPERA_MS, TimeUnit.MILLISECONDS);
+        assertEquals(2, espejo.getOrdenesAbiertas().size());
+        assertTrue(espejo.getOrdenesAbiertas().stream().map(Order::getOrderId).anyMatch(id -> id == 5));
+        // Arranque terminado: los eventos siguientes se aplican directamente
+        cliente.enviar(reporte(5, "FILLED", 1700));
+        esperar(() -> espejo.getOrdenesAbiertas().size() == 1);
+        assertEquals(1, http.peticiones("/api/v3/account").size());
+    }
+
+    @Test
+    void trasUnaCaidaVuelveACargarPorRest() throws Exception {
+        espejo.iniciar();
+        Cliente primero = ws.esperarCliente(ESPERA_MS);
+        espejo.getListo().get(ESPERA_MS, TimeUnit.MILLISECONDS);
+        esperar(() -> http.peticiones("/api/v3/account").size() == 1);
+
+        primero.cortar();
+        ws.esperarCliente(ESPERA_MS);
+        // Una caída puede haber perdido eventos: se vuelve a pedir cuenta y órdenes
+        esperar(() -> http.peticiones("/api/v3/account").size() == 2
+                && http.peticiones("/api/v3/openOrders").size() == 2);
+    }
+
+    @Test
+    void listenKeyCaducadoPideOtroYReconecta() throws Exception {
+        espejo.iniciar();
+        Cliente primero = ws.esperarCliente(ESPERA_MS);
+        espejo.getListo().get(ESPERA_MS, TimeUnit.MILLISECONDS);
+
+        primero.enviar("{\"e\":\"listenKeyExpired\",\"E\":3000,\"listenKey\":\"clave1\"}");
+        Cliente segundo = ws.esperarCliente(ESPERA_MS);
+        assertEquals("/ws/clave2", segundo.ruta());
+        assertEquals(2, http.peticiones("/api/v3/userDataStream").stream().filter(p -> p.metodo().equals("POST")).count());
+    }
+
+    private static String reporte(long orderId, String estado, long tiempo) {
+        return "{\"e\":\"executionReport\",\"E\":" + tiempo + ",\"s\":\"BTCUSDT\",\"c\":\"c" + orderId + "\",\"S\":\"BUY\","
+                + "\"o\":\"LIMIT\",\"f\":\"GTC\",\"q\":\"0.001\",\"p\":\"60000\",\"X\":\"" + estado + "\",\"i\":" + orderId
+                + ",\"z\":\"0\",\"Z\":\"0\",\"O\":" + tiempo + ",\"T\":" + tiempo + ",\"w\":true}";
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (!condicion.getAsBoolean()) {
+            if (System.currentTimeMillis() > limite) throw new AssertionError("Condición no cumplida en " + ESPERA_MS + " ms");
+            Thread.sleep(5);
+        }
+    }
+}